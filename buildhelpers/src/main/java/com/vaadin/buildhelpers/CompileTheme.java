@@ -33,6 +33,11 @@ import com.vaadin.sass.internal.ScssStylesheet;
 /**
  * Helper to combine css divided into separate per component dirs into one to
  * optimize http requests.
+ * <p>
+ * If a cache folder is given, a theme variant is only compiled if it or some
+ * file it imports has changed since the previous compilation, see
+ * {@link ThemeCompilationCache}. Use the <code>rebuild</code> option to compile
+ * everything.
  */
 public class CompileTheme {
 
@@ -48,6 +53,10 @@ public class CompileTheme {
                 "the folder containing the theme");
         options.addOption("v", "version", true,
                 "the Vaadin version to compile for");
+        options.addOption("c", "cache-folder", true,
+                "the folder to cache compilation results in, e.g. under target");
+        options.addOption("r", "rebuild", false,
+                "compile even if the theme has not changed");
         CommandLineParser parser = new PosixParser();
         CommandLine params = parser.parse(options, args);
         if (!params.hasOption("theme") || !params.hasOption("theme-folder")
@@ -60,10 +69,13 @@ public class CompileTheme {
         String themeName = params.getOptionValue("theme");
         String themeFolder = params.getOptionValue("theme-folder");
         String version = params.getOptionValue("version");
+        String cacheFolder = params.getOptionValue("cache-folder");
+        boolean rebuild = params.hasOption("rebuild");
 
         // Regular theme
         try {
-            processSassTheme(themeFolder, themeName, "styles", version);
+            processSassTheme(themeFolder, themeName, "styles", version,
+                    cacheFolder, rebuild);
             System.out.println(
                     "Compiling theme " + themeName + " styles successful");
         } catch (Exception e) {
@@ -77,7 +89,7 @@ public class CompileTheme {
                     + File.separator + "legacy-styles.scss";
             if (new File(legacyFile).exists()) {
                 processSassTheme(themeFolder, themeName, "legacy-styles",
-                        version);
+                        version, cacheFolder, rebuild);
                 System.out.println("Compiling theme " + themeName
                         + " legacy-styles successful");
             }
@@ -89,7 +101,8 @@ public class CompileTheme {
     }
 
     private static void processSassTheme(String themeFolder, String themeName,
-            String variant, String version) throws Exception {
+            String variant, String version, String cacheFolder,
+            boolean rebuild) throws Exception {
 
         StringBuffer cssHeader = new StringBuffer();
 
@@ -101,13 +114,27 @@ public class CompileTheme {
         // Process as SASS file
         String sassFile = stylesCssDir + variant + ".scss";
 
+        ThemeCompilationCache cache = null;
+        if (cacheFolder != null) {
+            cache = new ThemeCompilationCache(new File(cacheFolder,
+                    themeName + File.separator + variant + ".scss.cache"));
+            if (!rebuild && new File(stylesCssName).exists()
+                    && cache.isUpToDate(version)) {
+                System.out.println(stylesCssName + " is up to date");
+                return;
+            }
+            // Not valid for a partially written result
+            cache.delete();
+        }
+
         ScssStylesheet scss = ScssStylesheet.get(sassFile);
         if (scss == null) {
             throw new IllegalArgumentException(
                     "SASS file: " + sassFile + " not found");
         }
         scss.compile();
-        String filteredScss = scss.printState().replace("@version@", version);
+        String css = scss.printState();
+        String filteredScss = css.replace("@version@", version);
 
         BufferedWriter out = new BufferedWriter(new FileWriter(stylesCssName));
         out.write(cssHeader.toString());
@@ -133,6 +160,10 @@ public class CompileTheme {
             }
         }
 
+        if (cache != null) {
+            cache.write(version, scss.getSourceUris());
+        }
+
     }
 
     private static void createSprites(String themeFolder, String themeName)
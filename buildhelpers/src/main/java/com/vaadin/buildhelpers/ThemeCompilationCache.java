@@ -0,0 +1,162 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.buildhelpers;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Cache of a compiled SCSS file, used by {@link CompileTheme} for skipping the
+ * compilation of theme outputs that have not changed since the previous build.
+ * <p>
+ * The cache is a properties file that records the Vaadin version, all files
+ * that were imported when compiling the SCSS file and the newest modification
+ * time among them. It contains the absolute paths of the imported files, so
+ * it should be kept in a build output folder rather than next to the theme
+ * sources, and it is only valid on the machine and in the checkout that wrote
+ * it.
+ * <p>
+ * The theme modules of the framework build are compiled with the
+ * <code>compile-theme</code> goal of <code>vaadin-maven-plugin</code> or with
+ * the SASS compiler directly, and do not use this cache.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public class ThemeCompilationCache {
+
+    private static final String VERSION = "version";
+
+    private static final String TIMESTAMP = "timestamp";
+
+    private static final String IMPORT_PREFIX = "import.";
+
+    private final File cacheFile;
+
+    /**
+     * Creates a cache stored in the given file.
+     *
+     * @param cacheFile
+     *            the file to store the cache in, not inside the theme sources
+     */
+    public ThemeCompilationCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Checks whether the cache is up to date, i.e. it has been written for the
+     * given version and none of the imported files has been modified since.
+     *
+     * @param version
+     *            the Vaadin version the theme is compiled for
+     * @return <code>true</code> if the compilation can be skipped,
+     *         <code>false</code> otherwise
+     */
+    public boolean isUpToDate(String version) {
+        if (!cacheFile.exists()) {
+            return false;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = new FileInputStream(cacheFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            System.err.println("Could not read " + cacheFile + ": " + e);
+            return false;
+        }
+
+        String timestamp = properties.getProperty(TIMESTAMP);
+        if (!version.equals(properties.getProperty(VERSION))
+                || timestamp == null) {
+            return false;
+        }
+        List<String> imports = new ArrayList<>();
+        for (int i = 0; properties.containsKey(IMPORT_PREFIX + i); i++) {
+            imports.add(properties.getProperty(IMPORT_PREFIX + i));
+        }
+
+        long lastModified = getLastModified(imports);
+        return !imports.isEmpty() && lastModified != -1
+                && timestamp.equals(Long.toString(lastModified));
+    }
+
+    /**
+     * Writes the cache after compiling the SCSS file.
+     *
+     * @param version
+     *            the Vaadin version the theme was compiled for
+     * @param sourceUris
+     *            the files that were imported during the compilation
+     * @throws IOException
+     *             if writing the cache fails
+     */
+    public void write(String version, Collection<String> sourceUris)
+            throws IOException {
+        List<String> imports = new ArrayList<>();
+        for (String uri : sourceUris) {
+            File file = new File(uri);
+            imports.add(file.exists() ? file.getAbsolutePath() : uri);
+        }
+
+        Properties properties = new Properties();
+        properties.setProperty(VERSION, version);
+        properties.setProperty(TIMESTAMP,
+                Long.toString(getLastModified(imports)));
+        for (int i = 0; i < imports.size(); i++) {
+            properties.setProperty(IMPORT_PREFIX + i, imports.get(i));
+        }
+
+        File folder = cacheFile.getAbsoluteFile().getParentFile();
+        if (!folder.isDirectory() && !folder.mkdirs()) {
+            throw new IOException("Could not create " + folder);
+        }
+        try (OutputStream out = new FileOutputStream(cacheFile)) {
+            properties.store(out, "Files imported by the compiled theme");
+        }
+    }
+
+    /**
+     * Removes the cache, e.g. when the compilation fails.
+     */
+    public void delete() {
+        cacheFile.delete();
+    }
+
+    /**
+     * Gets the newest modification time of the given files.
+     *
+     * @return the modification time, or <code>-1</code> if some file does not
+     *         exist
+     */
+    private static long getLastModified(List<String> files) {
+        long newest = 0;
+        for (String path : files) {
+            File file = new File(path);
+            if (!file.exists()) {
+                return -1;
+            }
+            newest = Math.max(newest, file.lastModified());
+        }
+        return newest;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.buildhelpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ThemeCompilationCacheTest {
+
+    private static final String VERSION = "8.2.0";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File styles;
+    private File mixins;
+    private File cacheFile;
+    private ThemeCompilationCache cache;
+
+    @Before
+    public void setUp() throws IOException {
+        styles = folder.newFile("styles.scss");
+        mixins = folder.newFile("mixins.scss");
+        styles.setLastModified(1000000000000L);
+        mixins.setLastModified(1000000001000L);
+        cacheFile = new File(folder.newFolder("cache"), "styles.scss.cache");
+        cache = new ThemeCompilationCache(cacheFile);
+    }
+
+    @Test
+    public void noCache_notUpToDate() {
+        Assert.assertFalse(cache.isUpToDate(VERSION));
+    }
+
+    @Test
+    public void written_upToDate() throws IOException {
+        write();
+
+        Assert.assertTrue(cache.isUpToDate(VERSION));
+        Assert.assertTrue(
+                new ThemeCompilationCache(cacheFile).isUpToDate(VERSION));
+    }
+
+    @Test
+    public void otherVersion_notUpToDate() throws IOException {
+        write();
+
+        Assert.assertFalse(cache.isUpToDate("8.3.0"));
+    }
+
+    @Test
+    public void importedFileModified_notUpToDate() throws IOException {
+        write();
+        mixins.setLastModified(1000000002000L);
+
+        Assert.assertFalse(cache.isUpToDate(VERSION));
+    }
+
+    @Test
+    public void importedFileRemoved_notUpToDate() throws IOException {
+        write();
+        mixins.delete();
+
+        Assert.assertFalse(cache.isUpToDate(VERSION));
+    }
+
+    @Test
+    public void deleted_notUpToDate() throws IOException {
+        write();
+        cache.delete();
+
+        Assert.assertFalse(cacheFile.exists());
+        Assert.assertFalse(cache.isUpToDate(VERSION));
+    }
+
+    @Test
+    public void pathsWithSpecialCharacters_upToDate() throws IOException {
+        File special = folder.newFile("a=b c#d!.scss");
+        cache.write(VERSION, Arrays.asList(styles.getPath(),
+                special.getPath()));
+
+        Assert.assertTrue(cache.isUpToDate(VERSION));
+    }
+
+    @Test
+    public void cacheFolderCreated() throws IOException {
+        cache = new ThemeCompilationCache(
+                new File(folder.getRoot(), "missing/valo/styles.scss.cache"));
+        write();
+
+        Assert.assertTrue(cache.isUpToDate(VERSION));
+    }
+
+    private void write() throws IOException {
+        cache.write(VERSION,
+                Arrays.asList(styles.getPath(), mixins.getPath()));
+    }
+}
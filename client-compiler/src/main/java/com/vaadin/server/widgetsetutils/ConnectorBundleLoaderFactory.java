@@ -15,7 +15,12 @@
  */
 package com.vaadin.server.widgetsetutils;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -23,6 +28,8 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -31,8 +38,11 @@ import java.util.TreeMap;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.core.client.RunAsyncCallback;
-import com.google.gwt.core.ext.Generator;
+import com.google.gwt.core.ext.CachedGeneratorResult;
 import com.google.gwt.core.ext.GeneratorContext;
+import com.google.gwt.core.ext.IncrementalGenerator;
+import com.google.gwt.core.ext.RebindMode;
+import com.google.gwt.core.ext.RebindResult;
 import com.google.gwt.core.ext.TreeLogger;
 import com.google.gwt.core.ext.TreeLogger.Type;
 import com.google.gwt.core.ext.UnableToCompleteException;
@@ -48,7 +58,9 @@ import com.google.gwt.user.rebind.SourceWriter;
 import com.vaadin.client.JsArrayObject;
 import com.vaadin.client.ServerConnector;
 import com.vaadin.client.annotations.OnStateChange;
+import com.vaadin.client.communication.JSONSerializer;
 import com.vaadin.client.communication.JsonDecoder;
+import com.vaadin.client.metadata.AsyncBundleLoader;
 import com.vaadin.client.metadata.ConnectorBundleLoader;
 import com.vaadin.client.metadata.ConnectorBundleLoader.CValUiInfo;
 import com.vaadin.client.metadata.InvokationHandler;
@@ -59,6 +71,8 @@ import com.vaadin.client.metadata.TypeDataStore;
 import com.vaadin.client.metadata.TypeDataStore.MethodAttribute;
 import com.vaadin.client.ui.UnknownComponentConnector;
 import com.vaadin.client.ui.UnknownExtensionConnector;
+import com.vaadin.server.communication.ConnectorUsageProfile;
+import com.vaadin.server.widgetsetutils.metadata.BundleSignature;
 import com.vaadin.server.widgetsetutils.metadata.ClientRpcVisitor;
 import com.vaadin.server.widgetsetutils.metadata.ConnectorBundle;
 import com.vaadin.server.widgetsetutils.metadata.ConnectorInitVisitor;
@@ -81,7 +95,7 @@ import com.vaadin.tools.CvalChecker;
 import com.vaadin.tools.CvalChecker.InvalidCvalException;
 import com.vaadin.tools.ReportUsage;
 
-public class ConnectorBundleLoaderFactory extends Generator {
+public class ConnectorBundleLoaderFactory extends IncrementalGenerator {
     /**
      * Special SourceWriter that approximates the number of written bytes to
      * support splitting long methods into shorter chunks to avoid hitting the
@@ -225,11 +239,32 @@ public class ConnectorBundleLoaderFactory extends Generator {
         ReportUsage.checkForUpdatesInBackgroundThread();
     }
 
+    /**
+     * The system property that sets the path of a connector usage profile
+     * recorded by the server. When set, the profile decides the load style of
+     * the connectors instead of their {@link Connect} annotations.
+     *
+     * @see ConnectorUsageProfile
+     */
+    private static final String USAGE_PROFILE_PROPERTY = "vConnectorUsageProfile";
+
+    private static final String BUNDLE_SIGNATURES_KEY = "bundleSignatures";
+
+    private static final String CVAL_KEY = "cvals";
+
     private CvalAddonsChecker cvalChecker = new CvalAddonsChecker();
 
+    private ConnectorUsageProfile usageProfile;
+
     @Override
-    public String generate(TreeLogger logger, GeneratorContext context,
-            String typeName) throws UnableToCompleteException {
+    public long getVersionId() {
+        return 1;
+    }
+
+    @Override
+    public RebindResult generateIncrementally(TreeLogger logger,
+            GeneratorContext context, String typeName)
+            throws UnableToCompleteException {
         TypeOracle typeOracle = context.getTypeOracle();
 
         try {
@@ -237,9 +272,8 @@ public class ConnectorBundleLoaderFactory extends Generator {
             String packageName = classType.getPackage().getName();
             String className = classType.getSimpleSourceName() + "Impl";
 
-            generateClass(logger, context, packageName, className, typeName);
-
-            return packageName + "." + className;
+            return generateClass(logger, context, packageName, className,
+                    typeName);
         } catch (UnableToCompleteException e) {
             // Just rethrow
             throw e;
@@ -249,14 +283,10 @@ public class ConnectorBundleLoaderFactory extends Generator {
         }
     }
 
-    private void generateClass(TreeLogger logger, GeneratorContext context,
-            String packageName, String className, String requestedType)
-            throws Exception {
-        PrintWriter printWriter = context.tryCreate(logger, packageName,
-                className);
-        if (printWriter == null) {
-            return;
-        }
+    private RebindResult generateClass(TreeLogger logger,
+            GeneratorContext context, String packageName, String className,
+            String requestedType) throws Exception {
+        String qualifiedName = packageName + "." + className;
 
         List<CValUiInfo> cvalInfos = null;
         try {
@@ -274,9 +304,67 @@ public class ConnectorBundleLoaderFactory extends Generator {
             System.exit(1);
             throw new UnableToCompleteException();
         }
+        String cvalKey = getCvalKey(cvalInfos);
+
+        TypeOracle typeOracle = context.getTypeOracle();
+        Map<String, Collection<JClassType>> bundleTypes = getBundleTypes(
+                logger, typeOracle);
+        Map<String, String> bundleRoots = new HashMap<>();
+        for (Entry<String, Collection<JClassType>> entry : bundleTypes
+                .entrySet()) {
+            bundleRoots.put(entry.getKey(),
+                    BundleSignature.getRoots(entry.getValue()));
+        }
+        // Custom serializers are used by all bundles
+        Collection<JClassType> customSerializers = Arrays.asList(typeOracle
+                .getType(JSONSerializer.class.getName()).getSubtypes());
+        bundleRoots.put(ConnectorBundleLoader.EAGER_BUNDLE_NAME,
+                bundleRoots.get(ConnectorBundleLoader.EAGER_BUNDLE_NAME) + ";"
+                        + BundleSignature.getRoots(customSerializers));
+
+        Map<String, String> typeHashes = new HashMap<>();
+        CachedGeneratorResult cachedResult = context
+                .isGeneratorResultCachingEnabled()
+                        ? context.getCachedGeneratorResult() : null;
+        Map<String, BundleSignature> cachedSignatures = getCachedSignatures(
+                cachedResult);
+        Set<String> unchanged = findUnchangedBundles(logger, typeOracle,
+                className, cachedResult, cachedSignatures, bundleRoots,
+                typeHashes);
+
+        if (cachedResult != null && unchanged.equals(bundleTypes.keySet())
+                && new ArrayList<>(cachedSignatures.keySet())
+                        .equals(new ArrayList<>(bundleTypes.keySet()))
+                && cvalKey.equals(cachedResult.getClientData(CVAL_KEY))
+                && cachedResult.isTypeCached(qualifiedName)) {
+            logger.log(Type.INFO,
+                    "Reusing all connector bundles of the previous compilation");
+            RebindResult result = new RebindResult(RebindMode.USE_ALL_CACHED,
+                    qualifiedName);
+            result.putClientData(BUNDLE_SIGNATURES_KEY,
+                    new LinkedHashMap<>(cachedSignatures));
+            result.putClientData(CVAL_KEY, cvalKey);
+            return result;
+        }
 
-        List<ConnectorBundle> bundles = buildBundles(logger,
-                context.getTypeOracle());
+        PrintWriter printWriter = context.tryCreate(logger, packageName,
+                className);
+        if (printWriter == null) {
+            return new RebindResult(RebindMode.USE_ALL_NEW_WITH_NO_CACHING,
+                    qualifiedName);
+        }
+
+        for (Iterator<String> iterator = unchanged.iterator(); iterator
+                .hasNext();) {
+            String name = iterator.next();
+            if (!context.tryReuseTypeFromCache(
+                    getBundleClassName(className, name))) {
+                iterator.remove();
+            }
+        }
+
+        List<ConnectorBundle> bundles = buildBundles(logger, typeOracle,
+                bundleTypes, unchanged);
 
         ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(
                 packageName, className);
@@ -287,127 +375,268 @@ public class ConnectorBundleLoaderFactory extends Generator {
         w.println("public void init() {");
         w.indent();
 
+        for (String name : bundleTypes.keySet()) {
+            w.println("addAsyncBlockLoader(new %s());",
+                    getBundleClassName(className, name));
+        }
+
+        if (cvalInfos != null && !cvalInfos.isEmpty()) {
+            w.println("{");
+            for (CValUiInfo c : cvalInfos) {
+                if ("evaluation".equals(c.type)) {
+                    w.println("cvals.add(new CValUiInfo(\"" + c.product
+                            + "\", \"" + c.version + "\", \"" + c.widgetset
+                            + "\", null));");
+                }
+            }
+            w.println("}");
+        }
+
+        w.outdent();
+        w.println("}");
+
+        Map<String, BundleSignature> signatures = new HashMap<>();
+        for (String name : unchanged) {
+            signatures.put(name, cachedSignatures.get(name));
+        }
         for (ConnectorBundle bundle : bundles) {
+            String name = bundle.getName();
+            if (unchanged.contains(name)) {
+                // Only populated for use as the previous bundle
+                continue;
+            }
             detectBadProperties(bundle, logger);
+            generateBundleClass(logger, context, packageName,
+                    getBundleClassName(className, name), bundle);
 
-            String name = bundle.getName();
             boolean isEager = name
                     .equals(ConnectorBundleLoader.EAGER_BUNDLE_NAME);
+            signatures.put(name,
+                    BundleSignature.create(bundleRoots.get(name), bundle,
+                            isEager ? customSerializers
+                                    : Collections.<JClassType> emptyList(),
+                            typeHashes));
+        }
 
-            w.print("addAsyncBlockLoader(new AsyncBundleLoader(\"");
-            w.print(escape(name));
-            w.print("\", ");
+        w.commit(logger);
 
-            w.print("new String[] {");
-            for (Entry<JClassType, Set<String>> entry : bundle.getIdentifiers()
-                    .entrySet()) {
-                Set<String> identifiers = entry.getValue();
-                for (String id : identifiers) {
-                    w.print("\"");
-                    w.print(escape(id));
-                    w.print("\",");
-                }
+        RebindMode mode;
+        if (!context.isGeneratorResultCachingEnabled()) {
+            mode = RebindMode.USE_ALL_NEW_WITH_NO_CACHING;
+        } else if (unchanged.isEmpty()) {
+            mode = RebindMode.USE_ALL_NEW;
+        } else {
+            logger.log(Type.INFO, "Reusing " + unchanged.size() + " of "
+                    + bundleTypes.size()
+                    + " connector bundles of the previous compilation");
+            mode = RebindMode.USE_PARTIAL_CACHED;
+        }
+        RebindResult result = new RebindResult(mode, qualifiedName);
+        // In the same order as the bundles in init()
+        LinkedHashMap<String, BundleSignature> orderedSignatures = new LinkedHashMap<>();
+        for (String name : bundleTypes.keySet()) {
+            orderedSignatures.put(name, signatures.get(name));
+        }
+        result.putClientData(BUNDLE_SIGNATURES_KEY, orderedSignatures);
+        result.putClientData(CVAL_KEY, cvalKey);
+        return result;
+    }
+
+    /**
+     * Finds the bundles whose generated classes from the previous compilation
+     * can be reused. Deferred and lazy bundles leave out everything that is
+     * already in the eager bundle, so they can only be reused if the eager
+     * bundle is unchanged.
+     */
+    static Set<String> findUnchangedBundles(TreeLogger logger,
+            TypeOracle typeOracle, String className,
+            CachedGeneratorResult cachedResult,
+            Map<String, BundleSignature> cachedSignatures,
+            Map<String, String> bundleRoots, Map<String, String> typeHashes) {
+        Set<String> unchanged = new HashSet<>();
+        if (cachedResult == null || cachedSignatures == null) {
+            return unchanged;
+        }
+        String eagerName = ConnectorBundleLoader.EAGER_BUNDLE_NAME;
+        if (!isUnchanged(typeOracle, className, cachedResult,
+                cachedSignatures, bundleRoots, typeHashes, eagerName)) {
+            logger.log(Type.INFO,
+                    "The eager bundle has changed, generating all bundles");
+            return unchanged;
+        }
+        for (String name : bundleRoots.keySet()) {
+            if (isUnchanged(typeOracle, className, cachedResult,
+                    cachedSignatures, bundleRoots, typeHashes, name)) {
+                unchanged.add(name);
+            } else {
+                logger.log(Type.TRACE, "The " + name.replaceAll("^_*", "")
+                        + " bundle has changed");
             }
-            w.println("}) {");
-            w.indent();
+        }
+        return unchanged;
+    }
 
-            w.print("protected void load(final ");
-            w.print(TypeDataStore.class.getName());
-            w.println(" store) {");
-            w.indent();
+    private static boolean isUnchanged(TypeOracle typeOracle,
+            String className, CachedGeneratorResult cachedResult,
+            Map<String, BundleSignature> cachedSignatures,
+            Map<String, String> bundleRoots, Map<String, String> typeHashes,
+            String name) {
+        BundleSignature signature = cachedSignatures.get(name);
+        return signature != null
+                && cachedResult
+                        .isTypeCached(getBundleClassName(className, name))
+                && signature.matches(bundleRoots.get(name), typeOracle,
+                        typeHashes);
+    }
 
-            if (!isEager) {
-                w.print(GWT.class.getName());
-                w.print(".runAsync(");
+    @SuppressWarnings("unchecked")
+    private static Map<String, BundleSignature> getCachedSignatures(
+            CachedGeneratorResult cachedResult) {
+        if (cachedResult == null) {
+            return null;
+        }
+        Object signatures = cachedResult.getClientData(BUNDLE_SIGNATURES_KEY);
+        if (signatures instanceof Map) {
+            return (Map<String, BundleSignature>) signatures;
+        }
+        return null;
+    }
+
+    private static String getCvalKey(List<CValUiInfo> cvalInfos) {
+        StringBuilder key = new StringBuilder();
+        if (cvalInfos != null) {
+            for (CValUiInfo c : cvalInfos) {
+                key.append(c.product).append(' ').append(c.version)
+                        .append(' ').append(c.widgetset).append(' ')
+                        .append(c.type).append(';');
             }
+        }
+        return key.toString();
+    }
 
-            w.println("new %s() {", RunAsyncCallback.class.getName());
-            w.indent();
+    private static String getBundleClassName(String className,
+            String bundleName) {
+        return className + "_" + bundleName.replaceAll("[^A-Za-z0-9]", "_");
+    }
 
-            w.println("public void onSuccess() {");
-            w.indent();
+    private void generateBundleClass(TreeLogger logger,
+            GeneratorContext context, String packageName, String className,
+            ConnectorBundle bundle) throws UnableToCompleteException {
+        PrintWriter printWriter = context.tryCreate(logger, packageName,
+                className);
+        if (printWriter == null) {
+            return;
+        }
 
-            w.println("load();");
-            w.println("%s.get().setLoaded(getName());",
-                    ConnectorBundleLoader.class.getName());
+        ClassSourceFileComposerFactory composer = new ClassSourceFileComposerFactory(
+                packageName, className);
+        composer.setSuperclass(AsyncBundleLoader.class.getName());
 
-            // Close onSuccess method
-            w.outdent();
-            w.println("}");
+        SourceWriter w = composer.createSourceWriter(context, printWriter);
 
-            w.println("private void load() {");
-            w.indent();
+        String name = bundle.getName();
+        boolean isEager = name.equals(ConnectorBundleLoader.EAGER_BUNDLE_NAME);
 
-            String loadNativeJsBundle = "loadJsBundle";
-            printBundleData(logger, w, bundle, loadNativeJsBundle);
+        w.println("public %s() {", className);
+        w.indent();
 
-            // Close load method
-            w.outdent();
-            w.println("}");
+        w.print("super(\"");
+        w.print(escape(name));
+        w.print("\", ");
 
-            // Separate method for loading native JS stuff (e.g. callbacks)
-            String loadNativeJsMethodName = "loadNativeJs";
-            // To support fields of type long (#13692)
-            w.println("@com.google.gwt.core.client.UnsafeNativeLong");
-            w.println("private native void %s(%s store) /*-{",
-                    loadNativeJsMethodName, TypeDataStore.class.getName());
-            w.indent();
-            List<String> jsMethodNames = printJsBundleData(logger, w, bundle,
-                    loadNativeJsMethodName);
+        w.print("new String[] {");
+        for (Entry<JClassType, Set<String>> entry : bundle.getIdentifiers()
+                .entrySet()) {
+            Set<String> identifiers = entry.getValue();
+            for (String id : identifiers) {
+                w.print("\"");
+                w.print(escape(id));
+                w.print("\",");
+            }
+        }
+        w.println("});");
 
-            w.outdent();
-            w.println("}-*/;");
+        // Close constructor
+        w.outdent();
+        w.println("}");
 
-            // Call all generated native method inside one Java method to avoid
-            // refercences inside native methods to each other
-            w.println("private void %s(%s store) {", loadNativeJsBundle,
-                    TypeDataStore.class.getName());
-            w.indent();
-            printLoadJsBundleData(w, loadNativeJsBundle, jsMethodNames);
-            w.outdent();
-            w.println("}");
+        w.print("protected void load(final ");
+        w.print(TypeDataStore.class.getName());
+        w.println(" store) {");
+        w.indent();
 
-            // onFailure method declaration starts
-            w.println("public void onFailure(Throwable reason) {");
-            w.indent();
+        if (!isEager) {
+            w.print(GWT.class.getName());
+            w.print(".runAsync(");
+        }
 
-            w.println("%s.get().setLoadFailure(getName(), reason);",
-                    ConnectorBundleLoader.class.getName());
+        w.println("new %s() {", RunAsyncCallback.class.getName());
+        w.indent();
 
-            w.outdent();
-            w.println("}");
+        w.println("public void onSuccess() {");
+        w.indent();
 
-            // Close new RunAsyncCallback() {}
-            w.outdent();
-            w.print("}");
+        w.println("load();");
+        w.println("%s.get().setLoaded(getName());",
+                ConnectorBundleLoader.class.getName());
 
-            if (isEager) {
-                w.println(".onSuccess();");
-            } else {
-                w.println(");");
-            }
+        // Close onSuccess method
+        w.outdent();
+        w.println("}");
 
-            // Close load method
-            w.outdent();
-            w.println("}");
+        w.println("private void load() {");
+        w.indent();
 
-            // Close add(new ...
-            w.outdent();
-            w.println("});");
-        }
+        String loadNativeJsBundle = "loadJsBundle";
+        printBundleData(logger, w, bundle, loadNativeJsBundle);
 
-        if (cvalInfos != null && !cvalInfos.isEmpty()) {
-            w.println("{");
-            for (CValUiInfo c : cvalInfos) {
-                if ("evaluation".equals(c.type)) {
-                    w.println("cvals.add(new CValUiInfo(\"" + c.product
-                            + "\", \"" + c.version + "\", \"" + c.widgetset
-                            + "\", null));");
-                }
-            }
-            w.println("}");
+        // Close load method
+        w.outdent();
+        w.println("}");
+
+        // Separate method for loading native JS stuff (e.g. callbacks)
+        String loadNativeJsMethodName = "loadNativeJs";
+        // To support fields of type long (#13692)
+        w.println("@com.google.gwt.core.client.UnsafeNativeLong");
+        w.println("private native void %s(%s store) /*-{",
+                loadNativeJsMethodName, TypeDataStore.class.getName());
+        w.indent();
+        List<String> jsMethodNames = printJsBundleData(logger, w, bundle,
+                loadNativeJsMethodName);
+
+        w.outdent();
+        w.println("}-*/;");
+
+        // Call all generated native method inside one Java method to avoid
+        // refercences inside native methods to each other
+        w.println("private void %s(%s store) {", loadNativeJsBundle,
+                TypeDataStore.class.getName());
+        w.indent();
+        printLoadJsBundleData(w, loadNativeJsBundle, jsMethodNames);
+        w.outdent();
+        w.println("}");
+
+        // onFailure method declaration starts
+        w.println("public void onFailure(Throwable reason) {");
+        w.indent();
+
+        w.println("%s.get().setLoadFailure(getName(), reason);",
+                ConnectorBundleLoader.class.getName());
+
+        w.outdent();
+        w.println("}");
+
+        // Close new RunAsyncCallback() {}
+        w.outdent();
+        w.print("}");
+
+        if (isEager) {
+            w.println(".onSuccess();");
+        } else {
+            w.println(");");
         }
 
+        // Close load method
         w.outdent();
         w.println("}");
 
@@ -1094,8 +1323,8 @@ public class ConnectorBundleLoaderFactory extends Generator {
         }
     }
 
-    private List<ConnectorBundle> buildBundles(TreeLogger logger,
-            TypeOracle typeOracle)
+    private Map<String, Collection<JClassType>> getBundleTypes(
+            TreeLogger logger, TypeOracle typeOracle)
             throws NotFoundException, UnableToCompleteException {
 
         Map<LoadStyle, Collection<JClassType>> connectorsByLoadStyle = new HashMap<>();
@@ -1103,6 +1332,8 @@ public class ConnectorBundleLoaderFactory extends Generator {
             connectorsByLoadStyle.put(loadStyle, new ArrayList<JClassType>());
         }
 
+        usageProfile = readUsageProfile(logger);
+
         // Find all types with a valid mapping
         Collection<JClassType> selectedTypes = getConnectorsForWidgetset(logger,
                 typeOracle);
@@ -1115,47 +1346,28 @@ public class ConnectorBundleLoaderFactory extends Generator {
             }
         }
 
-        List<ConnectorBundle> bundles = new ArrayList<>();
-
-        Collection<TypeVisitor> visitors = getVisitors(typeOracle);
-
-        ConnectorBundle eagerBundle = new ConnectorBundle(
-                ConnectorBundleLoader.EAGER_BUNDLE_NAME, visitors, typeOracle);
-        TreeLogger eagerLogger = logger.branch(Type.TRACE,
-                "Populating eager bundle");
+        Map<String, Collection<JClassType>> bundleTypes = new LinkedHashMap<>();
 
         // Eager connectors and all RPC interfaces are loaded by default
-        eagerBundle.processTypes(eagerLogger,
+        List<JClassType> eagerTypes = new ArrayList<>(
                 connectorsByLoadStyle.get(LoadStyle.EAGER));
-        eagerBundle.processType(eagerLogger, typeOracle
+        eagerTypes.add(typeOracle
                 .findType(UnknownComponentConnector.class.getCanonicalName()));
-        eagerBundle.processType(eagerLogger, typeOracle
+        eagerTypes.add(typeOracle
                 .findType(UnknownExtensionConnector.class.getCanonicalName()));
-        eagerBundle.processSubTypes(eagerLogger,
-                typeOracle.getType(ClientRpc.class.getName()));
-        eagerBundle.processSubTypes(eagerLogger,
-                typeOracle.getType(ServerRpc.class.getName()));
+        eagerTypes.addAll(Arrays.asList(
+                typeOracle.getType(ClientRpc.class.getName()).getSubtypes()));
+        eagerTypes.addAll(Arrays.asList(
+                typeOracle.getType(ServerRpc.class.getName()).getSubtypes()));
+        bundleTypes.put(ConnectorBundleLoader.EAGER_BUNDLE_NAME, eagerTypes);
 
-        bundles.add(eagerBundle);
-
-        ConnectorBundle deferredBundle = new ConnectorBundle(
-                ConnectorBundleLoader.DEFERRED_BUNDLE_NAME, eagerBundle);
-        TreeLogger deferredLogger = logger.branch(Type.TRACE,
-                "Populating deferred bundle");
-        deferredBundle.processTypes(deferredLogger,
+        bundleTypes.put(ConnectorBundleLoader.DEFERRED_BUNDLE_NAME,
                 connectorsByLoadStyle.get(LoadStyle.DEFERRED));
 
-        bundles.add(deferredBundle);
-
         Collection<JClassType> lazy = connectorsByLoadStyle.get(LoadStyle.LAZY);
         for (JClassType type : lazy) {
-            ConnectorBundle bundle = new ConnectorBundle(
-                    type.getQualifiedSourceName(), eagerBundle);
-            TreeLogger subLogger = logger.branch(Type.TRACE,
-                    "Populating " + type.getName() + " bundle");
-            bundle.processType(subLogger, type);
-
-            bundles.add(bundle);
+            bundleTypes.put(type.getQualifiedSourceName(),
+                    Collections.singletonList(type));
         }
 
         Collection<JClassType> none = connectorsByLoadStyle.get(LoadStyle.NONE);
@@ -1164,9 +1376,75 @@ public class ConnectorBundleLoaderFactory extends Generator {
                     "Ignoring " + type.getName() + " with LoadStyle.NONE");
         }
 
+        return bundleTypes;
+    }
+
+    private List<ConnectorBundle> buildBundles(TreeLogger logger,
+            TypeOracle typeOracle,
+            Map<String, Collection<JClassType>> bundleTypes,
+            Set<String> unchanged)
+            throws NotFoundException, UnableToCompleteException {
+        List<ConnectorBundle> bundles = new ArrayList<>();
+        if (unchanged.containsAll(bundleTypes.keySet())) {
+            return bundles;
+        }
+
+        Collection<TypeVisitor> visitors = getVisitors(typeOracle);
+
+        // The eager bundle is needed even if it is unchanged, since the other
+        // bundles leave out everything that it contains
+        String eagerName = ConnectorBundleLoader.EAGER_BUNDLE_NAME;
+        ConnectorBundle eagerBundle = new ConnectorBundle(eagerName, visitors,
+                typeOracle);
+        TreeLogger eagerLogger = logger.branch(Type.TRACE,
+                "Populating eager bundle");
+        eagerBundle.processTypes(eagerLogger, bundleTypes.get(eagerName));
+
+        bundles.add(eagerBundle);
+
+        Map<ConnectorBundle, Collection<JClassType>> otherBundles = new LinkedHashMap<>();
+        for (Entry<String, Collection<JClassType>> entry : bundleTypes
+                .entrySet()) {
+            String name = entry.getKey();
+            if (!name.equals(eagerName) && !unchanged.contains(name)) {
+                ConnectorBundle bundle = new ConnectorBundle(name,
+                        eagerBundle);
+                otherBundles.put(bundle, entry.getValue());
+                bundles.add(bundle);
+            }
+        }
+        processBundles(logger, otherBundles);
+
         return bundles;
     }
 
+    /**
+     * Populates bundles that only depend on the eager bundle. The bundles are
+     * populated one at a time, as the type oracle and the tree loggers of the
+     * compiler are not thread safe.
+     */
+    private void processBundles(TreeLogger logger,
+            Map<ConnectorBundle, Collection<JClassType>> bundles)
+            throws UnableToCompleteException {
+        for (Entry<ConnectorBundle, Collection<JClassType>> entry : bundles
+                .entrySet()) {
+            ConnectorBundle bundle = entry.getKey();
+            bundle.processTypes(getPopulatingLogger(logger, bundle),
+                    entry.getValue());
+        }
+    }
+
+    private static TreeLogger getPopulatingLogger(TreeLogger logger,
+            ConnectorBundle bundle) {
+        String name = bundle.getName();
+        if (name.equals(ConnectorBundleLoader.DEFERRED_BUNDLE_NAME)) {
+            return logger.branch(Type.TRACE, "Populating deferred bundle");
+        }
+        return logger.branch(Type.TRACE,
+                "Populating " + name.substring(name.lastIndexOf('.') + 1)
+                        + " bundle");
+    }
+
     /**
      * Returns the connector types that should be included in the widgetset.
      * This method can be overridden to create a widgetset only containing
@@ -1283,9 +1561,62 @@ public class ConnectorBundleLoaderFactory extends Generator {
         return visitors;
     }
 
+    /**
+     * Gets the load style of a connector. The default implementation uses the
+     * {@link Connect} annotation of the connector, unless a connector usage
+     * profile is given using the {@value #USAGE_PROFILE_PROPERTY} system
+     * property. With a profile, connectors used in the initial response of
+     * most UIs are loaded eagerly, connectors used by many UIs are deferred
+     * and other connectors used by some UI are loaded lazily. Connectors that
+     * the profile has no data on keep the load style of the annotation, as do
+     * connectors with {@link LoadStyle#NONE}, which are never included.
+     *
+     * @param connectorType
+     *            the connector type
+     * @return the load style of the connector, or <code>null</code> to not
+     *         include the connector in the widgetset
+     */
     protected LoadStyle getLoadStyle(JClassType connectorType) {
         Connect annotation = connectorType.getAnnotation(Connect.class);
-        return annotation.loadStyle();
+        String serverType = annotation.value().getCanonicalName();
+        if (usageProfile == null || annotation.loadStyle() == LoadStyle.NONE
+                || !usageProfile.hasData(serverType)) {
+            return annotation.loadStyle();
+        }
+        switch (usageProfile.getUsage(serverType)) {
+        case STARTUP:
+            return LoadStyle.EAGER;
+        case COMMON:
+            return LoadStyle.DEFERRED;
+        default:
+            return LoadStyle.LAZY;
+        }
+    }
+
+    private static ConnectorUsageProfile readUsageProfile(TreeLogger logger)
+            throws UnableToCompleteException {
+        String path = System.getProperty(USAGE_PROFILE_PROPERTY);
+        if (path == null || path.isEmpty()) {
+            return null;
+        }
+        ConnectorUsageProfile profile;
+        try (Reader reader = new InputStreamReader(new FileInputStream(path),
+                StandardCharsets.UTF_8)) {
+            profile = ConnectorUsageProfile.read(reader);
+        } catch (IOException e) {
+            logger.log(Type.ERROR,
+                    "Could not read connector usage profile " + path, e);
+            throw new UnableToCompleteException();
+        }
+        if (profile.getUICount() == 0) {
+            logger.log(Type.WARN, "Connector usage profile " + path
+                    + " has no recorded UIs, using @Connect load styles");
+            return null;
+        }
+        logger.log(Type.INFO,
+                "Splitting connector bundles based on " + profile.getUICount()
+                        + " UIs recorded in " + path);
+        return profile;
     }
 
     public static String getBoxedTypeName(JType type) {
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.widgetsetutils.metadata;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import com.google.gwt.core.ext.typeinfo.HasAnnotations;
+import com.google.gwt.core.ext.typeinfo.JAbstractMethod;
+import com.google.gwt.core.ext.typeinfo.JArrayType;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.JField;
+import com.google.gwt.core.ext.typeinfo.JMethod;
+import com.google.gwt.core.ext.typeinfo.JParameter;
+import com.google.gwt.core.ext.typeinfo.JParameterizedType;
+import com.google.gwt.core.ext.typeinfo.JRawType;
+import com.google.gwt.core.ext.typeinfo.JType;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+
+/**
+ * Summary of the types that the generated code of a connector bundle depends
+ * on. The generated code only depends on the signatures of the types, i.e.
+ * their supertypes, annotations, fields and method declarations, so method
+ * bodies can change without invalidating the bundle.
+ * <p>
+ * A signature is created after a bundle has been populated and cached
+ * between compilations. It is later checked against the current types to
+ * decide whether the previously generated code of the bundle can be reused.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public class BundleSignature implements Serializable {
+
+    private final String roots;
+    private final Set<String> typeNames;
+    private final String hash;
+
+    private BundleSignature(String roots, Set<String> typeNames,
+            String hash) {
+        this.roots = roots;
+        this.typeNames = typeNames;
+        this.hash = hash;
+    }
+
+    /**
+     * Creates a signature for a populated bundle.
+     *
+     * @param roots
+     *            a description of the types that were added to the bundle,
+     *            see {@link #getRoots(Collection)}
+     * @param bundle
+     *            the populated bundle
+     * @param additionalTypes
+     *            other types that the generated code depends on
+     * @param typeHashes
+     *            cache of the hashes of individual types, shared by all
+     *            bundles of a compilation
+     * @return the signature of the bundle
+     */
+    public static BundleSignature create(String roots, ConnectorBundle bundle,
+            Collection<JClassType> additionalTypes,
+            Map<String, String> typeHashes) {
+        Set<JClassType> types = new TreeSet<>(ConnectorBundle.jClassComparator);
+        for (JClassType type : bundle.getVisitedTypes()) {
+            addWithSupertypes(types, type);
+            for (JMethod method : type.getInheritableMethods()) {
+                addReferencedTypes(types, method.getReturnType());
+                for (JParameter parameter : method.getParameters()) {
+                    addReferencedTypes(types, parameter.getType());
+                }
+            }
+        }
+        for (JType type : bundle.getSerializedTypes()) {
+            addReferencedTypes(types, type);
+        }
+        for (JClassType type : additionalTypes) {
+            addWithSupertypes(types, type);
+        }
+
+        Set<String> typeNames = new TreeSet<>();
+        for (JClassType type : types) {
+            typeNames.add(type.getQualifiedSourceName());
+        }
+        return new BundleSignature(roots, typeNames,
+                hash(types, typeHashes));
+    }
+
+    /**
+     * Gets a description of the root types of a bundle, to be compared with
+     * the roots of a cached signature.
+     *
+     * @param types
+     *            the types that are added to a bundle
+     * @return a string identifying the given types
+     */
+    public static String getRoots(Collection<JClassType> types) {
+        Set<String> names = new TreeSet<>();
+        for (JClassType type : types) {
+            names.add(type.getQualifiedSourceName());
+        }
+        return String.join(",", names);
+    }
+
+    /**
+     * Checks whether a bundle with the given roots would still produce the
+     * same code as when this signature was created.
+     *
+     * @param roots
+     *            the current root types of the bundle, see
+     *            {@link #getRoots(Collection)}
+     * @param oracle
+     *            the type oracle of the current compilation
+     * @param typeHashes
+     *            cache of the hashes of individual types, shared by all
+     *            bundles of a compilation
+     * @return <code>true</code> if the bundle is unchanged,
+     *         <code>false</code> otherwise
+     */
+    public boolean matches(String roots, TypeOracle oracle,
+            Map<String, String> typeHashes) {
+        if (!this.roots.equals(roots)) {
+            return false;
+        }
+        List<JClassType> types = new ArrayList<>(typeNames.size());
+        for (String typeName : typeNames) {
+            JClassType type = oracle.findType(typeName);
+            if (type == null) {
+                return false;
+            }
+            types.add(type);
+        }
+        return hash.equals(hash(types, typeHashes));
+    }
+
+    private static void addReferencedTypes(Set<JClassType> types, JType type) {
+        JArrayType arrayType = type.isArray();
+        if (arrayType != null) {
+            addReferencedTypes(types, arrayType.getLeafType());
+            return;
+        }
+        JParameterizedType parameterized = type.isParameterized();
+        if (parameterized != null) {
+            addWithSupertypes(types, parameterized.getBaseType());
+            for (JClassType typeArg : parameterized.getTypeArgs()) {
+                addReferencedTypes(types, typeArg);
+            }
+            return;
+        }
+        JClassType classType = type.isClassOrInterface();
+        if (classType != null) {
+            addWithSupertypes(types, classType.getErasedType());
+        }
+    }
+
+    private static void addWithSupertypes(Set<JClassType> types,
+            JClassType type) {
+        JClassType declared = getDeclaredType(type.getErasedType());
+        if (!types.add(declared)) {
+            return;
+        }
+        if (declared.getSuperclass() != null) {
+            addWithSupertypes(types, declared.getSuperclass());
+        }
+        for (JClassType implemented : declared.getImplementedInterfaces()) {
+            addWithSupertypes(types, implemented);
+        }
+    }
+
+    /**
+     * Gets the type as declared in the source, i.e. the generic type instead
+     * of its raw type, so that the type is the same as the one found by name
+     * in {@link #matches(String, TypeOracle, Map)}.
+     */
+    private static JClassType getDeclaredType(JClassType type) {
+        JRawType rawType = type.isRawType();
+        if (rawType != null) {
+            return rawType.getBaseType();
+        }
+        JParameterizedType parameterized = type.isParameterized();
+        if (parameterized != null) {
+            return parameterized.getBaseType();
+        }
+        return type;
+    }
+
+    private static String hash(Collection<JClassType> types,
+            Map<String, String> typeHashes) {
+        StringBuilder hashes = new StringBuilder();
+        for (JClassType type : types) {
+            hashes.append(typeHashes.computeIfAbsent(
+                    type.getQualifiedSourceName(), name -> {
+                        StringBuilder signature = new StringBuilder();
+                        appendSignature(signature, type);
+                        return sha1(signature.toString());
+                    }));
+        }
+        return sha1(hashes.toString());
+    }
+
+    private static String sha1(String value) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest(value.getBytes(StandardCharsets.UTF_8))) {
+            hex.append(String.format("%02x", b & 0xff));
+        }
+        return hex.toString();
+    }
+
+    private static void appendSignature(StringBuilder signature,
+            JClassType type) {
+        signature.append(type.getQualifiedSourceName()).append('\n');
+        signature.append(type.isPublic()).append(type.isAbstract())
+                .append(type.isStatic()).append(type.isInterface() != null)
+                .append('\n');
+        if (type.getSuperclass() != null) {
+            signature.append("extends ")
+                    .append(type.getSuperclass()
+                            .getParameterizedQualifiedSourceName())
+                    .append('\n');
+        }
+        for (JClassType implemented : type.getImplementedInterfaces()) {
+            signature.append("implements ")
+                    .append(implemented.getParameterizedQualifiedSourceName())
+                    .append('\n');
+        }
+        appendAnnotations(signature, type);
+
+        JField[] fields = type.getFields();
+        List<String> fieldSignatures = new ArrayList<>(fields.length);
+        for (JField field : fields) {
+            StringBuilder fieldSignature = new StringBuilder();
+            fieldSignature.append(field.isPublic()).append(field.isPrivate())
+                    .append(field.isStatic()).append(field.isFinal())
+                    .append(field.isTransient()).append(' ')
+                    .append(field.getType()
+                            .getParameterizedQualifiedSourceName())
+                    .append(' ').append(field.getName()).append('\n');
+            appendAnnotations(fieldSignature, field);
+            fieldSignatures.add(fieldSignature.toString());
+        }
+        Collections.sort(fieldSignatures);
+        fieldSignatures.forEach(signature::append);
+
+        List<JAbstractMethod> members = new ArrayList<>();
+        members.addAll(Arrays.asList(type.getConstructors()));
+        members.addAll(Arrays.asList(type.getMethods()));
+        List<String> memberSignatures = new ArrayList<>(members.size());
+        for (JAbstractMethod member : members) {
+            StringBuilder memberSignature = new StringBuilder();
+            memberSignature.append(member.getReadableDeclaration())
+                    .append('\n');
+            appendAnnotations(memberSignature, member);
+            memberSignatures.add(memberSignature.toString());
+        }
+        Collections.sort(memberSignatures);
+        memberSignatures.forEach(signature::append);
+    }
+
+    private static void appendAnnotations(StringBuilder signature,
+            HasAnnotations annotated) {
+        Annotation[] annotations = annotated.getAnnotations().clone();
+        Arrays.sort(annotations, Comparator.comparing(
+                annotation -> annotation.annotationType().getName()));
+        for (Annotation annotation : annotations) {
+            signature.append('@').append(annotation.annotationType().getName());
+            Method[] members = annotation.annotationType().getDeclaredMethods();
+            Arrays.sort(members, Comparator.comparing(Method::getName));
+            for (Method member : members) {
+                signature.append(' ').append(member.getName()).append('=');
+                try {
+                    Object value = member.invoke(annotation);
+                    if (value instanceof Object[]) {
+                        signature.append(Arrays.deepToString((Object[]) value));
+                    } else if (value instanceof Class) {
+                        signature.append(((Class<?>) value).getName());
+                    } else if (value != null && value.getClass().isArray()) {
+                        signature.append(arrayToString(value));
+                    } else {
+                        signature.append(value);
+                    }
+                } catch (IllegalAccessException
+                        | InvocationTargetException e) {
+                    // Value cannot be read, use only the annotation type
+                    signature.append('?');
+                }
+            }
+            signature.append('\n');
+        }
+    }
+
+    private static String arrayToString(Object array) {
+        StringBuilder builder = new StringBuilder("[");
+        int length = Array.getLength(array);
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(Array.get(array, i));
+        }
+        return builder.append(']').toString();
+    }
+}
@@ -214,6 +214,28 @@ public class ConnectorBundle {
         return Collections.unmodifiableSet(needsGwtConstructor);
     }
 
+    /**
+     * Gets the connector and RPC types that have been processed by this
+     * bundle, not including the types processed by previous bundles.
+     *
+     * @return the processed types
+     * @since 8.2
+     */
+    public Set<JClassType> getVisitedTypes() {
+        return Collections.unmodifiableSet(visitedTypes);
+    }
+
+    /**
+     * Gets the types for which this bundle adds serialization support, not
+     * including the types supported by previous bundles.
+     *
+     * @return the serialized types
+     * @since 8.2
+     */
+    public Set<JType> getSerializedTypes() {
+        return Collections.unmodifiableSet(hasSerializeSupport);
+    }
+
     public void processTypes(TreeLogger logger, Collection<JClassType> types)
             throws UnableToCompleteException {
         for (JClassType type : types) {
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.widgetsetutils;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gwt.core.ext.CachedGeneratorResult;
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.vaadin.client.metadata.ConnectorBundleLoader;
+import com.vaadin.server.widgetsetutils.metadata.BundleSignature;
+import com.vaadin.server.widgetsetutils.metadata.TestTypeOracle;
+
+public class ConnectorBundleLoaderFactoryTest {
+
+    private static final String CLASS_NAME = "ConnectorBundleLoaderImpl";
+    private static final String EAGER = ConnectorBundleLoader.EAGER_BUNDLE_NAME;
+    private static final String DEFERRED = ConnectorBundleLoader.DEFERRED_BUNDLE_NAME;
+    private static final String LAZY = "__lazy";
+
+    private TestTypeOracle sources;
+    private CachedGeneratorResult cachedResult;
+    private Map<String, BundleSignature> cachedSignatures;
+    private Map<String, String> bundleRoots;
+
+    @Before
+    public void setUp() {
+        sources = new TestTypeOracle()
+                .add("test.EagerConnector",
+                        "public class EagerConnector {}")
+                .add("test.DeferredConnector",
+                        "public class DeferredConnector {}")
+                .add("test.LazyConnector", "public class LazyConnector {}");
+        TypeOracle oracle = sources.build();
+        cachedSignatures = new LinkedHashMap<>();
+        bundleRoots = new HashMap<>();
+        addBundle(oracle, EAGER, "test.EagerConnector");
+        addBundle(oracle, DEFERRED, "test.DeferredConnector");
+        addBundle(oracle, LAZY, "test.LazyConnector");
+
+        cachedResult = mock(CachedGeneratorResult.class);
+        when(cachedResult.isTypeCached(anyString())).thenReturn(true);
+    }
+
+    private void addBundle(TypeOracle oracle, String name, String type) {
+        cachedSignatures.put(name,
+                TestTypeOracle.createSignature(oracle, type));
+        bundleRoots.put(name, TestTypeOracle.getRoots(oracle, type));
+    }
+
+    @Test
+    public void nothingChanged_allBundlesReused() {
+        Assert.assertEquals(set(EAGER, DEFERRED, LAZY),
+                findUnchanged(sources.build()));
+    }
+
+    @Test
+    public void deferredBundleChanged_otherBundlesReused() {
+        sources.add("test.DeferredConnector",
+                "public class DeferredConnector {", "  public int value;",
+                "}");
+
+        Assert.assertEquals(set(EAGER, LAZY),
+                findUnchanged(sources.build()));
+    }
+
+    @Test
+    public void eagerBundleChanged_noBundlesReused() {
+        sources.add("test.EagerConnector", "public class EagerConnector {",
+                "  public int value;", "}");
+
+        Assert.assertEquals(Collections.emptySet(),
+                findUnchanged(sources.build()));
+    }
+
+    @Test
+    public void bundleClassNotCached_bundleNotReused() {
+        when(cachedResult.isTypeCached(CLASS_NAME + "_" + LAZY))
+                .thenReturn(false);
+
+        Assert.assertEquals(set(EAGER, DEFERRED),
+                findUnchanged(sources.build()));
+    }
+
+    @Test
+    public void noCachedSignatures_noBundlesReused() {
+        Assert.assertEquals(Collections.emptySet(),
+                ConnectorBundleLoaderFactory.findUnchangedBundles(
+                        TreeLogger.NULL, sources.build(), CLASS_NAME,
+                        cachedResult, null, bundleRoots, new HashMap<>()));
+    }
+
+    private Set<String> findUnchanged(TypeOracle oracle) {
+        return ConnectorBundleLoaderFactory.findUnchangedBundles(
+                TreeLogger.NULL, oracle, CLASS_NAME, cachedResult,
+                cachedSignatures, bundleRoots, new HashMap<>());
+    }
+
+    private static Set<String> set(String... names) {
+        return new HashSet<>(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.widgetsetutils.metadata;
+
+import java.util.HashMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+
+public class BundleSignatureTest {
+
+    private static final String CONNECTOR = "test.Connector";
+
+    private TestTypeOracle sources;
+
+    private BundleSignature signature;
+
+    private String roots;
+
+    @Before
+    public void setUp() {
+        sources = new TestTypeOracle()
+                .add("test.Base", "public class Base {",
+                        "  public int getValue() { return 1; }", "}")
+                .add(CONNECTOR, "public class Connector extends Base {",
+                        "  private State state;",
+                        "  public State getState() { return state; }", "}")
+                .add("test.State", "public class State {",
+                        "  public String caption;", "}");
+        TypeOracle oracle = sources.build();
+        signature = TestTypeOracle.createSignature(oracle, CONNECTOR);
+        roots = TestTypeOracle.getRoots(oracle, CONNECTOR);
+    }
+
+    @Test
+    public void sameTypes_matches() {
+        Assert.assertTrue(matches(sources.build()));
+    }
+
+    @Test
+    public void methodBodyChanged_matches() {
+        sources.add("test.Base", "public class Base {",
+                "  public int getValue() { return 2 + 2; }", "}");
+
+        Assert.assertTrue(matches(sources.build()));
+    }
+
+    @Test
+    public void supertypeMethodAdded_doesNotMatch() {
+        sources.add("test.Base", "public class Base {",
+                "  public int getValue() { return 1; }",
+                "  public void setValue(int value) {}", "}");
+
+        Assert.assertFalse(matches(sources.build()));
+    }
+
+    @Test
+    public void referencedTypeFieldChanged_doesNotMatch() {
+        sources.add("test.State", "public class State {",
+                "  public String description;", "}");
+
+        Assert.assertFalse(matches(sources.build()));
+    }
+
+    @Test
+    public void referencedTypeRemoved_doesNotMatch() {
+        sources.remove("test.State").add(CONNECTOR,
+                "public class Connector extends Base {}");
+
+        Assert.assertFalse(matches(sources.build()));
+    }
+
+    @Test
+    public void unrelatedTypeAdded_matches() {
+        sources.add("test.Other", "public class Other {}");
+
+        Assert.assertTrue(matches(sources.build()));
+    }
+
+    @Test
+    public void rootsChanged_doesNotMatch() {
+        sources.add("test.Other", "public class Other {}");
+        TypeOracle oracle = sources.build();
+
+        Assert.assertFalse(signature.matches(
+                TestTypeOracle.getRoots(oracle, CONNECTOR, "test.Other"),
+                oracle, new HashMap<>()));
+    }
+
+    private boolean matches(TypeOracle oracle) {
+        return signature.matches(roots, oracle, new HashMap<>());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.widgetsetutils.metadata;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.gwt.core.ext.TreeLogger;
+import com.google.gwt.core.ext.UnableToCompleteException;
+import com.google.gwt.core.ext.typeinfo.JClassType;
+import com.google.gwt.core.ext.typeinfo.NotFoundException;
+import com.google.gwt.core.ext.typeinfo.TypeOracle;
+import com.google.gwt.dev.javac.testing.GeneratorContextBuilder;
+import com.google.gwt.dev.javac.testing.Source;
+
+/**
+ * Builds type oracles from Java sources for testing bundle signatures. The
+ * client types needed by {@link ConnectorBundle} are included as stubs, and
+ * sources given for the same path replace the default sources.
+ */
+public class TestTypeOracle {
+
+    private final Map<String, String> sources = new LinkedHashMap<>();
+
+    public TestTypeOracle() {
+        add("com.vaadin.client.communication.JSONSerializer",
+                "public interface JSONSerializer<T> {",
+                "  T deserialize(com.vaadin.client.metadata.Type type,",
+                "      elemental.json.JsonValue jsonValue,",
+                "      com.vaadin.client.ApplicationConnection connection);",
+                "}");
+        add("com.vaadin.client.metadata.Type", "public class Type {}");
+        add("elemental.json.JsonValue", "public interface JsonValue {}");
+        add("com.vaadin.client.ApplicationConnection",
+                "public class ApplicationConnection {}");
+    }
+
+    /**
+     * Adds or replaces the source of a type.
+     *
+     * @param qualifiedName
+     *            the qualified name of the type
+     * @param body
+     *            the lines of the source after the package declaration
+     * @return this builder
+     */
+    public TestTypeOracle add(String qualifiedName, String... body) {
+        int lastDot = qualifiedName.lastIndexOf('.');
+        String source = "package " + qualifiedName.substring(0, lastDot)
+                + ";\n" + String.join("\n", body) + "\n";
+        sources.put(qualifiedName.replace('.', '/') + ".java", source);
+        return this;
+    }
+
+    /**
+     * Removes the source of a type.
+     *
+     * @param qualifiedName
+     *            the qualified name of the type
+     * @return this builder
+     */
+    public TestTypeOracle remove(String qualifiedName) {
+        sources.remove(qualifiedName.replace('.', '/') + ".java");
+        return this;
+    }
+
+    /**
+     * Compiles the current sources.
+     *
+     * @return the type oracle of the compiled sources
+     */
+    public TypeOracle build() {
+        GeneratorContextBuilder builder = GeneratorContextBuilder
+                .newCoreBasedBuilder();
+        for (Entry<String, String> entry : sources.entrySet()) {
+            builder.add(new Source() {
+                @Override
+                public String getPath() {
+                    return entry.getKey();
+                }
+
+                @Override
+                public String getSource() {
+                    return entry.getValue();
+                }
+            });
+        }
+        return builder.buildGeneratorContext().getTypeOracle();
+    }
+
+    /**
+     * Creates the signature of a bundle that has visited the given types.
+     *
+     * @param oracle
+     *            the type oracle to find the types from
+     * @param typeNames
+     *            the qualified names of the visited types
+     * @return the signature of the bundle
+     */
+    public static BundleSignature createSignature(TypeOracle oracle,
+            String... typeNames) {
+        Collection<JClassType> types = getTypes(oracle, typeNames);
+        try {
+            ConnectorBundle bundle = new ConnectorBundle("test",
+                    Collections.<TypeVisitor> emptyList(), oracle);
+            bundle.processTypes(TreeLogger.NULL, types);
+            return BundleSignature.create(BundleSignature.getRoots(types),
+                    bundle, Collections.<JClassType> emptyList(),
+                    new LinkedHashMap<>());
+        } catch (NotFoundException | UnableToCompleteException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Gets the roots of a bundle that visits the given types.
+     *
+     * @param oracle
+     *            the type oracle to find the types from
+     * @param typeNames
+     *            the qualified names of the visited types
+     * @return the roots, see {@link BundleSignature#getRoots(Collection)}
+     */
+    public static String getRoots(TypeOracle oracle, String... typeNames) {
+        return BundleSignature.getRoots(getTypes(oracle, typeNames));
+    }
+
+    private static Collection<JClassType> getTypes(TypeOracle oracle,
+            String... typeNames) {
+        JClassType[] types = new JClassType[typeNames.length];
+        for (int i = 0; i < typeNames.length; i++) {
+            types[i] = oracle.findType(typeNames[i]);
+            if (types[i] == null) {
+                throw new AssertionError("Type not found: " + typeNames[i]);
+            }
+        }
+        return Arrays.asList(types);
+    }
+}
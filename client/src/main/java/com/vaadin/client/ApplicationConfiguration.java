@@ -148,6 +148,25 @@ public class ApplicationConfiguration implements EntryPoint {
             return this.getConfig(name);
         }-*/;
 
+        /**
+         * Reads a configuration parameter as an array of strings. Please note
+         * that the javascript value of the parameter should also be an array
+         * of strings, or else an undefined exception may be thrown.
+         *
+         * @param name
+         *            name of the configuration parameter
+         * @return the array, or <code>null</code> if no value is defined
+         */
+        private native JsArrayString getConfigStringArray(String name)
+        /*-{
+            var value = this.getConfig(name);
+            if (value === null || value === undefined) {
+                return null;
+            } else {
+                return value;
+            }
+        }-*/;
+
         /**
          * Returns a native javascript object containing version information
          * from the server.
@@ -247,6 +266,7 @@ public class ApplicationConfiguration implements EntryPoint {
     private ErrorMessage authorizationError;
     private ErrorMessage sessionExpiredError;
     private int heartbeatInterval;
+    private JsArrayString preloadConnectors;
 
     private HashMap<Integer, String> unknownComponents;
 
@@ -393,6 +413,19 @@ public class ApplicationConfiguration implements EntryPoint {
         return heartbeatInterval;
     }
 
+    /**
+     * Gets the server-side class names of the connectors that the server
+     * predicts the UI will use, so that their bundles can be loaded before
+     * they are needed.
+     *
+     * @return an array of server-side class names, or <code>null</code> if
+     *         the server has not predicted any connectors
+     * @since 8.2
+     */
+    public JsArrayString getPreloadConnectors() {
+        return preloadConnectors;
+    }
+
     public JavaScriptObject getVersionInfoJSObject() {
         return getJsoConfiguration(id).getVersionInfoJSObject();
     }
@@ -454,6 +487,9 @@ public class ApplicationConfiguration implements EntryPoint {
         communicationError = jsoConfiguration.getConfigError("comErrMsg");
         authorizationError = jsoConfiguration.getConfigError("authErrMsg");
         sessionExpiredError = jsoConfiguration.getConfigError("sessExpMsg");
+
+        preloadConnectors = jsoConfiguration
+                .getConfigStringArray("preloadConnectors");
     }
 
     /**
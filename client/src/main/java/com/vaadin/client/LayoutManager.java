@@ -15,9 +15,12 @@
  */
 package com.vaadin.client;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
@@ -30,6 +33,7 @@ import com.google.gwt.dom.client.Style;
 import com.google.gwt.dom.client.Style.Overflow;
 import com.google.gwt.user.client.Timer;
 import com.vaadin.client.MeasuredSize.MeasureResult;
+import com.vaadin.client.communication.MessageHandler;
 import com.vaadin.client.ui.ManagedLayout;
 import com.vaadin.client.ui.PostLayoutListener;
 import com.vaadin.client.ui.SimpleManagedLayout;
@@ -65,11 +69,102 @@ public class LayoutManager {
     private Timer layoutTimer = new Timer() {
         @Override
         public void run() {
+            if (connection.getMessageHandler().isUpdatingState()) {
+                // A message is being processed in chunks, try again later
+                schedule(100);
+                return;
+            }
             layoutNow();
         }
     };
     private boolean everythingNeedsMeasure = false;
 
+    private boolean incrementalLayoutEnabled = false;
+
+    /**
+     * Number of connectors found to have changed size during the current
+     * layout pass.
+     */
+    private int changedConnectorCount = 0;
+
+    private List<LayoutPass> layoutPasses = new ArrayList<>();
+
+    /**
+     * Statistics about a single pass of a layout phase.
+     *
+     * @since 8.2
+     * @see LayoutManager#getLastLayoutPasses()
+     */
+    public static class LayoutPass {
+        private final int measuredConnectors;
+        private final int changedConnectors;
+        private final int firedListeners;
+        private final int layouts;
+        private final double duration;
+
+        private LayoutPass(int measuredConnectors, int changedConnectors,
+                int firedListeners, int layouts, double duration) {
+            this.measuredConnectors = measuredConnectors;
+            this.changedConnectors = changedConnectors;
+            this.firedListeners = firedListeners;
+            this.layouts = layouts;
+            this.duration = duration;
+        }
+
+        /**
+         * Gets the number of connectors measured during the pass.
+         *
+         * @return the number of measured connectors
+         */
+        public int getMeasuredConnectors() {
+            return measuredConnectors;
+        }
+
+        /**
+         * Gets the number of measured connectors whose size had changed.
+         *
+         * @return the number of changed connectors
+         */
+        public int getChangedConnectors() {
+            return changedConnectors;
+        }
+
+        /**
+         * Gets the number of elements for which resize listeners were fired.
+         *
+         * @return the number of elements with fired listeners
+         */
+        public int getFiredListeners() {
+            return firedListeners;
+        }
+
+        /**
+         * Gets the number of managed layout invocations during the pass.
+         *
+         * @return the number of layouts
+         */
+        public int getLayouts() {
+            return layouts;
+        }
+
+        /**
+         * Gets the time spent in the pass.
+         *
+         * @return the duration of the pass in milliseconds
+         */
+        public double getDuration() {
+            return duration;
+        }
+
+        @Override
+        public String toString() {
+            return "measured " + measuredConnectors + " (" + changedConnectors
+                    + " changed), fired " + firedListeners
+                    + " listeners, did " + layouts + " layouts in "
+                    + Util.round(duration, 3) + " ms";
+        }
+    }
+
     /**
      * Sets the application connection this instance is connected to. Called
      * internally by the framework.
@@ -252,7 +347,19 @@ public class LayoutManager {
                     "Can't start a new layout phase before the previous layout phase ends.");
         }
 
-        if (connection.getMessageHandler().isUpdatingState()) {
+        MessageHandler messageHandler = connection.getMessageHandler();
+        if (messageHandler.isUpdatingState()
+                && messageHandler.isProcessingInChunks()) {
+            /*
+             * Events are handled between the chunks, so e.g. a resize can
+             * request a layout in the middle of a state update. Run it once
+             * the state is consistent again.
+             */
+            layoutLater();
+            return;
+        }
+
+        if (messageHandler.isUpdatingState()) {
             // If assertions are enabled, throw an exception
             assert false : STATE_CHANGE_MESSAGE;
 
@@ -324,9 +431,13 @@ public class LayoutManager {
 
         Profiler.leave("LayoutManager phase init");
 
+        layoutPasses = new ArrayList<>();
+
         while (true) {
             Profiler.enter("Layout pass");
             passes++;
+            double passStart = Duration.currentTimeMillis();
+            changedConnectorCount = 0;
 
             performBrowserLayoutHacks();
 
@@ -341,13 +452,14 @@ public class LayoutManager {
                 Profiler.leave("Layout pass");
                 break;
             }
+            int changedConnectors = changedConnectorCount;
 
             int firedListeners = 0;
             if (!listenersToFire.isEmpty()) {
                 HashSet<Element> listenersCopy = new HashSet<Element>(
                         listenersToFire);
                 listenersToFire.clear();
-                firedListeners = listenersToFire.size();
+                firedListeners = listenersCopy.size();
                 Profiler.enter("Layout fire resize events");
                 for (Element element : listenersCopy) {
                     Collection<ElementResizeListener> listeners = elementResizeListeners
@@ -554,10 +666,14 @@ public class LayoutManager {
 
             Profiler.leave("Layout pass");
 
+            layoutPasses.add(new LayoutPass(measuredConnectorCount,
+                    changedConnectors, firedListeners, layoutCount,
+                    Duration.currentTimeMillis() - passStart));
+
             getLogger().info("Pass " + passes + " measured "
-                    + measuredConnectorCount + " elements, fired "
-                    + firedListeners + " listeners and did " + layoutCount
-                    + " layouts.");
+                    + measuredConnectorCount + " elements (" + changedConnectors
+                    + " changed), fired " + firedListeners
+                    + " listeners and did " + layoutCount + " layouts.");
 
             if (passes > 100) {
                 getLogger().severe(LOOP_ABORT_MESSAGE);
@@ -718,9 +834,7 @@ public class LayoutManager {
             }
 
             int connectorCount = connectors.size();
-            for (int i = 0; i < connectorCount; i++) {
-                measureConnector(connectors.get(i));
-            }
+            measureConnectors(connectors);
             for (int i = 0; i < connectorCount; i++) {
                 layoutDependencyTree.setNeedsMeasure(connectors.get(i), false);
             }
@@ -734,16 +848,16 @@ public class LayoutManager {
             JsArrayString measureTargets = layoutDependencyTree
                     .getMeasureTargetsJsArray();
             int length = measureTargets.length();
+            JsArrayObject<ComponentConnector> connectors = JsArrayObject
+                    .createArray().cast();
             for (int i = 0; i < length; i++) {
-                ComponentConnector connector = (ComponentConnector) connectorMap
-                        .getConnector(measureTargets.get(i));
-                measureConnector(connector);
-                measureCount++;
+                connectors.add((ComponentConnector) connectorMap
+                        .getConnector(measureTargets.get(i)));
             }
+            measureConnectors(connectors);
+            measureCount += length;
             for (int i = 0; i < length; i++) {
-                ComponentConnector connector = (ComponentConnector) connectorMap
-                        .getConnector(measureTargets.get(i));
-                layoutDependencyTree.setNeedsMeasure(connector, false);
+                layoutDependencyTree.setNeedsMeasure(connectors.get(i), false);
             }
         }
         Profiler.leave("Layout measure from tree");
@@ -767,17 +881,48 @@ public class LayoutManager {
         return false;
     }
 
-    private void measureConnector(ComponentConnector connector) {
-        Profiler.enter("LayoutManager.measureConnector");
-        Element element = connector.getWidget().getElement();
-        MeasuredSize measuredSize = getMeasuredSize(element);
-        MeasureResult measureResult = measuredAndUpdate(element, measuredSize);
-
-        if (measureResult.isChanged()) {
+    /**
+     * Measures a batch of connectors. All elements in the batch are measured
+     * before any change is propagated, so that the DOM reads are done together
+     * and only the connectors whose size actually changed are passed on to the
+     * dependency tree.
+     *
+     * @param connectors
+     *            the connectors to measure
+     */
+    private void measureConnectors(
+            JsArrayObject<ComponentConnector> connectors) {
+        Profiler.enter("LayoutManager.measureConnectors read");
+        int size = connectors.size();
+        JsArrayObject<ComponentConnector> changedConnectors = JsArrayObject
+                .createArray().cast();
+        JsArrayObject<MeasureResult> changedResults = JsArrayObject
+                .createArray().cast();
+        for (int i = 0; i < size; i++) {
+            ComponentConnector connector = connectors.get(i);
+            Element element = connector.getWidget().getElement();
+            MeasureResult measureResult = getMeasuredSize(element)
+                    .measure(element);
+            if (measureResult.isChanged()) {
+                changedConnectors.add(connector);
+                changedResults.add(measureResult);
+            }
+        }
+        Profiler.leave("LayoutManager.measureConnectors read");
+
+        Profiler.enter("LayoutManager.measureConnectors update");
+        int changedCount = changedConnectors.size();
+        for (int i = 0; i < changedCount; i++) {
+            ComponentConnector connector = changedConnectors.get(i);
+            MeasureResult measureResult = changedResults.get(i);
+            notifyListenersAndDepdendents(connector.getWidget().getElement(),
+                    measureResult.isWidthChanged(),
+                    measureResult.isHeightChanged());
             onConnectorChange(connector, measureResult.isWidthChanged(),
                     measureResult.isHeightChanged());
         }
-        Profiler.leave("LayoutManager.measureConnector");
+        changedConnectorCount += changedCount;
+        Profiler.leave("LayoutManager.measureConnectors update");
     }
 
     private void onConnectorChange(ComponentConnector connector,
@@ -1822,6 +1967,48 @@ public class LayoutManager {
         everythingNeedsMeasure = true;
     }
 
+    /**
+     * Sets whether layouts triggered by server responses should only measure
+     * the connectors affected by the response instead of all connectors. Size
+     * changes found when measuring the affected connectors are still
+     * propagated through the layout dependencies, but sizes changed only
+     * indirectly, e.g. through CSS selectors depending on other components,
+     * are not detected. The default is <code>false</code>.
+     *
+     * @since 8.2
+     * @param incrementalLayoutEnabled
+     *            <code>true</code> to only measure affected connectors,
+     *            <code>false</code> to measure all connectors after each
+     *            response
+     */
+    public void setIncrementalLayoutEnabled(boolean incrementalLayoutEnabled) {
+        this.incrementalLayoutEnabled = incrementalLayoutEnabled;
+    }
+
+    /**
+     * Checks whether layouts triggered by server responses only measure the
+     * connectors affected by the response.
+     *
+     * @since 8.2
+     * @return <code>true</code> if only affected connectors are measured,
+     *         <code>false</code> if all connectors are measured
+     * @see #setIncrementalLayoutEnabled(boolean)
+     */
+    public boolean isIncrementalLayoutEnabled() {
+        return incrementalLayoutEnabled;
+    }
+
+    /**
+     * Gets statistics about the passes of the most recent layout phase.
+     *
+     * @since 8.2
+     * @return an unmodifiable list of layout passes, in the order they were
+     *         run
+     */
+    public List<LayoutPass> getLastLayoutPasses() {
+        return Collections.unmodifiableList(layoutPasses);
+    }
+
     private static Logger getLogger() {
         return Logger.getLogger(LayoutManager.class.getName());
     }
@@ -36,6 +36,8 @@ public class VLoadingIndicator {
 
     private static final String PRIMARY_STYLE_NAME = "v-loading-indicator";
 
+    private static final String PROGRESS_ATTRIBUTE = "data-progress";
+
     private ApplicationConnection connection;
 
     private int firstDelay = 300;
@@ -188,6 +190,29 @@ public class VLoadingIndicator {
         }
     }
 
+    /**
+     * Reports the progress of the operation the loading indicator is shown
+     * for. The progress is available to themes as a percentage in the
+     * <code>data-progress</code> attribute of the indicator element.
+     *
+     * @since 8.2
+     * @param progress
+     *            the progress, between 0 and 1
+     */
+    public void setProgress(double progress) {
+        long percent = Math.round(100 * Math.max(0, Math.min(1, progress)));
+        getElement().setAttribute(PROGRESS_ATTRIBUTE, String.valueOf(percent));
+    }
+
+    /**
+     * Removes any progress reported using {@link #setProgress(double)}.
+     *
+     * @since 8.2
+     */
+    public void clearProgress() {
+        getElement().removeAttribute(PROGRESS_ATTRIBUTE);
+    }
+
     /**
      * Returns the {@link ApplicationConnection} which uses this loading
      * indicator
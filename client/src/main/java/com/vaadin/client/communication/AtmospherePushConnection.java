@@ -33,6 +33,7 @@ import com.vaadin.client.ValueMap;
 import com.vaadin.shared.ApplicationConstants;
 import com.vaadin.shared.Version;
 import com.vaadin.shared.communication.PushConstants;
+import com.vaadin.shared.communication.PushMessageEncoding;
 import com.vaadin.shared.ui.ui.UIConstants;
 import com.vaadin.shared.ui.ui.UIState.PushConfigurationState;
 import com.vaadin.shared.util.SharedUtil;
@@ -212,6 +213,10 @@ public class AtmospherePushConnection implements PushConnection {
             extraParams += "&" + ApplicationConstants.PUSH_ID_PARAMETER + "="
                     + pushId;
         }
+        if (getPushConfigurationState().messageCompression) {
+            extraParams += "&" + PushMessageEncoding.ENCODING_PARAMETER + "="
+                    + PushMessageEncoding.ENCODING_ID;
+        }
 
         // uri is needed to identify the right connection when closing
         uri = SharedUtil.addGetParameters(baseUrl, extraParams);
@@ -367,6 +372,14 @@ public class AtmospherePushConnection implements PushConnection {
 
     protected void onMessage(AtmosphereResponse response) {
         String message = response.getResponseBody();
+        if (PushMessageEncoding.isEncoded(message)) {
+            try {
+                message = PushMessageEncoding.decode(message);
+            } catch (IllegalArgumentException e) {
+                getConnectionStateHandler().pushInvalidContent(this, message);
+                return;
+            }
+        }
         ValueMap json = MessageHandler.parseWrappedJson(message);
         if (json == null) {
             // Invalid string (not wrapped as expected)
@@ -55,6 +55,7 @@ import com.vaadin.client.UIDL;
 import com.vaadin.client.Util;
 import com.vaadin.client.VCaption;
 import com.vaadin.client.VConsole;
+import com.vaadin.client.VLoadingIndicator;
 import com.vaadin.client.ValueMap;
 import com.vaadin.client.WidgetUtil;
 import com.vaadin.client.extensions.AbstractExtensionConnector;
@@ -112,6 +113,25 @@ public class MessageHandler {
     /** The max timeout that response handling may be suspended */
     private static final int MAX_SUSPENDED_TIMEOUT = 5000;
 
+    /*
+     * Phases of processing a message. When processing in chunks, the browser
+     * event loop may run between phases.
+     */
+    private static final int PHASE_META = 0;
+    private static final int PHASE_CREATE_CONNECTORS = 1;
+    private static final int PHASE_UPDATE_STATE = 2;
+    private static final int PHASE_HIERARCHY = 3;
+    private static final int PHASE_EVENTS = 4;
+    private static final int PHASE_RPC = 5;
+    private static final int PHASE_LAYOUT = 6;
+    private static final int PHASE_COUNT = 7;
+
+    /**
+     * The number of connectors created or updated in one go when processing
+     * a message in chunks.
+     */
+    private static final int CHUNK_CONNECTOR_COUNT = 100;
+
     /**
      * The value of an undefined sync id.
      * <p>
@@ -170,6 +190,13 @@ public class MessageHandler {
      */
     private boolean updatingState = false;
 
+    /**
+     * true if a message is being processed in chunks
+     */
+    private boolean processingInChunks = false;
+
+    private int chunkedProcessingThreshold = -1;
+
     /**
      * Holds the timing information from the server-side. How much time was
      * spent servicing the last request and how much time has been spent
@@ -406,6 +433,34 @@ public class MessageHandler {
         Command c = new Command() {
             private boolean onlyNoLayoutUpdates = true;
 
+            /*
+             * Connectors updated by this message, measured instead of all
+             * connectors when incremental layout is enabled
+             */
+            private final FastStringSet updatedConnectorIds = FastStringSet
+                    .create();
+
+            private boolean chunked;
+
+            private int phase = PHASE_META;
+
+            /*
+             * Keys and position of the next connector in a phase that handles
+             * connectors in batches
+             */
+            private JsArrayString batchKeys;
+            private int batchIndex = 0;
+
+            private ValueMap meta = null;
+            private double processUidlStart;
+
+            private final JsArrayString createdConnectorIds = JavaScriptObject
+                    .createArray().cast();
+            private final JsArrayObject<StateChangeEvent> pendingStateChangeEvents = JavaScriptObject
+                    .createArray().cast();
+            private FastStringSet remainingNewConnectors;
+            private ConnectorHierarchyUpdateResult connectorHierarchyUpdateResult;
+
             @Override
             public void execute() {
                 assert serverId == -1 || serverId == lastSeenServerSyncId;
@@ -413,8 +468,157 @@ public class MessageHandler {
                 handleUIDLDuration.logDuration(" * Loading widgets completed",
                         10);
 
+                chunked = isChunkedProcessingNeeded(json);
+                if (chunked) {
+                    processingInChunks = true;
+                    getLogger().info(" * Processing message in chunks");
+                    connection.getLoadingIndicator().ensureTriggered();
+                    Scheduler.get()
+                            .scheduleIncremental(this::processChunkSafely);
+                } else {
+                    while (processChunkSafely()) {
+                        // Process the whole message at once
+                    }
+                }
+            }
+
+            /**
+             * Runs the next part of the message processing, aborting the
+             * processing of the message if it fails so that the following
+             * messages are not blocked.
+             *
+             * @return <code>true</code> if there is more to process,
+             *         <code>false</code> if the message has been fully
+             *         processed or the processing failed
+             */
+            private boolean processChunkSafely() {
+                boolean completed = false;
+                try {
+                    boolean more = processChunk();
+                    completed = true;
+                    return more;
+                } finally {
+                    if (!completed) {
+                        abortProcessing();
+                    }
+                }
+            }
+
+            /**
+             * Releases everything held while processing the message after a
+             * failure in some phase.
+             */
+            private void abortProcessing() {
+                getLogger().severe("Processing of message "
+                        + serverId + " failed");
+                updatingState = false;
+                if (chunked) {
+                    processingInChunks = false;
+                    VLoadingIndicator loadingIndicator = connection
+                            .getLoadingIndicator();
+                    loadingIndicator.clearProgress();
+                    if (!getMessageSender().hasActiveRequest()) {
+                        loadingIndicator.hide();
+                    }
+                }
+                try {
+                    endRequestIfResponse(json);
+                } finally {
+                    resumeResponseHandling(lock);
+                }
+            }
+
+            /**
+             * Runs the next phase, or the next batch of connectors in the
+             * current phase, of the message processing. Response handling is
+             * suspended until the last phase has been run, so messages are
+             * still processed one at a time and in order.
+             *
+             * @return <code>true</code> if there is more to process,
+             *         <code>false</code> if the message has been fully
+             *         processed
+             */
+            private boolean processChunk() {
+                boolean phaseRemaining = false;
+                switch (phase) {
+                case PHASE_META:
+                    handleMeta();
+                    break;
+                case PHASE_CREATE_CONNECTORS:
+                    // Ensure that all connectors that we are about to update
+                    // exist
+                    phaseRemaining = createConnectorsIfNeeded(json);
+                    break;
+                case PHASE_UPDATE_STATE:
+                    // Update states, do not fire events
+                    phaseRemaining = updateConnectorState(json);
+                    break;
+                case PHASE_HIERARCHY:
+                    handleLocalesAndHierarchy();
+                    break;
+                case PHASE_EVENTS:
+                    updateCaptions(pendingStateChangeEvents,
+                            connectorHierarchyUpdateResult.parentChangedIds);
+
+                    delegateToWidget(pendingStateChangeEvents);
+
+                    // Fire state change events.
+                    sendStateChangeEvents(pendingStateChangeEvents);
+                    break;
+                case PHASE_RPC:
+                    handleRpcAndUnregister();
+                    break;
+                case PHASE_LAYOUT:
+                    handleLayout();
+                    break;
+                default:
+                    finishProcessing();
+                    return false;
+                }
+
+                if (!phaseRemaining) {
+                    phase++;
+                    batchIndex = 0;
+                    batchKeys = null;
+                }
+                if (chunked) {
+                    connection.getLoadingIndicator().setProgress(
+                            (phase + getBatchProgress()) / PHASE_COUNT);
+                }
+                return true;
+            }
+
+            private double getBatchProgress() {
+                if (batchKeys == null || batchKeys.length() == 0) {
+                    return 0;
+                }
+                return (double) batchIndex / batchKeys.length();
+            }
+
+            /**
+             * Gets the keys of the given map to handle in batches, caching
+             * them while the current phase is running.
+             */
+            private JsArrayString getBatchKeys(ValueMap map) {
+                if (batchKeys == null) {
+                    batchKeys = map.getKeyArray();
+                }
+                return batchKeys;
+            }
+
+            /**
+             * Gets the end index of the next batch of connectors to handle.
+             */
+            private int getBatchEnd() {
+                int length = batchKeys.length();
+                if (!chunked) {
+                    return length;
+                }
+                return Math.min(length, batchIndex + CHUNK_CONNECTOR_COUNT);
+            }
+
+            private void handleMeta() {
                 Profiler.enter("Handling meta information");
-                ValueMap meta = null;
                 if (json.containsKey("meta")) {
                     getLogger().info(" * Handling meta information");
                     meta = json.getValueMap("meta");
@@ -446,16 +650,10 @@ public class MessageHandler {
 
                 updatingState = true;
 
-                double processUidlStart = Duration.currentTimeMillis();
-
-                // Ensure that all connectors that we are about to update exist
-                JsArrayString createdConnectorIds = createConnectorsIfNeeded(
-                        json);
-
-                // Update states, do not fire events
-                JsArrayObject<StateChangeEvent> pendingStateChangeEvents = updateConnectorState(
-                        json, createdConnectorIds);
+                processUidlStart = Duration.currentTimeMillis();
+            }
 
+            private void handleLocalesAndHierarchy() {
                 /*
                  * Doing this here so that locales are available also to the
                  * connectors which get a state change event before the UI.
@@ -468,21 +666,15 @@ public class MessageHandler {
                 Profiler.leave("Handling locales");
 
                 // Update hierarchy, do not fire events
-                ConnectorHierarchyUpdateResult connectorHierarchyUpdateResult = updateConnectorHierarchy(
+                connectorHierarchyUpdateResult = updateConnectorHierarchy(
                         json);
 
                 // Fire hierarchy change events
                 sendHierarchyChangeEvents(
                         connectorHierarchyUpdateResult.events);
+            }
 
-                updateCaptions(pendingStateChangeEvents,
-                        connectorHierarchyUpdateResult.parentChangedIds);
-
-                delegateToWidget(pendingStateChangeEvents);
-
-                // Fire state change events.
-                sendStateChangeEvents(pendingStateChangeEvents);
-
+            private void handleRpcAndUnregister() {
                 // Update of legacy (UIDL) style connectors
                 updateVaadin6StyleConnectors(json);
 
@@ -503,11 +695,21 @@ public class MessageHandler {
                         + " ms");
 
                 updatingState = false;
+            }
 
+            private void handleLayout() {
                 Profiler.enter("Layout processing");
                 try {
                     LayoutManager layoutManager = getLayoutManager();
-                    if (!onlyNoLayoutUpdates) {
+                    if (onlyNoLayoutUpdates) {
+                        // Nothing to measure
+                    } else if (layoutManager.isIncrementalLayoutEnabled()
+                            && (meta == null
+                                    || !meta.containsKey("repaintAll"))) {
+                        updatedConnectorIds.addAll(
+                                connectorHierarchyUpdateResult.parentChangedIds);
+                        setUpdatedConnectorsNeedMeasure(layoutManager);
+                    } else {
                         layoutManager.setEverythingNeedsMeasure();
                     }
                     if (layoutManager.isLayoutNeeded()) {
@@ -518,7 +720,9 @@ public class MessageHandler {
                             e);
                 }
                 Profiler.leave("Layout processing");
+            }
 
+            private void finishProcessing() {
                 if (ApplicationConfiguration.isDebugMode()) {
                     Profiler.enter("Dumping state changes to the console");
                     getLogger().info(" * Dumping state changes to the console");
@@ -568,10 +772,26 @@ public class MessageHandler {
                 getLogger().info(
                         "Referenced paintables: " + getConnectorMap().size());
 
+                if (chunked) {
+                    processingInChunks = false;
+                    VLoadingIndicator loadingIndicator = connection
+                            .getLoadingIndicator();
+                    loadingIndicator.clearProgress();
+                    if (!getMessageSender().hasActiveRequest()) {
+                        loadingIndicator.hide();
+                    }
+                }
+
                 endRequestIfResponse(json);
                 resumeResponseHandling(lock);
 
                 ConnectorBundleLoader.get().ensureDeferredBundleLoaded();
+                JsArrayString preloadConnectors = connection.getConfiguration()
+                        .getPreloadConnectors();
+                if (preloadConnectors != null) {
+                    ConnectorBundleLoader.get()
+                            .preloadBundles(preloadConnectors);
+                }
 
                 if (Profiler.isEnabled()) {
                     Scheduler.get().scheduleDeferred(new ScheduledCommand() {
@@ -834,20 +1054,30 @@ public class MessageHandler {
                 Profiler.leave("unregisterRemovedConnectors");
             }
 
-            private JsArrayString createConnectorsIfNeeded(ValueMap json) {
-                getLogger().info(" * Creating connectors (if needed)");
+            /**
+             * Creates the next batch of connectors that are mentioned in the
+             * message but do not yet exist.
+             *
+             * @param json
+             *            the message being processed
+             * @return <code>true</code> if there are more connectors to
+             *         handle, <code>false</code> if done
+             */
+            private boolean createConnectorsIfNeeded(ValueMap json) {
+                if (batchIndex == 0) {
+                    getLogger().info(" * Creating connectors (if needed)");
+                }
 
-                JsArrayString createdConnectors = JavaScriptObject.createArray()
-                        .cast();
                 if (!json.containsKey("types")) {
-                    return createdConnectors;
+                    return false;
                 }
 
                 Profiler.enter("Creating connectors");
 
                 ValueMap types = json.getValueMap("types");
-                JsArrayString keyArray = types.getKeyArray();
-                for (int i = 0; i < keyArray.length(); i++) {
+                JsArrayString keyArray = getBatchKeys(types);
+                int batchEnd = getBatchEnd();
+                for (int i = batchIndex; i < batchEnd; i++) {
                     try {
                         String connectorId = keyArray.get(i);
                         ServerConnector connector = getConnectorMap()
@@ -877,7 +1107,7 @@ public class MessageHandler {
                             Profiler.leave(
                                     "ApplicationConnection.getConnector");
 
-                            createdConnectors.push(connectorId);
+                            createdConnectorIds.push(connectorId);
                         } else {
                             // First UIConnector update. Before this the
                             // UIConnector has been created but not
@@ -886,17 +1116,45 @@ public class MessageHandler {
                             getConnectorMap().registerConnector(connectorId,
                                     getUIConnector());
                             getUIConnector().doInit(connectorId, connection);
-                            createdConnectors.push(connectorId);
+                            createdConnectorIds.push(connectorId);
                         }
                     } catch (final Throwable e) {
                         getLogger().log(Level.SEVERE,
                                 "Error handling type data", e);
                     }
                 }
+                batchIndex = batchEnd;
 
                 Profiler.leave("Creating connectors");
 
-                return createdConnectors;
+                return batchEnd < keyArray.length();
+            }
+
+            /**
+             * Marks the components affected by the connectors updated by this
+             * message as needing measuring. Updates to extensions and other
+             * non-component connectors are attributed to the closest component
+             * ancestor.
+             *
+             * @param layoutManager
+             *            the layout manager to mark the components for
+             */
+            private void setUpdatedConnectorsNeedMeasure(
+                    LayoutManager layoutManager) {
+                JsArrayString ids = updatedConnectorIds.dump();
+                int length = ids.length();
+                for (int i = 0; i < length; i++) {
+                    ServerConnector connector = getConnectorMap()
+                            .getConnector(ids.get(i));
+                    while (connector != null
+                            && !(connector instanceof ComponentConnector)) {
+                        connector = connector.getParent();
+                    }
+                    if (connector != null) {
+                        layoutManager.setNeedsMeasure(
+                                (ComponentConnector) connector);
+                    }
+                }
             }
 
             private void updateVaadin6StyleConnectors(ValueMap json) {
@@ -918,6 +1176,7 @@ public class MessageHandler {
                         final UIDL change = changes.get(i).cast();
                         final UIDL uidl = change.getChildUIDL(0);
                         String connectorId = uidl.getId();
+                        updatedConnectorIds.add(connectorId);
 
                         final ComponentConnector legacyConnector = (ComponentConnector) getConnectorMap()
                                 .getConnector(connectorId);
@@ -969,6 +1228,8 @@ public class MessageHandler {
                     ConnectorHierarchyChangeEvent event = events.get(i);
                     try {
                         logHierarchyChange(event);
+                        updatedConnectorIds
+                                .add(event.getConnector().getConnectorId());
                         event.getConnector().fireEvent(event);
                     } catch (final Throwable e) {
                         getLogger().log(Level.SEVERE,
@@ -1003,24 +1264,37 @@ public class MessageHandler {
                 getLogger().info(newChildren);
             }
 
-            private JsArrayObject<StateChangeEvent> updateConnectorState(
-                    ValueMap json, JsArrayString createdConnectorIds) {
-                JsArrayObject<StateChangeEvent> events = JavaScriptObject
-                        .createArray().cast();
-                getLogger().info(" * Updating connector states");
+            /**
+             * Updates the state of the next batch of connectors, collecting
+             * the state change events to fire once all states and the
+             * hierarchy have been updated.
+             *
+             * @param json
+             *            the message being processed
+             * @return <code>true</code> if there are more connectors to
+             *         handle, <code>false</code> if done
+             */
+            private boolean updateConnectorState(ValueMap json) {
+                JsArrayObject<StateChangeEvent> events = pendingStateChangeEvents;
+                if (batchIndex == 0) {
+                    getLogger().info(" * Updating connector states");
+                }
                 if (!json.containsKey("state")) {
-                    return events;
+                    return false;
                 }
 
                 Profiler.enter("updateConnectorState");
 
-                FastStringSet remainingNewConnectors = FastStringSet.create();
-                remainingNewConnectors.addAll(createdConnectorIds);
+                if (remainingNewConnectors == null) {
+                    remainingNewConnectors = FastStringSet.create();
+                    remainingNewConnectors.addAll(createdConnectorIds);
+                }
 
                 // set states for all paintables mentioned in "state"
                 ValueMap states = json.getValueMap("state");
-                JsArrayString keyArray = states.getKeyArray();
-                for (int i = 0; i < keyArray.length(); i++) {
+                JsArrayString keyArray = getBatchKeys(states);
+                int batchEnd = getBatchEnd();
+                for (int i = batchIndex; i < batchEnd; i++) {
                     try {
                         String connectorId = keyArray.get(i);
                         ServerConnector connector = getConnectorMap()
@@ -1082,6 +1356,7 @@ public class MessageHandler {
                             StateChangeEvent event = new StateChangeEvent(
                                     connector, stateJson, isNewConnector);
                             events.add(event);
+                            updatedConnectorIds.add(connectorId);
                             Profiler.leave("updateConnectorState create event");
 
                             Profiler.leave("updateConnectorState inner loop");
@@ -1091,6 +1366,12 @@ public class MessageHandler {
                                 "Error updating connector states", e);
                     }
                 }
+                batchIndex = batchEnd;
+
+                if (batchEnd < keyArray.length()) {
+                    Profiler.leave("updateConnectorState");
+                    return true;
+                }
 
                 Profiler.enter("updateConnectorState newWithoutState");
                 // Fire events for properties using the default value for newly
@@ -1106,13 +1387,14 @@ public class MessageHandler {
                             Json.createObject(), true);
 
                     events.add(event);
+                    updatedConnectorIds.add(connectorId);
 
                 }
                 Profiler.leave("updateConnectorState newWithoutState");
 
                 Profiler.leave("updateConnectorState");
 
-                return events;
+                return false;
             }
 
             /**
@@ -1135,7 +1417,6 @@ public class MessageHandler {
                 Profiler.enter("updateConnectorHierarchy");
 
                 FastStringSet maybeDetached = FastStringSet.create();
-                FastStringSet hasHierarchy = FastStringSet.create();
 
                 // Process regular hierarchy data
                 if (json.containsKey("hierarchy")) {
@@ -1145,30 +1426,14 @@ public class MessageHandler {
                         String connectorId = hierarchyKeys.get(i);
                         JsArrayString childConnectorIds = hierarchies
                                 .getJSStringArray(connectorId);
-                        hasHierarchy.add(connectorId);
 
                         updateConnectorHierarchy(connectorId, childConnectorIds,
                                 maybeDetached, result);
                     }
                 }
 
-                // Assume empty hierarchy for connectors with state updates but
-                // no hierarchy data
-                if (json.containsKey("state")) {
-                    JsArrayString stateKeys = json.getValueMap("state")
-                            .getKeyArray();
-
-                    JsArrayString emptyArray = JavaScriptObject.createArray()
-                            .cast();
-
-                    for (int i = 0; i < stateKeys.length(); i++) {
-                        String connectorId = stateKeys.get(i);
-                        if (!hasHierarchy.contains(connectorId)) {
-                            updateConnectorHierarchy(connectorId, emptyArray,
-                                    maybeDetached, result);
-                        }
-                    }
-                }
+                // Connectors without hierarchy data have the same children as
+                // before, the server only sends changed hierarchies
 
                 Profiler.enter(
                         "updateConnectorHierarchy detach removed connectors");
@@ -1481,9 +1746,11 @@ public class MessageHandler {
                                     .parseAndApplyInvocation(rpcCall,
                                             connection);
 
-                            if (onlyNoLayoutUpdates && !RpcManager
-                                    .getMethod(invocation).isNoLayout()) {
+                            if (!RpcManager.getMethod(invocation)
+                                    .isNoLayout()) {
                                 onlyNoLayoutUpdates = false;
+                                updatedConnectorIds
+                                        .add(invocation.getConnectorId());
                             }
 
                         } catch (final Throwable e) {
@@ -1559,6 +1826,12 @@ public class MessageHandler {
     Timer forceHandleMessage = new Timer() {
         @Override
         public void run() {
+            if (processingInChunks) {
+                // Still working on the current message, which holds the lock
+                // until done to keep the messages in order
+                schedule(MAX_SUSPENDED_TIMEOUT);
+                return;
+            }
             if (!responseHandlingLocks.isEmpty()) {
                 // Lock which was never release -> bug in locker or things just
                 // too slow
@@ -1722,6 +1995,64 @@ public class MessageHandler {
         return updatingState;
     }
 
+    /**
+     * Checks whether a message is being processed in chunks. Events are
+     * handled between the chunks, so event handlers may run while
+     * {@link #isUpdatingState()} is <code>true</code>.
+     *
+     * @see #setChunkedProcessingThreshold(int)
+     * @since 8.2
+     *
+     * @return <code>true</code> if a message is being processed in chunks,
+     *         <code>false</code> otherwise
+     */
+    public boolean isProcessingInChunks() {
+        return processingInChunks;
+    }
+
+    /**
+     * Sets the number of connector state updates a message must contain for
+     * it to be processed in chunks. A message processed in chunks lets the
+     * browser handle other events between the processing phases and between
+     * batches of connectors, and shows its progress in the loading indicator.
+     * Messages are still processed one at a time and in the order they were
+     * sent by the server.
+     * <p>
+     * The default is <code>-1</code>, which means that messages are never
+     * processed in chunks.
+     *
+     * @since 8.2
+     * @param chunkedProcessingThreshold
+     *            the number of state updates needed for processing a message
+     *            in chunks, or <code>-1</code> to always process messages at
+     *            once
+     */
+    public void setChunkedProcessingThreshold(int chunkedProcessingThreshold) {
+        this.chunkedProcessingThreshold = chunkedProcessingThreshold;
+    }
+
+    /**
+     * Gets the number of connector state updates a message must contain for
+     * it to be processed in chunks.
+     *
+     * @since 8.2
+     * @return the number of state updates needed for processing a message in
+     *         chunks, or <code>-1</code> if messages are always processed at
+     *         once
+     * @see #setChunkedProcessingThreshold(int)
+     */
+    public int getChunkedProcessingThreshold() {
+        return chunkedProcessingThreshold;
+    }
+
+    private boolean isChunkedProcessingNeeded(ValueMap json) {
+        if (chunkedProcessingThreshold < 0 || !json.containsKey("state")) {
+            return false;
+        }
+        return json.getValueMap("state").getKeyArray()
+                .length() >= chunkedProcessingThreshold;
+    }
+
     /**
      * Checks if the first UIDL has been handled
      *
@@ -89,6 +89,16 @@ public class DataCommunicatorConnector extends AbstractExtensionConnector {
                         public void removeRows(int firstRowIndex, int count) {
                             removeRowData(firstRowIndex, count);
                         }
+
+                        @Override
+                        public void updateSize(int newSize) {
+                            int oldSize = size();
+                            if (newSize > oldSize) {
+                                insertRowData(oldSize, newSize - oldSize);
+                            } else if (newSize < oldSize) {
+                                removeRowData(newSize, oldSize - newSize);
+                            }
+                        }
                     });
         }
 
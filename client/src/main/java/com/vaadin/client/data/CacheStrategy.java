@@ -127,6 +127,104 @@ public interface CacheStrategy {
         }
     }
 
+    /**
+     * A cache strategy that prefetches in the direction the user is scrolling.
+     * The total amount of cached rows is the same as for
+     * {@link DefaultCacheStrategy} with the same ratios, but while scrolling
+     * three quarters of it is placed ahead of the displayed range and only one
+     * quarter behind it. Before any scrolling has been observed, the cache is
+     * symmetrical.
+     *
+     * @since 8.2
+     */
+    public static class ScrollDirectionCacheStrategy implements CacheStrategy {
+        private final int minimumRatio;
+        private final int maximumRatio;
+
+        private int lastDisplayedStart = -1;
+        private int direction = 0;
+
+        /**
+         * Creates a ScrollDirectionCacheStrategy caching as much data as a
+         * {@link DefaultCacheStrategy} with its default ratios.
+         */
+        public ScrollDirectionCacheStrategy() {
+            this(3, 4);
+        }
+
+        /**
+         * Creates a ScrollDirectionCacheStrategy with custom ratios for how
+         * much data to cache. The ratios denote how many multiples of the
+         * currently used page size would be kept in each direction if the
+         * cache was symmetrical.
+         *
+         * @param minimumRatio
+         *            the minimum number of pages to keep in the cache in each
+         *            direction on average
+         * @param maximumRatio
+         *            the maximum number of pages to keep in the cache in each
+         *            direction on average
+         */
+        public ScrollDirectionCacheStrategy(int minimumRatio,
+                int maximumRatio) {
+            this.minimumRatio = minimumRatio;
+            this.maximumRatio = maximumRatio;
+        }
+
+        @Override
+        public void onDataArrive(double roundTripTime, int rowCount) {
+            // NOP
+        }
+
+        @Override
+        public Range getMinCacheRange(Range displayedRange, Range cachedRange,
+                Range estimatedAvailableRange) {
+            // Only the displayed range reveals the scrolling direction, the
+            // max cache range is also evaluated for received rows
+            int start = displayedRange.getStart();
+            if (lastDisplayedStart >= 0 && start != lastDisplayedStart) {
+                direction = start > lastDisplayedStart ? 1 : -1;
+            }
+            lastDisplayedStart = start;
+
+            return expand(displayedRange,
+                    displayedRange.length() * minimumRatio)
+                            .restrictTo(estimatedAvailableRange);
+        }
+
+        @Override
+        public Range getMaxCacheRange(Range displayedRange, Range cachedRange,
+                Range estimatedAvailableRange) {
+            return expand(displayedRange,
+                    displayedRange.length() * maximumRatio)
+                            .restrictTo(estimatedAvailableRange);
+        }
+
+        /**
+         * Gets the current scrolling direction.
+         *
+         * @return <code>1</code> when scrolling down, <code>-1</code> when
+         *         scrolling up and <code>0</code> if no scrolling has been
+         *         observed yet
+         */
+        public int getDirection() {
+            return direction;
+        }
+
+        private Range expand(Range range, int cacheSize) {
+            if (direction == 0) {
+                return range.expand(cacheSize, cacheSize);
+            }
+            int behind = cacheSize / 2;
+            int ahead = 2 * cacheSize - behind;
+            if (direction > 0) {
+                return range.expand(behind, ahead);
+            } else {
+                return range.expand(ahead, behind);
+            }
+        }
+    }
+
     /**
      * Called whenever data requested by the data source has arrived. This
      * information can e.g. be used for measuring how long it takes to fetch
@@ -0,0 +1,306 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.data;
+
+import java.util.HashMap;
+import java.util.function.Function;
+
+/**
+ * Array backed storage for the rows cached by {@link AbstractRemoteDataSource}.
+ * <p>
+ * The rows are kept in a ring buffer covering a window of consecutive row
+ * indices, which gives constant time lookup by index without boxing the index.
+ * Row keys are mapped to positions relative to a common offset, so that moving
+ * all cached rows by the same amount, which happens whenever rows are inserted
+ * or removed before the cached range, is a constant time operation.
+ *
+ * @since 8.2
+ * @author Vaadin Ltd
+ * @param <T>
+ *            the row type
+ */
+class RowCache<T> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final Function<T, Object> keyProvider;
+
+    private final HashMap<Object, Integer> keyToPosition = new HashMap<>();
+
+    private Object[] slots = new Object[MIN_CAPACITY];
+
+    /** Physical slot of the first row in the window. */
+    private int head = 0;
+
+    /** Row index of the first row in the window. */
+    private int firstIndex = 0;
+
+    /** Number of row indices covered by the window, including holes. */
+    private int length = 0;
+
+    /** Difference between the row index and the stored key position. */
+    private int indexOffset = 0;
+
+    /**
+     * Creates a new row cache.
+     *
+     * @param keyProvider
+     *            function for getting the key of a row, not <code>null</code>
+     */
+    RowCache(Function<T, Object> keyProvider) {
+        this.keyProvider = keyProvider;
+    }
+
+    /**
+     * Gets the row at the given index.
+     *
+     * @param index
+     *            the row index
+     * @return the row, or <code>null</code> if not cached
+     */
+    @SuppressWarnings("unchecked")
+    T get(int index) {
+        if (!isInWindow(index)) {
+            return null;
+        }
+        return (T) slots[slotOf(index)];
+    }
+
+    /**
+     * Stores a row at the given index, replacing any previous row at that
+     * index.
+     *
+     * @param index
+     *            the row index
+     * @param row
+     *            the row to store, not <code>null</code>
+     */
+    void put(int index, T row) {
+        cover(index);
+        int slot = slotOf(index);
+        forgetKey(slots[slot]);
+        slots[slot] = row;
+        keyToPosition.put(keyProvider.apply(row),
+                Integer.valueOf(index - indexOffset));
+    }
+
+    /**
+     * Removes the row at the given index.
+     *
+     * @param index
+     *            the row index
+     * @return the removed row, or <code>null</code> if there was no row
+     */
+    @SuppressWarnings("unchecked")
+    T remove(int index) {
+        if (!isInWindow(index)) {
+            return null;
+        }
+        int slot = slotOf(index);
+        T removed = (T) slots[slot];
+        slots[slot] = null;
+        forgetKey(removed);
+        trim();
+        return removed;
+    }
+
+    /**
+     * Gets the index of the row with the given key.
+     *
+     * @param key
+     *            the row key
+     * @return the row index, or <code>-1</code> if no such row is cached
+     */
+    int indexOfKey(Object key) {
+        Integer position = keyToPosition.get(key);
+        if (position == null) {
+            return -1;
+        }
+        return position.intValue() + indexOffset;
+    }
+
+    /**
+     * Checks whether a row with the given key is cached.
+     *
+     * @param key
+     *            the row key
+     * @return <code>true</code> if the key is cached, <code>false</code>
+     *         otherwise
+     */
+    boolean containsKey(Object key) {
+        return keyToPosition.containsKey(key);
+    }
+
+    /**
+     * Moves all cached rows by the same amount in constant time.
+     *
+     * @param delta
+     *            the amount to add to the index of every cached row
+     */
+    void shift(int delta) {
+        firstIndex += delta;
+        indexOffset += delta;
+    }
+
+    /**
+     * Closes a gap left by removed rows: every row at or after
+     * <code>gapStart + gapLength</code> is moved <code>gapLength</code> steps
+     * down. The rows inside the gap must already have been removed. Only the
+     * smaller part of the cache on either side of the gap is touched.
+     *
+     * @param gapStart
+     *            the index of the first removed row
+     * @param gapLength
+     *            the number of removed rows
+     */
+    void closeGap(int gapStart, int gapLength) {
+        int windowEnd = firstIndex + length;
+        int gapEnd = gapStart + gapLength;
+        if (length == 0 || gapEnd >= windowEnd) {
+            // nothing after the gap
+            return;
+        }
+
+        int headEnd = Math.min(gapStart, windowEnd);
+        int headCount = Math.max(0, headEnd - firstIndex);
+        int tailStart = Math.max(gapEnd, firstIndex);
+        int tailCount = windowEnd - tailStart;
+
+        if (headCount == 0) {
+            shift(-gapLength);
+        } else if (tailCount <= headCount) {
+            for (int i = tailStart; i < windowEnd; i++) {
+                move(i, i - gapLength);
+            }
+        } else {
+            int headStart = firstIndex;
+            for (int i = headEnd - 1; i >= headStart; i--) {
+                move(i, i + gapLength);
+            }
+            shift(-gapLength);
+        }
+    }
+
+    /**
+     * Removes all rows.
+     */
+    void clear() {
+        slots = new Object[MIN_CAPACITY];
+        keyToPosition.clear();
+        head = 0;
+        firstIndex = 0;
+        length = 0;
+        indexOffset = 0;
+    }
+
+    private void move(int from, int to) {
+        T row = remove(from);
+        if (get(to) != null) {
+            // Old row is about to be overwritten
+            remove(to);
+        }
+        if (row != null) {
+            put(to, row);
+        }
+    }
+
+    private boolean isInWindow(int index) {
+        return index >= firstIndex && index < firstIndex + length;
+    }
+
+    private int slotOf(int index) {
+        return (head + index - firstIndex) % slots.length;
+    }
+
+    private void forgetKey(Object row) {
+        if (row != null) {
+            @SuppressWarnings("unchecked")
+            Object key = keyProvider.apply((T) row);
+            keyToPosition.remove(key);
+        }
+    }
+
+    /**
+     * Extends the window to cover the given index. Rows are normally added
+     * next to the existing ones, so the window only grows by the rows that are
+     * actually received. Stale rows should be removed before adding rows that
+     * are not next to the window, since the window also covers the gap in
+     * between.
+     */
+    private void cover(int index) {
+        if (length == 0) {
+            head = 0;
+            firstIndex = index;
+            length = 1;
+        } else if (index >= firstIndex + length) {
+            int newLength = index - firstIndex + 1;
+            ensureCapacity(newLength);
+            length = newLength;
+        } else if (index < firstIndex) {
+            int extra = firstIndex - index;
+            ensureCapacity(length + extra);
+            head = (head - extra + slots.length) % slots.length;
+            firstIndex = index;
+            length += extra;
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > slots.length) {
+            resize(Math.max(capacity, slots.length * 2));
+        }
+    }
+
+    private void resize(int capacity) {
+        Object[] newSlots = new Object[capacity];
+        for (int i = 0; i < length; i++) {
+            newSlots[i] = slots[(head + i) % slots.length];
+        }
+        slots = newSlots;
+        head = 0;
+    }
+
+    /**
+     * Shrinks the window so that it starts and ends with a row, and releases
+     * the slots when the window has become much smaller than the capacity.
+     * Slots outside the window are always empty.
+     */
+    private void trim() {
+        while (length > 0 && slots[head] == null) {
+            head = (head + 1) % slots.length;
+            firstIndex++;
+            length--;
+        }
+        while (length > 0 && slots[slotOf(firstIndex + length - 1)] == null) {
+            length--;
+        }
+        if (length == 0) {
+            head = 0;
+        }
+        if (slots.length > MIN_CAPACITY && length <= slots.length / 4) {
+            resize(Math.max(MIN_CAPACITY, slots.length / 2));
+        }
+    }
+
+    /**
+     * Gets the number of allocated slots.
+     *
+     * @return the capacity
+     */
+    int getCapacity() {
+        return slots.length;
+    }
+}
@@ -26,6 +26,8 @@ import com.google.gwt.user.client.ui.HorizontalPanel;
 import com.google.gwt.user.client.ui.Label;
 import com.google.gwt.user.client.ui.Widget;
 import com.vaadin.client.ApplicationConnection;
+import com.vaadin.client.LayoutManager;
+import com.vaadin.client.LayoutManager.LayoutPass;
 import com.vaadin.client.Profiler;
 import com.vaadin.client.Profiler.Node;
 import com.vaadin.client.Profiler.ProfilerResultConsumer;
@@ -156,7 +158,27 @@ public class ProfilerSection implements Section {
 
     @Override
     public void uidl(ApplicationConnection ac, ValueMap uidl) {
-        // Nothing to do
+        if (!Profiler.isEnabled()) {
+            return;
+        }
+        List<LayoutPass> passes = LayoutManager.get(ac).getLastLayoutPasses();
+        if (passes.isEmpty()) {
+            return;
+        }
+
+        double totalTime = 0;
+        SimpleTree tree = new SimpleTree("");
+        for (int i = 0; i < passes.size(); i++) {
+            LayoutPass pass = passes.get(i);
+            totalTime += pass.getDuration();
+            tree.add(new Label("Pass " + (i + 1) + ": " + pass));
+        }
+        tree.setText("Layout phase with " + passes.size() + " passes using "
+                + Util.round(totalTime, 3) + " ms");
+        tree.open(false);
+
+        content.add(tree);
+        applyLimit();
     }
 
 }
@@ -234,6 +234,37 @@ public abstract class ConnectorBundleLoader {
         }
     }
 
+    /**
+     * Starts loading the bundles containing the given connectors if loading
+     * them hasn't already been started. This is used for loading bundles that
+     * are likely to be needed before they are actually needed.
+     *
+     * @param identifiers
+     *            the server-side class names of the connectors
+     * @since 8.2
+     */
+    public void preloadBundles(JsArrayString identifiers) {
+        for (int i = 0; i < identifiers.length(); i++) {
+            String bundleName = getBundleForIdentifier(identifiers.get(i));
+            if (bundleName == null || asyncBlockLoaders.get(bundleName)
+                    .getState() != State.NOT_STARTED) {
+                continue;
+            }
+            loadBundle(bundleName, new BundleLoadCallback() {
+                @Override
+                public void loaded() {
+                    // Nothing to do
+                }
+
+                @Override
+                public void failed(Throwable reason) {
+                    getLogger().log(Level.SEVERE,
+                            "Error preloading bundle " + bundleName, reason);
+                }
+            });
+        }
+    }
+
     private static Logger getLogger() {
         return Logger.getLogger(ConnectorBundleLoader.class.getName());
     }
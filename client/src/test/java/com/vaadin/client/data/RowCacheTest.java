@@ -0,0 +1,166 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.client.data;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.client.data.CacheStrategy.ScrollDirectionCacheStrategy;
+import com.vaadin.shared.Range;
+
+public class RowCacheTest {
+
+    private RowCache<String> cache;
+
+    @Before
+    public void setUp() {
+        cache = new RowCache<>(row -> "key-" + row);
+    }
+
+    private void fill(int start, int end) {
+        for (int i = start; i < end; i++) {
+            cache.put(i, "row" + i);
+        }
+    }
+
+    private void assertRows(int start, int end, int originalStart) {
+        for (int i = start; i < end; i++) {
+            String row = "row" + (originalStart + i - start);
+            Assert.assertEquals(row, cache.get(i));
+            Assert.assertEquals(i, cache.indexOfKey("key-" + row));
+        }
+    }
+
+    @Test
+    public void putAndGet() {
+        fill(100, 150);
+        assertRows(100, 150, 100);
+        Assert.assertNull(cache.get(99));
+        Assert.assertNull(cache.get(150));
+        Assert.assertEquals(-1, cache.indexOfKey("key-row99"));
+    }
+
+    @Test
+    public void prependAndAppend() {
+        fill(50, 60);
+        fill(40, 50);
+        fill(60, 100);
+        assertRows(40, 100, 40);
+    }
+
+    @Test
+    public void removeFromStartAndReuseSlots() {
+        fill(0, 20);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("row" + i, cache.remove(i));
+        }
+        fill(20, 30);
+        assertRows(10, 30, 10);
+        Assert.assertFalse(cache.containsKey("key-row0"));
+    }
+
+    @Test
+    public void shift() {
+        fill(10, 20);
+        cache.shift(5);
+        assertRows(15, 25, 10);
+        cache.shift(-15);
+        assertRows(0, 10, 10);
+    }
+
+    @Test
+    public void closeGap_smallTail() {
+        fill(0, 20);
+        for (int i = 15; i < 17; i++) {
+            cache.remove(i);
+        }
+        cache.closeGap(15, 2);
+        assertRows(0, 15, 0);
+        assertRows(15, 18, 17);
+        Assert.assertNull(cache.get(18));
+    }
+
+    @Test
+    public void closeGap_smallHead() {
+        fill(0, 20);
+        for (int i = 2; i < 5; i++) {
+            cache.remove(i);
+        }
+        cache.closeGap(2, 3);
+        assertRows(0, 2, 0);
+        assertRows(2, 17, 5);
+        Assert.assertNull(cache.get(17));
+    }
+
+    @Test
+    public void closeGap_beforeWindow() {
+        fill(10, 20);
+        cache.closeGap(0, 5);
+        assertRows(5, 15, 10);
+    }
+
+    @Test
+    public void removeRows_capacityShrinks() {
+        fill(0, 1000);
+        int capacity = cache.getCapacity();
+        Assert.assertTrue(capacity >= 1000);
+
+        for (int i = 0; i < 990; i++) {
+            cache.remove(i);
+        }
+        assertRows(990, 1000, 990);
+        Assert.assertTrue(cache.getCapacity() < capacity / 4);
+
+        for (int i = 990; i < 1000; i++) {
+            cache.remove(i);
+        }
+        Assert.assertEquals(16, cache.getCapacity());
+    }
+
+    @Test
+    public void clear() {
+        fill(0, 10);
+        cache.clear();
+        Assert.assertNull(cache.get(0));
+        Assert.assertFalse(cache.containsKey("key-row0"));
+    }
+
+    @Test
+    public void scrollDirectionCacheStrategy_prefetchesAhead() {
+        ScrollDirectionCacheStrategy strategy = new ScrollDirectionCacheStrategy(
+                1, 2);
+        Range available = Range.withLength(0, 1000);
+
+        Range symmetric = strategy.getMaxCacheRange(Range.withLength(100, 10),
+                Range.withLength(0, 0), available);
+        Assert.assertEquals(Range.between(80, 130), symmetric);
+
+        strategy.getMinCacheRange(Range.withLength(100, 10),
+                Range.withLength(0, 0), available);
+        strategy.getMinCacheRange(Range.withLength(200, 10),
+                Range.withLength(0, 0), available);
+        Assert.assertEquals(1, strategy.getDirection());
+        Assert.assertEquals(Range.between(190, 240), strategy.getMaxCacheRange(
+                Range.withLength(200, 10), Range.withLength(0, 0), available));
+
+        strategy.getMinCacheRange(Range.withLength(150, 10),
+                Range.withLength(0, 0), available);
+        Assert.assertEquals(-1, strategy.getDirection());
+        Assert.assertEquals(Range.between(120, 170), strategy.getMaxCacheRange(
+                Range.withLength(150, 10), Range.withLength(0, 0), available));
+    }
+}
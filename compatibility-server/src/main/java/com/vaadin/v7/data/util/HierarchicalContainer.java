@@ -22,6 +22,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -484,6 +485,27 @@ public class HierarchicalContainer extends IndexedContainer
         }
     }
 
+    @Override
+    public List<Object> addItems(Collection<?> itemIds) {
+        disableContentsChangeEvents();
+        try {
+            final List<Object> added = super.addItems(itemIds);
+
+            roots.addAll(added);
+
+            if (filteredRoots != null) {
+                for (Object itemId : added) {
+                    if (passesFilters(itemId)) {
+                        filteredRoots.add(itemId);
+                    }
+                }
+            }
+            return added;
+        } finally {
+            enableAndFireContentsChangeEvents();
+        }
+    }
+
     @Override
     public boolean removeAllItems() {
         disableContentsChangeEvents();
@@ -18,6 +18,7 @@ package com.vaadin.v7.data.util;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EventObject;
@@ -82,10 +83,10 @@ public class IndexedContainer
     private Hashtable<Object, Class<?>> types = new Hashtable<Object, Class<?>>();
 
     /**
-     * Hash of Items, where each Item is implemented as a mapping from Property
-     * ID to Property value.
+     * Storage for the Property values of the Items, laid out according to the
+     * {@link StorageMode} of the container.
      */
-    private Hashtable<Object, Map<Object, Object>> items = new Hashtable<Object, Map<Object, Object>>();
+    private ItemStorage items = new ItemMapStorage();
 
     /**
      * Set of properties that are read-only.
@@ -116,6 +117,24 @@ public class IndexedContainer
         super();
     }
 
+    /**
+     * Creates an empty container that stores the Property values of its Items
+     * using the given layout.
+     *
+     * @param storageMode
+     *            the storage layout to use, not <code>null</code>
+     * @since 8.2
+     */
+    public IndexedContainer(StorageMode storageMode) {
+        this();
+        if (storageMode == null) {
+            throw new IllegalArgumentException("storageMode cannot be null");
+        }
+        if (storageMode == StorageMode.COLUMNAR) {
+            items = new ColumnarStorage();
+        }
+    }
+
     public IndexedContainer(Collection<?> itemIds) {
         this();
         if (items != null) {
@@ -132,7 +151,7 @@ public class IndexedContainer
 
     @Override
     protected Item getUnfilteredItem(Object itemId) {
-        if (itemId != null && items.containsKey(itemId)) {
+        if (itemId != null && items.contains(itemId)) {
             return new IndexedContainerItem(itemId);
         }
         return null;
@@ -213,7 +232,7 @@ public class IndexedContainer
 
         internalRemoveAllItems();
 
-        items.clear();
+        items.removeAllItems();
 
         // fire event only if the visible view changed, regardless of whether
         // filtered out items were removed or not
@@ -261,22 +280,60 @@ public class IndexedContainer
     }
 
     /**
-     * Helper method to add default values for items if available
+     * Adds the given items at the end of the container and fires a single
+     * {@link Container.ItemSetChangeEvent} for all of them. Ids that are
+     * <code>null</code> or already present in the container are skipped.
+     * <p>
+     * This is considerably faster than calling {@link #addItem(Object)} for
+     * each id when loading large amounts of data, especially when the
+     * container is filtered or has listeners.
      *
-     * @param t
-     *            data table of added item
+     * @param itemIds
+     *            the ids of the items to add, not <code>null</code>
+     * @return the ids of the items that were added, in the order they were
+     *         added
+     * @since 8.2
      */
-    private void addDefaultValues(Hashtable<Object, Object> t) {
-        if (defaultPropertyValues != null) {
-            for (Object key : defaultPropertyValues.keySet()) {
-                t.put(key, defaultPropertyValues.get(key));
+    public List<Object> addItems(Collection<?> itemIds) {
+        int origSize = size();
+        List<Object> added = new ArrayList<Object>(itemIds.size());
+
+        items.ensureCapacity(itemIds.size());
+        for (Object itemId : itemIds) {
+            if (itemId != null && internalAddItemAtEnd(itemId,
+                    new IndexedContainerItem(itemId), false) != null) {
+                added.add(itemId);
             }
         }
+
+        if (!added.isEmpty()) {
+            // Filter the contents when all items have been added
+            if (isFiltered()) {
+                doFilterContainer(!getFilters().isEmpty());
+            }
+            if (size() > origSize) {
+                // fire one event about all added items
+                fireItemsAdded(origSize, getVisibleItemIds().get(origSize),
+                        size() - origSize);
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Gets the storage layout used for the Property values of the Items.
+     *
+     * @return the storage mode, not <code>null</code>
+     * @since 8.2
+     */
+    public StorageMode getStorageMode() {
+        return items instanceof ColumnarStorage ? StorageMode.COLUMNAR
+                : StorageMode.ITEM_MAP;
     }
 
     @Override
     public boolean removeItem(Object itemId) {
-        if (itemId == null || items.remove(itemId) == null) {
+        if (itemId == null || !items.removeItem(itemId)) {
             return false;
         }
         int origSize = size();
@@ -310,10 +367,7 @@ public class IndexedContainer
         }
 
         // If remove the Property from all Items
-        for (final Iterator<Object> i = getAllItemIds().iterator(); i
-                .hasNext();) {
-            items.get(i.next()).remove(propertyId);
-        }
+        items.removeProperty(propertyId);
 
         // Sends a change event
         fireContainerPropertySetChange();
@@ -382,16 +436,14 @@ public class IndexedContainer
         Serializable id;
         do {
             id = Integer.valueOf(nextGeneratedItemId++);
-        } while (items.containsKey(id));
+        } while (items.contains(id));
 
         return id;
     }
 
     @Override
     protected void registerNewItem(int index, Object newItemId, Item item) {
-        Hashtable<Object, Object> t = new Hashtable<Object, Object>();
-        items.put(newItemId, t);
-        addDefaultValues(t);
+        items.addItem(newItemId, defaultPropertyValues);
     }
 
     /* Event notifiers */
@@ -829,7 +881,7 @@ public class IndexedContainer
 
         @Override
         public T getValue() {
-            return (T) items.get(itemId).get(propertyId);
+            return (T) items.getValue(itemId, propertyId);
         }
 
         @Override
@@ -849,14 +901,10 @@ public class IndexedContainer
         @Override
         public void setValue(Object newValue)
                 throws Property.ReadOnlyException {
-            // Gets the Property set
-            final Map<Object, Object> propertySet = items.get(itemId);
-
             // Support null values on all types
-            if (newValue == null) {
-                propertySet.remove(propertyId);
-            } else if (getType().isAssignableFrom(newValue.getClass())) {
-                propertySet.put(propertyId, newValue);
+            if (newValue == null
+                    || getType().isAssignableFrom(newValue.getClass())) {
+                items.setValue(itemId, propertyId, newValue);
             } else {
                 throw new IllegalArgumentException(
                         "Value is of invalid type, got "
@@ -946,6 +994,249 @@ public class IndexedContainer
 
     }
 
+    /**
+     * Storage layouts for the Property values of the Items in an
+     * {@link IndexedContainer}.
+     *
+     * @since 8.2
+     */
+    @Deprecated
+    public enum StorageMode {
+        /**
+         * Each Item is stored as a separate map from Property ID to value. This
+         * is the default layout.
+         */
+        ITEM_MAP,
+
+        /**
+         * The values are stored in one array per Property ID, indexed by a row
+         * number assigned to each Item ID. This uses considerably less memory
+         * than {@link #ITEM_MAP} for containers with many Items.
+         */
+        COLUMNAR;
+    }
+
+    /**
+     * Internal storage of the Property values of the Items.
+     */
+    private interface ItemStorage extends Serializable {
+
+        boolean contains(Object itemId);
+
+        void ensureCapacity(int additionalItems);
+
+        void addItem(Object itemId, Map<Object, Object> defaultValues);
+
+        boolean removeItem(Object itemId);
+
+        void removeAllItems();
+
+        Object getValue(Object itemId, Object propertyId);
+
+        void setValue(Object itemId, Object propertyId, Object value);
+
+        void removeProperty(Object propertyId);
+
+        ItemStorage copy();
+    }
+
+    /**
+     * Stores each Item as a mapping from Property ID to Property value.
+     */
+    private static class ItemMapStorage implements ItemStorage {
+
+        private final Hashtable<Object, Map<Object, Object>> itemMaps = new Hashtable<Object, Map<Object, Object>>();
+
+        @Override
+        public boolean contains(Object itemId) {
+            return itemMaps.containsKey(itemId);
+        }
+
+        @Override
+        public void ensureCapacity(int additionalItems) {
+            // nothing to preallocate
+        }
+
+        @Override
+        public void addItem(Object itemId, Map<Object, Object> defaultValues) {
+            Hashtable<Object, Object> t = new Hashtable<Object, Object>();
+            if (defaultValues != null) {
+                t.putAll(defaultValues);
+            }
+            itemMaps.put(itemId, t);
+        }
+
+        @Override
+        public boolean removeItem(Object itemId) {
+            return itemMaps.remove(itemId) != null;
+        }
+
+        @Override
+        public void removeAllItems() {
+            itemMaps.clear();
+        }
+
+        @Override
+        public Object getValue(Object itemId, Object propertyId) {
+            return itemMaps.get(itemId).get(propertyId);
+        }
+
+        @Override
+        public void setValue(Object itemId, Object propertyId, Object value) {
+            if (value == null) {
+                itemMaps.get(itemId).remove(propertyId);
+            } else {
+                itemMaps.get(itemId).put(propertyId, value);
+            }
+        }
+
+        @Override
+        public void removeProperty(Object propertyId) {
+            for (Map<Object, Object> itemMap : itemMaps.values()) {
+                itemMap.remove(propertyId);
+            }
+        }
+
+        @Override
+        public ItemStorage copy() {
+            ItemMapStorage copy = new ItemMapStorage();
+            for (Map.Entry<Object, Map<Object, Object>> entry : itemMaps
+                    .entrySet()) {
+                copy.itemMaps.put(entry.getKey(),
+                        (Map<Object, Object>) ((Hashtable<Object, Object>) entry
+                                .getValue()).clone());
+            }
+            return copy;
+        }
+    }
+
+    /**
+     * Stores the values in one array per Property ID. Each Item ID is mapped
+     * to a row index in the arrays; rows of removed Items are reused.
+     */
+    private static class ColumnarStorage implements ItemStorage {
+
+        private static final int INITIAL_CAPACITY = 16;
+
+        private HashMap<Object, Integer> rowIndexes = new HashMap<Object, Integer>();
+
+        private HashMap<Object, Object[]> columns = new HashMap<Object, Object[]>();
+
+        private int[] freeRows = new int[0];
+
+        private int freeRowCount = 0;
+
+        private int usedRows = 0;
+
+        private int capacity = INITIAL_CAPACITY;
+
+        @Override
+        public boolean contains(Object itemId) {
+            return rowIndexes.containsKey(itemId);
+        }
+
+        @Override
+        public void ensureCapacity(int additionalItems) {
+            int needed = usedRows + Math.max(0, additionalItems - freeRowCount);
+            if (needed <= capacity) {
+                return;
+            }
+            capacity = Math.max(needed, capacity * 2);
+            for (Map.Entry<Object, Object[]> column : columns.entrySet()) {
+                column.setValue(Arrays.copyOf(column.getValue(), capacity));
+            }
+        }
+
+        @Override
+        public void addItem(Object itemId, Map<Object, Object> defaultValues) {
+            int row;
+            if (freeRowCount > 0) {
+                row = freeRows[--freeRowCount];
+            } else {
+                ensureCapacity(1);
+                row = usedRows++;
+            }
+            rowIndexes.put(itemId, row);
+            if (defaultValues != null) {
+                for (Map.Entry<Object, Object> entry : defaultValues
+                        .entrySet()) {
+                    getColumn(entry.getKey())[row] = entry.getValue();
+                }
+            }
+        }
+
+        @Override
+        public boolean removeItem(Object itemId) {
+            Integer row = rowIndexes.remove(itemId);
+            if (row == null) {
+                return false;
+            }
+            for (Object[] column : columns.values()) {
+                column[row] = null;
+            }
+            if (freeRowCount == freeRows.length) {
+                freeRows = Arrays.copyOf(freeRows,
+                        Math.max(INITIAL_CAPACITY, freeRowCount * 2));
+            }
+            freeRows[freeRowCount++] = row;
+            return true;
+        }
+
+        @Override
+        public void removeAllItems() {
+            rowIndexes = new HashMap<Object, Integer>();
+            columns = new HashMap<Object, Object[]>();
+            freeRows = new int[0];
+            freeRowCount = 0;
+            usedRows = 0;
+            capacity = INITIAL_CAPACITY;
+        }
+
+        @Override
+        public Object getValue(Object itemId, Object propertyId) {
+            Object[] column = columns.get(propertyId);
+            int row = rowIndexes.get(itemId);
+            return column == null ? null : column[row];
+        }
+
+        @Override
+        public void setValue(Object itemId, Object propertyId, Object value) {
+            int row = rowIndexes.get(itemId);
+            if (value == null && !columns.containsKey(propertyId)) {
+                return;
+            }
+            getColumn(propertyId)[row] = value;
+        }
+
+        @Override
+        public void removeProperty(Object propertyId) {
+            columns.remove(propertyId);
+        }
+
+        @Override
+        public ItemStorage copy() {
+            ColumnarStorage copy = new ColumnarStorage();
+            copy.rowIndexes = new HashMap<Object, Integer>(rowIndexes);
+            for (Map.Entry<Object, Object[]> column : columns.entrySet()) {
+                copy.columns.put(column.getKey(), column.getValue().clone());
+            }
+            copy.freeRows = freeRows.clone();
+            copy.freeRowCount = freeRowCount;
+            copy.usedRows = usedRows;
+            copy.capacity = capacity;
+            return copy;
+        }
+
+        private Object[] getColumn(Object propertyId) {
+            Object[] column = columns.get(propertyId);
+            if (column == null) {
+                column = new Object[capacity];
+                columns.put(propertyId, column);
+            }
+            return column;
+        }
+    }
+
     @Override
     public void sort(Object[] propertyId, boolean[] ascending) {
         sortContainer(propertyId, ascending);
@@ -1018,18 +1309,7 @@ public class IndexedContainer
                         .clone());
 
         // Clone property-values
-        if (items == null) {
-            nc.items = null;
-        } else {
-            nc.items = new Hashtable<Object, Map<Object, Object>>();
-            for (final Iterator<?> i = items.keySet().iterator(); i
-                    .hasNext();) {
-                final Object id = i.next();
-                final Hashtable<Object, Object> it = (Hashtable<Object, Object>) items
-                        .get(id);
-                nc.items.put(id, (Map<Object, Object>) it.clone());
-            }
-        }
+        nc.items = items != null ? items.copy() : null;
 
         return nc;
     }
@@ -366,6 +366,11 @@ public class Table extends AbstractSelect implements Action.Container,
      */
     private static final double CACHE_RATE_DEFAULT = 2;
 
+    /**
+     * The default upper bound for the number of rows kept in the cell cache.
+     */
+    private static final int CELL_CACHE_MAXIMUM_SIZE_DEFAULT = 1000;
+
     private static final String ROW_HEADER_COLUMN_KEY = "0";
     private static final Object ROW_HEADER_FAKE_PROPERTY_ID = new UniqueSerializable() {
     };
@@ -583,6 +588,13 @@ public class Table extends AbstractSelect implements Action.Container,
 
     private double cacheRate = CACHE_RATE_DEFAULT;
 
+    /**
+     * Cache of generated and formatted cells, <code>null</code> if disabled.
+     */
+    private TableCellCache cellCache = null;
+
+    private int cellCacheMaximumSize = CELL_CACHE_MAXIMUM_SIZE_DEFAULT;
+
     private TableDragMode dragMode = TableDragMode.NONE;
 
     private DropHandler dropHandler;
@@ -1106,6 +1118,87 @@ public class Table extends AbstractSelect implements Action.Container,
         return cacheRate;
     }
 
+    /**
+     * Enables or disables the cell cache.
+     * <p>
+     * When enabled, the values produced by column generators and the
+     * formatted property values are kept per item id across page buffer
+     * refreshes, so that scrolling or adding and removing single items do not
+     * run the generators again for rows that have already been rendered. The
+     * cached formatted cells of an item are dropped when the value of the
+     * property changes, and the cached generated cells when any property
+     * value of the item changes. Calling {@link #refreshRowCache()} or any
+     * other item set change, e.g. filtering, clears the whole cache.
+     * <p>
+     * The number of cached rows adapts to how fast the user scrolls, but never
+     * exceeds {@link #getCellCacheMaximumSize()}. Editable fields created by
+     * the {@link TableFieldFactory} are never cached.
+     * <p>
+     * Column generators that depend on something else than the properties
+     * of the item must not be used with the cell cache unless
+     * {@link #refreshRowCache()} is called when that data changes.
+     *
+     * @param cellCacheEnabled
+     *            <code>true</code> to enable the cell cache,
+     *            <code>false</code> to disable it
+     * @since 8.2
+     */
+    public void setCellCacheEnabled(boolean cellCacheEnabled) {
+        if (cellCacheEnabled == isCellCacheEnabled()) {
+            return;
+        }
+        if (cellCacheEnabled) {
+            cellCache = new TableCellCache(cellCacheMaximumSize);
+        } else {
+            cellCache.clear();
+            cellCache = null;
+        }
+    }
+
+    /**
+     * Checks whether the cell cache is enabled.
+     *
+     * @see #setCellCacheEnabled(boolean)
+     *
+     * @return <code>true</code> if the cell cache is enabled,
+     *         <code>false</code> otherwise
+     * @since 8.2
+     */
+    public boolean isCellCacheEnabled() {
+        return cellCache != null;
+    }
+
+    /**
+     * Sets the maximum number of rows kept in the cell cache. The default is
+     * 1000.
+     *
+     * @see #setCellCacheEnabled(boolean)
+     *
+     * @param cellCacheMaximumSize
+     *            the maximum number of cached rows, not negative
+     * @since 8.2
+     */
+    public void setCellCacheMaximumSize(int cellCacheMaximumSize) {
+        if (cellCacheMaximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "cellCacheMaximumSize cannot be less than zero");
+        }
+        this.cellCacheMaximumSize = cellCacheMaximumSize;
+        if (cellCache != null) {
+            cellCache.setMaximumSize(cellCacheMaximumSize);
+        }
+    }
+
+    /**
+     * @see #setCellCacheMaximumSize(int)
+     *
+     * @return the maximum number of rows kept in the cell cache
+     * @since 8.2
+     */
+    public int getCellCacheMaximumSize() {
+        return cellCacheMaximumSize;
+    }
+
     /**
      * Getter for property currentPageFirstItem.
      *
@@ -1755,6 +1848,11 @@ public class Table extends AbstractSelect implements Action.Container,
             rows = 0;
         }
 
+        if (cellCache != null) {
+            cellCache.updateCapacity(Math.max(rows,
+                    (int) Math.ceil(pagelen * (2 * cacheRate + 1))));
+        }
+
         // Saves the results to internal buffer
         pageBuffer = getVisibleCellsNoCache(firstIndex, rows, true);
 
@@ -2318,6 +2416,9 @@ public class Table extends AbstractSelect implements Action.Container,
                 int index = firstIndex + i;
                 if (p != null || isGenerated) {
                     int indexInOldBuffer = index - pageBufferFirstIndex;
+                    Object cachedValue = cellCache != null
+                            ? cellCache.get(id, colids[j])
+                            : TableCellCache.NOT_CACHED;
                     if (index < firstIndexNotInCache
                             && index >= pageBufferFirstIndex
                             && pageBuffer[CELL_GENERATED_ROW][indexInOldBuffer] == null
@@ -2331,12 +2432,21 @@ public class Table extends AbstractSelect implements Action.Container,
                                 || !(value instanceof Component)) {
                             listenProperty(p, oldListenedProperties);
                         }
+                    } else if (cachedValue != TableCellCache.NOT_CACHED) {
+                        // generated or formatted earlier and not changed
+                        // since, only the listeners need to be restored
+                        value = cachedValue;
+                        if (p != null) {
+                            listenProperty(p, oldListenedProperties);
+                        }
                     } else {
                         if (isGeneratedColumn) {
                             ColumnGenerator cg = columnGenerators
                                     .get(colids[j]);
+                            boolean generated = false;
                             try {
                                 value = cg.generateCell(this, id, colids[j]);
+                                generated = true;
                             } catch (Exception e) {
                                 exceptionsDuringCachePopulation.add(e);
                                 value = null;
@@ -2348,6 +2458,11 @@ public class Table extends AbstractSelect implements Action.Container,
                                 // other than a Component or a String
                                 value = value.toString();
                             }
+                            if (generated && cellCache != null) {
+                                // the generator may use any property
+                                cellCache.put(id, colids[j], value,
+                                        getItemProperties(id));
+                            }
                         } else if (iscomponent[j]) {
                             try {
                                 value = p.getValue();
@@ -2357,8 +2472,10 @@ public class Table extends AbstractSelect implements Action.Container,
                             }
                             listenProperty(p, oldListenedProperties);
                         } else if (p != null) {
+                            boolean formatted = false;
                             try {
                                 value = getPropertyValue(id, colids[j], p);
+                                formatted = true;
                             } catch (Exception e) {
                                 exceptionsDuringCachePopulation.add(e);
                                 value = null;
@@ -2373,6 +2490,10 @@ public class Table extends AbstractSelect implements Action.Container,
                              */
                             if (!(value instanceof Component)) {
                                 listenProperty(p, oldListenedProperties);
+                                if (formatted && cellCache != null) {
+                                    cellCache.put(id, colids[j], value,
+                                            Collections.singleton(p));
+                                }
                             }
                         } else {
                             try {
@@ -2657,6 +2778,9 @@ public class Table extends AbstractSelect implements Action.Container,
      * @since 6.7.2
      */
     public void refreshRowCache() {
+        if (cellCache != null) {
+            cellCache.clear();
+        }
         resetPageBuffer();
         refreshRenderedCells();
     }
@@ -2728,6 +2852,10 @@ public class Table extends AbstractSelect implements Action.Container,
 
         disableContentRefreshing();
 
+        if (cellCache != null) {
+            cellCache.clear();
+        }
+
         if (newDataSource == null) {
             newDataSource = new IndexedContainer();
         }
@@ -2954,6 +3082,9 @@ public class Table extends AbstractSelect implements Action.Container,
         if (variables.containsKey("firstvisible")) {
             final Integer value = (Integer) variables.get("firstvisible");
             if (value != null) {
+                if (cellCache != null) {
+                    cellCache.scrolled(value.intValue(), System.nanoTime());
+                }
                 setCurrentPageFirstItemIndex(value.intValue(), false);
             }
         }
@@ -4220,6 +4351,12 @@ public class Table extends AbstractSelect implements Action.Container,
         if (equals(event.getProperty())
                 || event.getProperty() == getPropertyDataSource()) {
             super.valueChange(event);
+        } else if (cellCache != null) {
+            // only the cached cells of the changed item are stale
+            cellCache.propertyChanged(event.getProperty());
+            resetPageBuffer();
+            refreshRenderedCells();
+            containerChangeToBeRendered = true;
         } else {
             refreshRowCache();
             containerChangeToBeRendered = true;
@@ -4262,6 +4399,11 @@ public class Table extends AbstractSelect implements Action.Container,
     @Override
     public void detach() {
         super.detach();
+
+        if (cellCache != null) {
+            // releases the listeners of the cached rows
+            cellCache.clear();
+        }
     }
 
     /**
@@ -4546,7 +4688,64 @@ public class Table extends AbstractSelect implements Action.Container,
         // ensure that page still has first item in page, ignore buffer refresh
         // (forced in this method)
         setCurrentPageFirstItemIndex(currentFirstItemIndex, false);
-        refreshRowCache();
+        if (cellCache != null) {
+            invalidateCellCache(event);
+            resetPageBuffer();
+            refreshRenderedCells();
+        } else {
+            refreshRowCache();
+        }
+    }
+
+    /**
+     * Gets the properties of an item for invalidating its cached generated
+     * cells when any of them changes.
+     */
+    private List<Property<?>> getItemProperties(Object itemId) {
+        Item item = getItem(itemId);
+        if (item == null) {
+            return Collections.emptyList();
+        }
+        List<Property<?>> properties = new ArrayList<>();
+        for (Object propertyId : item.getItemPropertyIds()) {
+            Property<?> property = item.getItemProperty(propertyId);
+            if (property != null) {
+                properties.add(property);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Drops the cached cells that may have become stale because of an item set
+     * change. Only a single added or removed item invalidates just its own
+     * row, since its id may be reused for different data. Any other change,
+     * e.g. a refresh or filtering, may come with changed item data and clears
+     * the whole cache.
+     *
+     * @param event
+     *            the item set change event
+     */
+    private void invalidateCellCache(Container.ItemSetChangeEvent event) {
+        if (event.getContainer().size() == 0) {
+            cellCache.clear();
+        } else if (event instanceof Container.Indexed.ItemAddEvent) {
+            Container.Indexed.ItemAddEvent addEvent = (Container.Indexed.ItemAddEvent) event;
+            if (addEvent.getAddedItemsCount() == 1) {
+                cellCache.invalidate(addEvent.getFirstItemId());
+            } else {
+                cellCache.clear();
+            }
+        } else if (event instanceof Container.Indexed.ItemRemoveEvent) {
+            Container.Indexed.ItemRemoveEvent removeEvent = (Container.Indexed.ItemRemoveEvent) event;
+            if (removeEvent.getRemovedItemsCount() == 1) {
+                cellCache.invalidate(removeEvent.getFirstItemId());
+            } else {
+                cellCache.clear();
+            }
+        } else {
+            cellCache.clear();
+        }
     }
 
     /**
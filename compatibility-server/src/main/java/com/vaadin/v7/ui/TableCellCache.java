@@ -0,0 +1,277 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package com.vaadin.v7.ui;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.vaadin.v7.data.Property;
+import com.vaadin.v7.data.Property.ValueChangeNotifier;
+
+/**
+ * Row level cache of generated and formatted cell values used by
+ * {@link Table}. Unlike the page buffer, which is rebuilt whenever the
+ * container changes or the client scrolls, the cells stored here survive
+ * refreshes and are only dropped when a property of the row changes, when the
+ * row is evicted or when the whole cache is cleared.
+ * <p>
+ * The number of retained rows adapts to the observed scroll velocity: the
+ * faster the user scrolls, the more rows are kept so that scrolling back does
+ * not have to regenerate them.
+ *
+ * @since 8.2
+ */
+@Deprecated
+class TableCellCache implements Property.ValueChangeListener {
+
+    /**
+     * Returned by {@link #get(Object, Object)} when there is no cached value.
+     * Needed since <code>null</code> is a valid cell value.
+     */
+    static final Object NOT_CACHED = new Object();
+
+    /**
+     * How many seconds worth of scrolling the cache should be able to cover
+     * on top of the rows held in the page buffer.
+     */
+    private static final double RETENTION_SECONDS = 5;
+
+    /**
+     * Weight of the latest observation in the scroll velocity average.
+     */
+    private static final double VELOCITY_SMOOTHING = 0.5;
+
+    private static class CachedRow implements Serializable {
+        private final Map<Object, Object> cells = new HashMap<>();
+        private final List<Property<?>> properties = new ArrayList<>(2);
+    }
+
+    private final LinkedHashMap<Object, CachedRow> rows = new LinkedHashMap<>(
+            16, 0.75f, true);
+
+    private final Map<Property<?>, Object> propertyOwners = new HashMap<>();
+
+    private int maximumSize;
+
+    private int capacity;
+
+    private double rowsPerSecond;
+
+    private int lastScrollIndex = -1;
+
+    private long lastScrollTime;
+
+    /**
+     * Creates a new cell cache.
+     *
+     * @param maximumSize
+     *            the maximum number of rows to retain
+     */
+    TableCellCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * Sets the upper bound for the number of retained rows.
+     *
+     * @param maximumSize
+     *            the maximum number of rows to retain, not negative
+     */
+    void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "maximumSize cannot be less than zero");
+        }
+        this.maximumSize = maximumSize;
+        capacity = Math.min(capacity, maximumSize);
+        evict();
+    }
+
+    int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets the number of rows currently allowed in the cache.
+     *
+     * @return the current capacity
+     */
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets the number of rows currently held in the cache.
+     *
+     * @return the number of cached rows
+     */
+    int size() {
+        return rows.size();
+    }
+
+    /**
+     * Gets the cached value of a cell.
+     *
+     * @param itemId
+     *            the item id of the row
+     * @param propertyId
+     *            the column id
+     * @return the cached value or {@link #NOT_CACHED}
+     */
+    Object get(Object itemId, Object propertyId) {
+        CachedRow row = rows.get(itemId);
+        if (row == null || !row.cells.containsKey(propertyId)) {
+            return NOT_CACHED;
+        }
+        return row.cells.get(propertyId);
+    }
+
+    /**
+     * Stores the value of a cell.
+     *
+     * @param itemId
+     *            the item id of the row
+     * @param propertyId
+     *            the column id
+     * @param value
+     *            the generated or formatted value
+     * @param sources
+     *            the properties the value was derived from, i.e. the
+     *            formatted property or all properties of the item for
+     *            generated cells
+     */
+    void put(Object itemId, Object propertyId, Object value,
+            Collection<? extends Property<?>> sources) {
+        if (capacity == 0) {
+            return;
+        }
+        CachedRow row = rows.get(itemId);
+        if (row == null) {
+            row = new CachedRow();
+            rows.put(itemId, row);
+        }
+        row.cells.put(propertyId, value);
+        for (Property<?> source : sources) {
+            if (source instanceof ValueChangeNotifier
+                    && !propertyOwners.containsKey(source)) {
+                ((ValueChangeNotifier) source).addValueChangeListener(this);
+                propertyOwners.put(source, itemId);
+                row.properties.add(source);
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Drops all cached cells of the given row.
+     *
+     * @param itemId
+     *            the item id of the row
+     */
+    void invalidate(Object itemId) {
+        release(rows.remove(itemId));
+    }
+
+    /**
+     * Drops the row that owns the given property, if any.
+     *
+     * @param property
+     *            the changed property
+     */
+    void propertyChanged(Property<?> property) {
+        Object itemId = propertyOwners.get(property);
+        if (itemId != null) {
+            invalidate(itemId);
+        }
+    }
+
+    /**
+     * Drops everything and releases all property listeners.
+     */
+    void clear() {
+        for (CachedRow row : rows.values()) {
+            release(row);
+        }
+        rows.clear();
+    }
+
+    /**
+     * Records a scroll position reported by the client and updates the
+     * scroll velocity estimate.
+     *
+     * @param firstVisibleIndex
+     *            the index of the first visible row
+     * @param nanoTime
+     *            the time of the observation as given by
+     *            {@link System#nanoTime()}
+     */
+    void scrolled(int firstVisibleIndex, long nanoTime) {
+        if (lastScrollIndex >= 0 && nanoTime > lastScrollTime) {
+            double seconds = (nanoTime - lastScrollTime) / 1e9;
+            double observed = Math.abs(firstVisibleIndex - lastScrollIndex)
+                    / seconds;
+            rowsPerSecond = VELOCITY_SMOOTHING * observed
+                    + (1 - VELOCITY_SMOOTHING) * rowsPerSecond;
+        }
+        lastScrollIndex = firstVisibleIndex;
+        lastScrollTime = nanoTime;
+    }
+
+    /**
+     * Recalculates the capacity for the given number of buffered rows and the
+     * current scroll velocity estimate, evicting rows if needed.
+     *
+     * @param bufferedRows
+     *            the number of rows the table keeps in its page buffer
+     */
+    void updateCapacity(int bufferedRows) {
+        long wanted = bufferedRows
+                + Math.round(rowsPerSecond * RETENTION_SECONDS);
+        capacity = (int) Math.min(wanted, maximumSize);
+        evict();
+    }
+
+    @Override
+    public void valueChange(Property.ValueChangeEvent event) {
+        propertyChanged(event.getProperty());
+    }
+
+    private void evict() {
+        Iterator<CachedRow> iterator = rows.values().iterator();
+        while (rows.size() > capacity && iterator.hasNext()) {
+            CachedRow row = iterator.next();
+            iterator.remove();
+            release(row);
+        }
+    }
+
+    private void release(CachedRow row) {
+        if (row == null) {
+            return;
+        }
+        for (Property<?> property : row.properties) {
+            ((ValueChangeNotifier) property).removeValueChangeListener(this);
+            propertyOwners.remove(property);
+        }
+    }
+}
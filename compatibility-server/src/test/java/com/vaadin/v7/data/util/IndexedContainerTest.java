@@ -4,6 +4,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.easymock.Capture;
@@ -15,6 +16,7 @@ import com.vaadin.v7.data.Container.Indexed.ItemAddEvent;
 import com.vaadin.v7.data.Container.Indexed.ItemRemoveEvent;
 import com.vaadin.v7.data.Container.ItemSetChangeListener;
 import com.vaadin.v7.data.Item;
+import com.vaadin.v7.data.util.IndexedContainer.StorageMode;
 
 public class IndexedContainerTest extends AbstractInMemoryContainerTestBase {
 
@@ -49,6 +51,83 @@ public class IndexedContainerTest extends AbstractInMemoryContainerTestBase {
                 "newItemId", true);
     }
 
+    @Test
+    public void testBasicOperationsColumnar() {
+        testBasicContainerOperations(
+                new IndexedContainer(StorageMode.COLUMNAR));
+    }
+
+    @Test
+    public void testFilteringColumnar() {
+        testContainerFiltering(new IndexedContainer(StorageMode.COLUMNAR));
+    }
+
+    @Test
+    public void testSortingAndFilteringColumnar() {
+        testContainerSortingAndFiltering(
+                new IndexedContainer(StorageMode.COLUMNAR));
+    }
+
+    @Test
+    public void testContainerIndexedColumnar() {
+        testContainerIndexed(new IndexedContainer(StorageMode.COLUMNAR),
+                sampleData[2], 2, true, "newItemId", true);
+    }
+
+    @Test
+    public void testColumnarDefaultValuesAndRowReuse() {
+        IndexedContainer container = new IndexedContainer(
+                StorageMode.COLUMNAR);
+        assertEquals(StorageMode.COLUMNAR, container.getStorageMode());
+        container.addContainerProperty("name", String.class, "default");
+        container.addItem("a");
+        container.addItem("b");
+        container.getContainerProperty("a", "name").setValue("A");
+        container.getContainerProperty("b", "name").setValue(null);
+
+        assertEquals("A",
+                container.getContainerProperty("a", "name").getValue());
+        assertNull(container.getContainerProperty("b", "name").getValue());
+
+        container.removeItem("a");
+        container.addItem("c");
+        assertEquals("default",
+                container.getContainerProperty("c", "name").getValue());
+        assertNull(container.getContainerProperty("b", "name").getValue());
+    }
+
+    @Test
+    public void testAddItemsFiresSingleEvent() {
+        IndexedContainer container = new IndexedContainer();
+        container.addItem("existing");
+        ItemSetChangeCounter counter = new ItemSetChangeCounter();
+        container.addListener(counter);
+
+        List<Object> added = container
+                .addItems(Arrays.asList("a", "existing", null, "b", "c"));
+
+        counter.assertOnce();
+        assertEquals(Arrays.asList("a", "b", "c"), added);
+        assertEquals(Arrays.asList("existing", "a", "b", "c"),
+                container.getItemIds());
+    }
+
+    @Test
+    public void testAddItemsEvent_firstItemAndCount() {
+        IndexedContainer container = new IndexedContainer(
+                StorageMode.COLUMNAR);
+        container.addItem("existing");
+        ItemSetChangeListener addListener = createListenerMockFor(container);
+        Capture<ItemAddEvent> capturedEvent = captureAddEvent(addListener);
+        EasyMock.replay(addListener);
+
+        container.addItems(Arrays.asList("a", "b", "c"));
+
+        assertEquals("a", capturedEvent.getValue().getFirstItemId());
+        assertEquals(1, capturedEvent.getValue().getFirstIndex());
+        assertEquals(3, capturedEvent.getValue().getAddedItemsCount());
+    }
+
     @Test
     public void testItemSetChangeListeners() {
         IndexedContainer container = new IndexedContainer();
@@ -0,0 +1,114 @@
+package com.vaadin.v7.tests.server.component.table;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.tests.util.MockUI;
+import com.vaadin.ui.UI;
+import com.vaadin.v7.ui.Table;
+
+public class TableCellCacheTest {
+
+    private final AtomicInteger generatedCells = new AtomicInteger();
+    private Table table;
+
+    @Before
+    public void setUp() {
+        table = TableGeneratorTest.createTableWithDefaultContainer(1, 100);
+        table.addGeneratedColumn("generated", (source, itemId, columnId) -> {
+            generatedCells.incrementAndGet();
+            return "Generated " + itemId;
+        });
+        table.setPageLength(10);
+    }
+
+    private void attach() {
+        UI ui = new MockUI();
+        ui.setContent(table);
+    }
+
+    @Test
+    public void cellCacheDisabledByDefault() {
+        Assert.assertFalse(table.isCellCacheEnabled());
+    }
+
+    @Test
+    public void propertyChange_cellCacheDisabled_allRowsRegenerated() {
+        attach();
+        int rendered = generatedCells.get();
+        Assert.assertTrue(rendered > 1);
+
+        table.getContainerProperty("Item 0", "Property 0").setValue("New");
+
+        Assert.assertEquals(2 * rendered, generatedCells.get());
+    }
+
+    @Test
+    public void propertyChange_cellCacheEnabled_onlyChangedRowRegenerated() {
+        table.setCellCacheEnabled(true);
+        attach();
+        int rendered = generatedCells.get();
+        Assert.assertTrue(rendered > 1);
+
+        table.getContainerProperty("Item 0", "Property 0").setValue("New");
+
+        Assert.assertEquals(rendered + 1, generatedCells.get());
+    }
+
+    @Test
+    public void hiddenPropertyChange_cellCacheEnabled_generatedRowRegenerated() {
+        table.addContainerProperty("Property 1", String.class, "");
+        table.setVisibleColumns("generated", "Property 1");
+        table.setCellCacheEnabled(true);
+        attach();
+        int rendered = generatedCells.get();
+
+        // Not shown, but the generator may use it
+        table.getContainerProperty("Item 0", "Property 0").setValue("New");
+        table.getContainerProperty("Item 1", "Property 1").setValue("New");
+
+        Assert.assertEquals(rendered + 2, generatedCells.get());
+    }
+
+    @Test
+    public void itemSetChange_cellCacheEnabled_allRowsRegenerated() {
+        table.setCellCacheEnabled(true);
+        attach();
+        int rendered = generatedCells.get();
+
+        table.sort(new Object[] { "Property 0" }, new boolean[] { false });
+
+        Assert.assertEquals(2 * rendered, generatedCells.get());
+    }
+
+    @Test
+    public void refreshRowCache_cellCacheEnabled_allRowsRegenerated() {
+        table.setCellCacheEnabled(true);
+        attach();
+        int rendered = generatedCells.get();
+
+        table.refreshRowCache();
+
+        Assert.assertEquals(2 * rendered, generatedCells.get());
+    }
+
+    @Test
+    public void cellCacheMaximumSizeZero_allRowsRegenerated() {
+        table.setCellCacheEnabled(true);
+        table.setCellCacheMaximumSize(0);
+        attach();
+        int rendered = generatedCells.get();
+
+        table.getContainerProperty("Item 0", "Property 0").setValue("New");
+
+        Assert.assertEquals(2 * rendered, generatedCells.get());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeCellCacheMaximumSize_throws() {
+        table.setCellCacheMaximumSize(-1);
+    }
+}
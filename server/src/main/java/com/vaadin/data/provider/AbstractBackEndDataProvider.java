@@ -36,7 +36,20 @@ public abstract class AbstractBackEndDataProvider<T, F> extends
 
     private List<QuerySortOrder> sortOrders = new ArrayList<>();
 
-    private Query<T, F> mixInSortOrders(Query<T, F> query) {
+    private CountStrategy<T, F> countStrategy = CountStrategy.exact();
+
+    /**
+     * Adds the default sort orders of this data provider to the given query.
+     *
+     * @see #setSortOrders(List)
+     *
+     * @param query
+     *            the query to amend, not <code>null</code>
+     * @return a query with the default sort orders added after the sort
+     *         orders of the original query
+     * @since 8.2
+     */
+    protected Query<T, F> mixInSortOrders(Query<T, F> query) {
         if (sortOrders.isEmpty()) {
             return query;
         }
@@ -63,7 +76,52 @@ public abstract class AbstractBackEndDataProvider<T, F> extends
 
     @Override
     public int size(Query<T, F> query) {
-        return sizeInBackEnd(mixInSortOrders(query));
+        return countStrategy.count(mixInSortOrders(query),
+                this::sizeInBackEnd);
+    }
+
+    @Override
+    public boolean isSizeExact() {
+        return countStrategy.isExact();
+    }
+
+    @Override
+    public void refreshAll() {
+        countStrategy.reset();
+        super.refreshAll();
+    }
+
+    /**
+     * Sets the strategy for determining the number of items reported by
+     * {@link #size(Query)}. By default, {@link #sizeInBackEnd(Query)} is used
+     * for every query. With other strategies, the number of items can be
+     * reused for a while, estimated or left unknown.
+     *
+     * @see CountStrategy#exact()
+     * @see CountStrategy#cached(long)
+     * @see CountStrategy#estimated(com.vaadin.server.SerializableToIntFunction)
+     * @see CountStrategy#unknown(int)
+     *
+     * @param countStrategy
+     *            the count strategy to use, not <code>null</code>
+     * @since 8.2
+     */
+    public void setCountStrategy(CountStrategy<T, F> countStrategy) {
+        this.countStrategy = Objects.requireNonNull(countStrategy,
+                "Count strategy cannot be null");
+        refreshAll();
+    }
+
+    /**
+     * Gets the strategy for determining the number of items.
+     *
+     * @see #setCountStrategy(CountStrategy)
+     *
+     * @return the count strategy, not <code>null</code>
+     * @since 8.2
+     */
+    public CountStrategy<T, F> getCountStrategy() {
+        return countStrategy;
     }
 
     /**
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+import com.vaadin.data.provider.CallbackDataProvider.CountCallback;
+
+/**
+ * Data provider that uses one asynchronous callback for fetching items from a
+ * back end and another callback for counting the number of available items.
+ *
+ * @see AsyncDataProvider
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ */
+public class AsyncCallbackDataProvider<T, F>
+        extends AbstractBackEndDataProvider<T, F>
+        implements AsyncDataProvider<T, F> {
+
+    /**
+     * Callback interface for asynchronously fetching a stream of items from a
+     * backend based on a query.
+     *
+     * @param <T>
+     *            the type of the items to fetch
+     * @param <F>
+     *            the type of the optional filter in the query,
+     *            <code>Void</code> if filtering is not supported
+     */
+    @FunctionalInterface
+    public interface AsyncFetchCallback<T, F> extends Serializable {
+        /**
+         * Starts fetching a stream of items based on a query. The query
+         * defines the paging, sorting and filtering in the same way as for
+         * {@link CallbackDataProvider.FetchCallback}.
+         *
+         * @param query
+         *            the query that defines which items to fetch
+         * @return a stage completing with a stream of items
+         */
+        public CompletionStage<Stream<T>> fetch(Query<T, F> query);
+    }
+
+    private final AsyncFetchCallback<T, F> fetchCallback;
+    private final CountCallback<T, F> countCallback;
+
+    /**
+     * Constructs a new DataProvider to request data using callbacks for
+     * asynchronously fetching and counting items in the back end.
+     *
+     * @param fetchCallback
+     *            function that starts fetching items from the back end for a
+     *            query
+     * @param countCallback
+     *            function that return the number of items in the back end for a
+     *            query
+     */
+    public AsyncCallbackDataProvider(AsyncFetchCallback<T, F> fetchCallback,
+            CountCallback<T, F> countCallback) {
+        Objects.requireNonNull(fetchCallback, "Fetch callback can't be null");
+        Objects.requireNonNull(countCallback, "Count callback can't be null");
+        this.fetchCallback = fetchCallback;
+        this.countCallback = countCallback;
+    }
+
+    @Override
+    public CompletionStage<Stream<T>> fetchAsync(Query<T, F> query) {
+        return fetchCallback.fetch(mixInSortOrders(query));
+    }
+
+    @Override
+    protected Stream<T> fetchFromBackEnd(Query<T, F> query) {
+        return fetchCallback.fetch(query).toCompletableFuture().join();
+    }
+
+    @Override
+    protected int sizeInBackEnd(Query<T, F> query) {
+        return countCallback.count(query);
+    }
+}
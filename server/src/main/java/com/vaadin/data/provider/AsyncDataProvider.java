@@ -0,0 +1,75 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * A data provider that can fetch items asynchronously. Components using a
+ * {@link DataCommunicator} issue the query while holding the session lock but
+ * do not wait for the result. The items are delivered to the client in a
+ * separate {@link com.vaadin.ui.UI#access(Runnable) UI access} once the query
+ * completes, so a slow query does not block other requests to the same
+ * session. For the items to be shown without waiting for the next request
+ * from the client, push or polling should be enabled.
+ * <p>
+ * If the requested items are no longer needed, for instance because the
+ * filter or the sorting changed, the returned stage is cancelled if it is a
+ * {@link java.util.concurrent.Future}. Implementations may check for that
+ * to avoid finishing unnecessary queries.
+ * <p>
+ * The synchronous {@link #fetch(Query)} used e.g. for selection waits for the
+ * asynchronous result.
+ * <p>
+ * Filter conversion wrappers, such as the ones created by
+ * {@link #withConvertedFilter(com.vaadin.server.SerializableFunction)} and
+ * {@link #withConfigurableFilter()}, are also fetched asynchronously. A
+ * {@link DataProviderWrapper} subclass that overrides
+ * {@link DataProviderWrapper#fetch(Query)} is fetched synchronously, and so
+ * is any provider of a component whose data communicator overrides
+ * {@link DataCommunicator#fetchItemsWithRange(int, int)}, such as
+ * {@link com.vaadin.ui.TreeGrid} and {@link com.vaadin.ui.ComboBox}.
+ *
+ * @see AsyncCallbackDataProvider
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ */
+public interface AsyncDataProvider<T, F> extends DataProvider<T, F> {
+
+    /**
+     * Fetches data asynchronously using the given query. The query is always
+     * issued while the session is locked, but the returned stage should be
+     * completed without it. The stream is consumed without holding the lock.
+     *
+     * @param query
+     *            given query to request data
+     * @return a stage completing with the requested data, not
+     *         <code>null</code>
+     */
+    public CompletionStage<Stream<T>> fetchAsync(Query<T, F> query);
+
+    @Override
+    public default Stream<T> fetch(Query<T, F> query) {
+        return fetchAsync(query).toCompletableFuture().join();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Count strategy that reuses the count for the same filter until a timeout
+ * has passed. Data providers are often shared between sessions, so access to
+ * the cached counts is synchronized.
+ *
+ * @see CountStrategy#cached(long)
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ */
+class CachedCountStrategy<T, F> implements CountStrategy<T, F> {
+
+    /**
+     * The maximum number of filters for which counts are retained.
+     */
+    static final int MAX_CACHED_FILTERS = 100;
+
+    private static class Entry implements Serializable {
+        private final int count;
+        private final long created;
+
+        private Entry(int count, long created) {
+            this.count = count;
+            this.created = created;
+        }
+    }
+
+    private final long timeout;
+
+    private final LinkedHashMap<Object, Entry> counts = new LinkedHashMap<>(
+            16, 0.75f, true);
+
+    /**
+     * Creates a new cached count strategy.
+     *
+     * @param timeout
+     *            the time in milliseconds to reuse a count, positive
+     */
+    CachedCountStrategy(long timeout) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.timeout = timeout;
+    }
+
+    @Override
+    public int count(Query<T, F> query,
+            ToIntFunction<Query<T, F>> exactCount) {
+        Object filter = query.getFilter().orElse(null);
+        long now = System.currentTimeMillis();
+        synchronized (counts) {
+            Entry entry = counts.get(filter);
+            if (entry != null && now - entry.created < timeout) {
+                return entry.count;
+            }
+        }
+
+        // Count outside the lock, a concurrent count just gets overwritten
+        int count = exactCount.applyAsInt(query);
+        synchronized (counts) {
+            counts.put(filter, new Entry(count, now));
+            Iterator<Entry> iterator = counts.values().iterator();
+            while (counts.size() > MAX_CACHED_FILTERS) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void reset() {
+        synchronized (counts) {
+            counts.clear();
+        }
+    }
+}
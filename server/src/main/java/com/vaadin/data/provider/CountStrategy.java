@@ -0,0 +1,157 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.io.Serializable;
+import java.util.function.ToIntFunction;
+
+import com.vaadin.server.SerializableToIntFunction;
+
+/**
+ * Strategy for determining the number of items reported by an
+ * {@link AbstractBackEndDataProvider}. Counting the items exactly can be more
+ * expensive than fetching them, so a back end data provider can instead
+ * reuse recent counts, use an estimate or not count the items at all.
+ * <p>
+ * When the reported count is not exact, components showing the data correct
+ * it when they reach the end of the data or when more items are found than
+ * were reported.
+ *
+ * @see AbstractBackEndDataProvider#setCountStrategy(CountStrategy)
+ * @see DataProvider#isSizeExact()
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ */
+@FunctionalInterface
+public interface CountStrategy<T, F> extends Serializable {
+
+    /**
+     * Gets the number of items to report for the given query.
+     *
+     * @param query
+     *            the query that defines filtering to be used for counting the
+     *            number of items
+     * @param exactCount
+     *            function that counts the items in the back end
+     * @return the number of items to report
+     */
+    public int count(Query<T, F> query, ToIntFunction<Query<T, F>> exactCount);
+
+    /**
+     * Gets whether the counts given by this strategy are always exact.
+     *
+     * @return <code>true</code> if the counts are exact, <code>false</code>
+     *         if they may need to be corrected
+     */
+    public default boolean isExact() {
+        return false;
+    }
+
+    /**
+     * Discards any state kept by this strategy. Called when all data of the
+     * data provider is refreshed.
+     */
+    public default void reset() {
+        // Nothing to reset by default
+    }
+
+    /**
+     * Gets a strategy that counts the items in the back end every time. This
+     * is the default strategy.
+     *
+     * @param <T>
+     *            data provider data type
+     * @param <F>
+     *            data provider filter type
+     * @return a strategy for exact counts
+     */
+    public static <T, F> CountStrategy<T, F> exact() {
+        return new CountStrategy<T, F>() {
+            @Override
+            public int count(Query<T, F> query,
+                    ToIntFunction<Query<T, F>> exactCount) {
+                return exactCount.applyAsInt(query);
+            }
+
+            @Override
+            public boolean isExact() {
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Gets a strategy that counts the items in the back end and reuses the
+     * count for the same filter for the given time. The cached counts are
+     * discarded when all data is refreshed.
+     *
+     * @param timeoutMillis
+     *            the time in milliseconds to reuse a count, positive
+     * @param <T>
+     *            data provider data type
+     * @param <F>
+     *            data provider filter type
+     * @return a strategy for cached counts
+     */
+    public static <T, F> CountStrategy<T, F> cached(long timeoutMillis) {
+        return new CachedCountStrategy<>(timeoutMillis);
+    }
+
+    /**
+     * Gets a strategy that uses the given estimate instead of counting the
+     * items, for instance based on database statistics.
+     *
+     * @param estimator
+     *            function giving the estimated number of items for a query,
+     *            not <code>null</code>
+     * @param <T>
+     *            data provider data type
+     * @param <F>
+     *            data provider filter type
+     * @return a strategy for estimated counts
+     */
+    public static <T, F> CountStrategy<T, F> estimated(
+            SerializableToIntFunction<Query<T, F>> estimator) {
+        return (query, exactCount) -> estimator.applyAsInt(query);
+    }
+
+    /**
+     * Gets a strategy that never counts the items. The given number of items
+     * is reported initially, and the count is extended as the user scrolls
+     * further until the end of the data is found.
+     *
+     * @param initialCount
+     *            the number of items to report initially, not negative
+     * @param <T>
+     *            data provider data type
+     * @param <F>
+     *            data provider filter type
+     * @return a strategy for data of unknown size
+     */
+    public static <T, F> CountStrategy<T, F> unknown(int initialCount) {
+        if (initialCount < 0) {
+            throw new IllegalArgumentException(
+                    "Initial count cannot be negative");
+        }
+        return (query, exactCount) -> initialCount;
+    }
+}
@@ -26,7 +26,11 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -41,6 +45,8 @@ import com.vaadin.shared.data.DataCommunicatorClientRpc;
 import com.vaadin.shared.data.DataCommunicatorConstants;
 import com.vaadin.shared.data.DataRequestRpc;
 import com.vaadin.shared.extension.datacommunicator.DataCommunicatorState;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.UIDetachedException;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
@@ -206,6 +212,21 @@ public class DataCommunicator<T> extends AbstractExtension {
     private int minPushSize = 40;
     private Range pushRows = Range.withLength(0, minPushSize);
 
+    /** The size last sent to the client, used for correcting estimates. */
+    private int clientSize = 0;
+
+    private final FetchPlanner<T> fetchPlanner = new FetchPlanner<>();
+
+    /** The pending fetch from an {@link AsyncDataProvider}, if any. */
+    private transient CompletableFuture<Stream<T>> asyncFetch;
+
+    /** Incremented whenever the pending asynchronous fetch becomes stale. */
+    private int asyncFetchId = 0;
+
+    /** Whether a subclass overrides {@link #getDataObject(Object)}. */
+    private final boolean dataObjectOverridden = isDataObjectOverridden(
+            getClass());
+
     private Object filter;
     private Comparator<T> inMemorySorting;
     private final List<QuerySortOrder> backEndSorting = new ArrayList<>();
@@ -228,6 +249,7 @@ public class DataCommunicator<T> extends AbstractExtension {
     public void detach() {
         super.detach();
         detachDataProviderListener();
+        cancelAsyncFetch();
     }
 
     /**
@@ -285,7 +307,14 @@ public class DataCommunicator<T> extends AbstractExtension {
      */
     protected void onRequestRows(int firstRowIndex, int numberOfRows,
             int firstCachedRowIndex, int cacheSize) {
-        setPushRows(Range.withLength(firstRowIndex, numberOfRows));
+        Range requested = Range.withLength(firstRowIndex, numberOfRows);
+        Range pending = getPushRows();
+        if (!pending.isEmpty() && pending.getStart() <= requested.getEnd()
+                && requested.getStart() <= pending.getEnd()) {
+            // Serve overlapping or adjacent requests with a single fetch
+            requested = pending.combineWith(requested);
+        }
+        setPushRows(requested);
         markAsDirty();
     }
 
@@ -326,7 +355,7 @@ public class DataCommunicator<T> extends AbstractExtension {
         }
 
         if (initial || reset) {
-            rpc.reset(getDataProviderSize());
+            resetClientSize();
         }
 
         Range requestedRows = getPushRows();
@@ -335,22 +364,25 @@ public class DataCommunicator<T> extends AbstractExtension {
             int offset = requestedRows.getStart();
             int limit = requestedRows.length();
 
-            List<T> rowsToPush = fetchItemsWithRange(offset, limit);
+            if (isAsync(getDataProvider()) && getUI() != null
+                    && !overridesFetchItemsWithRange()) {
+                fetchAsync(offset, limit, !initial && !reset);
+            } else {
+                List<T> rowsToPush = fetchItemsWithRange(offset, limit);
 
-            if (!initial && !reset && rowsToPush.size() == 0) {
-                triggerReset = true;
-            }
+                if (!getDataProvider().isSizeExact()) {
+                    correctClientSize(offset, limit, rowsToPush.size());
+                } else if (!initial && !reset && rowsToPush.size() == 0) {
+                    triggerReset = true;
+                }
 
-            pushData(offset, rowsToPush);
+                pushData(offset, rowsToPush);
+            }
         }
 
         if (!updatedData.isEmpty()) {
-            JsonArray dataArray = Json.createArray();
-            int i = 0;
-            for (T data : updatedData) {
-                dataArray.set(i++, getDataObject(data));
-            }
-            rpc.updateData(dataArray);
+            rpc.updateData(
+                    toJsonArray(getDataObjects(new ArrayList<>(updatedData))));
         }
 
         setPushRows(Range.withLength(0, 0));
@@ -358,6 +390,179 @@ public class DataCommunicator<T> extends AbstractExtension {
         updatedData.clear();
     }
 
+    /**
+     * Starts fetching the given range from an {@link AsyncDataProvider}
+     * without waiting for the result. The rows are pushed in a separate UI
+     * access when the fetch completes, unless the fetch has become stale by
+     * then. Any previously pending fetch is cancelled.
+     *
+     * @param emptyTriggersReset
+     *            whether an empty result means that the client has stale
+     *            data and needs a reset, as with synchronous fetches
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void fetchAsync(int offset, int limit,
+            boolean emptyTriggersReset) {
+        cancelAsyncFetch();
+        int fetchId = asyncFetchId;
+        UI ui = getUI();
+
+        CompletableFuture<Stream<T>> future = (CompletableFuture) fetchAsync(
+                getDataProvider(), new Query(offset, limit, backEndSorting,
+                        inMemorySorting, filter)).toCompletableFuture();
+        asyncFetch = future;
+
+        future.whenComplete((stream, error) -> {
+            if (future.isCancelled()) {
+                return;
+            }
+            // Consume the stream before locking the session
+            List<T> rows = null;
+            Throwable failure = error;
+            if (failure == null) {
+                try {
+                    rows = stream.collect(Collectors.toList());
+                } catch (RuntimeException e) {
+                    failure = e;
+                }
+            }
+            try {
+                pushAsync(ui, fetchId, offset, limit, emptyTriggersReset, rows,
+                        failure);
+            } catch (UIDetachedException e) {
+                // Detaching has already cancelled the fetch
+                getLogger().log(Level.FINE,
+                        "UI detached before asynchronously fetched data could be pushed",
+                        e);
+            } catch (RuntimeException e) {
+                getLogger().log(Level.WARNING,
+                        "Could not push asynchronously fetched data", e);
+            }
+        });
+    }
+
+    /**
+     * Pushes the result of an asynchronous fetch in a UI access. A failed
+     * fetch is reported through the error handling of the access.
+     */
+    private void pushAsync(UI ui, int fetchId, int offset, int limit,
+            boolean emptyTriggersReset, List<T> rows, Throwable failure) {
+        ui.access(() -> {
+            if (fetchId != asyncFetchId || !isAttached()) {
+                // Reset or another range requested in the meantime
+                return;
+            }
+            asyncFetch = null;
+            if (failure != null) {
+                throw new RuntimeException(
+                        "Fetching data asynchronously failed", failure);
+            }
+            if (!getDataProvider().isSizeExact()) {
+                correctClientSize(offset, limit, rows.size());
+            } else if (emptyTriggersReset && rows.isEmpty()) {
+                hardReset();
+            }
+            pushData(offset, rows);
+        });
+    }
+
+    /**
+     * Checks whether a subclass overrides
+     * {@link #fetchItemsWithRange(int, int)}, e.g. for mapping the range or
+     * caching items. Data providers are then always fetched through the
+     * override, i.e. synchronously.
+     */
+    private boolean overridesFetchItemsWithRange() {
+        for (Class<?> type = getClass(); type != DataCommunicator.class;
+                type = type.getSuperclass()) {
+            try {
+                type.getDeclaredMethod("fetchItemsWithRange", int.class,
+                        int.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not declared in this class, check the superclass
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the given data provider is an {@link AsyncDataProvider}
+     * or a plain filter conversion wrapper around one, e.g. created using
+     * {@link DataProvider#withConvertedFilter(com.vaadin.server.SerializableFunction)}
+     * or {@link DataProvider#withConfigurableFilter()}.
+     */
+    private static boolean isAsync(DataProvider<?, ?> provider) {
+        while (provider instanceof DataProviderWrapper
+                && !overridesFetch(provider)) {
+            provider = ((DataProviderWrapper<?, ?, ?>) provider).dataProvider;
+        }
+        return provider instanceof AsyncDataProvider;
+    }
+
+    /**
+     * Fetches asynchronously from a data provider for which
+     * {@link #isAsync(DataProvider)} is <code>true</code>, converting the
+     * filter of the query through any wrappers.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static CompletionStage<Stream<?>> fetchAsync(
+            DataProvider provider, Query query) {
+        if (provider instanceof DataProviderWrapper) {
+            DataProviderWrapper wrapper = (DataProviderWrapper) provider;
+            return fetchAsync(wrapper.dataProvider,
+                    new Query(query.getOffset(), query.getLimit(),
+                            query.getSortOrders(), query.getInMemorySorting(),
+                            wrapper.getFilter(query)));
+        }
+        return ((AsyncDataProvider) provider).fetchAsync(query);
+    }
+
+    private static boolean overridesFetch(DataProvider<?, ?> wrapper) {
+        try {
+            return wrapper.getClass().getMethod("fetch", Query.class)
+                    .getDeclaringClass() != DataProviderWrapper.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private void cancelAsyncFetch() {
+        asyncFetchId++;
+        if (asyncFetch != null) {
+            asyncFetch.cancel(false);
+            asyncFetch = null;
+        }
+    }
+
+    private void resetClientSize() {
+        clientSize = getDataProviderSize();
+        rpc.reset(clientSize);
+    }
+
+    /**
+     * Corrects the size on the client side based on the number of items
+     * fetched when the size reported by the data provider is not exact. If
+     * fewer items than requested were found, the end of the data has been
+     * reached. If items were found up to the end of the reported size, more
+     * room is made for scrolling further.
+     */
+    private void correctClientSize(int offset, int limit, int fetched) {
+        int newSize;
+        if (fetched < limit) {
+            newSize = offset + fetched;
+        } else if (offset + fetched >= clientSize) {
+            newSize = offset + fetched + Math.max(limit, minPushSize);
+        } else {
+            return;
+        }
+
+        if (newSize != clientSize) {
+            clientSize = newSize;
+            rpc.updateSize(newSize);
+        }
+    }
+
     /**
      * Fetches a list of items from the DataProvider.
      *
@@ -369,13 +574,124 @@ public class DataCommunicator<T> extends AbstractExtension {
      *
      * @since 8.1
      */
-    @SuppressWarnings({ "rawtypes", "unchecked" })
     protected List<T> fetchItemsWithRange(int offset, int limit) {
+        return fetchPlanner.fetch(offset, limit,
+                this::fetchFromDataProvider);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private List<T> fetchFromDataProvider(int offset, int limit) {
         return (List<T>) getDataProvider().fetch(new Query(offset, limit,
                 backEndSorting, inMemorySorting, filter))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Sets the number of items to fetch ahead of the requested items in the
+     * scroll direction. The extra items are kept in a short-lived cache, so
+     * that subsequent requests while scrolling can be served without querying
+     * the data provider, and requests continuing the cached items only query
+     * the missing items. The cache is cleared whenever the data, filter or
+     * sorting changes.
+     * <p>
+     * By default, nothing is prefetched and every request is passed to the
+     * data provider as such.
+     *
+     * @param prefetchSize
+     *            the number of items to prefetch, or <code>0</code> to not
+     *            prefetch nor cache items
+     * @since 8.2
+     */
+    public void setPrefetchSize(int prefetchSize) {
+        fetchPlanner.setPrefetchSize(prefetchSize);
+    }
+
+    /**
+     * Gets the number of items to fetch ahead of the requested items.
+     *
+     * @see #setPrefetchSize(int)
+     *
+     * @return the number of items to prefetch
+     * @since 8.2
+     */
+    public int getPrefetchSize() {
+        return fetchPlanner.getPrefetchSize();
+    }
+
+    /**
+     * Sets the time after which prefetched items are no longer used. The
+     * default is 5 seconds.
+     *
+     * @see #setPrefetchSize(int)
+     *
+     * @param timeoutMillis
+     *            the timeout in milliseconds, positive
+     * @since 8.2
+     */
+    public void setPrefetchTimeout(long timeoutMillis) {
+        fetchPlanner.setTimeout(timeoutMillis);
+    }
+
+    /**
+     * Gets the time after which prefetched items are no longer used.
+     *
+     * @return the timeout in milliseconds
+     * @since 8.2
+     */
+    public long getPrefetchTimeout() {
+        return fetchPlanner.getTimeout();
+    }
+
+    /**
+     * Gets the number of item requests handled since the statistics were
+     * last reset.
+     *
+     * @see #getBackEndQueryCount()
+     * @see #getCacheHitCount()
+     *
+     * @return the number of item requests
+     * @since 8.2
+     */
+    public long getFetchRequestCount() {
+        return fetchPlanner.getRequestCount();
+    }
+
+    /**
+     * Gets the number of item requests served from the prefetch cache since
+     * the statistics were last reset.
+     *
+     * @see #setPrefetchSize(int)
+     *
+     * @return the number of cache hits
+     * @since 8.2
+     */
+    public long getCacheHitCount() {
+        return fetchPlanner.getCacheHitCount();
+    }
+
+    /**
+     * Gets the number of queries for items sent to the data provider since
+     * the statistics were last reset.
+     *
+     * @return the number of data provider queries
+     * @since 8.2
+     */
+    public long getBackEndQueryCount() {
+        return fetchPlanner.getBackEndQueryCount();
+    }
+
+    /**
+     * Resets the fetch statistics.
+     *
+     * @see #getFetchRequestCount()
+     * @see #getCacheHitCount()
+     * @see #getBackEndQueryCount()
+     * @since 8.2
+     */
+    public void resetFetchStatistics() {
+        fetchPlanner.resetStatistics();
+    }
+
     /**
      * Adds a data generator to this data communicator. Data generators can be
      * used to insert custom data to the rows sent to the client. If the data
@@ -424,14 +740,7 @@ public class DataCommunicator<T> extends AbstractExtension {
      *            data objects to send as an iterable
      */
     protected void pushData(int firstIndex, List<T> data) {
-        JsonArray dataArray = Json.createArray();
-
-        int i = 0;
-        for (T item : data) {
-            dataArray.set(i++, getDataObject(item));
-        }
-
-        rpc.setData(firstIndex, dataArray);
+        rpc.setData(firstIndex, toJsonArray(getDataObjects(data)));
         handler.addActiveData(data.stream());
         handler.cleanUp(data.stream());
     }
@@ -439,6 +748,10 @@ public class DataCommunicator<T> extends AbstractExtension {
     /**
      * Creates the JsonObject for given data object. This method calls all data
      * generators for it.
+     * <p>
+     * Data is normally generated in batches by {@link #getDataObjects(List)}.
+     * If this method is overridden, the default implementation of
+     * {@link #getDataObjects(List)} calls it for each data object instead.
      *
      * @param data
      *            data object to be made into a json object
@@ -454,6 +767,59 @@ public class DataCommunicator<T> extends AbstractExtension {
         return dataObject;
     }
 
+    /**
+     * Creates the JsonObjects for a batch of data objects. The data is
+     * generated one data generator at a time using
+     * {@link DataGenerator#generateData(List, List)}, so that each generator
+     * can process the whole batch at once. If {@link #getDataObject(Object)}
+     * is overridden, it is called for each data object instead.
+     *
+     * @param data
+     *            data objects to be made into json objects
+     * @return json objects representing the data objects, in the same order
+     * @since 8.2
+     */
+    protected List<JsonObject> getDataObjects(List<T> data) {
+        List<JsonObject> dataObjects = new ArrayList<>(data.size());
+        if (dataObjectOverridden) {
+            for (T item : data) {
+                dataObjects.add(getDataObject(item));
+            }
+            return dataObjects;
+        }
+
+        for (int i = 0; i < data.size(); i++) {
+            dataObjects.add(Json.createObject());
+        }
+
+        for (DataGenerator<T> generator : generators) {
+            generator.generateData(data, dataObjects);
+        }
+
+        return dataObjects;
+    }
+
+    private static boolean isDataObjectOverridden(Class<?> type) {
+        for (Class<?> c = type; c != DataCommunicator.class; c = c
+                .getSuperclass()) {
+            try {
+                c.getDeclaredMethod("getDataObject", Object.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                // Not overridden in this class
+            }
+        }
+        return false;
+    }
+
+    private static JsonArray toJsonArray(List<JsonObject> dataObjects) {
+        JsonArray dataArray = Json.createArray();
+        for (int i = 0; i < dataObjects.size(); i++) {
+            dataArray.set(i, dataObjects.get(i));
+        }
+        return dataArray;
+    }
+
     /**
      * Returns the active data handler.
      *
@@ -499,10 +865,12 @@ public class DataCommunicator<T> extends AbstractExtension {
      * full data update.
      */
     public void reset() {
+        fetchPlanner.clear();
+        cancelAsyncFetch();
         // Only needed if a full reset is not pending.
         if (!reset) {
             // Soft reset through client-side re-request.
-            getClientRpc().reset(getDataProviderSize());
+            resetClientSize();
         }
     }
 
@@ -516,6 +884,7 @@ public class DataCommunicator<T> extends AbstractExtension {
         Objects.requireNonNull(data,
                 "DataCommunicator can not refresh null object");
         Object id = getDataProvider().getId(data);
+        fetchPlanner.clear();
 
         // ActiveDataHandler has always the latest data through KeyMapper.
         Map<Object, T> activeData = getActiveDataHandler().getActiveData();
@@ -547,6 +916,8 @@ public class DataCommunicator<T> extends AbstractExtension {
      */
     public void setInMemorySorting(Comparator<T> comparator) {
         inMemorySorting = comparator;
+        fetchPlanner.clear();
+        cancelAsyncFetch();
         reset();
     }
 
@@ -569,6 +940,8 @@ public class DataCommunicator<T> extends AbstractExtension {
     public void setBackEndSorting(List<QuerySortOrder> sortOrder) {
         backEndSorting.clear();
         backEndSorting.addAll(sortOrder);
+        fetchPlanner.clear();
+        cancelAsyncFetch();
         reset();
     }
 
@@ -689,6 +1062,8 @@ public class DataCommunicator<T> extends AbstractExtension {
      */
     protected <F> void setFilter(F filter) {
         this.filter = filter;
+        fetchPlanner.clear();
+        cancelAsyncFetch();
     }
 
     /**
@@ -759,13 +1134,25 @@ public class DataCommunicator<T> extends AbstractExtension {
                             generators.forEach(g -> g.refreshData(item));
                             refresh(item);
                         } else {
-                            hardReset();
+                            onDataChange();
                         }
                     });
                 });
     }
 
+    /**
+     * Called when the data provider has notified that any of its data may
+     * have changed. Schedules a full reset of the data on the client side.
+     *
+     * @since 8.2
+     */
+    protected void onDataChange() {
+        hardReset();
+    }
+
     private void hardReset() {
+        fetchPlanner.clear();
+        cancelAsyncFetch();
         if (reset) {
             return;
         }
@@ -789,7 +1176,13 @@ public class DataCommunicator<T> extends AbstractExtension {
     protected void setDataProvider(DataProvider<T, ?> dataProvider) {
         detachDataProviderListener();
         dropAllData();
+        fetchPlanner.clear();
+        cancelAsyncFetch();
         this.dataProvider = dataProvider;
         getKeyMapper().setIdentifierGetter(dataProvider::getId);
     }
+
+    private static Logger getLogger() {
+        return Logger.getLogger(DataCommunicator.class.getName());
+    }
 }
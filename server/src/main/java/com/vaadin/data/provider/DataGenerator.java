@@ -16,6 +16,7 @@
 package com.vaadin.data.provider;
 
 import java.io.Serializable;
+import java.util.List;
 
 import elemental.json.JsonObject;
 
@@ -45,6 +46,27 @@ public interface DataGenerator<T> extends Serializable {
      */
     void generateData(T item, JsonObject jsonObject);
 
+    /**
+     * Adds custom data for a batch of items to their serialized
+     * {@code JsonObject} representations. The default implementation calls
+     * {@link #generateData(Object, JsonObject)} for each item. Data generators
+     * that have per-call overhead, or that can process several items at once
+     * more efficiently, can override this method.
+     *
+     * @param items
+     *            the data items being serialized, not <code>null</code>
+     * @param jsonObjects
+     *            the JSON objects being sent to the client, in the same order
+     *            as the items, not <code>null</code>
+     * @since 8.2
+     */
+    public default void generateData(List<T> items,
+            List<JsonObject> jsonObjects) {
+        for (int i = 0; i < items.size(); i++) {
+            generateData(items.get(i), jsonObjects.get(i));
+        }
+    }
+
     /**
      * Informs the {@code DataGenerator} that the given data item has been
      * dropped and is no longer needed. This method should clean up any unneeded
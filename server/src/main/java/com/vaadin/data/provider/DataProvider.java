@@ -133,6 +133,23 @@ public interface DataProvider<T, F> extends Serializable {
         return item;
     }
 
+    /**
+     * Gets whether {@link #size(Query)} returns the exact number of items. If
+     * the size is not exact, components showing the data correct it when they
+     * reach the end of the data or find more items than were reported.
+     * <p>
+     * Default is <code>true</code>.
+     *
+     * @see AbstractBackEndDataProvider#setCountStrategy(CountStrategy)
+     *
+     * @return <code>true</code> if the size is exact, <code>false</code> if
+     *         it is an estimate
+     * @since 8.2
+     */
+    public default boolean isSizeExact() {
+        return true;
+    }
+
     /**
      * Adds a data provider listener. The listener is called when some piece of
      * data is updated.
@@ -74,6 +74,11 @@ public abstract class DataProviderWrapper<T, F, M>
         return dataProvider.getId(item);
     }
 
+    @Override
+    public boolean isSizeExact() {
+        return dataProvider.isSizeExact();
+    }
+
     @Override
     public Registration addDataProviderListener(
             DataProviderListener<T> listener) {
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import com.vaadin.server.SerializableSupplier;
+
+/**
+ * Plans the back end queries of a {@link DataCommunicator}. Items are fetched
+ * ahead in the scroll direction into a short-lived page cache, and requests
+ * that overlap or continue the cached range only query the missing items.
+ * Also keeps statistics about the requests and back end queries.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            the item type
+ */
+class FetchPlanner<T> implements Serializable {
+
+    /**
+     * How many times the prefetch size the cache may grow to when it is
+     * extended, in addition to the requested rows.
+     */
+    private static final int MAX_CACHED_PREFETCHES = 4;
+
+    private SerializableSupplier<Long> clock = System::currentTimeMillis;
+
+    private int prefetchSize = 0;
+
+    private long timeout = 5000;
+
+    private List<T> items;
+
+    private int cacheStart;
+
+    /** Whether the last cached item is the last item of the data. */
+    private boolean cacheHasEnd;
+
+    private long cacheCreated;
+
+    private int lastOffset = 0;
+
+    private long requestCount;
+
+    private long cacheHitCount;
+
+    private long backEndQueryCount;
+
+    /**
+     * Sets the number of items to fetch ahead of the requested items.
+     *
+     * @param prefetchSize
+     *            the number of items, or <code>0</code> to fetch only the
+     *            requested items without caching
+     */
+    void setPrefetchSize(int prefetchSize) {
+        if (prefetchSize < 0) {
+            throw new IllegalArgumentException(
+                    "Prefetch size cannot be negative");
+        }
+        this.prefetchSize = prefetchSize;
+        clear();
+    }
+
+    int getPrefetchSize() {
+        return prefetchSize;
+    }
+
+    /**
+     * Sets the time after which cached items are no longer used.
+     *
+     * @param timeout
+     *            the timeout in milliseconds, positive
+     */
+    void setTimeout(long timeout) {
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("Timeout must be positive");
+        }
+        this.timeout = timeout;
+    }
+
+    long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Sets the time source, for testing.
+     *
+     * @param clock
+     *            supplier of the current time in milliseconds
+     */
+    void setClock(SerializableSupplier<Long> clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the requested items, from the cache if possible.
+     *
+     * @param offset
+     *            the index of the first item
+     * @param limit
+     *            the maximum number of items
+     * @param backEnd
+     *            function that fetches the given offset and limit from the
+     *            back end
+     * @return the requested items
+     */
+    List<T> fetch(int offset, int limit,
+            BiFunction<Integer, Integer, List<T>> backEnd) {
+        requestCount++;
+        if (prefetchSize == 0) {
+            return query(offset, limit, backEnd);
+        }
+
+        boolean forward = offset >= lastOffset;
+        lastOffset = offset;
+        long now = clock.get().longValue();
+        if (items != null && now - cacheCreated >= timeout) {
+            clear();
+        }
+
+        List<T> cached = getCached(offset, limit);
+        if (cached != null) {
+            cacheHitCount++;
+            return cached;
+        }
+
+        int fetchStart;
+        int fetchEnd;
+        if (forward) {
+            fetchStart = offset;
+            fetchEnd = offset + limit + prefetchSize;
+        } else {
+            fetchStart = Math.max(0, offset - prefetchSize);
+            fetchEnd = offset + limit;
+        }
+
+        int maxCached = limit + MAX_CACHED_PREFETCHES * prefetchSize;
+        int cacheEnd = cacheStart + (items == null ? 0 : items.size());
+        if (items != null && !cacheHasEnd && fetchStart >= cacheStart
+                && fetchStart <= cacheEnd && fetchEnd > cacheEnd) {
+            // Continues the cached range, fetch only the rest
+            List<T> more = query(cacheEnd, fetchEnd - cacheEnd, backEnd);
+            items.addAll(more);
+            cacheHasEnd = more.size() < fetchEnd - cacheEnd;
+            int excess = items.size() - maxCached;
+            if (excess > 0) {
+                items.subList(0, excess).clear();
+                cacheStart += excess;
+            }
+        } else if (items != null && fetchStart < cacheStart
+                && fetchEnd >= cacheStart && fetchEnd <= cacheEnd) {
+            // Precedes the cached range, fetch only the beginning
+            List<T> more = query(fetchStart, cacheStart - fetchStart,
+                    backEnd);
+            if (more.size() < cacheStart - fetchStart) {
+                // Data has changed under the cache
+                items = more;
+                cacheStart = fetchStart;
+                cacheHasEnd = true;
+            } else {
+                items.addAll(0, more);
+                cacheStart = fetchStart;
+                int excess = items.size() - maxCached;
+                if (excess > 0) {
+                    items.subList(items.size() - excess, items.size())
+                            .clear();
+                    cacheHasEnd = false;
+                }
+            }
+        } else {
+            items = new ArrayList<>(
+                    query(fetchStart, fetchEnd - fetchStart, backEnd));
+            cacheStart = fetchStart;
+            cacheHasEnd = items.size() < fetchEnd - fetchStart;
+            cacheCreated = now;
+        }
+
+        cached = getCached(offset, limit);
+        return cached != null ? cached : query(offset, limit, backEnd);
+    }
+
+    /**
+     * Drops all cached items.
+     */
+    void clear() {
+        items = null;
+        cacheStart = 0;
+        cacheHasEnd = false;
+    }
+
+    /**
+     * Clears the request statistics.
+     */
+    void resetStatistics() {
+        requestCount = 0;
+        cacheHitCount = 0;
+        backEndQueryCount = 0;
+    }
+
+    long getRequestCount() {
+        return requestCount;
+    }
+
+    long getCacheHitCount() {
+        return cacheHitCount;
+    }
+
+    long getBackEndQueryCount() {
+        return backEndQueryCount;
+    }
+
+    private List<T> query(int offset, int limit,
+            BiFunction<Integer, Integer, List<T>> backEnd) {
+        backEndQueryCount++;
+        return backEnd.apply(Integer.valueOf(offset), Integer.valueOf(limit));
+    }
+
+    private List<T> getCached(int offset, int limit) {
+        if (items == null || offset < cacheStart) {
+            return null;
+        }
+        int cacheEnd = cacheStart + items.size();
+        if (offset + limit <= cacheEnd) {
+            return new ArrayList<>(items.subList(offset - cacheStart,
+                    offset - cacheStart + limit));
+        } else if (cacheHasEnd && offset <= cacheEnd) {
+            return new ArrayList<>(
+                    items.subList(offset - cacheStart, items.size()));
+        }
+        return null;
+    }
+}
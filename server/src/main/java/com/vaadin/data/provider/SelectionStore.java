@@ -0,0 +1,283 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+
+import com.vaadin.server.SerializableFunction;
+import com.vaadin.server.SerializableSupplier;
+
+/**
+ * Insertion ordered collection of selected items, indexed by item identifier
+ * (see {@link DataProvider#getId(Object)}). Checking, adding and removing an
+ * item takes constant time regardless of the size of the selection. Two items
+ * with the same identifier are considered to be the same item, and adding an
+ * item with the identifier of an item already in the store does nothing.
+ * <p>
+ * The identifiers are computed when the items are added. A store created with
+ * {@link #SelectionStore(SerializableSupplier)} tracks the current data
+ * provider and recomputes the identifiers when the data provider changes, as
+ * the new data provider may identify the items differently.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            the item type
+ */
+public class SelectionStore<T> extends AbstractCollection<T>
+        implements Serializable {
+
+    private final SerializableFunction<T, ?> identifierGetter;
+
+    // Null when the identifier getter is given directly
+    private final SerializableSupplier<? extends DataProvider<T, ?>> dataProvider;
+
+    private final LinkedHashMap<Object, T> items;
+
+    private DataProvider<T, ?> indexedWith;
+
+    /**
+     * Creates a new empty store.
+     *
+     * @param identifierGetter
+     *            function that gives the identifier of an item, typically
+     *            {@link DataProvider#getId(Object)} of the current data
+     *            provider, not <code>null</code>
+     */
+    public SelectionStore(SerializableFunction<T, ?> identifierGetter) {
+        this.identifierGetter = Objects.requireNonNull(identifierGetter,
+                "Identifier getter cannot be null");
+        dataProvider = null;
+        items = new LinkedHashMap<>();
+    }
+
+    /**
+     * Creates a new empty store that identifies items using
+     * {@link DataProvider#getId(Object)} of the current data provider. The
+     * identifiers of the items in the store are recomputed whenever the
+     * supplier gives a different data provider than before.
+     *
+     * @param dataProvider
+     *            supplier of the current data provider, not <code>null</code>
+     */
+    public SelectionStore(
+            SerializableSupplier<? extends DataProvider<T, ?>> dataProvider) {
+        this.dataProvider = Objects.requireNonNull(dataProvider,
+                "Data provider supplier cannot be null");
+        identifierGetter = item -> dataProvider.get().getId(item);
+        items = new LinkedHashMap<>();
+    }
+
+    private SelectionStore(SelectionStore<T> other) {
+        other.ensureIndexed();
+        identifierGetter = other.identifierGetter;
+        dataProvider = other.dataProvider;
+        indexedWith = other.indexedWith;
+        items = new LinkedHashMap<>(other.items);
+    }
+
+    @Override
+    public boolean add(T item) {
+        Objects.requireNonNull(item, "Item cannot be null");
+        ensureIndexed();
+        return items.putIfAbsent(getId(item), item) == null;
+    }
+
+    @Override
+    public boolean contains(Object item) {
+        return item != null && items.containsKey(getIdUnchecked(item));
+    }
+
+    /**
+     * Checks whether an item with the given identifier is in this store.
+     *
+     * @param id
+     *            the identifier to check
+     * @return <code>true</code> if an item with the identifier is in this
+     *         store, <code>false</code> otherwise
+     */
+    public boolean containsId(Object id) {
+        ensureIndexed();
+        return items.containsKey(id);
+    }
+
+    @Override
+    public boolean remove(Object item) {
+        return item != null && items.remove(getIdUnchecked(item)) != null;
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        boolean modified = false;
+        for (Object item : c) {
+            modified |= remove(item);
+        }
+        return modified;
+    }
+
+    /**
+     * Replaces the item with the same identifier as the given item, keeping
+     * its position in the store. Used when an item instance has been updated.
+     *
+     * @param item
+     *            the new item instance, not <code>null</code>
+     * @return <code>true</code> if an item was replaced, <code>false</code> if
+     *         there is no item with the same identifier in this store
+     */
+    public boolean replace(T item) {
+        Objects.requireNonNull(item, "Item cannot be null");
+        ensureIndexed();
+        return items.replace(getId(item), item) != null;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return items.values().iterator();
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return items.isEmpty();
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+    }
+
+    /**
+     * Gets an unmodifiable set of all items except the items in this store.
+     * Used for representing a selection where everything is selected except
+     * a few items, without fetching all items from the data provider.
+     * <p>
+     * The set uses a copy of this store, so later changes to the store are
+     * not reflected in the set. The items are fetched only when the set is
+     * iterated or its size is requested, and they are streamed so that all
+     * items are never held in memory at the same time. Items are not checked
+     * against the data provider in {@link Set#contains(Object)}: any item not
+     * in this store is considered to be in the set.
+     *
+     * @param allItems
+     *            supplier of a stream of all items, not <code>null</code>
+     * @return a lazily resolved set of all items except the items in this
+     *         store
+     */
+    public Set<T> allExcept(SerializableSupplier<Stream<T>> allItems) {
+        return new AllExceptSet<>(Objects.requireNonNull(allItems),
+                new SelectionStore<>(this));
+    }
+
+    /**
+     * Recomputes the identifiers of the items in this store, e.g. after the
+     * data provider has been changed. The order of the items is kept. If
+     * several items get the same identifier, only the first of them is kept.
+     */
+    public void reindex() {
+        if (items.isEmpty()) {
+            return;
+        }
+        Collection<T> values = new ArrayList<>(items.values());
+        items.clear();
+        for (T item : values) {
+            items.putIfAbsent(getId(item), item);
+        }
+    }
+
+    private void ensureIndexed() {
+        if (dataProvider == null) {
+            return;
+        }
+        DataProvider<T, ?> current = dataProvider.get();
+        if (current != indexedWith) {
+            indexedWith = current;
+            reindex();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object getIdUnchecked(Object item) {
+        ensureIndexed();
+        return getId((T) item);
+    }
+
+    private Object getId(T item) {
+        return Objects.requireNonNull(identifierGetter.apply(item),
+                "Identifier cannot be null");
+    }
+
+    private static class AllExceptSet<T> extends AbstractSet<T>
+            implements Serializable {
+
+        private final SerializableSupplier<Stream<T>> allItems;
+
+        private final SelectionStore<T> excluded;
+
+        private AllExceptSet(SerializableSupplier<Stream<T>> allItems,
+                SelectionStore<T> excluded) {
+            this.allItems = allItems;
+            this.excluded = excluded;
+        }
+
+        private Stream<T> remainingItems() {
+            Stream<T> stream = allItems.get();
+            if (excluded.isEmpty()) {
+                return stream;
+            }
+            return stream.filter(item -> !excluded.contains(item));
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return remainingItems().iterator();
+        }
+
+        @Override
+        public Spliterator<T> spliterator() {
+            return remainingItems().spliterator();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, remainingItems().count());
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !remainingItems().findAny().isPresent();
+        }
+
+        @Override
+        public boolean contains(Object item) {
+            return item != null && !excluded.contains(item);
+        }
+    }
+}
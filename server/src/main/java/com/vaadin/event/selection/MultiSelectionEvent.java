@@ -17,6 +17,7 @@ package com.vaadin.event.selection;
 
 import java.util.Collections;
 import java.util.LinkedHashSet;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 
@@ -39,6 +40,10 @@ import com.vaadin.ui.MultiSelect;
 public class MultiSelectionEvent<T> extends ValueChangeEvent<Set<T>>
         implements SelectionEvent<T> {
 
+    // Null when computed from the old and the new selection
+    private final Set<T> addedSelection;
+    private final Set<T> removedSelection;
+
     /**
      * Creates a new event.
      *
@@ -53,6 +58,8 @@ public class MultiSelectionEvent<T> extends ValueChangeEvent<Set<T>>
     public MultiSelectionEvent(AbstractMultiSelect<T> source,
             Set<T> oldSelection, boolean userOriginated) {
         super(source, oldSelection, userOriginated);
+        addedSelection = null;
+        removedSelection = null;
     }
 
     /**
@@ -71,6 +78,36 @@ public class MultiSelectionEvent<T> extends ValueChangeEvent<Set<T>>
     public MultiSelectionEvent(Component component, MultiSelect<T> source,
             Set<T> oldSelection, boolean userOriginated) {
         super(component, source, oldSelection, userOriginated);
+        addedSelection = null;
+        removedSelection = null;
+    }
+
+    /**
+     * Creates a new selection change event in a multiselect component with
+     * known added and removed items. This avoids comparing the old and the
+     * new selection, e.g. when they are resolved lazily from a data provider.
+     *
+     * @param component
+     *            the component
+     * @param source
+     *            the multiselect source
+     * @param oldSelection
+     *            the old set of selected items
+     * @param addedSelection
+     *            the items that were added to the selection
+     * @param removedSelection
+     *            the items that were removed from the selection
+     * @param userOriginated
+     *            {@code true} if this event originates from the client,
+     *            {@code false} otherwise.
+     * @since 8.2
+     */
+    public MultiSelectionEvent(Component component, MultiSelect<T> source,
+            Set<T> oldSelection, Set<T> addedSelection,
+            Set<T> removedSelection, boolean userOriginated) {
+        super(component, source, oldSelection, userOriginated);
+        this.addedSelection = Objects.requireNonNull(addedSelection);
+        this.removedSelection = Objects.requireNonNull(removedSelection);
     }
 
     /**
@@ -107,6 +144,9 @@ public class MultiSelectionEvent<T> extends ValueChangeEvent<Set<T>>
      * @return the items that were removed from selection
      */
     public Set<T> getRemovedSelection() {
+        if (removedSelection != null) {
+            return new LinkedHashSet<>(removedSelection);
+        }
         LinkedHashSet<T> copy = new LinkedHashSet<>(getOldValue());
         copy.removeAll(getNewSelection());
         return copy;
@@ -122,6 +162,9 @@ public class MultiSelectionEvent<T> extends ValueChangeEvent<Set<T>>
      * @return the items that were removed from selection
      */
     public Set<T> getAddedSelection() {
+        if (addedSelection != null) {
+            return new LinkedHashSet<>(addedSelection);
+        }
         LinkedHashSet<T> copy = new LinkedHashSet<>(getValue());
         copy.removeAll(getOldValue());
         return copy;
@@ -20,10 +20,12 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Future;
 
 import com.vaadin.navigator.ViewChangeListener.ViewChangeEvent;
 import com.vaadin.server.Page;
@@ -361,6 +363,36 @@ public class Navigator implements Serializable {
     private List<ViewProvider> providers = new LinkedList<>();
     private String currentNavigationState = null;
     private ViewProvider errorProvider;
+    private Map<String, ViewProvider> namedProviders = null;
+    private ViewCache viewCache = null;
+
+    /**
+     * Least recently used views created by {@link ClassBasedViewProvider}s,
+     * keyed by the provider.
+     */
+    private static class ViewCache extends LinkedHashMap<ViewProvider, View> {
+        private int maxSize;
+
+        private ViewCache(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        private void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+            Iterator<View> it = values().iterator();
+            while (size() > maxSize) {
+                it.next();
+                it.remove();
+            }
+        }
+
+        @Override
+        protected boolean removeEldestEntry(
+                Map.Entry<ViewProvider, View> eldest) {
+            return size() > maxSize;
+        }
+    }
 
     /**
      * Creates a navigator that is tracking the active view using URI fragments
@@ -537,8 +569,8 @@ public class Navigator implements Serializable {
         View viewWithLongestName = null;
 
         if (longestViewName != null) {
-            viewWithLongestName = longestViewNameProvider
-                    .getView(longestViewName);
+            viewWithLongestName = getView(longestViewNameProvider,
+                    longestViewName);
         }
 
         if (viewWithLongestName == null && errorProvider != null) {
@@ -961,7 +993,8 @@ public class Navigator implements Serializable {
      * Registering another view with a name that is already registered
      * overwrites the old registration of the same type.
      * <p>
-     * A new view instance is created every time a view is requested.
+     * A new view instance is created every time a view is requested, unless
+     * view caching is enabled using {@link #setViewCacheSize(int)}.
      *
      * @param viewName
      *            String that identifies a view (not null nor empty string)
@@ -998,11 +1031,13 @@ public class Navigator implements Serializable {
                 StaticViewProvider staticProvider = (StaticViewProvider) provider;
                 if (staticProvider.getViewName().equals(viewName)) {
                     it.remove();
+                    providerRemoved(provider);
                 }
             } else if (provider instanceof ClassBasedViewProvider) {
                 ClassBasedViewProvider classBasedProvider = (ClassBasedViewProvider) provider;
                 if (classBasedProvider.getViewName().equals(viewName)) {
                     it.remove();
+                    providerRemoved(provider);
                 }
             }
         }
@@ -1025,6 +1060,7 @@ public class Navigator implements Serializable {
                     "Cannot add a null view provider");
         }
         providers.add(provider);
+        namedProviders = null;
     }
 
     /**
@@ -1034,7 +1070,116 @@ public class Navigator implements Serializable {
      *            provider to unregister
      */
     public void removeProvider(ViewProvider provider) {
-        providers.remove(provider);
+        if (providers.remove(provider)) {
+            providerRemoved(provider);
+        }
+    }
+
+    private void providerRemoved(ViewProvider provider) {
+        namedProviders = null;
+        if (viewCache != null) {
+            viewCache.remove(provider);
+        }
+    }
+
+    /**
+     * Sets the maximum number of views created from view classes that are
+     * kept in memory for reuse. By default no views are kept and a new view
+     * instance is created every time a view registered with
+     * {@link #addView(String, Class)} is navigated to.
+     * <p>
+     * When the cache is enabled, the least recently used views are discarded
+     * when the size limit is exceeded. A cached view is shown again as is
+     * instead of creating a new instance, so it should reset any state that
+     * depends on the navigation in {@link View#enter(ViewChangeEvent)}. The
+     * navigation events are fired as for any other view: the previous view
+     * gets {@link View#beforeLeave(ViewBeforeLeaveEvent)} and the cached view
+     * gets {@link View#enter(ViewChangeEvent)}. As with views registered with
+     * {@link #addView(String, View)}, navigating to the current view with the
+     * same navigation state does not enter the view again.
+     *
+     * @param size
+     *            the maximum number of cached views, or 0 to disable caching
+     * @throws IllegalArgumentException
+     *             if the size is negative
+     * @since 8.2
+     */
+    public void setViewCacheSize(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException(
+                    "View cache size cannot be negative");
+        }
+        if (size == 0) {
+            viewCache = null;
+        } else if (viewCache == null) {
+            viewCache = new ViewCache(size);
+        } else {
+            viewCache.setMaxSize(size);
+        }
+    }
+
+    /**
+     * Gets the maximum number of views created from view classes that are
+     * kept in memory for reuse.
+     *
+     * @see #setViewCacheSize(int)
+     * @return the maximum number of cached views, 0 if caching is disabled
+     * @since 8.2
+     */
+    public int getViewCacheSize() {
+        return viewCache == null ? 0 : viewCache.maxSize;
+    }
+
+    /**
+     * Creates the view for the given navigation state ahead of time so that a
+     * later navigation to it does not need to create the view. The view is
+     * created using {@link UI#access(Runnable)}, i.e. after the current
+     * request has been handled if the session is currently locked. This
+     * method can be called from any thread, e.g. for views that the user is
+     * likely to navigate to next.
+     * <p>
+     * Only views registered with {@link #addView(String, Class)} are
+     * preloaded, other navigation states are ignored. Preloading requires the
+     * view cache to be enabled using {@link #setViewCacheSize(int)}, and a
+     * preloaded view counts as the most recently used view of the cache.
+     *
+     * @param navigationState
+     *            the navigation state of the view to preload
+     * @return a future that can be used to check for task completion and to
+     *         cancel the task
+     * @throws IllegalStateException
+     *             if view caching is not enabled
+     * @since 8.2
+     */
+    public Future<Void> preloadView(String navigationState) {
+        if (viewCache == null) {
+            throw new IllegalStateException(
+                    "View cache must be enabled to preload views");
+        }
+        return ui.access(() -> {
+            ViewProvider provider = getViewProvider(navigationState);
+            if (provider != null && isCacheable(provider)) {
+                getView(provider, provider.getViewName(navigationState));
+            }
+        });
+    }
+
+    private View getView(ViewProvider provider, String viewName) {
+        if (viewCache == null || !isCacheable(provider)) {
+            return provider.getView(viewName);
+        }
+        View view = viewCache.get(provider);
+        if (view == null) {
+            view = provider.getView(viewName);
+            if (view != null) {
+                viewCache.put(provider, view);
+            }
+        }
+        return view;
+    }
+
+    private static boolean isCacheable(ViewProvider provider) {
+        return provider.getClass() == ClassBasedViewProvider.class;
     }
 
     /**
@@ -1141,10 +1286,35 @@ public class Navigator implements Serializable {
     protected ViewProvider getViewProvider(String state) {
         String longestViewName = null;
         ViewProvider longestViewNameProvider = null;
+        if (state != null) {
+            /*
+             * Views registered by name match the state itself and any prefix
+             * of it that is followed by a slash, so only those need to be
+             * looked up, longest first.
+             */
+            Map<String, ViewProvider> named = getNamedProviders();
+            int end = state.length();
+            while (end >= 0 && longestViewNameProvider == null) {
+                String viewName = state.substring(0, end);
+                longestViewNameProvider = named.get(viewName);
+                if (longestViewNameProvider != null) {
+                    longestViewName = viewName;
+                }
+                end = state.lastIndexOf('/', end - 1);
+            }
+        }
+        ViewProvider namedProvider = longestViewNameProvider;
         for (ViewProvider provider : providers) {
+            if (isNamed(provider)) {
+                continue;
+            }
             String viewName = provider.getViewName(state);
             if (null != viewName && (longestViewName == null
-                    || viewName.length() > longestViewName.length())) {
+                    || viewName.length() > longestViewName.length()
+                    || viewName.length() == longestViewName.length()
+                            && longestViewNameProvider == namedProvider
+                            && providers.indexOf(provider) < providers
+                                    .indexOf(namedProvider))) {
                 longestViewName = viewName;
                 longestViewNameProvider = provider;
             }
@@ -1152,6 +1322,35 @@ public class Navigator implements Serializable {
         return longestViewNameProvider;
     }
 
+    private Map<String, ViewProvider> getNamedProviders() {
+        if (namedProviders == null) {
+            namedProviders = new HashMap<>();
+            for (ViewProvider provider : providers) {
+                if (isNamed(provider)) {
+                    // The first registered provider wins on equal names
+                    namedProviders.putIfAbsent(getName(provider), provider);
+                }
+            }
+        }
+        return namedProviders;
+    }
+
+    private static boolean isNamed(ViewProvider provider) {
+        /*
+         * Subclasses could override getViewName(String) so they are queried
+         * like any other provider
+         */
+        return provider.getClass() == StaticViewProvider.class
+                || provider.getClass() == ClassBasedViewProvider.class;
+    }
+
+    private static String getName(ViewProvider provider) {
+        if (provider instanceof StaticViewProvider) {
+            return ((StaticViewProvider) provider).getViewName();
+        }
+        return ((ClassBasedViewProvider) provider).getViewName();
+    }
+
     /**
      * Creates view change event for given {@code view}, {@code viewName} and
      * {@code parameters}.
@@ -21,6 +21,7 @@ import java.io.IOException;
 import java.io.OutputStreamWriter;
 import java.io.Serializable;
 import java.io.UnsupportedEncodingException;
+import java.io.Writer;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -31,10 +32,12 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.servlet.http.HttpServletResponse;
 
+import org.jsoup.nodes.Comment;
 import org.jsoup.nodes.DataNode;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.DocumentType;
@@ -46,6 +49,7 @@ import com.vaadin.annotations.Viewport;
 import com.vaadin.annotations.ViewportGeneratorClass;
 import com.vaadin.server.DependencyFilter.FilterContext;
 import com.vaadin.server.communication.AtmospherePushConnection;
+import com.vaadin.server.communication.ConnectorUsageProfile;
 import com.vaadin.shared.ApplicationConstants;
 import com.vaadin.shared.VaadinUriResolver;
 import com.vaadin.shared.Version;
@@ -56,6 +60,7 @@ import com.vaadin.ui.UI;
 import com.vaadin.util.ReflectTools;
 
 import elemental.json.Json;
+import elemental.json.JsonArray;
 import elemental.json.JsonException;
 import elemental.json.JsonObject;
 import elemental.json.impl.JsonUtil;
@@ -78,6 +83,18 @@ public abstract class BootstrapHandler extends SynchronizedRequestHandler {
      */
     public static final String IGNORE_RESTART_PARAM = "ignoreRestart";
 
+    /**
+     * The maximum number of bootstrap page templates retained.
+     */
+    private static final int MAX_CACHED_PAGES = 100;
+
+    /**
+     * Comment marking the place of the fragment nodes in a cached page.
+     */
+    private static final String FRAGMENT_PLACEHOLDER = "vaadin-bootstrap-fragment";
+
+    private final Map<List<Object>, BootstrapPageTemplate> pageCache = new ConcurrentHashMap<>();
+
     /**
      * Provides context information for the bootstrap process.
      */
@@ -261,6 +278,73 @@ public abstract class BootstrapHandler extends SynchronizedRequestHandler {
         }
     }
 
+    /**
+     * The static parts of a standalone bootstrap page, split around the place
+     * of the fragment nodes which are generated for each request.
+     */
+    static class BootstrapPageTemplate implements Serializable {
+
+        private final String beforeFragment;
+        private final String afterFragment;
+        private final Map<String, Object> headers;
+
+        /**
+         * Creates a template from the given document.
+         *
+         * @param document
+         *            the page document, containing a placeholder comment
+         *            instead of the fragment nodes
+         * @param headers
+         *            the response headers of the page
+         */
+        BootstrapPageTemplate(Document document, Map<String, Object> headers) {
+            String html = document.outerHtml();
+            String placeholder = "<!--" + FRAGMENT_PLACEHOLDER + "-->";
+            int index = html.indexOf(placeholder);
+            if (index < 0) {
+                throw new IllegalArgumentException(
+                        "The document has no fragment placeholder");
+            }
+            beforeFragment = html.substring(0, index);
+            afterFragment = html.substring(index + placeholder.length());
+            this.headers = Collections
+                    .unmodifiableMap(new LinkedHashMap<>(headers));
+        }
+
+        /**
+         * Gets the response headers of the page.
+         *
+         * @return the headers, not <code>null</code>
+         */
+        Map<String, Object> getHeaders() {
+            return headers;
+        }
+
+        /**
+         * Writes the page with the given fragment nodes.
+         *
+         * @param writer
+         *            the writer to write to
+         * @param fragmentNodes
+         *            the fragment nodes of the request
+         * @throws IOException
+         *             if writing fails
+         */
+        void write(Writer writer, List<Node> fragmentNodes)
+                throws IOException {
+            writer.append(beforeFragment);
+            boolean first = true;
+            for (Node node : fragmentNodes) {
+                if (!first) {
+                    writer.append('\n');
+                }
+                first = false;
+                writer.append(node.outerHtml());
+            }
+            writer.append(afterFragment);
+        }
+    }
+
     /**
      * The URI resolver used in the bootstrap process.
      *
@@ -423,9 +507,14 @@ public abstract class BootstrapHandler extends SynchronizedRequestHandler {
                     .getBootstrapResponse();
             session.modifyBootstrapResponse(fragmentResponse);
 
-            String html = getBootstrapHtml(context);
+            List<Object> cacheKey = getBootstrapPageCacheKey(context);
+            if (cacheKey != null) {
+                writeCachedBootstrapPage(context, cacheKey);
+            } else {
+                String html = getBootstrapHtml(context);
 
-            writeBootstrapPage(response, html);
+                writeBootstrapPage(response, html);
+            }
         } catch (JsonException e) {
             writeError(response, e);
         }
@@ -473,6 +562,107 @@ public abstract class BootstrapHandler extends SynchronizedRequestHandler {
         }
     }
 
+    /**
+     * Gets the key identifying the static parts of the standalone bootstrap
+     * page for the given context. The page is only cached in production mode
+     * when {@value Constants#SERVLET_PARAMETER_BOOTSTRAP_PAGE_CACHE} is
+     * enabled, and not when bootstrap listeners, a viewport generator or a
+     * custom page title could make the page differ between requests.
+     *
+     * @param context
+     *            the bootstrap context
+     * @return the cache key, or <code>null</code> if the page should not be
+     *         cached
+     */
+    private List<Object> getBootstrapPageCacheKey(BootstrapContext context) {
+        VaadinRequest request = context.getRequest();
+        VaadinService vaadinService = request.getService();
+        DeploymentConfiguration configuration = vaadinService
+                .getDeploymentConfiguration();
+        if (!configuration.isProductionMode()
+                || !Boolean.parseBoolean(
+                        configuration.getApplicationOrSystemProperty(
+                                Constants.SERVLET_PARAMETER_BOOTSTRAP_PAGE_CACHE,
+                                "false"))
+                || !vaadinService.isStandalone(request)
+                || context.getSession().hasBootstrapListeners()) {
+            return null;
+        }
+
+        Class<? extends UI> uiClass = context.getUIClass();
+        if (uiClass.isAnnotationPresent(ViewportGeneratorClass.class)
+                || overridesPageTitle(
+                        context.getBootstrapResponse().getUIProvider())) {
+            return null;
+        }
+
+        List<Object> key = new ArrayList<>();
+        key.add(uiClass);
+        String themeName = context.getThemeName();
+        if (themeName != null) {
+            key.add(getThemeUri(context, themeName));
+        }
+        // Also registers the dependencies to the session, as an uncached page
+        Collection<? extends Dependency> deps = Dependency.findDependencies(
+                Collections.singletonList(uiClass),
+                context.getSession().getCommunicationManager(),
+                new FilterContext(context.getSession()));
+        for (Dependency dependency : deps) {
+            key.add(dependency.getType());
+            key.add(context.getUriResolver()
+                    .resolveVaadinUri(dependency.getUrl()));
+        }
+        return key;
+    }
+
+    private static boolean overridesPageTitle(UIProvider provider) {
+        try {
+            return provider.getClass()
+                    .getMethod("getPageTitle", UICreateEvent.class)
+                    .getDeclaringClass() != UIProvider.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    private void writeCachedBootstrapPage(BootstrapContext context,
+            List<Object> cacheKey) throws IOException {
+        BootstrapPageTemplate template = pageCache.get(cacheKey);
+        if (template == null) {
+            template = createBootstrapPageTemplate(context);
+            if (pageCache.size() >= MAX_CACHED_PAGES) {
+                pageCache.clear();
+            }
+            pageCache.put(cacheKey, template);
+        }
+
+        VaadinResponse response = context.getResponse();
+        sendBootstrapHeaders(response, template.getHeaders());
+        response.setContentType(
+                ApplicationConstants.CONTENT_TYPE_TEXT_HTML_UTF_8);
+        try (BufferedWriter writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), "UTF-8"))) {
+            template.write(writer,
+                    context.getBootstrapResponse().getFragmentNodes());
+        }
+    }
+
+    private BootstrapPageTemplate createBootstrapPageTemplate(
+            BootstrapContext context) {
+        Map<String, Object> headers = new LinkedHashMap<>();
+        Document document = Document.createShell("");
+        BootstrapPageResponse pageResponse = new BootstrapPageResponse(this,
+                context.getRequest(), context.getSession(),
+                context.getUIClass(), document, headers,
+                context.getBootstrapResponse().getUIProvider());
+        pageResponse.setUriResolver(context.getUriResolver());
+        document.body().appendChild(new Comment(FRAGMENT_PLACEHOLDER, ""));
+
+        setupStandaloneDocument(context, pageResponse);
+
+        return new BootstrapPageTemplate(document, headers);
+    }
+
     private void sendBootstrapHeaders(VaadinResponse response,
             Map<String, Object> headers) {
         Set<Entry<String, Object>> entrySet = headers.entrySet();
@@ -789,6 +979,20 @@ public abstract class BootstrapHandler extends SynchronizedRequestHandler {
         }
         appConfig.put("widgetsetReady", !widgetsetInfo.isCdn());
 
+        // Let the client start loading bundles that the UI will likely need
+        ConnectorUsageProfile usageProfile = vaadinService
+                .getConnectorUsageProfile();
+        if (usageProfile != null) {
+            JsonArray preloadConnectors = Json.createArray();
+            for (String type : usageProfile
+                    .getPredictedTypes(context.getUIClass())) {
+                preloadConnectors.set(preloadConnectors.length(), type);
+            }
+            if (preloadConnectors.length() > 0) {
+                appConfig.put("preloadConnectors", preloadConnectors);
+            }
+        }
+
         // Use locale from session if set, else from the request
         Locale locale = ServletPortletHelper.findLocale(null,
                 context.getSession(), context.getRequest());
@@ -126,6 +126,23 @@ public interface Constants {
      */
     static final String SERVLET_PARAMETER_LEGACY_DESIGN_PREFIX = "legacyDesignPrefix";
 
+    /**
+     * Name of system or context property to enable caching the static parts of
+     * the bootstrap page in production mode.
+     *
+     * @since 8.2
+     */
+    static final String SERVLET_PARAMETER_BOOTSTRAP_PAGE_CACHE = "bootstrapPageCache";
+
+    /**
+     * Name of system or context property with the path of a file for recording
+     * the connector types used by each UI class.
+     *
+     * @see VaadinService#getConnectorUsageProfile()
+     * @since 8.2
+     */
+    static final String SERVLET_PARAMETER_CONNECTOR_USAGE_PROFILE = "connectorUsageProfile";
+
     // Configurable parameter names
     static final String PARAMETER_VAADIN_RESOURCES = "Resources";
 
@@ -16,13 +16,19 @@
 
 package com.vaadin.server;
 
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.servlet.http.HttpServletResponse;
 
@@ -54,6 +60,13 @@ public class DownloadStream implements Serializable {
      */
     public static final long DEFAULT_CACHETIME = 1000 * 60 * 60 * 24;
 
+    /**
+     * Pattern for a single byte range, e.g. <code>bytes=0-499</code>,
+     * <code>bytes=500-</code> or <code>bytes=-500</code>.
+     */
+    private static final Pattern SINGLE_RANGE = Pattern
+            .compile("^bytes=(\\d*)-(\\d*)$");
+
     private InputStream stream;
 
     private String contentType;
@@ -66,6 +79,12 @@ public class DownloadStream implements Serializable {
 
     private int bufferSize = 0;
 
+    private long contentLength = -1;
+
+    private long lastModified = -1;
+
+    private String eTag;
+
     /**
      * Creates a new instance of DownloadStream.
      */
@@ -228,6 +247,87 @@ public class DownloadStream implements Serializable {
         this.bufferSize = bufferSize;
     }
 
+    /**
+     * Gets the length of the stream.
+     *
+     * @see #setContentLength(long)
+     *
+     * @return the length of the stream in bytes, or <code>-1</code> if not
+     *         known
+     * @since 8.2
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Sets the length of the stream. When the length is known, it is sent in
+     * the <code>Content-Length</code> header and byte range requests are
+     * supported, allowing for instance seeking in video and audio. The length
+     * of a {@link FileInputStream} is determined automatically.
+     *
+     * @param contentLength
+     *            the length of the stream in bytes, or <code>-1</code> if not
+     *            known
+     * @since 8.2
+     */
+    public void setContentLength(long contentLength) {
+        this.contentLength = contentLength;
+    }
+
+    /**
+     * Gets the time when the content of the stream was last modified.
+     *
+     * @return the last modification time in milliseconds since the epoch, or
+     *         <code>-1</code> if not known
+     * @since 8.2
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Sets the time when the content of the stream was last modified. The
+     * time is sent in the <code>Last-Modified</code> header, and a
+     * <code>304 Not Modified</code> response is sent for conditional requests
+     * if the content has not been modified since the time known by the
+     * browser.
+     *
+     * @param lastModified
+     *            the last modification time in milliseconds since the epoch,
+     *            or <code>-1</code> if not known
+     * @since 8.2
+     */
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+
+    /**
+     * Gets the entity tag of the content of the stream.
+     *
+     * @return the entity tag, or <code>null</code> if not set
+     * @since 8.2
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * Sets the entity tag of the content of the stream. The tag is sent in
+     * the <code>ETag</code> header, and a <code>304 Not Modified</code>
+     * response is sent for conditional requests if the browser already has
+     * content with the same tag.
+     *
+     * @param eTag
+     *            the entity tag including the quotes, e.g.
+     *            <code>"1234"</code>, or <code>null</code> to not use an
+     *            entity tag
+     * @since 8.2
+     */
+    public void setETag(String eTag) {
+        this.eTag = eTag;
+    }
+
     /**
      * Writes this download stream to a Vaadin response. This takes care of
      * setting response headers according to what is defined in this download
@@ -238,6 +338,12 @@ public class DownloadStream implements Serializable {
      * response. If there's is a parameter named <code>Location</code>, a
      * redirect (302 Moved temporarily) is sent instead of the contents of this
      * stream.
+     * <p>
+     * Conditional requests are answered with 304 Not Modified based on
+     * {@link #getETag()} and {@link #getLastModified()}. When the length of the
+     * stream is known, a single byte range can be requested with the
+     * <code>Range</code> header. The contents of a {@link FileInputStream} are
+     * transferred through its channel instead of a buffer.
      *
      * @param request
      *            the request for which the response should be written
@@ -293,24 +399,59 @@ public class DownloadStream implements Serializable {
 
                 response.setHeader(CONTENT_DISPOSITION, contentDisposition);
 
-                int bufferSize = getBufferSize();
-                if (bufferSize <= 0 || bufferSize > Constants.MAX_BUFFER_SIZE) {
-                    bufferSize = Constants.DEFAULT_BUFFER_SIZE;
+                if (getETag() != null) {
+                    response.setHeader("ETag", getETag());
+                }
+                if (getLastModified() >= 0) {
+                    response.setDateHeader("Last-Modified", getLastModified());
+                }
+                if (isNotModified(request)) {
+                    response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                    return;
                 }
-                final byte[] buffer = new byte[bufferSize];
-                int bytesRead = 0;
-
-                out = response.getOutputStream();
 
-                long totalWritten = 0;
-                while ((bytesRead = data.read(buffer)) > 0) {
-                    out.write(buffer, 0, bytesRead);
+                FileChannel channel = null;
+                long length = getContentLength();
+                if (data instanceof FileInputStream) {
+                    channel = ((FileInputStream) data).getChannel();
+                    if (length < 0) {
+                        length = channel.size() - channel.position();
+                    }
+                }
 
-                    totalWritten += bytesRead;
-                    if (totalWritten >= buffer.length) {
-                        // Avoid chunked encoding for small resources
-                        out.flush();
+                long start = 0;
+                long count = length;
+                if (length >= 0) {
+                    response.setHeader("Accept-Ranges", "bytes");
+                    long[] range = getRange(request, length);
+                    if (range == null) {
+                        response.setHeader("Content-Range",
+                                "bytes */" + length);
+                        response.setStatus(
+                                HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                        return;
+                    }
+                    start = range[0];
+                    count = range[1] - range[0] + 1;
+                    if (count != length) {
+                        response.setStatus(
+                                HttpServletResponse.SC_PARTIAL_CONTENT);
+                        response.setHeader("Content-Range", "bytes " + start
+                                + "-" + range[1] + "/" + length);
                     }
+                    response.setHeader("Content-Length",
+                            String.valueOf(count));
+                }
+
+                out = response.getOutputStream();
+
+                if (channel != null) {
+                    // Let the channel transfer the bytes without copying
+                    // them through a buffer of our own
+                    transfer(channel, channel.position() + start, count,
+                            out);
+                } else {
+                    copy(data, start, count, out);
                 }
             } finally {
                 tryToCloseStream(out);
@@ -319,6 +460,182 @@ public class DownloadStream implements Serializable {
         }
     }
 
+    private void copy(InputStream data, long start, long count,
+            OutputStream out) throws IOException {
+        long skipped = 0;
+        while (skipped < start) {
+            long n = data.skip(start - skipped);
+            if (n <= 0) {
+                // skip is allowed to skip nothing, read instead
+                if (data.read() == -1) {
+                    return;
+                }
+                n = 1;
+            }
+            skipped += n;
+        }
+
+        int bufferSize = getBufferSize();
+        if (bufferSize <= 0 || bufferSize > Constants.MAX_BUFFER_SIZE) {
+            bufferSize = Constants.DEFAULT_BUFFER_SIZE;
+        }
+        final byte[] buffer = new byte[bufferSize];
+        int bytesRead = 0;
+
+        long totalWritten = 0;
+        long remaining = count < 0 ? Long.MAX_VALUE : count;
+        while (remaining > 0 && (bytesRead = data.read(buffer, 0,
+                (int) Math.min(buffer.length, remaining))) > 0) {
+            out.write(buffer, 0, bytesRead);
+
+            remaining -= bytesRead;
+            totalWritten += bytesRead;
+            if (totalWritten >= buffer.length) {
+                // Avoid chunked encoding for small resources
+                out.flush();
+            }
+        }
+    }
+
+    private static void transfer(FileChannel channel, long position,
+            long count, OutputStream out) throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long transferred = 0;
+        while (transferred < count) {
+            long n = channel.transferTo(position + transferred,
+                    count - transferred, target);
+            if (n <= 0) {
+                // The file has been truncated
+                break;
+            }
+            transferred += n;
+        }
+        out.flush();
+    }
+
+    /**
+     * Checks whether the browser already has the current content, based on
+     * the <code>If-None-Match</code> and <code>If-Modified-Since</code>
+     * request headers.
+     *
+     * @param request
+     *            the request to check
+     * @return <code>true</code> if the content has not been modified,
+     *         <code>false</code> otherwise
+     */
+    private boolean isNotModified(VaadinRequest request) {
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            // If-Modified-Since is ignored when If-None-Match is present
+            return getETag() != null && matchesETag(ifNoneMatch, getETag());
+        }
+        if (getLastModified() < 0) {
+            return false;
+        }
+        long ifModifiedSince;
+        try {
+            ifModifiedSince = request.getDateHeader("If-Modified-Since");
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        // HTTP dates have a precision of one second
+        return ifModifiedSince >= 0
+                && getLastModified() / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private static boolean matchesETag(String header, String eTag) {
+        String tag = stripWeakPrefix(eTag);
+        for (String candidate : header.split(",")) {
+            candidate = candidate.trim();
+            if ("*".equals(candidate)
+                    || tag.equals(stripWeakPrefix(candidate))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String stripWeakPrefix(String eTag) {
+        return eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+    }
+
+    /**
+     * Gets the byte range to send based on the <code>Range</code> and
+     * <code>If-Range</code> request headers. Only a single range is
+     * supported; the whole content is sent for multiple ranges.
+     *
+     * @param request
+     *            the request to check
+     * @param length
+     *            the length of the content
+     * @return the first and last byte position to send, or <code>null</code>
+     *         if the requested range cannot be satisfied
+     */
+    private long[] getRange(VaadinRequest request, long length) {
+        long[] all = new long[] { 0, length - 1 };
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader == null || !isIfRangeSatisfied(request)) {
+            return all;
+        }
+        Matcher matcher = SINGLE_RANGE.matcher(rangeHeader.trim());
+        if (!matcher.matches()) {
+            return all;
+        }
+        String first = matcher.group(1);
+        String last = matcher.group(2);
+        long start;
+        long end;
+        try {
+            if (first.isEmpty()) {
+                if (last.isEmpty()) {
+                    return all;
+                }
+                // Suffix range, the last bytes of the content
+                long suffix = Long.parseLong(last);
+                if (suffix == 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Long.parseLong(last);
+                if (!last.isEmpty() && end < start) {
+                    // Syntactically invalid, ignore the header
+                    return all;
+                }
+            }
+        } catch (NumberFormatException e) {
+            return all;
+        }
+        if (start >= length) {
+            return null;
+        }
+        // The last position may be beyond the end of the content
+        return new long[] { start, Math.min(end, length - 1) };
+    }
+
+    private boolean isIfRangeSatisfied(VaadinRequest request) {
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak tags cannot be used for ranges
+            return getETag() != null && !getETag().startsWith("W/")
+                    && ifRange.equals(getETag());
+        }
+        if (getLastModified() < 0) {
+            return false;
+        }
+        try {
+            long date = request.getDateHeader("If-Range");
+            return date >= 0 && getLastModified() / 1000 == date / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Returns the filename formatted for inclusion in a Content-Disposition
      * header. Includes both a plain version of the name and a UTF-8 version
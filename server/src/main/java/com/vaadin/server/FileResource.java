@@ -69,8 +69,12 @@ public class FileResource implements ConnectorResource {
             final DownloadStream ds = new DownloadStream(
                     new FileInputStream(sourceFile), getMIMEType(),
                     getFilename());
-            ds.setParameter("Content-Length",
-                    String.valueOf(sourceFile.length()));
+            long length = sourceFile.length();
+            long lastModified = sourceFile.lastModified();
+            ds.setContentLength(length);
+            ds.setLastModified(lastModified);
+            ds.setETag("\"" + Long.toHexString(length) + "-"
+                    + Long.toHexString(lastModified) + "\"");
 
             ds.setCacheTime(cacheTime);
             return ds;
@@ -17,10 +17,12 @@
 package com.vaadin.server;
 
 import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import java.util.regex.Matcher;
@@ -36,6 +38,10 @@ import com.vaadin.util.CurrentInstance;
 /**
  * A {@link RequestHandler} that takes care of {@link ConnectorResource}s that
  * should not be served by the connector.
+ * <p>
+ * Each resource is registered once per session regardless of the number of
+ * connectors using it. The registration keeps count of the connectors using
+ * the resource and is released when the last of them is unregistered.
  *
  * @author Vaadin Ltd
  * @version @VERSION@
@@ -47,17 +53,31 @@ public class GlobalResourceHandler implements RequestHandler {
     private static final String RESOURCE_REQUEST_PATH = "global/";
 
     /**
-     * Used to detect when a resource is no longer used by any connector.
+     * A registered resource with the number of connectors using it.
      */
-    private final Map<Resource, Set<ClientConnector>> resourceUsers = new HashMap<>();
+    private static class LegacyResource implements Serializable {
+        private final ConnectorResource resource;
+        private final int id;
+        private final String key;
+        private int users = 0;
+
+        private LegacyResource(ConnectorResource resource, int id,
+                String key) {
+            this.resource = resource;
+            this.id = id;
+            this.key = key;
+        }
+    }
+
+    private final Map<ConnectorResource, LegacyResource> legacyResourceKeys = new HashMap<>();
+    private final Map<Integer, LegacyResource> legacyResources = new HashMap<>();
     /**
      * Used to find the resources that might not be needed any more when a
-     * connector is unregistered.
+     * connector is unregistered. A connector using only one resource has an
+     * immutable singleton list, which is replaced with a modifiable list when
+     * a second resource is added.
      */
-    private final Map<ClientConnector, Set<Resource>> usedResources = new HashMap<>();
-
-    private final Map<ConnectorResource, String> legacyResourceKeys = new HashMap<>();
-    private final Map<String, ConnectorResource> legacyResources = new HashMap<>();
+    private final Map<ClientConnector, List<ConnectorResource>> usedResources = new HashMap<>();
     private int nextLegacyId = 0;
 
     // APP/global/[uiid]/[type]/[id]
@@ -97,7 +117,7 @@ public class GlobalResourceHandler implements RequestHandler {
             oldInstances = CurrentInstance.setCurrent(ui);
             ConnectorResource resource;
             if (LEGACY_TYPE.equals(type)) {
-                resource = legacyResources.get(key);
+                resource = getLegacyResource(key);
             } else {
                 return error(request, response, "Unknown global resource type "
                         + type + " in requested path " + pathInfo);
@@ -143,40 +163,75 @@ public class GlobalResourceHandler implements RequestHandler {
                         "A normal ConnectorResource can only be registered for legacy components.");
             }
             ConnectorResource connectorResource = (ConnectorResource) resource;
-            if (!legacyResourceKeys.containsKey(resource)) {
-                String uri = LEGACY_TYPE + '/'
-                        + Integer.toString(nextLegacyId++);
-                String filename = connectorResource.getFilename();
-                if (filename != null && !filename.isEmpty()) {
-                    uri += '/' + filename;
+            if (addUsedResource(ownerConnector, connectorResource)) {
+                LegacyResource legacyResource = legacyResourceKeys
+                        .get(connectorResource);
+                if (legacyResource == null) {
+                    int id = nextLegacyId++;
+                    String uri = LEGACY_TYPE + '/' + Integer.toString(id);
+                    String filename = connectorResource.getFilename();
+                    if (filename != null && !filename.isEmpty()) {
+                        uri += '/' + filename;
+                    }
+                    legacyResource = new LegacyResource(connectorResource, id,
+                            uri);
+                    legacyResourceKeys.put(connectorResource, legacyResource);
+                    legacyResources.put(id, legacyResource);
                 }
-                legacyResourceKeys.put(connectorResource, uri);
-                legacyResources.put(uri, connectorResource);
-                registerResourceUsage(connectorResource, ownerConnector);
+                legacyResource.users++;
             }
         }
     }
 
-    private void unregisterResource(Resource resource) {
-        String oldUri = legacyResourceKeys.remove(resource);
-        if (oldUri != null) {
-            legacyResources.remove(oldUri);
+    private ConnectorResource getLegacyResource(String key) {
+        // legacy/[id] or legacy/[id]/[filename]
+        int idStart = LEGACY_TYPE.length() + 1;
+        int idEnd = key.indexOf('/', idStart);
+        if (idEnd == -1) {
+            idEnd = key.length();
         }
+        LegacyResource legacyResource;
+        try {
+            legacyResource = legacyResources
+                    .get(Integer.valueOf(key.substring(idStart, idEnd)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (legacyResource == null || !legacyResource.key.equals(key)) {
+            return null;
+        }
+        return legacyResource.resource;
     }
 
-    private void registerResourceUsage(Resource resource,
-            ClientConnector connector) {
-        ensureInSet(resourceUsers, resource, connector);
-        ensureInSet(usedResources, connector, resource);
+    /**
+     * Records that the connector uses the resource.
+     *
+     * @return <code>true</code> if the usage was added, <code>false</code>
+     *         if it was already recorded
+     */
+    private boolean addUsedResource(ClientConnector connector,
+            ConnectorResource resource) {
+        List<ConnectorResource> used = usedResources.get(connector);
+        if (used == null) {
+            usedResources.put(connector, Collections.singletonList(resource));
+            return true;
+        } else if (used.contains(resource)) {
+            return false;
+        }
+        if (used.size() == 1) {
+            used = new ArrayList<>(used);
+            usedResources.put(connector, used);
+        }
+        used.add(resource);
+        return true;
     }
 
-    private <K, V> void ensureInSet(Map<K, Set<V>> map, K key, V value) {
-        Set<V> set = map.get(key);
-        if (set == null) {
-            set = new HashSet<>();
-            map.put(key, set);
+    private void releaseResource(ConnectorResource resource) {
+        LegacyResource legacyResource = legacyResourceKeys.get(resource);
+        if (legacyResource != null && --legacyResource.users == 0) {
+            legacyResourceKeys.remove(resource);
+            legacyResources.remove(legacyResource.id);
         }
-        set.add(value);
     }
 
     /**
@@ -192,12 +247,12 @@ public class GlobalResourceHandler implements RequestHandler {
     public String getUri(ClientConnector connector,
             ConnectorResource resource) {
         // app://APP/global/[ui]/[type]/[id]
-        String uri = legacyResourceKeys.get(resource);
-        if (uri != null && !uri.isEmpty()) {
+        LegacyResource legacyResource = legacyResourceKeys.get(resource);
+        if (legacyResource != null) {
             return ApplicationConstants.APP_PROTOCOL_PREFIX
                     + ApplicationConstants.APP_PATH + '/'
                     + RESOURCE_REQUEST_PATH + connector.getUI().getUIId() + '/'
-                    + uri;
+                    + legacyResource.key;
         } else {
             return null;
         }
@@ -212,18 +267,9 @@ public class GlobalResourceHandler implements RequestHandler {
      *            released.
      */
     public void unregisterConnector(ClientConnector connector) {
-        Set<Resource> set = usedResources.remove(connector);
-        if (set == null) {
-            return;
-        }
-
-        for (Resource resource : set) {
-            Set<ClientConnector> users = resourceUsers.get(resource);
-            users.remove(connector);
-            if (users.isEmpty()) {
-                resourceUsers.remove(resource);
-                unregisterResource(resource);
-            }
+        List<ConnectorResource> used = usedResources.remove(connector);
+        if (used != null) {
+            used.forEach(this::releaseResource);
         }
     }
 
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server;
+
+import java.io.Serializable;
+
+import com.vaadin.server.RequestTimingEvent.Phase;
+import com.vaadin.server.RequestTimingEvent.RequestType;
+import com.vaadin.ui.UI;
+import com.vaadin.util.CurrentInstance;
+
+/**
+ * Collects timing information about the request handled by the current
+ * thread. A timer is only started when there are
+ * {@link RequestTimingListener}s, so the parts of the framework that report
+ * times should do nothing when {@link #getCurrent()} returns
+ * <code>null</code>.
+ * <p>
+ * This class is intended for internal use by the framework.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public final class RequestTimer implements Serializable {
+
+    private final VaadinService service;
+    private final RequestType requestType;
+    private final RequestTimer previous;
+    private final long startTime = System.nanoTime();
+    private final long[] phaseTimes = new long[Phase.values().length];
+    private UI ui;
+    private long lockWaitTime;
+    private int dirtyConnectorCount;
+    private long responseSize;
+
+    private RequestTimer(VaadinService service, RequestType requestType,
+            RequestTimer previous) {
+        this.service = service;
+        this.requestType = requestType;
+        this.previous = previous;
+    }
+
+    /**
+     * Starts timing a request in the current thread, if the service has
+     * request timing listeners. The timer must be finished with
+     * {@link #finish()}.
+     *
+     * @param service
+     *            the service handling the request, not <code>null</code>
+     * @param requestType
+     *            the kind of the request, not <code>null</code>
+     * @return the started timer, or <code>null</code> if there is nothing to
+     *         report the times to
+     */
+    public static RequestTimer start(VaadinService service,
+            RequestType requestType) {
+        if (!service.hasRequestTimingListeners()) {
+            return null;
+        }
+        RequestTimer timer = new RequestTimer(service, requestType,
+                getCurrent());
+        CurrentInstance.set(RequestTimer.class, timer);
+        return timer;
+    }
+
+    /**
+     * Gets the timer of the request handled by the current thread.
+     *
+     * @return the current timer, or <code>null</code> if the request is not
+     *         timed
+     */
+    public static RequestTimer getCurrent() {
+        return CurrentInstance.get(RequestTimer.class);
+    }
+
+    /**
+     * Sets the UI the request is for.
+     *
+     * @param ui
+     *            the UI
+     */
+    public void setUI(UI ui) {
+        this.ui = ui;
+    }
+
+    /**
+     * Gets the UI the request is for.
+     *
+     * @return the UI, or <code>null</code> if not set
+     */
+    public UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Adds time spent in the given phase.
+     *
+     * @param phase
+     *            the phase
+     * @param nanos
+     *            the time in nanoseconds
+     */
+    public void addPhaseTime(Phase phase, long nanos) {
+        phaseTimes[phase.ordinal()] += nanos;
+    }
+
+    /**
+     * Gets the time spent in the given phase so far.
+     *
+     * @param phase
+     *            the phase
+     * @return the time in nanoseconds
+     */
+    public long getPhaseTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Adds time spent waiting for the session lock.
+     *
+     * @param nanos
+     *            the time in nanoseconds
+     */
+    public void addLockWaitTime(long nanos) {
+        lockWaitTime += nanos;
+    }
+
+    /**
+     * Adds to the number of dirty connectors written to the client.
+     *
+     * @param count
+     *            the number of connectors
+     */
+    public void addDirtyConnectors(int count) {
+        dirtyConnectorCount += count;
+    }
+
+    /**
+     * Adds to the size of the response.
+     *
+     * @param bytes
+     *            the number of bytes written
+     */
+    public void addResponseSize(long bytes) {
+        responseSize += bytes;
+    }
+
+    /**
+     * Finishes timing the request, notifies the request timing listeners and
+     * restores the timer that was current when this timer was started.
+     */
+    public void finish() {
+        CurrentInstance.set(RequestTimer.class, previous);
+        service.fireRequestTiming(new RequestTimingEvent(service,
+                requestType, ui, phaseTimes, lockWaitTime,
+                System.nanoTime() - startTime, dirtyConnectorCount,
+                responseSize));
+    }
+}
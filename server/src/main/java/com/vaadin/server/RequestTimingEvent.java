@@ -0,0 +1,212 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server;
+
+import java.util.Arrays;
+import java.util.EventObject;
+
+import com.vaadin.ui.UI;
+
+/**
+ * Event with timing information about a handled request. All times are in
+ * nanoseconds.
+ *
+ * @see RequestTimingListener
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public class RequestTimingEvent extends EventObject {
+
+    /**
+     * The kind of a timed request.
+     */
+    public enum RequestType {
+        /**
+         * A UIDL request sent over HTTP.
+         */
+        UIDL,
+        /**
+         * A message received or sent through a push connection.
+         */
+        PUSH,
+        /**
+         * A heartbeat request.
+         */
+        HEARTBEAT;
+    }
+
+    /**
+     * A phase of handling a request. The phases do not overlap, so the time
+     * of a phase does not include the time of any other phase.
+     */
+    public enum Phase {
+        /**
+         * Reading and decoding the RPC invocations sent by the client, not
+         * including running the invocations.
+         */
+        RPC_HANDLING,
+        /**
+         * Running the RPC invocations, including the listeners they trigger.
+         */
+        LISTENERS,
+        /**
+         * Running tasks queued with {@link VaadinSession#access(Runnable)} or
+         * {@link UI#access(Runnable)}.
+         */
+        ACCESS_TASKS,
+        /**
+         * Calling {@link ClientConnector#beforeClientResponse(boolean)} for
+         * the dirty connectors.
+         */
+        BEFORE_CLIENT_RESPONSE,
+        /**
+         * Encoding the shared state of the dirty connectors.
+         */
+        STATE_WRITING,
+        /**
+         * Encoding the connector hierarchy.
+         */
+        HIERARCHY_WRITING,
+        /**
+         * Encoding the client RPC calls.
+         */
+        CLIENT_RPC_WRITING,
+        /**
+         * Writing the rest of the response, such as legacy changes, connector
+         * types, metadata and dependencies.
+         */
+        OTHER_WRITING;
+    }
+
+    private final RequestType requestType;
+    private final UI ui;
+    private final long[] phaseTimes;
+    private final long lockWaitTime;
+    private final long totalTime;
+    private final int dirtyConnectorCount;
+    private final long responseSize;
+
+    /**
+     * Creates a new event.
+     *
+     * @param service
+     *            the service that handled the request
+     * @param requestType
+     *            the kind of the request
+     * @param ui
+     *            the UI of the request, or <code>null</code> if not known
+     * @param phaseTimes
+     *            the times of the phases, indexed by
+     *            {@link Phase#ordinal()}
+     * @param lockWaitTime
+     *            the time spent waiting for the session lock
+     * @param totalTime
+     *            the total time of handling the request
+     * @param dirtyConnectorCount
+     *            the number of dirty connectors written to the client
+     * @param responseSize
+     *            the size of the response in bytes
+     */
+    public RequestTimingEvent(VaadinService service, RequestType requestType,
+            UI ui, long[] phaseTimes, long lockWaitTime, long totalTime,
+            int dirtyConnectorCount, long responseSize) {
+        super(service);
+        if (phaseTimes.length != Phase.values().length) {
+            throw new IllegalArgumentException(
+                    "There should be a time for each phase");
+        }
+        this.requestType = requestType;
+        this.ui = ui;
+        this.phaseTimes = Arrays.copyOf(phaseTimes, phaseTimes.length);
+        this.lockWaitTime = lockWaitTime;
+        this.totalTime = totalTime;
+        this.dirtyConnectorCount = dirtyConnectorCount;
+        this.responseSize = responseSize;
+    }
+
+    @Override
+    public VaadinService getSource() {
+        return (VaadinService) super.getSource();
+    }
+
+    /**
+     * Gets the kind of the request.
+     *
+     * @return the request type
+     */
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    /**
+     * Gets the UI the request was for.
+     *
+     * @return the UI, or <code>null</code> if the request was not handled by
+     *         a UI
+     */
+    public UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Gets the time spent in the given phase.
+     *
+     * @param phase
+     *            the phase, not <code>null</code>
+     * @return the time in nanoseconds
+     */
+    public long getPhaseTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Gets the time spent waiting for the session lock.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getLockWaitTime() {
+        return lockWaitTime;
+    }
+
+    /**
+     * Gets the total time of handling the request, including the phases, the
+     * lock wait time and any other processing.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    /**
+     * Gets the number of dirty connectors that were written to the client.
+     *
+     * @return the number of dirty connectors
+     */
+    public int getDirtyConnectorCount() {
+        return dirtyConnectorCount;
+    }
+
+    /**
+     * Gets the size of the response written to the client.
+     *
+     * @return the response size in bytes
+     */
+    public long getResponseSize() {
+        return responseSize;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server;
+
+import java.io.Serializable;
+
+/**
+ * Listener that gets timing information about each UIDL request, push message
+ * and heartbeat handled by a {@link VaadinService}.
+ * <p>
+ * The listener is called in the thread that handled the request, after the
+ * response has been written and the session has been unlocked. It should
+ * return quickly, for instance by recording the values in a metrics library.
+ *
+ * @see VaadinService#addRequestTimingListener(RequestTimingListener)
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+@FunctionalInterface
+public interface RequestTimingListener extends Serializable {
+
+    /**
+     * Called when a request has been handled.
+     *
+     * @param event
+     *            the timing information of the request
+     */
+    public void requestTimed(RequestTimingEvent event);
+}
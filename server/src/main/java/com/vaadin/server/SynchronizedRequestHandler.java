@@ -17,6 +17,8 @@ package com.vaadin.server;
 
 import java.io.IOException;
 
+import com.vaadin.server.RequestTimingEvent.RequestType;
+
 /**
  * RequestHandler which takes care of locking and unlocking of the VaadinSession
  * automatically. The session is locked before
@@ -36,11 +38,25 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
             return false;
         }
 
-        session.lock();
+        RequestType requestType = getTimedRequestType();
+        RequestTimer timer = requestType != null
+                ? RequestTimer.start(session.getService(), requestType)
+                : null;
         try {
-            return synchronizedHandleRequest(session, request, response);
+            long lockStart = timer != null ? System.nanoTime() : 0;
+            session.lock();
+            if (timer != null) {
+                timer.addLockWaitTime(System.nanoTime() - lockStart);
+            }
+            try {
+                return synchronizedHandleRequest(session, request, response);
+            } finally {
+                session.unlock();
+            }
         } finally {
-            session.unlock();
+            if (timer != null) {
+                timer.finish();
+            }
         }
     }
 
@@ -87,4 +103,16 @@ public abstract class SynchronizedRequestHandler implements RequestHandler {
         return true;
     }
 
+    /**
+     * Gets the kind of request to report to {@link RequestTimingListener}s
+     * for the requests handled by this handler. The default implementation
+     * returns <code>null</code> which means that the requests are not timed.
+     *
+     * @since 8.2
+     * @return the request type, or <code>null</code> to not time the requests
+     */
+    protected RequestType getTimedRequestType() {
+        return null;
+    }
+
 }
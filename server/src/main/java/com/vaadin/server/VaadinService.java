@@ -18,15 +18,24 @@ package com.vaadin.server;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.Serializable;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,7 +47,9 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -52,9 +63,11 @@ import javax.servlet.ServletContext;
 import javax.servlet.http.HttpServletResponse;
 
 import com.vaadin.annotations.PreserveOnRefresh;
+import com.vaadin.server.RequestTimingEvent.Phase;
 import com.vaadin.server.VaadinSession.FutureAccess;
 import com.vaadin.server.VaadinSession.State;
 import com.vaadin.server.communication.AtmospherePushConnection;
+import com.vaadin.server.communication.ConnectorUsageProfile;
 import com.vaadin.server.communication.FileUploadHandler;
 import com.vaadin.server.communication.HeartbeatHandler;
 import com.vaadin.server.communication.PublishedFileHandler;
@@ -114,6 +127,9 @@ public abstract class VaadinService implements Serializable {
 
     private static final String REQUEST_START_TIME_ATTRIBUTE = "requestStartTime";
 
+    private static final long CONNECTOR_USAGE_PROFILE_SAVE_INTERVAL = TimeUnit.MINUTES
+            .toMillis(1);
+
     /**
      * Should never be used directly, always use {@link #getDeploymentConfiguration()}
      */
@@ -132,6 +148,8 @@ public abstract class VaadinService implements Serializable {
 
     private final List<SessionDestroyListener> sessionDestroyListeners = new CopyOnWriteArrayList<>();
 
+    private final List<RequestTimingListener> requestTimingListeners = new CopyOnWriteArrayList<>();
+
     private SystemMessagesProvider systemMessagesProvider = DefaultSystemMessagesProvider
             .get();
 
@@ -140,6 +158,10 @@ public abstract class VaadinService implements Serializable {
     private Iterable<RequestHandler> requestHandlers;
     private Iterable<DependencyFilter> dependencyFilters;
     private ConnectorIdGenerator connectorIdGenerator;
+    private ConnectorUsageProfile connectorUsageProfile;
+    private File connectorUsageProfileFile;
+    private transient ScheduledExecutorService connectorUsageProfileSaver;
+    private final Lock connectorUsageProfileFileLock = new ReentrantLock();
 
     private boolean atmosphereAvailable = checkAtmosphereSupport();
 
@@ -232,9 +254,67 @@ public abstract class VaadinService implements Serializable {
                 event.getAddedConnectorIdGenerators());
         assert connectorIdGenerator != null;
 
+        initConnectorUsageProfile();
+
         initialized = true;
     }
 
+    private void initConnectorUsageProfile() {
+        String path = getDeploymentConfiguration()
+                .getApplicationOrSystemProperty(
+                        Constants.SERVLET_PARAMETER_CONNECTOR_USAGE_PROFILE,
+                        null);
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+        connectorUsageProfileFile = new File(path);
+        connectorUsageProfile = new ConnectorUsageProfile();
+        if (connectorUsageProfileFile.exists()) {
+            try (Reader reader = new InputStreamReader(
+                    new FileInputStream(connectorUsageProfileFile),
+                    StandardCharsets.UTF_8)) {
+                connectorUsageProfile = ConnectorUsageProfile.read(reader);
+            } catch (IOException e) {
+                getLogger().log(Level.WARNING,
+                        "Could not read connector usage profile from " + path,
+                        e);
+            }
+        }
+
+        // Save in the background so that requests never wait for the file
+        connectorUsageProfileSaver = Executors
+                .newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable,
+                            "Vaadin connector usage profile saver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        connectorUsageProfileSaver.scheduleWithFixedDelay(
+                this::saveConnectorUsageProfile,
+                CONNECTOR_USAGE_PROFILE_SAVE_INTERVAL,
+                CONNECTOR_USAGE_PROFILE_SAVE_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Gets the profile where the connector types used by each UI class are
+     * recorded. Recording is enabled by setting
+     * {@value Constants#SERVLET_PARAMETER_CONNECTOR_USAGE_PROFILE} to the path
+     * of the profile file. Data in an existing file is read when the service is
+     * initialized. The file is written once a minute by a background thread,
+     * and when the service is destroyed.
+     * <p>
+     * The profile can be used for splitting connectors into bundles when
+     * compiling the widgetset, and it is used for telling the client which
+     * connectors to preload when bootstrapping a UI.
+     *
+     * @return the connector usage profile, or <code>null</code> if recording
+     *         is not enabled
+     * @since 8.2
+     */
+    public ConnectorUsageProfile getConnectorUsageProfile() {
+        return connectorUsageProfile;
+    }
+
     /**
      * Gets all available service init listeners. A custom Vaadin service
      * implementation can override this method to discover init listeners in
@@ -514,6 +594,54 @@ public abstract class VaadinService implements Serializable {
         return () -> sessionDestroyListeners.remove(listener);
     }
 
+    /**
+     * Adds a listener that gets timing information about each UIDL request,
+     * push message and heartbeat handled by this service. The information
+     * includes the time spent in each phase of the request, the time spent
+     * waiting for the session lock, the number of dirty connectors and the
+     * size of the response.
+     * <p>
+     * Requests are only timed while there are listeners, so there is no
+     * overhead when no listener has been added.
+     *
+     * @param listener
+     *            the request timing listener, not <code>null</code>
+     * @return a registration object for removing the listener
+     * @since 8.2
+     */
+    public Registration addRequestTimingListener(
+            RequestTimingListener listener) {
+        requestTimingListeners.add(listener);
+        return () -> requestTimingListeners.remove(listener);
+    }
+
+    /**
+     * Checks whether there are request timing listeners.
+     *
+     * @return <code>true</code> if requests should be timed,
+     *         <code>false</code> otherwise
+     */
+    boolean hasRequestTimingListeners() {
+        return !requestTimingListeners.isEmpty();
+    }
+
+    /**
+     * Notifies the request timing listeners of a timed request.
+     *
+     * @param event
+     *            the timing event
+     */
+    void fireRequestTiming(RequestTimingEvent event) {
+        for (RequestTimingListener listener : requestTimingListeners) {
+            try {
+                listener.requestTimed(event);
+            } catch (Exception e) {
+                getLogger().log(Level.WARNING,
+                        "Error in request timing listener", e);
+            }
+        }
+    }
+
     /**
      * Handles destruction of the given session. Internally ensures proper
      * locking is done.
@@ -1998,6 +2126,9 @@ public abstract class VaadinService implements Serializable {
 
         FutureAccess pendingAccess;
 
+        RequestTimer timer = RequestTimer.getCurrent();
+        long start = timer != null ? System.nanoTime() : 0;
+
         // Dump all current instances, not only the ones dumped by setCurrent
         Map<Class<?>, CurrentInstance> oldInstances = CurrentInstance
                 .getInstances();
@@ -2019,6 +2150,10 @@ public abstract class VaadinService implements Serializable {
         } finally {
             CurrentInstance.clearAll();
             CurrentInstance.restoreInstances(oldInstances);
+            if (timer != null) {
+                timer.addPhaseTime(Phase.ACCESS_TASKS,
+                        System.nanoTime() - start);
+            }
         }
     }
 
@@ -2076,6 +2211,47 @@ public abstract class VaadinService implements Serializable {
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
+
+        if (connectorUsageProfile != null) {
+            connectorUsageProfileSaver.shutdownNow();
+            saveConnectorUsageProfile();
+        }
+    }
+
+    /**
+     * Writes the connector usage profile to a temporary file that then
+     * replaces the profile file, so that the profile file is never left
+     * partially written. The profile is copied to memory first, so that
+     * recording is not blocked by the file operations.
+     */
+    private void saveConnectorUsageProfile() {
+        StringWriter profile = new StringWriter();
+        File temporary = null;
+        connectorUsageProfileFileLock.lock();
+        try {
+            connectorUsageProfile.write(profile);
+            File directory = connectorUsageProfileFile.getAbsoluteFile()
+                    .getParentFile();
+            temporary = File.createTempFile(
+                    connectorUsageProfileFile.getName(), ".tmp", directory);
+            try (Writer writer = new OutputStreamWriter(
+                    new FileOutputStream(temporary),
+                    StandardCharsets.UTF_8)) {
+                writer.write(profile.toString());
+            }
+            Files.move(temporary.toPath(), connectorUsageProfileFile.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            getLogger().log(Level.WARNING,
+                    "Could not write connector usage profile to "
+                            + connectorUsageProfileFile,
+                    e);
+            if (temporary != null) {
+                temporary.delete();
+            }
+        } finally {
+            connectorUsageProfileFileLock.unlock();
+        }
     }
 
     /**
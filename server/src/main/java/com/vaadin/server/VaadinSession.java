@@ -882,6 +882,21 @@ public class VaadinSession implements HttpSessionBindingListener, Serializable {
         eventRouter.fireEvent(response);
     }
 
+    /**
+     * Checks whether any bootstrap listeners have been added to this session.
+     *
+     * @see #addBootstrapListener(BootstrapListener)
+     *
+     * @return <code>true</code> if there are bootstrap listeners,
+     *         <code>false</code> otherwise
+     * @since 8.2
+     */
+    boolean hasBootstrapListeners() {
+        assert hasLock();
+        return eventRouter.hasListeners(BootstrapFragmentResponse.class)
+                || eventRouter.hasListeners(BootstrapPageResponse.class);
+    }
+
     /**
      * Called by the framework to remove an UI instance from the session because
      * it has been closed.
@@ -23,6 +23,7 @@ import java.io.Serializable;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -31,11 +32,15 @@ import java.util.logging.Level;
 import java.util.logging.LogRecord;
 import java.util.logging.Logger;
 
+import org.atmosphere.cpr.AtmosphereRequest;
 import org.atmosphere.cpr.AtmosphereResource;
 import org.atmosphere.cpr.AtmosphereResource.TRANSPORT;
 import org.atmosphere.util.Version;
 
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.RequestType;
 import com.vaadin.shared.communication.PushConstants;
+import com.vaadin.shared.communication.PushMessageEncoding;
 import com.vaadin.ui.UI;
 
 /**
@@ -136,6 +141,7 @@ public class AtmospherePushConnection implements PushConnection {
     private transient AtmosphereResource resource;
     private transient FragmentedMessage incomingMessage;
     private transient Future<Object> outgoingMessage;
+    private transient boolean encodeMessages;
 
     public AtmospherePushConnection(UI ui) {
         this.ui = ui;
@@ -163,12 +169,35 @@ public class AtmospherePushConnection implements PushConnection {
                 state = State.RESPONSE_PENDING;
             }
         } else {
+            // Pushes that are not part of handling a message from the client
+            // are timed on their own
+            RequestTimer timer = RequestTimer.getCurrent();
+            RequestTimer ownTimer = null;
+            if (timer == null || timer.getUI() != getUI()) {
+                timer = ownTimer = RequestTimer.start(
+                        getUI().getSession().getService(), RequestType.PUSH);
+                if (timer != null) {
+                    timer.setUI(getUI());
+                }
+            }
             try {
                 Writer writer = new StringWriter();
                 new UidlWriter().write(getUI(), writer, async);
-                sendMessage("for(;;);[{" + writer.toString() + "}]");
+                String message = "for(;;);[{" + writer.toString() + "}]";
+                if (encodeMessages) {
+                    message = PushMessageEncoding.encode(message);
+                }
+                if (timer != null) {
+                    timer.addResponseSize(message
+                            .getBytes(StandardCharsets.UTF_8).length);
+                }
+                sendMessage(message);
             } catch (Exception e) {
                 throw new RuntimeException("Push failed", e);
+            } finally {
+                if (ownTimer != null) {
+                    ownTimer.finish();
+                }
             }
         }
     }
@@ -233,6 +262,9 @@ public class AtmospherePushConnection implements PushConnection {
      * {@link AtmosphereResource} representing an established push connection. If
      * already connected, calls {@link #disconnect()} first. If there is a
      * deferred push, carries it out via the new connection.
+     * <p>
+     * Messages are encoded with {@link PushMessageEncoding} if the client
+     * requested it when opening the connection.
      *
      * @since 7.2
      */
@@ -246,6 +278,10 @@ public class AtmospherePushConnection implements PushConnection {
         }
 
         this.resource = resource;
+        AtmosphereRequest request = resource.getRequest();
+        encodeMessages = request != null
+                && PushMessageEncoding.ENCODING_ID.equals(request
+                        .getParameter(PushMessageEncoding.ENCODING_PARAMETER));
         State oldState = state;
         state = State.CONNECTED;
 
@@ -326,6 +362,7 @@ public class AtmospherePushConnection implements PushConnection {
      */
     public void connectionLost() {
         resource = null;
+        encodeMessages = false;
         if (state == State.CONNECTED) {
             // Guard against connectionLost being (incorrectly) called when
             // state is PUSH_PENDING or RESPONSE_PENDING
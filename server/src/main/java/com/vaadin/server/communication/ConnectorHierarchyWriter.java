@@ -19,7 +19,9 @@ package com.vaadin.server.communication;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 import com.vaadin.server.AbstractClientConnector;
@@ -28,6 +30,7 @@ import com.vaadin.server.LegacyCommunicationManager;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.VaadinRequest;
 import com.vaadin.server.VaadinService;
+import com.vaadin.ui.ConnectorTracker;
 import com.vaadin.ui.UI;
 
 import elemental.json.Json;
@@ -46,7 +49,9 @@ public class ConnectorHierarchyWriter implements Serializable {
 
     /**
      * Writes a JSON object containing the connector hierarchy (parent-child
-     * mappings) of the dirty connectors in the given UI.
+     * mappings) of the dirty connectors in the given UI. Only connectors whose
+     * children differ from what has previously been sent to the client are
+     * included.
      *
      * @param ui
      *            The {@link UI} whose hierarchy to write.
@@ -60,35 +65,43 @@ public class ConnectorHierarchyWriter implements Serializable {
     public void write(UI ui, Writer writer, Set<String> stateUpdateConnectors)
             throws IOException {
 
-        Collection<ClientConnector> dirtyVisibleConnectors = ui
-                .getConnectorTracker().getDirtyVisibleConnectors();
+        ConnectorTracker connectorTracker = ui.getConnectorTracker();
+        Collection<ClientConnector> dirtyVisibleConnectors = connectorTracker
+                .getDirtyVisibleConnectors();
 
         JsonObject hierarchyInfo = Json.createObject();
         for (ClientConnector connector : dirtyVisibleConnectors) {
             String connectorId = connector.getConnectorId();
-            JsonArray children = Json.createArray();
+            List<String> childIds = new ArrayList<>();
 
             for (ClientConnector child : AbstractClientConnector
                     .getAllChildrenIterable(connector)) {
                 if (LegacyCommunicationManager
                         .isConnectorVisibleToClient(child)) {
-                    children.set(children.length(), child.getConnectorId());
+                    childIds.add(child.getConnectorId());
                 }
             }
 
-            // Omit for leaf nodes with state changes
-            if (children.length() > 0
-                    || !stateUpdateConnectors.contains(connectorId)) {
-                try {
-                    hierarchyInfo.put(connectorId, children);
-                } catch (JsonException e) {
-                    throw new PaintException(
-                            "Failed to send hierarchy information about "
-                                    + connectorId + " to the client: "
-                                    + e.getMessage(),
-                            e);
-                }
+            // Omit if the client already has the same children
+            if (childIds.equals(
+                    connectorTracker.getClientSideChildIds(connector))) {
+                continue;
+            }
+
+            JsonArray children = Json.createArray();
+            for (String childId : childIds) {
+                children.set(children.length(), childId);
+            }
+            try {
+                hierarchyInfo.put(connectorId, children);
+            } catch (JsonException e) {
+                throw new PaintException(
+                        "Failed to send hierarchy information about "
+                                + connectorId + " to the client: "
+                                + e.getMessage(),
+                        e);
             }
+            connectorTracker.setClientSideChildIds(connector, childIds);
         }
         // Dummy assert just for conditionally storing away data that will be
         // used by the real assert later on
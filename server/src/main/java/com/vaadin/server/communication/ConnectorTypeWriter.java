@@ -19,11 +19,14 @@ package com.vaadin.server.communication;
 import java.io.IOException;
 import java.io.Serializable;
 import java.io.Writer;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import com.vaadin.server.ClientConnector;
 import com.vaadin.server.PaintException;
 import com.vaadin.server.PaintTarget;
+import com.vaadin.ui.ConnectorTracker;
 import com.vaadin.ui.UI;
 
 import elemental.json.Json;
@@ -41,7 +44,12 @@ public class ConnectorTypeWriter implements Serializable {
 
     /**
      * Writes a JSON object containing connector-ID-to-type-ID mappings for each
-     * dirty Connector in the given UI.
+     * dirty Connector in the given UI. Connectors that have already been
+     * initialized on the client side are omitted since the client already
+     * knows their type.
+     * <p>
+     * If the service has a {@link ConnectorUsageProfile}, the written
+     * connectors are recorded in it.
      *
      * @param ui
      *            The {@link UI} containing dirty connectors
@@ -55,11 +63,23 @@ public class ConnectorTypeWriter implements Serializable {
     public void write(UI ui, Writer writer, PaintTarget target)
             throws IOException {
 
-        Collection<ClientConnector> dirtyVisibleConnectors = ui
-                .getConnectorTracker().getDirtyVisibleConnectors();
+        ConnectorTracker connectorTracker = ui.getConnectorTracker();
+        Collection<ClientConnector> dirtyVisibleConnectors = connectorTracker
+                .getDirtyVisibleConnectors();
+
+        ConnectorUsageProfile profile = ui.getSession().getService()
+                .getConnectorUsageProfile();
+        List<ClientConnector> newConnectors = profile == null ? null
+                : new ArrayList<>();
 
         JsonObject connectorTypes = Json.createObject();
         for (ClientConnector connector : dirtyVisibleConnectors) {
+            if (connectorTracker.isClientSideInitialized(connector)) {
+                continue;
+            }
+            if (newConnectors != null) {
+                newConnectors.add(connector);
+            }
             String connectorType = target.getTag(connector);
             try {
                 connectorTypes.put(connector.getConnectorId(), connectorType);
@@ -72,5 +92,10 @@ public class ConnectorTypeWriter implements Serializable {
             }
         }
         writer.write(JsonUtil.stringify(connectorTypes));
+
+        if (profile != null && !newConnectors.isEmpty()) {
+            profile.record(ui, newConnectors,
+                    !connectorTracker.isClientSideInitialized(ui));
+        }
     }
 }
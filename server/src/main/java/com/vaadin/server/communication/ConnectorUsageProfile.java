@@ -0,0 +1,309 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.communication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Serializable;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+
+import com.vaadin.server.AbstractClientConnector;
+import com.vaadin.server.ClientConnector;
+import com.vaadin.ui.UI;
+
+/**
+ * Statistics of the connector types that are used by each UI class, collected
+ * at runtime and used for splitting the client-side connectors into bundles
+ * when compiling the widgetset.
+ * <p>
+ * A connector type is identified by the canonical name of its server-side
+ * class, which is the same identifier as in the {@code @Connect} annotation of
+ * the client-side connector. Since a client-side connector can be connected to
+ * a superclass of the actual server-side class, all superclasses of a used
+ * class are also recorded as used.
+ * <p>
+ * For each UI class, the profile counts the UIs that have been created, the
+ * UIs that used a connector type already in their initial response and the
+ * UIs that used a connector type at some point. A connector type is
+ * classified as {@link Usage#STARTUP} if it is in the initial response of at
+ * least half of the UIs of some UI class, {@link Usage#COMMON} if it is used
+ * by at least a tenth of the UIs of some UI class and {@link Usage#RARE}
+ * otherwise.
+ *
+ * @see ConnectorTypeWriter
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public class ConnectorUsageProfile implements Serializable {
+
+    /**
+     * How commonly a connector type is used.
+     */
+    public enum Usage {
+        /**
+         * Used in the initial response of most UIs.
+         */
+        STARTUP,
+        /**
+         * Used by many UIs, but typically not right away.
+         */
+        COMMON,
+        /**
+         * Used by few UIs, or not at all.
+         */
+        RARE;
+    }
+
+    private static final double STARTUP_RATIO = 0.5;
+
+    private static final double COMMON_RATIO = 0.1;
+
+    private static final String UI_ENTRY = "ui";
+
+    private static final String STARTUP_ENTRY = "startup";
+
+    private static final String USED_ENTRY = "used";
+
+    private static class UIUsage implements Serializable {
+        private int count = 0;
+        private final Map<String, Integer> startup = new TreeMap<>();
+        private final Map<String, Integer> used = new TreeMap<>();
+    }
+
+    private final Map<String, UIUsage> uiUsages = new TreeMap<>();
+
+    /**
+     * The connector types already recorded for each live UI, so that a type
+     * is counted only once per UI.
+     */
+    private transient Map<UI, Set<String>> recordedTypes;
+
+    /**
+     * Records the connector types of connectors that are sent to the client
+     * for the first time.
+     *
+     * @param ui
+     *            the UI the connectors belong to
+     * @param connectors
+     *            the connectors, not <code>null</code>
+     * @param initialResponse
+     *            <code>true</code> if the connectors are sent in the initial
+     *            response of the UI, <code>false</code> otherwise
+     */
+    public synchronized void record(UI ui,
+            Collection<? extends ClientConnector> connectors,
+            boolean initialResponse) {
+        if (recordedTypes == null) {
+            recordedTypes = new WeakHashMap<>();
+        }
+        UIUsage uiUsage = uiUsages.computeIfAbsent(ui.getClass().getName(),
+                name -> new UIUsage());
+        Set<String> types = recordedTypes.get(ui);
+        boolean startup = false;
+        if (types == null) {
+            types = new HashSet<>();
+            recordedTypes.put(ui, types);
+            uiUsage.count++;
+            // A refreshed UI sends its initial response again
+            startup = initialResponse;
+        }
+        for (ClientConnector connector : connectors) {
+            for (Class<?> type = connector.getClass(); type != null
+                    && type != AbstractClientConnector.class; type = type
+                            .getSuperclass()) {
+                String name = type.getCanonicalName();
+                if (name != null && types.add(name)) {
+                    uiUsage.used.merge(name, 1, Integer::sum);
+                    if (startup) {
+                        uiUsage.startup.merge(name, 1, Integer::sum);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets how commonly the given connector type is used.
+     *
+     * @param connectorType
+     *            the canonical name of the server-side class
+     * @return the usage of the connector type, not <code>null</code>
+     */
+    public synchronized Usage getUsage(String connectorType) {
+        Usage usage = Usage.RARE;
+        for (UIUsage uiUsage : uiUsages.values()) {
+            if (getRatio(uiUsage, uiUsage.startup,
+                    connectorType) >= STARTUP_RATIO) {
+                return Usage.STARTUP;
+            } else if (getRatio(uiUsage, uiUsage.used,
+                    connectorType) >= COMMON_RATIO) {
+                usage = Usage.COMMON;
+            }
+        }
+        return usage;
+    }
+
+    /**
+     * Checks whether the given connector type has been used in any recorded
+     * UI. A type without data is reported as {@link Usage#RARE} by
+     * {@link #getUsage(String)}, but it may as well be a type that is new or
+     * that was not used while the profile was recorded.
+     *
+     * @param connectorType
+     *            the canonical name of the server-side class
+     * @return <code>true</code> if the profile has data on the type,
+     *         <code>false</code> otherwise
+     */
+    public synchronized boolean hasData(String connectorType) {
+        for (UIUsage uiUsage : uiUsages.values()) {
+            if (uiUsage.used.containsKey(connectorType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the connector types that a new UI of the given class is likely to
+     * use, i.e. types used by at least a tenth of the previous UIs of the same
+     * class.
+     *
+     * @param uiClass
+     *            the UI class
+     * @return a list of canonical names of server-side classes, sorted by
+     *         name, empty if there is no data for the UI class
+     */
+    public synchronized List<String> getPredictedTypes(
+            Class<? extends UI> uiClass) {
+        List<String> types = new ArrayList<>();
+        UIUsage uiUsage = uiUsages.get(uiClass.getName());
+        if (uiUsage != null) {
+            for (String type : uiUsage.used.keySet()) {
+                if (getRatio(uiUsage, uiUsage.used, type) >= COMMON_RATIO) {
+                    types.add(type);
+                }
+            }
+        }
+        return types;
+    }
+
+    /**
+     * Gets the number of recorded UIs.
+     *
+     * @return the number of UIs of all UI classes
+     */
+    public synchronized int getUICount() {
+        return uiUsages.values().stream().mapToInt(uiUsage -> uiUsage.count)
+                .sum();
+    }
+
+    /**
+     * Writes this profile in a line based text format that can be read using
+     * {@link #read(Reader)}.
+     *
+     * @param writer
+     *            the writer to write to, not <code>null</code>
+     * @throws IOException
+     *             if writing fails
+     */
+    public synchronized void write(Writer writer) throws IOException {
+        for (Entry<String, UIUsage> entry : uiUsages.entrySet()) {
+            String uiClass = entry.getKey();
+            UIUsage uiUsage = entry.getValue();
+            writer.write(
+                    UI_ENTRY + ' ' + uiClass + ' ' + uiUsage.count + '\n');
+            writeCounts(writer, STARTUP_ENTRY, uiClass, uiUsage.startup);
+            writeCounts(writer, USED_ENTRY, uiClass, uiUsage.used);
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads a profile written using {@link #write(Writer)}. Profiles can be
+     * combined by writing them one after another, in which case the counts
+     * are summed.
+     *
+     * @param reader
+     *            the reader to read from, not <code>null</code>
+     * @return the read profile
+     * @throws IOException
+     *             if reading fails or the input is not a valid profile
+     */
+    public static ConnectorUsageProfile read(Reader reader)
+            throws IOException {
+        ConnectorUsageProfile profile = new ConnectorUsageProfile();
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                UIUsage uiUsage = profile.uiUsages.computeIfAbsent(parts[1],
+                        name -> new UIUsage());
+                if (UI_ENTRY.equals(parts[0]) && parts.length == 3) {
+                    uiUsage.count += Integer.parseInt(parts[2]);
+                } else if (STARTUP_ENTRY.equals(parts[0])
+                        && parts.length == 4) {
+                    uiUsage.startup.merge(parts[2],
+                            Integer.valueOf(parts[3]), Integer::sum);
+                } else if (USED_ENTRY.equals(parts[0]) && parts.length == 4) {
+                    uiUsage.used.merge(parts[2], Integer.valueOf(parts[3]),
+                            Integer::sum);
+                } else {
+                    throw new IOException("Invalid connector usage profile "
+                            + "entry on line " + lineNumber + ": " + line);
+                }
+            } catch (NumberFormatException
+                    | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Invalid connector usage profile entry "
+                        + "on line " + lineNumber + ": " + line, e);
+            }
+        }
+        return profile;
+    }
+
+    private static double getRatio(UIUsage uiUsage, Map<String, Integer> counts,
+            String connectorType) {
+        Integer count = counts.get(connectorType);
+        if (count == null || uiUsage.count == 0) {
+            return 0;
+        }
+        return count.doubleValue() / uiUsage.count;
+    }
+
+    private static void writeCounts(Writer writer, String kind, String uiClass,
+            Map<String, Integer> counts) throws IOException {
+        for (Entry<String, Integer> entry : counts.entrySet()) {
+            writer.write(kind + ' ' + uiClass + ' ' + entry.getKey() + ' '
+                    + entry.getValue() + '\n');
+        }
+    }
+}
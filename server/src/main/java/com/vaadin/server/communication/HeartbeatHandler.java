@@ -20,6 +20,8 @@ import java.io.IOException;
 
 import javax.servlet.http.HttpServletResponse;
 
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.RequestType;
 import com.vaadin.server.ServletPortletHelper;
 import com.vaadin.server.SessionExpiredHandler;
 import com.vaadin.server.SynchronizedRequestHandler;
@@ -48,6 +50,11 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
         return ServletPortletHelper.isHeartbeatRequest(request);
     }
 
+    @Override
+    protected RequestType getTimedRequestType() {
+        return RequestType.HEARTBEAT;
+    }
+
     /**
      * Handles a heartbeat request for the given session. Reads the GET
      * parameter named {@link UIConstants#UI_ID_PARAMETER} to identify the UI.
@@ -59,6 +66,10 @@ public class HeartbeatHandler extends SynchronizedRequestHandler
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
         UI ui = session.getService().findUI(request);
+        RequestTimer timer = RequestTimer.getCurrent();
+        if (timer != null) {
+            timer.setUI(ui);
+        }
         if (ui != null) {
             ui.setLastHeartbeatTimestamp(System.currentTimeMillis());
             // Ensure that the browser does not cache heartbeat responses.
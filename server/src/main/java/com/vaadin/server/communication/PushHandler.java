@@ -31,6 +31,8 @@ import org.atmosphere.cpr.AtmosphereResourceImpl;
 import com.vaadin.server.ErrorEvent;
 import com.vaadin.server.ErrorHandler;
 import com.vaadin.server.LegacyCommunicationManager.InvalidUIDLSecurityKeyException;
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.RequestType;
 import com.vaadin.server.ServiceException;
 import com.vaadin.server.ServletPortletHelper;
 import com.vaadin.server.SessionExpiredException;
@@ -223,10 +225,19 @@ public class PushHandler {
             }
 
             UI ui = null;
+            RequestTimer timer = RequestTimer.start(service,
+                    RequestType.PUSH);
+            long lockStart = timer != null ? System.nanoTime() : 0;
             session.lock();
+            if (timer != null) {
+                timer.addLockWaitTime(System.nanoTime() - lockStart);
+            }
             try {
                 ui = service.findUI(vaadinRequest);
                 assert UI.getCurrent() == ui;
+                if (timer != null) {
+                    timer.setUI(ui);
+                }
 
                 if (ui == null) {
                     sendNotificationAndDisconnect(resource, UidlRequestHandler
@@ -265,6 +276,9 @@ public class PushHandler {
                             "Error while unlocking session", e);
                     // can't call ErrorHandler, we (hopefully) don't have a lock
                 }
+                if (timer != null) {
+                    timer.finish();
+                }
             }
         } finally {
             try {
@@ -31,6 +31,8 @@ import java.util.logging.Logger;
 import com.vaadin.server.ClientConnector;
 import com.vaadin.server.Constants;
 import com.vaadin.server.JsonCodec;
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.Phase;
 import com.vaadin.server.LegacyCommunicationManager;
 import com.vaadin.server.LegacyCommunicationManager.InvalidUIDLSecurityKeyException;
 import com.vaadin.server.ServerRpcManager;
@@ -220,6 +222,26 @@ public class ServerRpcHandler implements Serializable {
      */
     public void handleRpc(UI ui, Reader reader, VaadinRequest request)
             throws IOException, InvalidUIDLSecurityKeyException {
+        RequestTimer timer = RequestTimer.getCurrent();
+        if (timer == null) {
+            doHandleRpc(ui, reader, request);
+            return;
+        }
+        long start = System.nanoTime();
+        long listenerTime = timer.getPhaseTime(Phase.LISTENERS);
+        try {
+            doHandleRpc(ui, reader, request);
+        } finally {
+            // Listeners are timed separately in handleInvocations
+            listenerTime = timer.getPhaseTime(Phase.LISTENERS)
+                    - listenerTime;
+            timer.addPhaseTime(Phase.RPC_HANDLING,
+                    System.nanoTime() - start - listenerTime);
+        }
+    }
+
+    private void doHandleRpc(UI ui, Reader reader, VaadinRequest request)
+            throws IOException, InvalidUIDLSecurityKeyException {
         ui.getSession().setLastRequestTimestamp(System.currentTimeMillis());
 
         String changeMessage = getMessage(reader);
@@ -328,6 +350,7 @@ public class ServerRpcHandler implements Serializable {
         // TODO PUSH Refactor so that this is not needed
         LegacyCommunicationManager manager = ui.getSession()
                 .getCommunicationManager();
+        RequestTimer timer = RequestTimer.getCurrent();
 
         try {
             ConnectorTracker connectorTracker = ui.getConnectorTracker();
@@ -379,7 +402,10 @@ public class ServerRpcHandler implements Serializable {
                         // data
                         if (DataRequestRpc.class.getName()
                                 .equals(rpc.getInterfaceClass().getName())) {
+                            long start = timer != null ? System.nanoTime()
+                                    : 0;
                             handleInvocation(ui, connector, rpc);
+                            addListenerTime(timer, start);
                         }
                         continue;
                     }
@@ -406,6 +432,7 @@ public class ServerRpcHandler implements Serializable {
 
                 }
 
+                long start = timer != null ? System.nanoTime() : 0;
                 if (invocation instanceof ServerRpcMethodInvocation) {
                     handleInvocation(ui, connector,
                             (ServerRpcMethodInvocation) invocation);
@@ -413,6 +440,7 @@ public class ServerRpcHandler implements Serializable {
                     LegacyChangeVariablesInvocation legacyInvocation = (LegacyChangeVariablesInvocation) invocation;
                     handleInvocation(ui, connector, legacyInvocation);
                 }
+                addListenerTime(timer, start);
             }
         } catch (JsonException e) {
             getLogger().warning("Unable to parse RPC call from the client: "
@@ -421,6 +449,12 @@ public class ServerRpcHandler implements Serializable {
         }
     }
 
+    private static void addListenerTime(RequestTimer timer, long start) {
+        if (timer != null) {
+            timer.addPhaseTime(Phase.LISTENERS, System.nanoTime() - start);
+        }
+    }
+
     private void logUnknownConnector(String connectorId, String interfaceName,
             String methodName) {
         getLogger().log(Level.FINE,
@@ -25,6 +25,7 @@ import java.util.logging.Logger;
 
 import com.vaadin.annotations.PreserveOnRefresh;
 import com.vaadin.server.LegacyApplicationUIProvider;
+import com.vaadin.server.RequestTimer;
 import com.vaadin.server.SynchronizedRequestHandler;
 import com.vaadin.server.UIClassSelectionEvent;
 import com.vaadin.server.UICreateEvent;
@@ -113,6 +114,10 @@ public abstract class UIInitHandler extends SynchronizedRequestHandler {
 
         byte[] b = json.getBytes("UTF-8");
         response.setContentLength(b.length);
+        RequestTimer timer = RequestTimer.getCurrent();
+        if (timer != null) {
+            timer.addResponseSize(b.length);
+        }
 
         OutputStream outputStream = response.getOutputStream();
         outputStream.write(b);
@@ -23,6 +23,8 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.vaadin.server.LegacyCommunicationManager.InvalidUIDLSecurityKeyException;
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.RequestType;
 import com.vaadin.server.ServletPortletHelper;
 import com.vaadin.server.SessionExpiredHandler;
 import com.vaadin.server.SynchronizedRequestHandler;
@@ -72,6 +74,11 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return ServletPortletHelper.isUIDLRequest(request);
     }
 
+    @Override
+    protected RequestType getTimedRequestType() {
+        return RequestType.UIDL;
+    }
+
     @Override
     public boolean synchronizedHandleRequest(VaadinSession session,
             VaadinRequest request, VaadinResponse response) throws IOException {
@@ -84,6 +91,11 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         }
 
+        RequestTimer timer = RequestTimer.getCurrent();
+        if (timer != null) {
+            timer.setUI(uI);
+        }
+
         StringWriter stringWriter = new StringWriter();
 
         try {
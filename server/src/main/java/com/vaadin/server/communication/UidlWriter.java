@@ -34,6 +34,8 @@ import com.vaadin.server.DependencyFilter.FilterContext;
 import com.vaadin.server.JsonPaintTarget;
 import com.vaadin.server.LegacyCommunicationManager;
 import com.vaadin.server.LegacyCommunicationManager.ClientCache;
+import com.vaadin.server.RequestTimer;
+import com.vaadin.server.RequestTimingEvent.Phase;
 import com.vaadin.server.SystemMessages;
 import com.vaadin.server.VaadinService;
 import com.vaadin.server.VaadinSession;
@@ -79,6 +81,9 @@ public class UidlWriter implements Serializable {
         // to write out
         service.runPendingAccessTasks(session);
 
+        RequestTimer timer = RequestTimer.getCurrent();
+        long writeStart = nanoTime(timer);
+
         Set<ClientConnector> processedConnectors = new HashSet<>();
 
         LegacyCommunicationManager manager = session.getCommunicationManager();
@@ -133,6 +138,11 @@ public class UidlWriter implements Serializable {
         getLogger().log(Level.FINE, "Found " + processedConnectors.size()
                 + " dirty connectors to paint");
 
+        long beforeClientResponseTime = nanoTime(timer) - writeStart;
+        long stateTime = 0;
+        long hierarchyTime = 0;
+        long rpcTime = 0;
+
         uiConnectorTracker.setWritingResponse(true);
         try {
 
@@ -171,29 +181,28 @@ public class UidlWriter implements Serializable {
             // processing.
 
             writer.write("\"state\":");
+            long start = nanoTime(timer);
             Set<String> stateUpdateConnectors = new SharedStateWriter()
                     .write(ui, writer);
+            stateTime = nanoTime(timer) - start;
             writer.write(", "); // close states
 
-            // TODO This should be optimized. The type only needs to be
-            // sent once for each connector id + on refresh. Use the same cache
-            // as
-            // widget mapping
+            // Types are only sent for connectors not yet known by the client
 
             writer.write("\"types\":");
             new ConnectorTypeWriter().write(ui, writer, paintTarget);
             writer.write(", "); // close states
 
-            // Send update hierarchy information to the client.
-
-            // This could be optimized aswell to send only info if hierarchy has
-            // actually changed. Much like with the shared state. Note though
-            // that an empty hierarchy is information aswell (e.g. change from 1
-            // child to 0 children)
+            // Send update hierarchy information to the client, only for
+            // connectors whose children have changed. Note that an empty
+            // hierarchy is information as well (e.g. change from 1 child to 0
+            // children)
 
             writer.write("\"hierarchy\":");
+            start = nanoTime(timer);
             new ConnectorHierarchyWriter().write(ui, writer,
                     stateUpdateConnectors);
+            hierarchyTime = nanoTime(timer) - start;
             writer.write(", "); // close hierarchy
 
             // send server to client RPC calls for components in the UI, in call
@@ -203,7 +212,9 @@ public class UidlWriter implements Serializable {
             // which they were performed, remove the calls from components
 
             writer.write("\"rpc\" : ");
+            start = nanoTime(timer);
             new ClientRpcWriter().write(ui, writer);
+            rpcTime = nanoTime(timer) - start;
             writer.write(", "); // close rpc
 
             uiConnectorTracker.markAllConnectorsClean();
@@ -322,9 +333,26 @@ public class UidlWriter implements Serializable {
         } finally {
             uiConnectorTracker.setWritingResponse(false);
             uiConnectorTracker.cleanConnectorMap(true);
+
+            if (timer != null) {
+                long total = System.nanoTime() - writeStart;
+                timer.addPhaseTime(Phase.BEFORE_CLIENT_RESPONSE,
+                        beforeClientResponseTime);
+                timer.addPhaseTime(Phase.STATE_WRITING, stateTime);
+                timer.addPhaseTime(Phase.HIERARCHY_WRITING, hierarchyTime);
+                timer.addPhaseTime(Phase.CLIENT_RPC_WRITING, rpcTime);
+                timer.addPhaseTime(Phase.OTHER_WRITING,
+                        total - beforeClientResponseTime - stateTime
+                                - hierarchyTime - rpcTime);
+                timer.addDirtyConnectors(processedConnectors.size());
+            }
         }
     }
 
+    private static long nanoTime(RequestTimer timer) {
+        return timer != null ? System.nanoTime() : 0;
+    }
+
     private JsonArray toJsonArray(List<Dependency> list) {
         JsonArray result = Json.createArray();
         for (int i = 0; i < list.size(); i++) {
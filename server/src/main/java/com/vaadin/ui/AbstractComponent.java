@@ -948,7 +948,8 @@ public abstract class AbstractComponent extends AbstractClientConnector
     public void readDesign(Element design, DesignContext designContext) {
         Attributes attr = design.attributes();
         // handle default attributes
-        for (String attribute : getDefaultAttributes()) {
+        Collection<String> defaultAttributes = getDefaultAttributes();
+        for (String attribute : defaultAttributes) {
             if (design.hasAttr(attribute)) {
                 DesignAttributeHandler.assignValue(this, attribute,
                         design.attr(attribute));
@@ -977,7 +978,7 @@ public abstract class AbstractComponent extends AbstractClientConnector
 
         // check for unsupported attributes
         Set<String> supported = new HashSet<>();
-        supported.addAll(getDefaultAttributes());
+        supported.addAll(defaultAttributes);
         supported.addAll(getCustomAttributes());
         for (Attribute a : attr) {
             if (!a.getKey().startsWith(":")
@@ -15,7 +15,6 @@
  */
 package com.vaadin.ui;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -32,7 +31,7 @@ import com.vaadin.data.HasValue;
 import com.vaadin.data.SelectionModel;
 import com.vaadin.data.SelectionModel.Multi;
 import com.vaadin.data.provider.DataGenerator;
-import com.vaadin.data.provider.DataProvider;
+import com.vaadin.data.provider.SelectionStore;
 import com.vaadin.event.selection.MultiSelectionEvent;
 import com.vaadin.event.selection.MultiSelectionListener;
 import com.vaadin.server.Resource;
@@ -61,7 +60,8 @@ import elemental.json.JsonObject;
 public abstract class AbstractMultiSelect<T> extends AbstractListing<T>
         implements MultiSelect<T> {
 
-    private List<T> selection = new ArrayList<>();
+    private final SelectionStore<T> selection = new SelectionStore<>(
+            this::internalGetDataProvider);
 
     private class MultiSelectServerRpcImpl implements MultiSelectServerRpc {
         @Override
@@ -326,7 +326,7 @@ public abstract class AbstractMultiSelect<T> extends AbstractListing<T>
         addedItems.removeIf(item -> removedItems.remove(item));
 
         if (selection.containsAll(addedItems)
-                && Collections.disjoint(selection, removedItems)) {
+                && removedItems.stream().noneMatch(selection::contains)) {
             return;
         }
 
@@ -353,10 +353,7 @@ public abstract class AbstractMultiSelect<T> extends AbstractListing<T>
 
     @Override
     public boolean isSelected(T item) {
-        DataProvider<T, ?> dataProvider = internalGetDataProvider();
-        Object id = dataProvider.getId(item);
-        return selection.stream().map(dataProvider::getId).anyMatch(id::equals);
-
+        return selection.contains(item);
     }
 
     /**
@@ -486,13 +483,6 @@ public abstract class AbstractMultiSelect<T> extends AbstractListing<T>
     }
 
     private final void refreshSelectedItem(T item) {
-        DataProvider<T, ?> dataProvider = internalGetDataProvider();
-        Object id = dataProvider.getId(item);
-        for (int i = 0; i < selection.size(); ++i) {
-            if (id.equals(dataProvider.getId(selection.get(i)))) {
-                selection.set(i, item);
-                return;
-            }
-        }
+        selection.replace(item);
     }
 }
@@ -19,7 +19,9 @@ package com.vaadin.ui;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
@@ -163,6 +165,7 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
         @Override
         public void setFilter(String filterText) {
             currentFilterText = filterText;
+            getComboBoxDataCommunicator().filterText = filterText;
             filterSlot.accept(filterText);
         }
     };
@@ -180,25 +183,104 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
         // Just ignore when neither setDataProvider nor setItems has been called
     };
 
+    private CaptionFilter filterRefinement;
+
+    /**
+     * Data communicator that never removes keys, caches filter results when
+     * enabled and postpones resets caused by filter changes until the
+     * response is written, so that filter texts superseded within the same
+     * round trip are never queried.
+     */
+    private static class ComboBoxDataCommunicator<T>
+            extends DataCommunicator<T> {
+
+        private final ComboBoxFilterCache<T> filterCache = new ComboBoxFilterCache<>();
+
+        private String filterText;
+
+        private boolean resetPending = false;
+
+        @Override
+        protected DataKeyMapper<T> createKeyMapper(
+                ValueProvider<T, Object> identifierGetter) {
+            return new KeyMapper<T>(identifierGetter) {
+                @Override
+                public void remove(T removeobj) {
+                    // never remove keys from ComboBox to support selection
+                    // of items that are not currently visible
+                }
+            };
+        }
+
+        @Override
+        public void reset() {
+            resetPending = true;
+            markAsDirty();
+        }
+
+        @Override
+        protected void sendDataToClient(boolean initial) {
+            if (resetPending && !initial) {
+                super.reset();
+            }
+            resetPending = false;
+            super.sendDataToClient(initial);
+        }
+
+        @Override
+        public int getDataProviderSize() {
+            int size = filterCache.getSize(filterText);
+            if (size < 0) {
+                size = super.getDataProviderSize();
+                filterCache.putSize(filterText, size);
+            }
+            return size;
+        }
+
+        @Override
+        protected List<T> fetchItemsWithRange(int offset, int limit) {
+            List<T> items = filterCache.getItems(filterText, offset, limit);
+            if (items == null && filterCache.shouldFetchAll(filterText)) {
+                // Small enough to be refined in memory for longer filters
+                int size = filterCache.getSize(filterText);
+                List<T> allItems = size == 0 ? Collections.emptyList()
+                        : super.fetchItemsWithRange(0, size);
+                filterCache.putItems(filterText, 0, size, allItems);
+                items = filterCache.getItems(filterText, offset, limit);
+            }
+            if (items == null) {
+                items = super.fetchItemsWithRange(offset, limit);
+                filterCache.putItems(filterText, offset, limit, items);
+            }
+            return items;
+        }
+
+        @Override
+        public void refresh(T data) {
+            filterCache.clear();
+            super.refresh(data);
+        }
+
+        @Override
+        protected void onDataChange() {
+            filterCache.clear();
+            super.onDataChange();
+        }
+
+        @Override
+        protected void setDataProvider(DataProvider<T, ?> dataProvider) {
+            filterCache.clear();
+            super.setDataProvider(dataProvider);
+        }
+    }
+
     /**
      * Constructs an empty combo box without a caption. The content of the combo
      * box can be set with {@link #setDataProvider(DataProvider)} or
      * {@link #setItems(Collection)}
      */
     public ComboBox() {
-        super(new DataCommunicator<T>() {
-            @Override
-            protected DataKeyMapper<T> createKeyMapper(
-                    ValueProvider<T, Object> identifierGetter) {
-                return new KeyMapper<T>(identifierGetter) {
-                    @Override
-                    public void remove(T removeobj) {
-                        // never remove keys from ComboBox to support selection
-                        // of items that are not currently visible
-                    }
-                };
-            }
-        });
+        super(new ComboBoxDataCommunicator<>());
 
         init();
     }
@@ -361,6 +443,7 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
         // not be the same as when this method was invoked
         setDataProvider(listDataProvider, filterText -> item -> captionFilter
                 .test(getItemCaptionGenerator().apply(item), filterText));
+        setFilterRefinement(captionFilter);
     }
 
     /**
@@ -593,6 +676,7 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
     public void setItemCaptionGenerator(
             ItemCaptionGenerator<T> itemCaptionGenerator) {
         super.setItemCaptionGenerator(itemCaptionGenerator);
+        getComboBoxDataCommunicator().filterCache.clear();
         if (getSelectedItem().isPresent()) {
             updateSelectedItemCaption();
         }
@@ -801,6 +885,8 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
             return filterConverter.apply(filterText);
         };
 
+        getComboBoxDataCommunicator().filterText = currentFilterText;
+        setFilterRefinement(null);
         SerializableConsumer<C> providerFilterSlot = internalSetDataProvider(
                 dataProvider, convertOrNull.apply(currentFilterText));
 
@@ -831,6 +917,120 @@ public class ComboBox<T> extends AbstractSingleSelect<T>
                 q -> sizeCallback.applyAsInt(q.getFilter().orElse(""))));
     }
 
+    /**
+     * Sets how long the results of recent filter queries are reused. While
+     * the user is typing, the same filter texts are often queried repeatedly,
+     * for instance when characters are deleted or when the suggestion popup
+     * is reopened. With a positive timeout, the size and the fetched items for
+     * recent filter texts are kept and reused instead of querying the data
+     * provider again.
+     * <p>
+     * Cached results are discarded when the data provider is changed or
+     * refreshed. Changes in the backend that are not signaled through the
+     * data provider become visible only after the timeout.
+     * <p>
+     * Caching is disabled by default.
+     *
+     * @param timeoutMillis
+     *            the time in milliseconds to keep filter results, or
+     *            <code>0</code> to disable caching
+     * @since 8.2
+     */
+    public void setFilterCacheTimeout(long timeoutMillis) {
+        getComboBoxDataCommunicator().filterCache.setTimeout(timeoutMillis);
+    }
+
+    /**
+     * Gets how long the results of recent filter queries are reused.
+     *
+     * @see #setFilterCacheTimeout(long)
+     *
+     * @return the time in milliseconds to keep filter results, or
+     *         <code>0</code> if caching is disabled
+     * @since 8.2
+     */
+    public long getFilterCacheTimeout() {
+        return getComboBoxDataCommunicator().filterCache.getTimeout();
+    }
+
+    /**
+     * Sets the largest number of items for which the cached result of a
+     * filter text is refined in memory when the user extends that filter
+     * text, instead of querying the data provider. Refinement is only used
+     * when filter caching is enabled and a filter refinement is available.
+     * The default threshold is 100 items.
+     *
+     * @see #setFilterCacheTimeout(long)
+     * @see #setFilterRefinement(CaptionFilter)
+     *
+     * @param threshold
+     *            the maximum number of items to refine in memory, not
+     *            negative
+     * @since 8.2
+     */
+    public void setFilterRefinementThreshold(int threshold) {
+        getComboBoxDataCommunicator().filterCache
+                .setRefinementThreshold(threshold);
+    }
+
+    /**
+     * Gets the largest number of items for which a cached filter result is
+     * refined in memory.
+     *
+     * @see #setFilterRefinementThreshold(int)
+     *
+     * @return the maximum number of items to refine in memory
+     * @since 8.2
+     */
+    public int getFilterRefinementThreshold() {
+        return getComboBoxDataCommunicator().filterCache
+                .getRefinementThreshold();
+    }
+
+    /**
+     * Sets the caption filter that matches the same items as the filtering
+     * done by the data provider. When filter caching is enabled, it is used
+     * to find the items for a filter text from the cached items of a shorter
+     * filter text that the new one starts with. This requires that adding
+     * characters to the filter text never adds items to the result.
+     * <p>
+     * The refinement is set automatically by
+     * {@link #setDataProvider(CaptionFilter, ListDataProvider)} and the
+     * related shorthands, and cleared when any other data provider is set.
+     *
+     * @see #setFilterCacheTimeout(long)
+     *
+     * @param filterRefinement
+     *            the caption filter to refine cached results with, or
+     *            <code>null</code> to only reuse results of identical filter
+     *            texts
+     * @since 8.2
+     */
+    public void setFilterRefinement(CaptionFilter filterRefinement) {
+        this.filterRefinement = filterRefinement;
+        getComboBoxDataCommunicator().filterCache
+                .setRefinement(filterRefinement == null ? null
+                        : (item, filterText) -> filterRefinement.test(
+                                getItemCaptionGenerator().apply(item),
+                                filterText));
+    }
+
+    /**
+     * Gets the caption filter used for refining cached filter results.
+     *
+     * @see #setFilterRefinement(CaptionFilter)
+     *
+     * @return the caption filter, or <code>null</code> if not set
+     * @since 8.2
+     */
+    public CaptionFilter getFilterRefinement() {
+        return filterRefinement;
+    }
+
+    private ComboBoxDataCommunicator<T> getComboBoxDataCommunicator() {
+        return (ComboBoxDataCommunicator<T>) getDataCommunicator();
+    }
+
     /**
      * Predicate to check {@link ComboBox} item captions against user typed
      * strings.
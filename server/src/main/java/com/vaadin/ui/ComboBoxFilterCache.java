@@ -0,0 +1,334 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.ui;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.vaadin.server.SerializableBiPredicate;
+import com.vaadin.server.SerializableSupplier;
+import com.vaadin.shared.Range;
+
+/**
+ * Cache of recent filter results used by {@link ComboBox}. Results are stored
+ * per filter text as a size and a set of fetched ranges, and expire after a
+ * configurable time.
+ * <p>
+ * If a refinement predicate is available, a filter text that extends a cached
+ * filter text whose complete result is small enough is answered by filtering
+ * the cached result in memory instead of querying the data provider.
+ *
+ * @since 8.2
+ * @author Vaadin Ltd
+ * @param <T>
+ *            the item type
+ */
+class ComboBoxFilterCache<T> implements Serializable {
+
+    /**
+     * The maximum number of filter texts for which results are retained.
+     */
+    static final int MAX_CACHED_FILTERS = 16;
+
+    private static class Entry<T> implements Serializable {
+        private final long created;
+        private int size = -1;
+        private List<T> allItems;
+        private final Map<Range, List<T>> ranges = new HashMap<>();
+
+        private Entry(long created) {
+            this.created = created;
+        }
+    }
+
+    private final LinkedHashMap<String, Entry<T>> entries = new LinkedHashMap<>(
+            16, 0.75f, true);
+
+    private SerializableSupplier<Long> clock = System::currentTimeMillis;
+
+    private long timeout = 0;
+
+    private int refinementThreshold = 100;
+
+    private SerializableBiPredicate<T, String> refinement;
+
+    /**
+     * Sets the time after which cached results are discarded.
+     *
+     * @param timeout
+     *            the timeout in milliseconds, or <code>0</code> to disable
+     *            caching
+     */
+    void setTimeout(long timeout) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException(
+                    "Timeout cannot be less than zero");
+        }
+        this.timeout = timeout;
+        clear();
+    }
+
+    long getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Checks whether results are cached at all.
+     *
+     * @return <code>true</code> if caching is enabled, <code>false</code>
+     *         otherwise
+     */
+    boolean isEnabled() {
+        return timeout > 0;
+    }
+
+    /**
+     * Sets the largest result size that is refined in memory when the filter
+     * text is extended.
+     *
+     * @param refinementThreshold
+     *            the maximum number of items to refine, not negative
+     */
+    void setRefinementThreshold(int refinementThreshold) {
+        if (refinementThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "Refinement threshold cannot be less than zero");
+        }
+        this.refinementThreshold = refinementThreshold;
+    }
+
+    int getRefinementThreshold() {
+        return refinementThreshold;
+    }
+
+    /**
+     * Sets the predicate used for refining a cached result with a longer
+     * filter text.
+     *
+     * @param refinement
+     *            predicate testing an item against a filter text, or
+     *            <code>null</code> to disable refinement
+     */
+    void setRefinement(SerializableBiPredicate<T, String> refinement) {
+        this.refinement = refinement;
+        clear();
+    }
+
+    SerializableBiPredicate<T, String> getRefinement() {
+        return refinement;
+    }
+
+    /**
+     * Sets the time source, for testing.
+     *
+     * @param clock
+     *            supplier of the current time in milliseconds
+     */
+    void setClock(SerializableSupplier<Long> clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Gets the cached size of the result for the given filter text.
+     *
+     * @param filterText
+     *            the filter text, may be <code>null</code>
+     * @return the size, or <code>-1</code> if not known
+     */
+    int getSize(String filterText) {
+        Entry<T> entry = findEntry(filterText);
+        return entry == null ? -1 : entry.size;
+    }
+
+    /**
+     * Stores the size of the result for the given filter text.
+     *
+     * @param filterText
+     *            the filter text, may be <code>null</code>
+     * @param size
+     *            the size of the result
+     */
+    void putSize(String filterText, int size) {
+        Entry<T> entry = getOrCreateEntry(filterText);
+        if (entry != null) {
+            entry.size = size;
+        }
+    }
+
+    /**
+     * Gets cached items of the result for the given filter text.
+     *
+     * @param filterText
+     *            the filter text, may be <code>null</code>
+     * @param offset
+     *            the index of the first item
+     * @param limit
+     *            the maximum number of items
+     * @return the items, or <code>null</code> if not cached
+     */
+    List<T> getItems(String filterText, int offset, int limit) {
+        Entry<T> entry = findEntry(filterText);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.allItems != null) {
+            int from = Math.min(offset, entry.allItems.size());
+            int to = Math.min(offset + limit, entry.allItems.size());
+            return new ArrayList<>(entry.allItems.subList(from, to));
+        }
+        List<T> items = entry.ranges.get(Range.withLength(offset, limit));
+        return items == null ? null : new ArrayList<>(items);
+    }
+
+    /**
+     * Stores fetched items of the result for the given filter text.
+     *
+     * @param filterText
+     *            the filter text, may be <code>null</code>
+     * @param offset
+     *            the index of the first item
+     * @param limit
+     *            the maximum number of items that were requested
+     * @param items
+     *            the fetched items
+     */
+    void putItems(String filterText, int offset, int limit, List<T> items) {
+        Entry<T> entry = getOrCreateEntry(filterText);
+        if (entry == null) {
+            return;
+        }
+        boolean complete = entry.size < 0 ? items.size() < limit
+                : items.size() == entry.size;
+        if (offset == 0 && complete) {
+            // Everything there is to fetch, a known size takes precedence
+            entry.allItems = new ArrayList<>(items);
+            entry.size = items.size();
+            entry.ranges.clear();
+        } else if (entry.allItems == null) {
+            entry.ranges.put(Range.withLength(offset, limit),
+                    new ArrayList<>(items));
+        }
+    }
+
+    /**
+     * Checks whether the complete result for the given filter text should be
+     * fetched at once so that it can later be refined in memory.
+     *
+     * @param filterText
+     *            the filter text, may be <code>null</code>
+     * @return <code>true</code> if the result is known to be small enough for
+     *         refinement but is not yet fully cached
+     */
+    boolean shouldFetchAll(String filterText) {
+        Entry<T> entry = findEntry(filterText);
+        return refinement != null && entry != null && entry.allItems == null
+                && entry.size >= 0 && entry.size <= refinementThreshold;
+    }
+
+    /**
+     * Drops all cached results.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    private Entry<T> findEntry(String filterText) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = normalize(filterText);
+        long now = clock.get().longValue();
+        removeExpired(now);
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            entry = refine(key);
+        }
+        return entry;
+    }
+
+    private Entry<T> getOrCreateEntry(String filterText) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String key = normalize(filterText);
+        Entry<T> entry = entries.get(key);
+        if (entry == null) {
+            entry = new Entry<>(clock.get().longValue());
+            store(key, entry);
+        }
+        return entry;
+    }
+
+    private void store(String key, Entry<T> entry) {
+        entries.put(key, entry);
+        Iterator<Entry<T>> iterator = entries.values().iterator();
+        while (entries.size() > MAX_CACHED_FILTERS) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Creates an entry for the given filter text from the complete result of
+     * the longest cached prefix of it, if there is a small enough one.
+     */
+    private Entry<T> refine(String key) {
+        if (refinement == null) {
+            return null;
+        }
+        Entry<T> source = null;
+        int sourceLength = -1;
+        for (Map.Entry<String, Entry<T>> candidate : entries.entrySet()) {
+            String prefix = candidate.getKey();
+            Entry<T> entry = candidate.getValue();
+            if (entry.allItems != null
+                    && entry.allItems.size() <= refinementThreshold
+                    && prefix.length() > sourceLength
+                    && key.startsWith(prefix)) {
+                source = entry;
+                sourceLength = prefix.length();
+            }
+        }
+        if (source == null) {
+            return null;
+        }
+
+        // Keep the expiry time of the source, the refined result cannot be
+        // more recent than that
+        Entry<T> refined = new Entry<>(source.created);
+        refined.allItems = Collections.unmodifiableList(source.allItems
+                .stream().filter(item -> refinement.test(item, key))
+                .collect(Collectors.toList()));
+        refined.size = refined.allItems.size();
+        store(key, refined);
+        return refined;
+    }
+
+    private void removeExpired(long now) {
+        entries.values().removeIf(entry -> now - entry.created >= timeout);
+    }
+
+    private static String normalize(String filterText) {
+        return filterText == null ? "" : filterText;
+    }
+}
@@ -21,10 +21,12 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
@@ -83,6 +85,12 @@ public class ConnectorTracker implements Serializable {
     private final UI uI;
     private transient Map<ClientConnector, JsonObject> diffStates = new HashMap<>();
 
+    /**
+     * The ids of the children of each connector as last sent to the client.
+     * Connectors without children are not included.
+     */
+    private final Map<ClientConnector, List<String>> clientSideChildIds = new HashMap<>();
+
     /** Maps connectorIds to a map of named StreamVariables */
     private Map<String, Map<String, StreamVariable>> pidToNameToStreamVariable;
 
@@ -237,6 +245,7 @@ public class ConnectorTracker implements Serializable {
     public void markAllClientSidesUninitialized() {
         uninitializedConnectors.addAll(connectorIdToConnector.values());
         diffStates.clear();
+        clientSideChildIds.clear();
     }
 
     /**
@@ -319,6 +328,7 @@ public class ConnectorTracker implements Serializable {
                 }
                 uninitializedConnectors.remove(connector);
                 diffStates.remove(connector);
+                clientSideChildIds.remove(connector);
                 iterator.remove();
             } else if (!uninitializedConnectors.contains(connector)
                     && !LegacyCommunicationManager
@@ -329,6 +339,7 @@ public class ConnectorTracker implements Serializable {
                 // sent again when/if made visible
                 uninitializedConnectors.add(connector);
                 diffStates.remove(connector);
+                clientSideChildIds.remove(connector);
                 assert isRemovalSentToClient(connector) : "Connector "
                         + connector + " (id = " + connector.getConnectorId()
                         + ") is no longer visible to the client, but no corresponding hierarchy change was sent.";
@@ -454,6 +465,7 @@ public class ConnectorTracker implements Serializable {
         }
         uninitializedConnectors.remove(connector);
         diffStates.remove(connector);
+        clientSideChildIds.remove(connector);
     }
 
     /**
@@ -671,6 +683,49 @@ public class ConnectorTracker implements Serializable {
         diffStates.put(connector, diffState);
     }
 
+    /**
+     * Gets the ids of the children of the given connector as they were last
+     * sent to the client. The hierarchy of a connector only needs to be sent
+     * again if its children have changed.
+     *
+     * @since 8.2
+     * @param connector
+     *            the connector to check
+     * @return the child connector ids known by the client, empty if the client
+     *         side has not been initialized or the connector has no children
+     */
+    public List<String> getClientSideChildIds(ClientConnector connector) {
+        assert getConnector(connector.getConnectorId()) == connector;
+        if (!isClientSideInitialized(connector)) {
+            return Collections.emptyList();
+        }
+        List<String> childIds = clientSideChildIds.get(connector);
+        if (childIds == null) {
+            return Collections.emptyList();
+        }
+        return childIds;
+    }
+
+    /**
+     * Records the ids of the children of the given connector that have been
+     * sent to the client.
+     *
+     * @since 8.2
+     * @param connector
+     *            the connector whose hierarchy has been sent
+     * @param childIds
+     *            the sent child connector ids, not <code>null</code>
+     */
+    public void setClientSideChildIds(ClientConnector connector,
+            List<String> childIds) {
+        assert getConnector(connector.getConnectorId()) == connector;
+        if (childIds.isEmpty()) {
+            clientSideChildIds.remove(connector);
+        } else {
+            clientSideChildIds.put(connector, childIds);
+        }
+    }
+
     public boolean isDirty(ClientConnector connector) {
         return dirtyConnectors.contains(connector);
     }
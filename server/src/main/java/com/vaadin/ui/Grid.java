@@ -829,6 +829,12 @@ public class Grid<T> extends AbstractListing<T> implements HasComponents,
      */
     public static class Column<T, V> extends AbstractExtension {
 
+        /**
+         * The minimum number of rows for computing the values of a thread safe
+         * column in parallel.
+         */
+        private static final int PARALLEL_GENERATION_THRESHOLD = 32;
+
         private final ValueProvider<T, V> valueProvider;
         private ValueProvider<V, ?> presentationProvider;
 
@@ -861,6 +867,36 @@ public class Grid<T> extends AbstractListing<T> implements HasComponents,
                 obj.put(communicationId, generateRendererValue(item,
                         presentationProvider, state.renderer));
 
+                generateStyleAndDescription(item, jsonObject, communicationId);
+            }
+
+            @Override
+            public void generateData(List<T> items,
+                    List<JsonObject> jsonObjects) {
+                ColumnState state = getState(false);
+
+                String communicationId = getConnectorId();
+
+                assert communicationId != null : "No communication ID set for column "
+                        + state.caption;
+
+                List<?> presentationValues = getPresentationValues(items);
+                for (int i = 0; i < items.size(); i++) {
+                    T item = items.get(i);
+                    JsonObject jsonObject = jsonObjects.get(i);
+
+                    JsonObject obj = getDataObject(jsonObject,
+                            DataCommunicatorConstants.DATA);
+                    obj.put(communicationId, encodeRendererValue(item,
+                            presentationValues.get(i), state.renderer));
+
+                    generateStyleAndDescription(item, jsonObject,
+                            communicationId);
+                }
+            }
+
+            private void generateStyleAndDescription(T item,
+                    JsonObject jsonObject, String communicationId) {
                 String style = styleGenerator.apply(item);
                 if (style != null && !style.isEmpty()) {
                     JsonObject styleObj = getDataObject(jsonObject,
@@ -891,6 +927,8 @@ public class Grid<T> extends AbstractListing<T> implements HasComponents,
             }
         };
 
+        private boolean valueProviderThreadSafe = false;
+
         private Binding<T, ?> editorBinding;
         private Map<Object, Component> activeComponents = new HashMap<>();
 
@@ -1036,12 +1074,36 @@ public class Grid<T> extends AbstractListing<T> implements HasComponents,
             }
         }
 
-        @SuppressWarnings("unchecked")
         private <P> JsonValue generateRendererValue(T item,
                 ValueProvider<V, P> presentationProvider, Connector renderer) {
             P presentationValue = presentationProvider
                     .apply(valueProvider.apply(item));
 
+            return encodeRendererValue(item, presentationValue, renderer);
+        }
+
+        /**
+         * Gets the presentation values of this column for the given items. If
+         * the value provider has been marked thread safe and there are enough
+         * items, the values are computed in parallel.
+         */
+        private List<?> getPresentationValues(List<T> items) {
+            ValueProvider<V, ?> presentation = presentationProvider;
+            Function<T, Object> toPresentation = item -> presentation
+                    .apply(valueProvider.apply(item));
+            Stream<T> stream;
+            if (valueProviderThreadSafe
+                    && items.size() >= PARALLEL_GENERATION_THRESHOLD) {
+                stream = items.parallelStream();
+            } else {
+                stream = items.stream();
+            }
+            return stream.map(toPresentation).collect(Collectors.toList());
+        }
+
+        @SuppressWarnings("unchecked")
+        private <P> JsonValue encodeRendererValue(T item, P presentationValue,
+                Connector renderer) {
             // Make Grid track components.
             if (renderer instanceof ComponentRenderer
                     && presentationValue instanceof Component) {
@@ -1176,6 +1238,49 @@ public class Grid<T> extends AbstractListing<T> implements HasComponents,
             return valueProvider;
         }
 
+        /**
+         * Sets whether the value provider and presentation provider of this
+         * column are thread safe. When a batch of rows is sent to the client,
+         * the values of a thread safe column are computed in parallel using the
+         * common {@link java.util.concurrent.ForkJoinPool}, which is bounded by
+         * the number of available processors. This is useful for columns with
+         * CPU heavy value providers.
+         * <p>
+         * A thread safe value provider must not rely on the session lock or on
+         * thread local instances such as {@link UI#getCurrent()}. Rendering the
+         * values and the style and description generators are always run in
+         * the calling thread.
+         * <p>
+         * By default, value providers are not assumed to be thread safe.
+         *
+         * @param valueProviderThreadSafe
+         *            <code>true</code> if the value provider and presentation
+         *            provider can be called from several threads concurrently,
+         *            <code>false</code> otherwise
+         * @return this column
+         *
+         * @since 8.2
+         */
+        public Column<T, V> setValueProviderThreadSafe(
+                boolean valueProviderThreadSafe) {
+            this.valueProviderThreadSafe = valueProviderThreadSafe;
+            return this;
+        }
+
+        /**
+         * Gets whether the value provider and presentation provider of this
+         * column are thread safe.
+         *
+         * @return <code>true</code> if the providers are thread safe,
+         *         <code>false</code> otherwise
+         * @see #setValueProviderThreadSafe(boolean)
+         *
+         * @since 8.2
+         */
+        public boolean isValueProviderThreadSafe() {
+            return valueProviderThreadSafe;
+        }
+
         /**
          * Sets whether the user can sort this column or not.
          *
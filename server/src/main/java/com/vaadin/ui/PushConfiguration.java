@@ -162,6 +162,33 @@ public interface PushConfiguration extends Serializable {
      */
     public String getPushUrl();
 
+    /**
+     * Sets whether messages pushed to the client are compressed. Compressed
+     * messages replace common substrings of the messages with short codes,
+     * which reduces the bandwidth used by push heavy applications at a small
+     * cost of encoding and decoding.
+     * <p>
+     * The client requests compression when it establishes the push
+     * connection, so changing this setting takes effect when the connection
+     * is next opened. The default is <code>false</code>.
+     *
+     * @since 8.2
+     * @param messageCompression
+     *            <code>true</code> to compress pushed messages,
+     *            <code>false</code> to send them as such
+     */
+    public void setMessageCompression(boolean messageCompression);
+
+    /**
+     * Returns whether messages pushed to the client are compressed.
+     *
+     * @since 8.2
+     * @return <code>true</code> if pushed messages are compressed,
+     *         <code>false</code> otherwise
+     * @see #setMessageCompression(boolean)
+     */
+    public boolean isMessageCompression();
+
 }
 
 class PushConfigurationImpl implements PushConfiguration {
@@ -232,6 +259,16 @@ class PushConfigurationImpl implements PushConfiguration {
         return getState(false).pushUrl;
     }
 
+    @Override
+    public void setMessageCompression(boolean messageCompression) {
+        getState().messageCompression = messageCompression;
+    }
+
+    @Override
+    public boolean isMessageCompression() {
+        return getState(false).messageCompression;
+    }
+
     /*
      * (non-Javadoc)
      *
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.ui;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.server.ErrorEvent;
+import com.vaadin.server.SerializableConsumer;
+import com.vaadin.server.VaadinService;
+import com.vaadin.server.VaadinSession;
+import com.vaadin.shared.Registration;
+
+/**
+ * Delivers the same message to many UIs, for instance to update a ticker that
+ * is shown to every user. The message is created once by the sender and each
+ * subscribed UI applies it to its own components.
+ * <p>
+ * Subscribers are grouped by session, so that a broadcast locks each session
+ * only once regardless of how many of its UIs are subscribed. UIs using
+ * automatic push are pushed when the session lock is released, as with
+ * {@link UI#access(Runnable)}.
+ * <p>
+ * Detached UIs are unsubscribed automatically the next time a message is
+ * delivered to their session, and all UIs of a session are unsubscribed when
+ * the session is destroyed. A broadcaster is typically shared by all sessions,
+ * so it should not be stored in a session. A broadcaster that is no longer
+ * used should be {@link #close() closed} to release the listeners it has
+ * registered to the services.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ *
+ * @param <T>
+ *            the message type
+ */
+public class UIBroadcaster<T> implements Serializable {
+
+    private final Map<VaadinSession, Map<UI, SerializableConsumer<T>>> subscribers = new ConcurrentHashMap<>();
+
+    private final Map<VaadinService, Registration> serviceRegistrations = new ConcurrentHashMap<>();
+
+    /**
+     * Subscribes the given UI to broadcast messages. The listener is called
+     * for each broadcast message while the session of the UI is locked and the
+     * UI is set as the current UI. If the UI is already subscribed, its
+     * previous listener is replaced.
+     *
+     * @param ui
+     *            the UI to subscribe, not <code>null</code>
+     * @param listener
+     *            the listener that applies a message to the UI, not
+     *            <code>null</code>
+     * @return a registration for unsubscribing the UI
+     * @throws UIDetachedException
+     *             if the UI is not attached to a session
+     */
+    public Registration subscribe(UI ui,
+            SerializableConsumer<T> listener) {
+        if (ui == null) {
+            throw new IllegalArgumentException("UI cannot be null");
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        VaadinSession session = ui.getSession();
+        if (session == null) {
+            throw new UIDetachedException(
+                    "Cannot subscribe a detached UI to broadcasts");
+        }
+
+        VaadinService service = session.getService();
+        if (service != null) {
+            serviceRegistrations.computeIfAbsent(service,
+                    key -> key.addSessionDestroyListener(
+                            event -> subscribers.remove(event.getSession())));
+        }
+
+        subscribers.computeIfAbsent(session, key -> new ConcurrentHashMap<>())
+                .put(ui, listener);
+        return () -> unsubscribe(session, ui, listener);
+    }
+
+    /**
+     * Sends the given message to all subscribed UIs. The listeners of the UIs
+     * are run asynchronously, see {@link VaadinSession#access(Runnable)}.
+     *
+     * @param message
+     *            the message to send
+     */
+    public void broadcast(T message) {
+        subscribers.keySet().forEach(
+                session -> session.access(() -> deliver(session, message)));
+    }
+
+    /**
+     * Unsubscribes all UIs and removes the session destroy listeners that
+     * this broadcaster has added to the services. UIs can still be subscribed
+     * again after closing.
+     */
+    public void close() {
+        serviceRegistrations.keySet().forEach(service -> {
+            Registration registration = serviceRegistrations.remove(service);
+            if (registration != null) {
+                registration.remove();
+            }
+        });
+        subscribers.clear();
+    }
+
+    /**
+     * Gets the number of subscribed UIs.
+     *
+     * @return the number of subscribed UIs
+     */
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Map::size).sum();
+    }
+
+    private void deliver(VaadinSession session, T message) {
+        // Look up the UIs only now to skip UIs unsubscribed in the meantime
+        Map<UI, SerializableConsumer<T>> uis = subscribers.get(session);
+        if (uis == null) {
+            return;
+        }
+        uis.forEach((ui, listener) -> {
+            if (ui.getSession() != session) {
+                unsubscribe(session, ui, listener);
+                return;
+            }
+            try {
+                ui.accessSynchronously(() -> listener.accept(message));
+            } catch (UIDetachedException e) {
+                unsubscribe(session, ui, listener);
+            } catch (Exception e) {
+                ErrorEvent.findErrorHandler(ui).error(new ErrorEvent(e));
+            }
+        });
+    }
+
+    private void unsubscribe(VaadinSession session, UI ui,
+            SerializableConsumer<T> listener) {
+        subscribers.computeIfPresent(session, (key, uis) -> {
+            uis.remove(ui, listener);
+            return uis.isEmpty() ? null : uis;
+        });
+    }
+}
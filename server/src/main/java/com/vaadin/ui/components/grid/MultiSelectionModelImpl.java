@@ -15,7 +15,6 @@
  */
 package com.vaadin.ui.components.grid;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -32,6 +31,7 @@ import com.vaadin.data.provider.DataProvider;
 import com.vaadin.data.provider.HierarchicalDataProvider;
 import com.vaadin.data.provider.HierarchicalQuery;
 import com.vaadin.data.provider.Query;
+import com.vaadin.data.provider.SelectionStore;
 import com.vaadin.event.selection.MultiSelectionEvent;
 import com.vaadin.event.selection.MultiSelectionListener;
 import com.vaadin.shared.Registration;
@@ -91,7 +91,15 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
         }
     }
 
-    private List<T> selection = new ArrayList<>();
+    private final SelectionStore<T> selection = new SelectionStore<>(
+            () -> getGrid().getDataProvider());
+
+    /**
+     * Whether all items are selected except the items in {@link #selection}.
+     */
+    private boolean allSelectedExcept = false;
+
+    private boolean lazySelectAll = false;
 
     private SelectAllCheckBoxVisibility selectAllCheckBoxVisibility = SelectAllCheckBoxVisibility.DEFAULT;
 
@@ -143,6 +151,49 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
         return getState(false).allSelected;
     }
 
+    /**
+     * Sets whether selecting all items fetches the items from the data
+     * provider. By default all items are fetched and stored as the selection.
+     * <p>
+     * When select all is lazy, the selection is instead stored as all items
+     * except the items that have been deselected afterwards, so that the data
+     * provider is not queried when all items are selected. The items are
+     * fetched only when the set returned by {@link #getSelectedItems()} is
+     * iterated, one by one without keeping them all in memory. This makes it
+     * possible to select all items of a large back end data provider.
+     * <p>
+     * The same applies to the old and the new selection of
+     * {@link MultiSelectionEvent}. The old selection excludes the items that
+     * were deselected at the time of the change, but its items are fetched
+     * from the data provider when it is iterated. Use
+     * {@link MultiSelectionEvent#getAddedSelection()} and
+     * {@link MultiSelectionEvent#getRemovedSelection()} instead to not fetch
+     * the items; they only query the data provider when all items are
+     * selected or deselected at once.
+     *
+     * @param lazySelectAll
+     *            {@code true} to not fetch the items when all items are
+     *            selected, {@code false} to fetch the items
+     * @since 8.2
+     */
+    public void setLazySelectAll(boolean lazySelectAll) {
+        this.lazySelectAll = lazySelectAll;
+    }
+
+    /**
+     * Gets whether selecting all items fetches the items from the data
+     * provider.
+     *
+     * @see #setLazySelectAll(boolean)
+     *
+     * @return {@code true} if the items are not fetched when all items are
+     *         selected, {@code false} if the items are fetched
+     * @since 8.2
+     */
+    public boolean isLazySelectAll() {
+        return lazySelectAll;
+    }
+
     @Override
     public boolean isSelected(T item) {
         return isAllSelected()
@@ -157,9 +208,10 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
      * @return {@code true} if id is selected, {@code false} if not
      */
     protected boolean selectionContainsId(Object id) {
-        DataProvider<T, ?> dataProvider = getGrid().getDataProvider();
-        return selection.stream().map(dataProvider::getId)
-                .anyMatch(i -> id.equals(i));
+        if (allSelectedExcept) {
+            return !selection.containsId(id);
+        }
+        return selection.containsId(id);
     }
 
     @Override
@@ -203,6 +255,9 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
 
     @Override
     public Set<T> getSelectedItems() {
+        if (allSelectedExcept) {
+            return selection.allExcept(this::fetchAllItems);
+        }
         return Collections.unmodifiableSet(new LinkedHashSet<>(selection));
     }
 
@@ -236,7 +291,16 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
                 Set<T> copy = value.stream().map(Objects::requireNonNull)
                         .collect(Collectors.toCollection(LinkedHashSet::new));
 
-                updateSelection(copy, new LinkedHashSet<>(getSelectedItems()));
+                if (allSelectedExcept) {
+                    // Replace without resolving the current selection
+                    if (getState(false).allSelected) {
+                        getState().allSelected = false;
+                    }
+                    replaceSelection(copy, false, false);
+                } else {
+                    updateSelection(copy,
+                            new LinkedHashSet<>(getSelectedItems()));
+                }
             }
 
             @Override
@@ -314,18 +378,32 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
             getState().allSelected = true;
         }
 
-        Stream<T> allItemsStream;
-        DataProvider<T, ?> dataProvider = getGrid().getDataProvider();
+        if (lazySelectAll) {
+            if (!allSelectedExcept || !selection.isEmpty()) {
+                replaceSelection(Collections.emptySet(), true,
+                        userOriginated);
+            }
+            return;
+        }
+
         // this will fetch everything from backend
+        LinkedHashSet<T> allItems = new LinkedHashSet<>();
+        fetchAllItems().forEach(allItems::add);
+        updateSelection(allItems, Collections.emptySet(), userOriginated);
+    }
+
+    /**
+     * Fetch all items from the data provider of the grid.
+     *
+     * @return all items in the data provider
+     */
+    private Stream<T> fetchAllItems() {
+        DataProvider<T, ?> dataProvider = getGrid().getDataProvider();
         if (dataProvider instanceof HierarchicalDataProvider) {
-            allItemsStream = fetchAllHierarchical(
+            return fetchAllHierarchical(
                     (HierarchicalDataProvider<T, ?>) dataProvider);
-        } else {
-            allItemsStream = fetchAll(dataProvider);
         }
-        LinkedHashSet<T> allItems = new LinkedHashSet<>();
-        allItemsStream.forEach(allItems::add);
-        updateSelection(allItems, Collections.emptySet(), userOriginated);
+        return fetchAll(dataProvider);
     }
 
     /**
@@ -394,6 +472,10 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
             getState().allSelected = false;
         }
 
+        if (allSelectedExcept) {
+            replaceSelection(Collections.emptySet(), false, userOriginated);
+            return;
+        }
         updateSelection(Collections.emptySet(), new LinkedHashSet<>(selection),
                 userOriginated);
     }
@@ -433,8 +515,13 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
         // discard that and leave things as was before
         addedItems.removeIf(item -> removedItems.remove(item));
 
-        if (selection.containsAll(addedItems)
-                && Collections.disjoint(selection, removedItems)) {
+        if (allSelectedExcept) {
+            if (addedItems.stream().noneMatch(selection::contains)
+                    && selection.containsAll(removedItems)) {
+                return;
+            }
+        } else if (selection.containsAll(addedItems)
+                && removedItems.stream().noneMatch(selection::contains)) {
             return;
         }
 
@@ -446,8 +533,14 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
 
         doUpdateSelection(set -> {
             // order of add / remove does not matter since no duplicates
-            set.removeAll(removedItems);
-            set.addAll(addedItems);
+            if (allSelectedExcept) {
+                // the store contains the deselected items
+                set.removeAll(addedItems);
+                set.addAll(removedItems);
+            } else {
+                set.removeAll(removedItems);
+                set.addAll(addedItems);
+            }
 
             // refresh method is NOOP for items that are not present client side
             DataCommunicator<T> dataCommunicator = getGrid()
@@ -457,6 +550,34 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
         }, userOriginated);
     }
 
+    /**
+     * Replaces the whole selection without resolving the current selection.
+     *
+     * @param items
+     *            the items to store, the selected items or the deselected
+     *            items if all other items are selected
+     * @param allSelectedExcept
+     *            {@code true} if all items except the given items are
+     *            selected, {@code false} if the given items are selected
+     * @param userOriginated
+     *            {@code true} if this was used originated, {@code false} if not
+     */
+    private void replaceSelection(Set<T> items, boolean allSelectedExcept,
+            boolean userOriginated) {
+        if (userOriginated && !isUserSelectionAllowed()) {
+            throw new IllegalStateException("Client tried to update selection"
+                    + " although user selection is disallowed");
+        }
+
+        doUpdateSelection(set -> {
+            set.clear();
+            set.addAll(items);
+            this.allSelectedExcept = allSelectedExcept;
+            // the selection of any row may have changed
+            getGrid().getDataCommunicator().reset();
+        }, userOriginated);
+    }
+
     private void doUpdateSelection(Consumer<Collection<T>> handler,
             boolean userOriginated) {
         if (getParent() == null) {
@@ -464,22 +585,85 @@ public class MultiSelectionModelImpl<T> extends AbstractSelectionModel<T>
                     "Trying to update selection for grid selection model that has been detached from the grid.");
         }
 
-        LinkedHashSet<T> oldSelection = new LinkedHashSet<>(selection);
+        boolean wasAllSelectedExcept = allSelectedExcept;
+        Set<T> oldSelection = wasAllSelectedExcept
+                ? selection.allExcept(this::fetchAllItems)
+                : new LinkedHashSet<>(selection);
+        SelectionStore<T> oldStore = null;
+        if (wasAllSelectedExcept) {
+            // only the few deselected items
+            oldStore = createStore();
+            oldStore.addAll(selection);
+        }
         handler.accept(selection);
+        if (!wasAllSelectedExcept && !allSelectedExcept) {
+            fireEvent(new MultiSelectionEvent<>(getGrid(), asMultiSelect(),
+                    oldSelection, userOriginated));
+            return;
+        }
+        if (oldStore == null) {
+            oldStore = createStore();
+            oldStore.addAll(oldSelection);
+        }
 
+        // Lazy select all is involved, resolve the added and removed items
+        // from the stored items instead of comparing all items
+        Set<T> added;
+        Set<T> removed;
+        if (wasAllSelectedExcept && allSelectedExcept) {
+            // the stores contain the deselected items
+            added = difference(oldStore, selection);
+            removed = difference(selection, oldStore);
+        } else if (allSelectedExcept) {
+            added = allExceptBoth(oldStore, selection);
+            removed = intersection(oldStore, selection);
+        } else {
+            added = intersection(selection, oldStore);
+            removed = allExceptBoth(oldStore, selection);
+        }
         fireEvent(new MultiSelectionEvent<>(getGrid(), asMultiSelect(),
-                oldSelection, userOriginated));
+                oldSelection, added, removed, userOriginated));
     }
 
-    @Override
-    public void refreshData(T item) {
-        DataProvider<T, ?> dataProvider = getGrid().getDataProvider();
-        Object refreshId = dataProvider.getId(item);
-        for (int i = 0; i < selection.size(); ++i) {
-            if (dataProvider.getId(selection.get(i)).equals(refreshId)) {
-                selection.set(i, item);
-                return;
+    private SelectionStore<T> createStore() {
+        return new SelectionStore<>(() -> getGrid().getDataProvider());
+    }
+
+    private static <T> Set<T> difference(Collection<T> items,
+            Collection<T> excluded) {
+        Set<T> result = new LinkedHashSet<>();
+        for (T item : items) {
+            if (!excluded.contains(item)) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+
+    private static <T> Set<T> intersection(Collection<T> items,
+            Collection<T> included) {
+        Set<T> result = new LinkedHashSet<>();
+        for (T item : items) {
+            if (included.contains(item)) {
+                result.add(item);
             }
         }
+        return result;
+    }
+
+    /**
+     * Gets a lazily resolved set of all items except the items in the given
+     * stores.
+     */
+    private Set<T> allExceptBoth(Collection<T> first, Collection<T> second) {
+        SelectionStore<T> excluded = createStore();
+        excluded.addAll(first);
+        excluded.addAll(second);
+        return excluded.allExcept(this::fetchAllItems);
+    }
+
+    @Override
+    public void refreshData(T item) {
+        selection.replace(item);
     }
 }
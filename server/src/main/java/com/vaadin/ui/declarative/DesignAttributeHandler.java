@@ -20,8 +20,12 @@ import java.beans.IntrospectionException;
 import java.beans.Introspector;
 import java.beans.PropertyDescriptor;
 import java.io.Serializable;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
+import java.lang.reflect.UndeclaredThrowableException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -32,6 +36,7 @@ import java.util.logging.Logger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.codehaus.mojo.animal_sniffer.IgnoreJRERequirement;
 import org.jsoup.nodes.Attribute;
 import org.jsoup.nodes.Attributes;
 import org.jsoup.nodes.Element;
@@ -110,17 +115,15 @@ public class DesignAttributeHandler implements Serializable {
         }
         boolean success = false;
         try {
-            Method setter = findSetterForAttribute(target.getClass(),
-                    attribute);
-            if (setter == null) {
+            resolveSupportedAttributes(target.getClass());
+            AttributeBinder binder = cache.get(target.getClass())
+                    .getBinder(attribute);
+            if (binder == null) {
                 // if we don't have the setter, there is no point in continuing
                 success = false;
             } else {
                 // we have a value from design attributes, let's use that
-                Type[] types = GenericTypeReflector
-                        .getExactParameterTypes(setter, target.getClass());
-                Object param = getFormatter().parse(value, (Class<?>) types[0]);
-                setter.invoke(target, param);
+                binder.set(target, binder.parse(value));
                 success = true;
             }
         } catch (Exception e) {
@@ -180,7 +183,8 @@ public class DesignAttributeHandler implements Serializable {
             if (getter != null && setter != null && propertyType != null
                     && getFormatter().canConvert(propertyType)) {
                 String attribute = toAttributeName(descriptor.getName());
-                entry.addAttribute(attribute, getter, setter);
+                entry.addAttribute(attribute,
+                        new AttributeBinder(clazz, getter, setter));
             }
         }
         cache.put(clazz, entry);
@@ -200,22 +204,24 @@ public class DesignAttributeHandler implements Serializable {
      *            the default instance for comparing default values
      * @since 8.0
      */
-    @SuppressWarnings({ "unchecked", "rawtypes" })
     public static void writeAttribute(Object component, String attribute,
             Attributes attr, Object defaultInstance, DesignContext context) {
-        Method getter = findGetterForAttribute(component.getClass(), attribute);
-        if (getter == null) {
+        resolveSupportedAttributes(component.getClass());
+        AttributeBinder binder = cache.get(component.getClass())
+                .getBinder(attribute);
+        if (binder == null) {
             getLogger().warning(
                     "Could not find getter for attribute " + attribute);
         } else {
             try {
                 // compare the value with default value
-                Object value = getter.invoke(component);
-                Object defaultValue = getter.invoke(defaultInstance);
-                writeAttribute(attribute, attr, value, defaultValue,
-                        (Class) GenericTypeReflector.getExactReturnType(getter,
-                                component.getClass()),
-                        context);
+                Object value = binder.get(component);
+                Object defaultValue = binder.get(defaultInstance);
+                if (context.shouldWriteDefaultValues()
+                        || !SharedUtil.equals(value, defaultValue)) {
+                    writeAttributeValue(attribute, attr,
+                            binder.format(value), binder.type);
+                }
             } catch (Exception e) {
                 getLogger().log(Level.SEVERE,
                         "Failed to invoke getter for attribute " + attribute,
@@ -249,13 +255,18 @@ public class DesignAttributeHandler implements Serializable {
         }
         if (context.shouldWriteDefaultValues()
                 || !SharedUtil.equals(value, defaultValue)) {
-            String attributeValue = toAttributeValue(inputType, value);
-            if ("".equals(attributeValue) && (inputType == boolean.class
-                    || inputType == Boolean.class)) {
-                attributes.put(attribute, true);
-            } else {
-                attributes.put(attribute, attributeValue);
-            }
+            writeAttributeValue(attribute, attributes,
+                    toAttributeValue(inputType, value), inputType);
+        }
+    }
+
+    private static void writeAttributeValue(String attribute,
+            Attributes attributes, String attributeValue, Class<?> type) {
+        if ("".equals(attributeValue)
+                && (type == boolean.class || type == Boolean.class)) {
+            attributes.put(attribute, true);
+        } else {
+            attributes.put(attribute, attributeValue);
         }
     }
 
@@ -400,68 +411,120 @@ public class DesignAttributeHandler implements Serializable {
     }
 
     /**
-     * Returns a setter that can be used for assigning the given design
-     * attribute to the class
+     * Cache object for caching supported attributes and their binders
      *
-     * @param clazz
-     *            the class that is scanned for setters
-     * @param attribute
-     *            the design attribute to find setter for
-     * @return the setter method or null if not found
+     * @author Vaadin Ltd
      */
-    private static Method findSetterForAttribute(Class<?> clazz,
-            String attribute) {
-        resolveSupportedAttributes(clazz);
-        return cache.get(clazz).getSetter(attribute);
-    }
+    private static class AttributeCacheEntry implements Serializable {
+        private final Map<String, AttributeBinder> binders = new ConcurrentHashMap<>();
 
-    /**
-     * Returns a getter that can be used for reading the given design attribute
-     * value from the class
-     *
-     * @param clazz
-     *            the class that is scanned for getters
-     * @param attribute
-     *            the design attribute to find getter for
-     * @return the getter method or null if not found
-     */
-    private static Method findGetterForAttribute(Class<?> clazz,
-            String attribute) {
-        resolveSupportedAttributes(clazz);
-        return cache.get(clazz).getGetter(attribute);
+        private void addAttribute(String attribute, AttributeBinder binder) {
+            binders.put(attribute, binder);
+        }
+
+        private Collection<String> getAttributes() {
+            ArrayList<String> attributes = new ArrayList<>();
+            attributes.addAll(binders.keySet());
+            return attributes;
+        }
+
+        private AttributeBinder getBinder(String attribute) {
+            return binders.get(attribute);
+        }
     }
 
     /**
-     * Cache object for caching supported attributes and their getters and
-     * setters
+     * Reads and writes one attribute of one class. The exact property type
+     * and its converter are resolved once when the binder is created, and the
+     * accessors are invoked through method handles.
      *
      * @author Vaadin Ltd
      */
-    private static class AttributeCacheEntry implements Serializable {
-        private final Map<String, Method[]> accessMethods = new ConcurrentHashMap<>();
+    private static class AttributeBinder implements Serializable {
+        private static final MethodType GETTER_TYPE = MethodType
+                .methodType(Object.class, Object.class);
+        private static final MethodType SETTER_TYPE = MethodType
+                .methodType(void.class, Object.class, Object.class);
 
-        private void addAttribute(String attribute, Method getter,
+        private final Method getter;
+        private final Method setter;
+        private final MethodHandle getterHandle;
+        private final MethodHandle setterHandle;
+        private final Class<?> type;
+        private final Converter<String, Object> converter;
+
+        private AttributeBinder(Class<?> clazz, Method getter,
                 Method setter) {
-            Method[] methods = new Method[2];
-            methods[0] = getter;
-            methods[1] = setter;
-            accessMethods.put(attribute, methods);
+            this.getter = getter;
+            this.setter = setter;
+            getterHandle = toHandle(getter, GETTER_TYPE);
+            setterHandle = toHandle(setter, SETTER_TYPE);
+
+            Type[] types = GenericTypeReflector.getExactParameterTypes(setter,
+                    clazz);
+            type = GenericTypeReflector.erase(types[0]);
+            converter = getFormatter().findConverterFor(type);
         }
 
-        private Collection<String> getAttributes() {
-            ArrayList<String> attributes = new ArrayList<>();
-            attributes.addAll(accessMethods.keySet());
-            return attributes;
+        private static MethodHandle toHandle(Method method, MethodType type) {
+            try {
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asType(type);
+            } catch (IllegalAccessException e) {
+                // Fall back to reflection
+                return null;
+            }
+        }
+
+        // The signature polymorphic invokeExact is missing from the Java 8
+        // API signature
+        @IgnoreJRERequirement
+        private Object get(Object target) throws Exception {
+            if (getterHandle == null) {
+                return getter.invoke(target);
+            }
+            try {
+                return getterHandle.invokeExact(target);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        }
+
+        // The signature polymorphic invokeExact is missing from the Java 8
+        // API signature
+        @IgnoreJRERequirement
+        private void set(Object target, Object value) throws Exception {
+            if (setterHandle == null) {
+                setter.invoke(target, value);
+                return;
+            }
+            try {
+                setterHandle.invokeExact(target, value);
+            } catch (Exception | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
         }
 
-        private Method getGetter(String attribute) {
-            Method[] methods = accessMethods.get(attribute);
-            return (methods != null && methods.length > 0) ? methods[0] : null;
+        private Object parse(String value) {
+            if (converter == null) {
+                return null;
+            }
+            return converter.convertToModel(value, new ValueContext())
+                    .getOrThrow(msg -> new IllegalArgumentException(msg));
         }
 
-        private Method getSetter(String attribute) {
-            Method[] methods = accessMethods.get(attribute);
-            return (methods != null && methods.length > 1) ? methods[1] : null;
+        private String format(Object value) {
+            if (value == null) {
+                return "";
+            }
+            if (converter == null) {
+                return value.toString();
+            }
+            return converter.convertToPresentation(value, new ValueContext());
         }
     }
 
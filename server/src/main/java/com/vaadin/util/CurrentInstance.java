@@ -18,11 +18,15 @@ package com.vaadin.util;
 
 import java.io.Serializable;
 import java.lang.ref.WeakReference;
+import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -47,6 +51,11 @@ import com.vaadin.ui.UI;
  * {@link UI}, {@link VaadinService}, {@link VaadinSession},
  * {@link VaadinRequest}, {@link VaadinResponse}.
  * </p>
+ * <p>
+ * These instances are kept in dedicated fields of a per-thread holder, so
+ * setting and restoring them does not allocate maps. Instances of other types
+ * are kept in a map.
+ * </p>
  *
  * @author Vaadin Ltd
  * @since 7.0.0
@@ -58,7 +67,186 @@ public class CurrentInstance implements Serializable {
 
     private final WeakReference<Object> instance;
 
-    private static final ThreadLocal<Map<Class<?>, CurrentInstance>> instances = new ThreadLocal<>();
+    private static final ThreadLocal<Instances> instances = new ThreadLocal<>();
+
+    /**
+     * Current instances by type, with dedicated fields for the types used by
+     * the framework. Used both for the instances of a thread and for the
+     * values returned by {@link #setCurrent(UI)} and related methods.
+     */
+    private static final class Instances
+            extends AbstractMap<Class<?>, CurrentInstance>
+            implements Serializable {
+        private CurrentInstance service;
+        private CurrentInstance session;
+        private CurrentInstance ui;
+        private CurrentInstance request;
+        private CurrentInstance response;
+        private Map<Class<?>, CurrentInstance> others;
+
+        @Override
+        public CurrentInstance get(Object type) {
+            if (type == VaadinService.class) {
+                return service;
+            } else if (type == VaadinSession.class) {
+                return session;
+            } else if (type == UI.class) {
+                return ui;
+            } else if (type == VaadinRequest.class) {
+                return request;
+            } else if (type == VaadinResponse.class) {
+                return response;
+            } else if (others == null) {
+                return null;
+            } else {
+                return others.get(type);
+            }
+        }
+
+        @Override
+        public boolean containsKey(Object type) {
+            return get(type) != null;
+        }
+
+        /**
+         * Sets or, if the value is <code>null</code>, removes the instance of
+         * the given type.
+         */
+        @Override
+        public CurrentInstance put(Class<?> type, CurrentInstance value) {
+            CurrentInstance previous;
+            if (type == VaadinService.class) {
+                previous = service;
+                service = value;
+            } else if (type == VaadinSession.class) {
+                previous = session;
+                session = value;
+            } else if (type == UI.class) {
+                previous = ui;
+                ui = value;
+            } else if (type == VaadinRequest.class) {
+                previous = request;
+                request = value;
+            } else if (type == VaadinResponse.class) {
+                previous = response;
+                response = value;
+            } else if (value != null) {
+                if (others == null) {
+                    others = new HashMap<>();
+                }
+                previous = others.put(type, value);
+            } else if (others != null) {
+                previous = others.remove(type);
+                if (others.isEmpty()) {
+                    others = null;
+                }
+            } else {
+                previous = null;
+            }
+            return previous;
+        }
+
+        @Override
+        public CurrentInstance remove(Object type) {
+            if (type instanceof Class<?>) {
+                return put((Class<?>) type, null);
+            }
+            return null;
+        }
+
+        @Override
+        public void clear() {
+            service = session = ui = request = response = null;
+            others = null;
+        }
+
+        @Override
+        public int size() {
+            int size = others == null ? 0 : others.size();
+            for (CurrentInstance value : new CurrentInstance[] { service,
+                    session, ui, request, response }) {
+                if (value != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return service == null && session == null && ui == null
+                    && request == null && response == null && others == null;
+        }
+
+        /**
+         * Gets a snapshot of the entries. Changes to this map are not
+         * reflected in the returned set.
+         */
+        @Override
+        public Set<Entry<Class<?>, CurrentInstance>> entrySet() {
+            Set<Entry<Class<?>, CurrentInstance>> entries = new LinkedHashSet<>();
+            addEntry(entries, VaadinService.class, service);
+            addEntry(entries, VaadinSession.class, session);
+            addEntry(entries, UI.class, ui);
+            addEntry(entries, VaadinRequest.class, request);
+            addEntry(entries, VaadinResponse.class, response);
+            if (others != null) {
+                for (Entry<Class<?>, CurrentInstance> entry : others
+                        .entrySet()) {
+                    addEntry(entries, entry.getKey(), entry.getValue());
+                }
+            }
+            return Collections.unmodifiableSet(entries);
+        }
+
+        private static void addEntry(
+                Set<Entry<Class<?>, CurrentInstance>> entries, Class<?> type,
+                CurrentInstance value) {
+            if (value != null) {
+                entries.add(new SimpleImmutableEntry<>(type, value));
+            }
+        }
+
+        /**
+         * Removes the instances that have been garbage collected.
+         */
+        private void removeStale() {
+            service = removeIfStale(VaadinService.class, service);
+            session = removeIfStale(VaadinSession.class, session);
+            ui = removeIfStale(UI.class, ui);
+            request = removeIfStale(VaadinRequest.class, request);
+            response = removeIfStale(VaadinResponse.class, response);
+            if (others != null) {
+                removeStaleInstances(others);
+                if (others.isEmpty()) {
+                    others = null;
+                }
+            }
+        }
+
+        private static CurrentInstance removeIfStale(Class<?> type,
+                CurrentInstance value) {
+            if (value != null && value.instance.get() == null) {
+                logCollected(type);
+                return null;
+            }
+            return value;
+        }
+
+        private Instances copyWithoutStale() {
+            Instances copy = new Instances();
+            copy.service = service;
+            copy.session = session;
+            copy.ui = ui;
+            copy.request = request;
+            copy.response = response;
+            if (others != null) {
+                copy.others = new HashMap<>(others);
+            }
+            copy.removeStale();
+            return copy;
+        }
+    }
 
     private CurrentInstance(Object instance) {
         this.instance = new WeakReference<>(instance);
@@ -73,7 +261,7 @@ public class CurrentInstance implements Serializable {
      *         if there is no current instance.
      */
     public static <T> T get(Class<T> type) {
-        Map<Class<?>, CurrentInstance> map = instances.get();
+        Instances map = instances.get();
         if (map == null) {
             return null;
         }
@@ -94,7 +282,7 @@ public class CurrentInstance implements Serializable {
                  * significantly increase the complexity of the code for
                  * maintaining a separate ReferenceQueue for each Thread.
                  */
-                removeStaleInstances(map);
+                map.removeStale();
 
                 if (map.isEmpty()) {
                     instances.remove();
@@ -116,13 +304,16 @@ public class CurrentInstance implements Serializable {
             Object instance = entry.getValue().instance.get();
             if (instance == null) {
                 iterator.remove();
-                getLogger().log(Level.FINE,
-                        "CurrentInstance for {0} has been garbage collected.",
-                        entry.getKey());
+                logCollected(entry.getKey());
             }
         }
     }
 
+    private static void logCollected(Class<?> type) {
+        getLogger().log(Level.FINE,
+                "CurrentInstance for {0} has been garbage collected.", type);
+    }
+
     /**
      * Sets the current instance of the given type.
      *
@@ -135,25 +326,22 @@ public class CurrentInstance implements Serializable {
      *            the actual instance
      */
     public static <T> CurrentInstance set(Class<T> type, T instance) {
-        Map<Class<?>, CurrentInstance> map = instances.get();
-        CurrentInstance previousInstance = null;
+        CurrentInstance previousInstance;
         if (instance == null) {
-            // remove the instance
-            if (map != null) {
-                previousInstance = map.remove(type);
-                if (map.isEmpty()) {
-                    instances.remove();
-                    map = null;
-                }
-            }
+            previousInstance = setInstance(type, null);
         } else {
             assert type.isInstance(instance) : "Invald instance type";
-            if (map == null) {
-                map = new HashMap<>();
-                instances.set(map);
+            Instances map = instances.get();
+            CurrentInstance currentInstance = map == null ? null
+                    : map.get(type);
+            if (currentInstance != null
+                    && currentInstance.instance.get() == instance) {
+                // Already current, no need for a new reference
+                previousInstance = currentInstance;
+            } else {
+                previousInstance = setInstance(type,
+                        new CurrentInstance(instance));
             }
-
-            previousInstance = map.put(type, new CurrentInstance(instance));
         }
         if (previousInstance == null) {
             previousInstance = CURRENT_INSTANCE_NULL;
@@ -161,6 +349,32 @@ public class CurrentInstance implements Serializable {
         return previousInstance;
     }
 
+    /**
+     * Sets or, if the value is <code>null</code>, removes the current instance
+     * of the given type.
+     *
+     * @return the previous value, or <code>null</code> if there was none
+     */
+    private static CurrentInstance setInstance(Class<?> type,
+            CurrentInstance value) {
+        Instances map = instances.get();
+        if (value == null) {
+            if (map == null) {
+                return null;
+            }
+            CurrentInstance previous = map.put(type, null);
+            if (map.isEmpty()) {
+                instances.remove();
+            }
+            return previous;
+        }
+        if (map == null) {
+            map = new Instances();
+            instances.set(map);
+        }
+        return map.put(type, value);
+    }
+
     /**
      * Clears all current instances.
      */
@@ -179,36 +393,71 @@ public class CurrentInstance implements Serializable {
      */
     public static void restoreInstances(Map<Class<?>, CurrentInstance> old) {
         boolean removeStale = false;
-        for (Class c : old.keySet()) {
-            CurrentInstance ci = old.get(c);
-            Object v = ci.instance.get();
-            if (v == null) {
-                removeStale = true;
-            } else if (v == NULL_OBJECT) {
-                /*
-                 * NULL_OBJECT is used to identify objects that are null when
-                 * #setCurrent(UI) or #setCurrent(VaadinSession) are called on a
-                 * CurrentInstance. Without this a reference to an already
-                 * collected instance may be left in the CurrentInstance when it
-                 * really should be restored to null.
-                 *
-                 * One example case that this fixes:
-                 * VaadinService.runPendingAccessTasks() clears all current
-                 * instances and then sets everything but the UI. This makes
-                 * UI.accessSynchronously() save these values before calling
-                 * setCurrent(UI), which stores UI=null in the map it returns.
-                 * This map will be restored after UI.accessSync(), which,
-                 * unless it respects null values, will just leave the wrong UI
-                 * instance registered.
-                 */
-                v = null;
+        if (old instanceof Instances) {
+            // Avoid creating entries for the values returned by setCurrent
+            Instances slots = (Instances) old;
+            removeStale |= restore(VaadinService.class, slots.service);
+            removeStale |= restore(VaadinSession.class, slots.session);
+            removeStale |= restore(UI.class, slots.ui);
+            removeStale |= restore(VaadinRequest.class, slots.request);
+            removeStale |= restore(VaadinResponse.class, slots.response);
+            if (slots.others != null) {
+                for (Entry<Class<?>, CurrentInstance> entry : slots.others
+                        .entrySet()) {
+                    removeStale |= restore(entry.getKey(), entry.getValue());
+                }
+            }
+            if (removeStale) {
+                slots.removeStale();
+            }
+        } else {
+            for (Entry<Class<?>, CurrentInstance> entry : old.entrySet()) {
+                removeStale |= restore(entry.getKey(), entry.getValue());
+            }
+            if (removeStale) {
+                removeStaleInstances(old);
             }
-            set(c, v);
         }
+    }
 
-        if (removeStale) {
-            removeStaleInstances(old);
+    /**
+     * Restores one instance.
+     *
+     * @return <code>true</code> if the instance has been garbage collected,
+     *         <code>false</code> otherwise
+     */
+    private static boolean restore(Class<?> type, CurrentInstance ci) {
+        if (ci == null) {
+            return false;
         }
+        Object v = ci.instance.get();
+        if (v == null) {
+            setInstance(type, null);
+            return true;
+        } else if (v == NULL_OBJECT) {
+            /*
+             * NULL_OBJECT is used to identify objects that are null when
+             * #setCurrent(UI) or #setCurrent(VaadinSession) are called on a
+             * CurrentInstance. Without this a reference to an already
+             * collected instance may be left in the CurrentInstance when it
+             * really should be restored to null.
+             *
+             * One example case that this fixes:
+             * VaadinService.runPendingAccessTasks() clears all current
+             * instances and then sets everything but the UI. This makes
+             * UI.accessSynchronously() save these values before calling
+             * setCurrent(UI), which stores UI=null in the map it returns. This
+             * map will be restored after UI.accessSync(), which, unless it
+             * respects null values, will just leave the wrong UI instance
+             * registered.
+             */
+            setInstance(type, null);
+        } else {
+            assert type.isInstance(v) : "Invald instance type";
+            // The reference can be reused as is
+            setInstance(type, ci);
+        }
+        return false;
     }
 
     /**
@@ -220,22 +469,13 @@ public class CurrentInstance implements Serializable {
      * @return a map containing the current instances
      */
     public static Map<Class<?>, CurrentInstance> getInstances() {
-        Map<Class<?>, CurrentInstance> map = instances.get();
+        Instances map = instances.get();
         if (map == null) {
             return Collections.emptyMap();
         } else {
-            Map<Class<?>, CurrentInstance> copy = new HashMap<>();
-            boolean removeStale = false;
-            for (Class<?> c : map.keySet()) {
-                CurrentInstance ci = map.get(c);
-                if (ci.instance.get() == null) {
-                    removeStale = true;
-                } else {
-                    copy.put(c, ci);
-                }
-            }
-            if (removeStale) {
-                removeStaleInstances(map);
+            Instances copy = map.copyWithoutStale();
+            if (copy.size() != map.size()) {
+                map.removeStale();
                 if (map.isEmpty()) {
                     instances.remove();
                 }
@@ -244,6 +484,63 @@ public class CurrentInstance implements Serializable {
         }
     }
 
+    /**
+     * Wraps a task so that it runs with the current instances of the calling
+     * thread, e.g. when it is run by an executor or in a thread started by an
+     * access task. The current instances of the thread that runs the task are
+     * restored when the task completes.
+     * <p>
+     * The instances are captured when this method is called. As the instances
+     * are referenced weakly, an instance that has been garbage collected before
+     * the task is run is not set.
+     *
+     * @since 8.2
+     *
+     * @param task
+     *            the task to wrap, not <code>null</code>
+     * @return a task that runs the given task with the current instances
+     */
+    public static Runnable wrap(Runnable task) {
+        Map<Class<?>, CurrentInstance> captured = getInstances();
+        return () -> {
+            Map<Class<?>, CurrentInstance> previous = getInstances();
+            clearAll();
+            restoreInstances(captured);
+            try {
+                task.run();
+            } finally {
+                clearAll();
+                restoreInstances(previous);
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that it runs with the current instances of the calling
+     * thread, e.g. when it is submitted to an executor.
+     *
+     * @see #wrap(Runnable)
+     * @since 8.2
+     *
+     * @param task
+     *            the task to wrap, not <code>null</code>
+     * @return a task that runs the given task with the current instances
+     */
+    public static <V> Callable<V> wrap(Callable<V> task) {
+        Map<Class<?>, CurrentInstance> captured = getInstances();
+        return () -> {
+            Map<Class<?>, CurrentInstance> previous = getInstances();
+            clearAll();
+            restoreInstances(captured);
+            try {
+                return task.call();
+            } finally {
+                clearAll();
+                restoreInstances(previous);
+            }
+        };
+    }
+
     /**
      * Sets current instances for the UI and all related classes. The previously
      * defined values can be restored by passing the returned map to
@@ -276,7 +573,7 @@ public class CurrentInstance implements Serializable {
      */
     public static Map<Class<?>, CurrentInstance> setCurrent(
             VaadinSession session) {
-        Map<Class<?>, CurrentInstance> old = new HashMap<>();
+        Instances old = new Instances();
         old.put(VaadinSession.class, set(VaadinSession.class, session));
         VaadinService service = null;
         if (session != null) {
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CountStrategyTest {
+
+    private final AtomicInteger counts = new AtomicInteger();
+    private CallbackDataProvider<String, String> dataProvider;
+
+    @Before
+    public void setUp() {
+        dataProvider = new CallbackDataProvider<>(query -> Stream.empty(),
+                query -> {
+                    counts.incrementAndGet();
+                    return query.getFilter().orElse("").length();
+                });
+    }
+
+    private int size(String filter) {
+        return dataProvider.size(new Query<>(filter));
+    }
+
+    @Test
+    public void exactByDefault() {
+        Assert.assertTrue(dataProvider.isSizeExact());
+        Assert.assertEquals(3, size("abc"));
+        Assert.assertEquals(3, size("abc"));
+        Assert.assertEquals(2, counts.get());
+    }
+
+    @Test
+    public void cached_countReusedPerFilterUntilRefresh() {
+        dataProvider.setCountStrategy(CountStrategy.cached(60000));
+
+        Assert.assertFalse(dataProvider.isSizeExact());
+        Assert.assertEquals(3, size("abc"));
+        Assert.assertEquals(3, size("abc"));
+        Assert.assertEquals(1, size("a"));
+        Assert.assertEquals(2, counts.get());
+
+        dataProvider.refreshAll();
+
+        Assert.assertEquals(3, size("abc"));
+        Assert.assertEquals(3, counts.get());
+    }
+
+    @Test
+    public void estimated_backEndNotCounted() {
+        dataProvider.setCountStrategy(CountStrategy.estimated(query -> 1000));
+
+        Assert.assertEquals(1000, size("abc"));
+        Assert.assertEquals(0, counts.get());
+    }
+
+    @Test
+    public void unknown_initialCountReported() {
+        dataProvider.setCountStrategy(CountStrategy.unknown(50));
+
+        Assert.assertEquals(50, size("abc"));
+        Assert.assertEquals(0, counts.get());
+    }
+
+    @Test
+    public void wrapper_inexactSizeOfWrappedProvider() {
+        dataProvider.setCountStrategy(CountStrategy.unknown(50));
+
+        Assert.assertFalse(dataProvider.withConfigurableFilter().isSizeExact());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void cached_nonPositiveTimeout_throws() {
+        CountStrategy.cached(0);
+    }
+}
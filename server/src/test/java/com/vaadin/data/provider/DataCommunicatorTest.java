@@ -15,8 +15,14 @@
  */
 package com.vaadin.data.provider;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
@@ -24,6 +30,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.vaadin.server.ClientMethodInvocation;
 import com.vaadin.server.MockVaadinSession;
 import com.vaadin.server.VaadinRequest;
 import com.vaadin.server.VaadinService;
@@ -195,6 +202,255 @@ public class DataCommunicatorTest {
                 TEST_OBJECT, generator.generated);
     }
 
+    private static CallbackDataProvider<Object, Void> createUnknownSizeDataProvider(
+            int actualSize) {
+        CallbackDataProvider<Object, Void> dataProvider = DataProvider
+                .fromCallbacks(
+                        query -> IntStream
+                                .range(query.getOffset(),
+                                        Math.min(actualSize, query.getOffset()
+                                                + query.getLimit()))
+                                .<Object> mapToObj(Integer::valueOf),
+                        query -> {
+                            throw new AssertionError("Should not be counted");
+                        });
+        dataProvider.setCountStrategy(CountStrategy.unknown(10));
+        return dataProvider;
+    }
+
+    @Test
+    public void inexactSize_endOfDataReached_sizeCorrected() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        communicator.setDataProvider(createUnknownSizeDataProvider(25), null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+
+        List<ClientMethodInvocation> calls = communicator
+                .retrievePendingRpcCalls();
+        Assert.assertEquals("reset", calls.get(0).getMethodName());
+        Assert.assertEquals(10, calls.get(0).getParameters()[0]);
+        Assert.assertEquals("updateSize", calls.get(1).getMethodName());
+        Assert.assertEquals(25, calls.get(1).getParameters()[0]);
+        Assert.assertEquals("setData", calls.get(2).getMethodName());
+    }
+
+    @Test
+    public void inexactSize_moreDataFound_sizeExtended() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        communicator.setDataProvider(createUnknownSizeDataProvider(1000),
+                null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+
+        List<ClientMethodInvocation> calls = communicator
+                .retrievePendingRpcCalls();
+        Assert.assertEquals("updateSize", calls.get(1).getMethodName());
+        Assert.assertEquals(80, calls.get(1).getParameters()[0]);
+    }
+
+    @Test
+    public void prefetch_nextRequestServedFromCache() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        communicator.setDataProvider(new ListDataProvider<>(IntStream
+                .range(0, 1000).<Object> mapToObj(Integer::valueOf)
+                .collect(Collectors.toList())), null);
+        communicator.setPrefetchSize(100);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+        communicator.onRequestRows(40, 40, 0, 40);
+        communicator.beforeClientResponse(false);
+
+        Assert.assertEquals(2, communicator.getFetchRequestCount());
+        Assert.assertEquals(1, communicator.getCacheHitCount());
+        Assert.assertEquals(1, communicator.getBackEndQueryCount());
+    }
+
+    @Test
+    public void asyncDataProvider_rowsPushedWhenFetchCompletes() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        CompletableFuture<Stream<Object>> fetch = new CompletableFuture<>();
+        communicator.setDataProvider(
+                new AsyncCallbackDataProvider<Object, Void>(query -> fetch,
+                        query -> 1),
+                null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+        List<ClientMethodInvocation> calls = communicator
+                .retrievePendingRpcCalls();
+        Assert.assertEquals(1, calls.size());
+        Assert.assertEquals("reset", calls.get(0).getMethodName());
+
+        fetch.complete(Stream.of(TEST_OBJECT));
+
+        calls = communicator.retrievePendingRpcCalls();
+        Assert.assertEquals(1, calls.size());
+        Assert.assertEquals("setData", calls.get(0).getMethodName());
+    }
+
+    @Test
+    public void asyncDataProvider_wrappedProviderFetchedAsynchronously() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        CompletableFuture<Stream<Object>> fetch = new CompletableFuture<>();
+        List<Object> filters = new ArrayList<>();
+        AsyncCallbackDataProvider<Object, String> provider = new AsyncCallbackDataProvider<>(
+                query -> {
+                    filters.add(query.getFilter().orElse(null));
+                    return fetch;
+                }, query -> 1);
+        communicator.setDataProvider(provider.withConvertedFilter(
+                (Integer number) -> String.valueOf(number)), 42);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+        communicator.retrievePendingRpcCalls().forEach(call -> Assert
+                .assertNotEquals("setData", call.getMethodName()));
+        Assert.assertEquals(Collections.singletonList("42"), filters);
+
+        fetch.complete(Stream.of(TEST_OBJECT));
+
+        List<ClientMethodInvocation> calls = communicator
+                .retrievePendingRpcCalls();
+        Assert.assertEquals(1, calls.size());
+        Assert.assertEquals("setData", calls.get(0).getMethodName());
+    }
+
+    @Test
+    public void asyncDataProvider_emptyInitialFetchDoesNotReset() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        communicator.setDataProvider(
+                new AsyncCallbackDataProvider<Object, Void>(
+                        query -> CompletableFuture.completedFuture(
+                                Stream.empty()),
+                        query -> 0),
+                null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+        communicator.retrievePendingRpcCalls();
+        communicator.beforeClientResponse(false);
+
+        communicator.retrievePendingRpcCalls().forEach(call -> Assert
+                .assertNotEquals("reset", call.getMethodName()));
+    }
+
+    @Test
+    public void asyncDataProvider_staleFetchCancelled() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        CompletableFuture<Stream<Object>> fetch = new CompletableFuture<>();
+        communicator.setDataProvider(
+                new AsyncCallbackDataProvider<Object, Void>(query -> fetch,
+                        query -> 1),
+                null);
+        communicator.extend(ui);
+        communicator.beforeClientResponse(true);
+        communicator.retrievePendingRpcCalls();
+
+        communicator.setBackEndSorting(Collections.emptyList());
+
+        Assert.assertTrue(fetch.isCancelled());
+        communicator.retrievePendingRpcCalls().forEach(call -> Assert
+                .assertNotEquals("setData", call.getMethodName()));
+    }
+
+    @Test
+    public void asyncDataProvider_overriddenFetchItemsWithRangeUsed() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator() {
+            @Override
+            protected List<Object> fetchItemsWithRange(int offset,
+                    int limit) {
+                return Collections.singletonList(TEST_OBJECT);
+            }
+        };
+        communicator.setDataProvider(
+                new AsyncCallbackDataProvider<Object, Void>(
+                        query -> new CompletableFuture<>(), query -> 1),
+                null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+
+        Assert.assertTrue(communicator.retrievePendingRpcCalls().stream()
+                .anyMatch(call -> "setData".equals(call.getMethodName())));
+    }
+
+    @Test
+    public void asyncDataProvider_failingStreamReportedInAccess() {
+        session.lock();
+        List<Throwable> errors = new ArrayList<>();
+        UI ui = new TestUI(session) {
+            @Override
+            public Future<Void> access(Runnable runnable) {
+                try {
+                    runnable.run();
+                } catch (RuntimeException e) {
+                    errors.add(e);
+                }
+                return null;
+            }
+        };
+        TestDataCommunicator communicator = new TestDataCommunicator();
+        CompletableFuture<Stream<Object>> fetch = new CompletableFuture<>();
+        communicator.setDataProvider(
+                new AsyncCallbackDataProvider<Object, Void>(query -> fetch,
+                        query -> 1),
+                null);
+        communicator.extend(ui);
+        communicator.beforeClientResponse(true);
+
+        IllegalStateException failure = new IllegalStateException();
+        fetch.complete(Stream.of(TEST_OBJECT).peek(item -> {
+            throw failure;
+        }));
+
+        Assert.assertEquals(1, errors.size());
+        Assert.assertSame(failure, errors.get(0).getCause());
+    }
+
+    @Test
+    public void overriddenGetDataObject_usedForPushedData() {
+        session.lock();
+        UI ui = new TestUI(session);
+        TestDataCommunicator communicator = new TestDataCommunicator() {
+            @Override
+            protected JsonObject getDataObject(Object data) {
+                JsonObject dataObject = super.getDataObject(data);
+                dataObject.put("custom", true);
+                return dataObject;
+            }
+        };
+        communicator.setDataProvider(new TestDataProvider(), null);
+        communicator.extend(ui);
+
+        communicator.beforeClientResponse(true);
+
+        ClientMethodInvocation setData = communicator
+                .retrievePendingRpcCalls().stream()
+                .filter(call -> "setData".equals(call.getMethodName()))
+                .findFirst().get();
+        JsonArray data = (JsonArray) setData.getParameters()[1];
+        Assert.assertTrue(data.getObject(0).getBoolean("custom"));
+    }
+
     @Test
     public void testDestroyData() {
         session.lock();
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FetchPlannerTest {
+
+    private static final int DATA_SIZE = 1000;
+
+    private final List<String> queries = new ArrayList<>();
+    private FetchPlanner<Integer> planner;
+    private long now = 0;
+
+    @Before
+    public void setUp() {
+        planner = new FetchPlanner<>();
+        planner.setClock(() -> now);
+        planner.setPrefetchSize(50);
+    }
+
+    private List<Integer> fetch(int offset, int limit) {
+        return planner.fetch(offset, limit, (o, l) -> {
+            queries.add(o + "+" + l);
+            return IntStream.range(o, Math.min(DATA_SIZE, o + l)).boxed()
+                    .collect(Collectors.toList());
+        });
+    }
+
+    private static List<Integer> range(int start, int end) {
+        return IntStream.range(start, end).boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void noPrefetch_exactRangeQueried() {
+        planner.setPrefetchSize(0);
+
+        Assert.assertEquals(range(0, 20), fetch(0, 20));
+        Assert.assertEquals(range(0, 20), fetch(0, 20));
+
+        Assert.assertEquals(2, planner.getBackEndQueryCount());
+        Assert.assertEquals(0, planner.getCacheHitCount());
+    }
+
+    @Test
+    public void forwardScroll_prefetchedRowsServedFromCache() {
+        Assert.assertEquals(range(0, 20), fetch(0, 20));
+        Assert.assertEquals(range(20, 40), fetch(20, 20));
+        Assert.assertEquals(range(40, 60), fetch(40, 20));
+        Assert.assertEquals(range(60, 80), fetch(60, 20));
+
+        Assert.assertEquals(2, queries.size());
+        Assert.assertEquals("0+70", queries.get(0));
+        // Only the rows missing from the cache are queried
+        Assert.assertEquals("70+60", queries.get(1));
+        Assert.assertEquals(4, planner.getRequestCount());
+        Assert.assertEquals(2, planner.getCacheHitCount());
+    }
+
+    @Test
+    public void backwardScroll_prefetchesBefore() {
+        fetch(500, 20);
+        Assert.assertEquals(range(480, 500), fetch(480, 20));
+
+        // Only the rows before the cached range are queried
+        Assert.assertEquals("430+70", queries.get(1));
+        Assert.assertEquals(range(440, 460), fetch(440, 20));
+        Assert.assertEquals(range(540, 560), fetch(540, 20));
+        Assert.assertEquals(2, queries.size());
+    }
+
+    @Test
+    public void endOfData_shortResultCached() {
+        Assert.assertEquals(range(980, 1000), fetch(980, 40));
+        Assert.assertEquals(range(990, 1000), fetch(990, 40));
+
+        Assert.assertEquals(1, queries.size());
+    }
+
+    @Test
+    public void jump_cacheReplaced() {
+        fetch(0, 20);
+        Assert.assertEquals(range(600, 620), fetch(600, 20));
+
+        Assert.assertEquals("600+70", queries.get(1));
+    }
+
+    @Test
+    public void timeout_cacheDropped() {
+        fetch(0, 20);
+        now += planner.getTimeout();
+        fetch(20, 20);
+
+        Assert.assertEquals(2, queries.size());
+        Assert.assertEquals("20+70", queries.get(1));
+    }
+
+    @Test
+    public void clear_cacheDropped() {
+        fetch(0, 20);
+        planner.clear();
+        fetch(20, 20);
+
+        Assert.assertEquals(2, planner.getBackEndQueryCount());
+    }
+
+    @Test
+    public void longForwardScroll_cacheSizeBounded() {
+        for (int offset = 0; offset < 900; offset += 20) {
+            Assert.assertEquals(range(offset, offset + 20), fetch(offset, 20));
+        }
+        // Rows far behind the current position are no longer cached
+        fetch(0, 20);
+        Assert.assertEquals("0+20", queries.get(queries.size() - 1));
+    }
+}
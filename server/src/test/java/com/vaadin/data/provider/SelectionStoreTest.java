@@ -0,0 +1,132 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.data.provider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SelectionStoreTest {
+
+    private final SelectionStore<StrBean> store = new SelectionStore<>(
+            StrBean::getId);
+
+    @Test
+    public void addAndRemove_byIdentifier() {
+        StrBean first = new StrBean("a", 1, 0);
+        StrBean second = new StrBean("b", 2, 0);
+
+        Assert.assertTrue(store.add(first));
+        Assert.assertTrue(store.add(second));
+        Assert.assertFalse(store.add(new StrBean("c", 1, 0)));
+
+        Assert.assertEquals(2, store.size());
+        Assert.assertTrue(store.contains(new StrBean("x", 2, 0)));
+        Assert.assertTrue(store.containsId(1));
+        Assert.assertEquals(Arrays.asList(first, second),
+                new ArrayList<>(store));
+
+        Assert.assertTrue(store.remove(new StrBean("x", 1, 0)));
+        Assert.assertFalse(store.contains(first));
+        Assert.assertEquals(Arrays.asList(second), new ArrayList<>(store));
+    }
+
+    @Test
+    public void replace_keepsPosition() {
+        store.add(new StrBean("a", 1, 0));
+        store.add(new StrBean("b", 2, 0));
+        StrBean updated = new StrBean("updated", 1, 0);
+
+        Assert.assertTrue(store.replace(updated));
+        Assert.assertFalse(store.replace(new StrBean("c", 3, 0)));
+
+        Assert.assertSame(updated, store.iterator().next());
+        Assert.assertEquals(2, store.size());
+    }
+
+    @Test
+    public void allExcept_resolvedLazily() {
+        AtomicInteger fetches = new AtomicInteger();
+        store.add(new StrBean("b", 1, 0));
+
+        Set<StrBean> all = store.allExcept(() -> {
+            fetches.incrementAndGet();
+            return IntStream.range(0, 5)
+                    .mapToObj(i -> new StrBean("bean" + i, i, 0));
+        });
+        // Later changes are not reflected
+        store.add(new StrBean("c", 2, 0));
+
+        Assert.assertTrue(all.contains(new StrBean("x", 100, 0)));
+        Assert.assertFalse(all.contains(new StrBean("x", 1, 0)));
+        Assert.assertEquals(0, fetches.get());
+
+        Assert.assertEquals(4, all.size());
+        Assert.assertEquals(1, fetches.get());
+        Assert.assertFalse(all.isEmpty());
+
+        Assert.assertEquals(Arrays.asList(0, 2, 3, 4), all.stream()
+                .map(StrBean::getId).collect(Collectors.toList()));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void allExcept_unmodifiable() {
+        store.allExcept(() -> IntStream.range(0, 5)
+                .mapToObj(i -> new StrBean("bean" + i, i, 0)))
+                .add(new StrBean("a", 10, 0));
+    }
+
+    @Test
+    public void dataProviderChanged_identifiersRecomputed() {
+        StrBean first = new StrBean("a", 1, 0);
+        StrBean second = new StrBean("b", 2, 0);
+        List<StrBean> beans = Arrays.asList(first, second);
+        DataProvider<StrBean, ?> byValue = new ListDataProvider<StrBean>(
+                beans) {
+            @Override
+            public Object getId(StrBean item) {
+                return item.getValue();
+            }
+        };
+        AtomicReference<DataProvider<StrBean, ?>> current = new AtomicReference<>(
+                byValue);
+        SelectionStore<StrBean> providerStore = new SelectionStore<>(
+                current::get);
+        providerStore.add(first);
+        providerStore.add(second);
+        Assert.assertTrue(providerStore.containsId("a"));
+
+        current.set(new ListDataProvider<StrBean>(beans) {
+            @Override
+            public Object getId(StrBean item) {
+                return item.getId();
+            }
+        });
+
+        Assert.assertTrue(providerStore.contains(new StrBean("x", 1, 0)));
+        Assert.assertFalse(providerStore.containsId("a"));
+        Assert.assertTrue(providerStore.containsId(2));
+        Assert.assertEquals(beans, new ArrayList<>(providerStore));
+    }
+}
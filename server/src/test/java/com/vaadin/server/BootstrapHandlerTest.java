@@ -15,13 +15,22 @@
  */
 package com.vaadin.server;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Properties;
 
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Tag;
 import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
 import com.vaadin.server.BootstrapHandler.BootstrapContext;
+import com.vaadin.server.BootstrapHandler.BootstrapPageTemplate;
 import com.vaadin.server.BootstrapHandler.BootstrapUriResolver;
 
 public class BootstrapHandlerTest {
@@ -108,4 +117,40 @@ public class BootstrapHandlerTest {
         Assert.assertEquals(expectedUrl,
                 resolver.resolveVaadinUri(frontendUrl));
     }
+
+    @Test
+    public void pageTemplate_fragmentNodesWrittenInPlaceholder()
+            throws IOException {
+        Document document = Document.createShell("");
+        document.head().appendElement("title").appendText("Title");
+        document.body()
+                .appendChild(new Comment("vaadin-bootstrap-fragment", ""));
+        document.body().appendElement("span").appendText("after");
+
+        BootstrapPageTemplate template = new BootstrapPageTemplate(document,
+                Collections.singletonMap("Pragma", "no-cache"));
+
+        StringWriter writer = new StringWriter();
+        template.write(writer,
+                Arrays.asList(
+                        new Element(Tag.valueOf("div"), "").attr("id", "app"),
+                        new Element(Tag.valueOf("script"), "")));
+        String html = writer.toString();
+
+        Assert.assertFalse(html.contains("vaadin-bootstrap-fragment"));
+        Assert.assertTrue(html.contains("<title>Title</title>"));
+        int div = html.indexOf("<div id=\"app\"></div>");
+        int script = html.indexOf("<script></script>");
+        int span = html.indexOf("<span>after</span>");
+        Assert.assertTrue(div > html.indexOf("<body>"));
+        Assert.assertTrue(script > div);
+        Assert.assertTrue(span > script);
+        Assert.assertEquals("no-cache", template.getHeaders().get("Pragma"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void pageTemplate_noPlaceholder_throws() {
+        new BootstrapPageTemplate(Document.createShell(""),
+                Collections.emptyMap());
+    }
 }
@@ -3,11 +3,22 @@ package com.vaadin.server;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -36,4 +47,106 @@ public class DownloadStreamTest {
                 contains(
                         String.format("filename*=utf-8''%s", encodedFileName)));
     }
+
+    @Test
+    public void rangeRequest_partialContentFromStream() throws IOException {
+        DownloadStream stream = new DownloadStream(new ByteArrayInputStream(
+                "0123456789".getBytes(StandardCharsets.UTF_8)), "", "");
+        stream.setContentLength(10);
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getHeader("Range")).thenReturn("bytes=2-4");
+        VaadinResponse response = mock(VaadinResponse.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 2-4/10");
+        verify(response).setHeader("Content-Length", "3");
+        Assert.assertEquals("234",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void rangeRequest_suffixRangeFromFile() throws IOException {
+        File file = File.createTempFile("download", ".txt");
+        file.deleteOnExit();
+        Files.write(file.toPath(),
+                "0123456789".getBytes(StandardCharsets.UTF_8));
+        DownloadStream stream = new DownloadStream(new FileInputStream(file),
+                "", "");
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getHeader("Range")).thenReturn("bytes=-3");
+        VaadinResponse response = mock(VaadinResponse.class);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        when(response.getOutputStream()).thenReturn(out);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        verify(response).setHeader("Content-Range", "bytes 7-9/10");
+        Assert.assertEquals("789",
+                new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void rangeRequest_unsatisfiable() throws IOException {
+        stream.setContentLength(10);
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getHeader("Range")).thenReturn("bytes=10-");
+        VaadinResponse response = mock(VaadinResponse.class);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setStatus(
+                HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range", "bytes */10");
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void rangeRequest_startAndEndBeyondLength_unsatisfiable()
+            throws IOException {
+        stream.setContentLength(10);
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getHeader("Range")).thenReturn("bytes=20-30");
+        VaadinResponse response = mock(VaadinResponse.class);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setStatus(
+                HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        verify(response).setHeader("Content-Range", "bytes */10");
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void conditionalRequest_matchingETag_notModified()
+            throws IOException {
+        stream.setETag("\"abc\"");
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getHeader("If-None-Match"))
+                .thenReturn("\"x\", \"abc\"");
+        VaadinResponse response = mock(VaadinResponse.class);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setHeader("ETag", "\"abc\"");
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        verify(response, never()).getOutputStream();
+    }
+
+    @Test
+    public void conditionalRequest_notModifiedSince() throws IOException {
+        stream.setLastModified(10500);
+        VaadinRequest request = mock(VaadinRequest.class);
+        when(request.getDateHeader("If-Modified-Since")).thenReturn(10000L);
+        VaadinResponse response = mock(VaadinResponse.class);
+
+        stream.writeResponse(request, response);
+
+        verify(response).setDateHeader("Last-Modified", 10500);
+        verify(response).setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+    }
 }
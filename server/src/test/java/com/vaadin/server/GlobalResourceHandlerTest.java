@@ -0,0 +1,161 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server;
+
+import java.io.IOException;
+
+import org.easymock.EasyMock;
+import org.easymock.IMocksControl;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.shared.ApplicationConstants;
+import com.vaadin.ui.LegacyComponent;
+import com.vaadin.ui.UI;
+
+public class GlobalResourceHandlerTest {
+
+    VaadinSession session;
+    UI ui;
+    GlobalResourceHandler handler;
+
+    @Before
+    public void setUp() {
+        IMocksControl control = EasyMock.createNiceControl();
+        VaadinRequest request = control.createMock(VaadinRequest.class);
+        VaadinService service = control.createMock(VaadinService.class);
+        control.replay();
+
+        session = new MockVaadinSession(service);
+        ui = new UI() {
+            @Override
+            protected void init(VaadinRequest request) {
+            }
+        };
+        ui.doInit(request, 0, "");
+
+        session.lock();
+        try {
+            session.setCommunicationManager(
+                    new LegacyCommunicationManager(session));
+            ui.setSession(session);
+            session.addUI(ui);
+        } finally {
+            session.unlock();
+        }
+
+        handler = new GlobalResourceHandler();
+    }
+
+    @Test
+    public void sharedResource_releasedWhenLastUserUnregistered() {
+        ConnectorResource resource = createResource();
+        LegacyComponent first = createConnector();
+        LegacyComponent second = createConnector();
+        EasyMock.replay(resource);
+
+        handler.register(resource, first);
+        handler.register(resource, second);
+        handler.register(resource, first);
+        String uri = handler.getUri(first, resource);
+        Assert.assertNotNull(uri);
+        Assert.assertEquals(uri, handler.getUri(second, resource));
+
+        handler.unregisterConnector(first);
+        Assert.assertEquals(uri, handler.getUri(second, resource));
+
+        handler.unregisterConnector(second);
+        Assert.assertNull(handler.getUri(second, resource));
+    }
+
+    @Test
+    public void multipleResources_releasedWithConnector() {
+        ConnectorResource first = createResource();
+        ConnectorResource second = createResource();
+        LegacyComponent connector = createConnector();
+        EasyMock.replay(first, second);
+
+        handler.register(first, connector);
+        handler.register(second, connector);
+        Assert.assertNotEquals(handler.getUri(connector, first),
+                handler.getUri(connector, second));
+
+        handler.unregisterConnector(connector);
+        Assert.assertNull(handler.getUri(connector, first));
+        Assert.assertNull(handler.getUri(connector, second));
+    }
+
+    @Test
+    public void handleRequest_registeredResourceServed() throws IOException {
+        ConnectorResource resource = createResource();
+        EasyMock.expect(resource.getStream()).andReturn(null);
+        EasyMock.replay(resource);
+        LegacyComponent connector = createConnector();
+        handler.register(resource, connector);
+
+        Assert.assertTrue(handler.handleRequest(session,
+                createRequest(getPath(handler.getUri(connector, resource))),
+                EasyMock.createNiceMock(VaadinResponse.class)));
+
+        EasyMock.verify(resource);
+    }
+
+    @Test
+    public void handleRequest_unknownFilenameNotServed() throws IOException {
+        ConnectorResource resource = createResource();
+        EasyMock.replay(resource);
+        LegacyComponent connector = createConnector();
+        handler.register(resource, connector);
+        String path = getPath(handler.getUri(connector, resource));
+
+        // Unexpected getStream() call would fail the test
+        Assert.assertTrue(handler.handleRequest(session,
+                createRequest(path.replace("icon.png", "other.png")),
+                EasyMock.createNiceMock(VaadinResponse.class)));
+        Assert.assertTrue(handler.handleRequest(session,
+                createRequest(path.replace("legacy/0/", "legacy/1/")),
+                EasyMock.createNiceMock(VaadinResponse.class)));
+    }
+
+    private static String getPath(String uri) {
+        return '/' + uri
+                .substring(ApplicationConstants.APP_PROTOCOL_PREFIX.length());
+    }
+
+    private static VaadinRequest createRequest(String path) {
+        VaadinRequest request = EasyMock.createNiceMock(VaadinRequest.class);
+        EasyMock.expect(request.getPathInfo()).andReturn(path).anyTimes();
+        EasyMock.replay(request);
+        return request;
+    }
+
+    private static ConnectorResource createResource() {
+        ConnectorResource resource = EasyMock
+                .createMock(ConnectorResource.class);
+        EasyMock.expect(resource.getFilename()).andReturn("icon.png")
+                .anyTimes();
+        return resource;
+    }
+
+    private LegacyComponent createConnector() {
+        LegacyComponent connector = EasyMock
+                .createNiceMock(LegacyComponent.class);
+        EasyMock.expect(connector.getUI()).andReturn(ui).anyTimes();
+        EasyMock.replay(connector);
+        return connector;
+    }
+}
@@ -18,6 +18,17 @@ package com.vaadin.server;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpSessionBindingEvent;
@@ -26,7 +37,12 @@ import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.vaadin.server.RequestTimingEvent.Phase;
+import com.vaadin.server.RequestTimingEvent.RequestType;
+import com.vaadin.server.communication.ConnectorUsageProfile;
 import com.vaadin.shared.Registration;
+import com.vaadin.tests.util.MockUI;
+import com.vaadin.ui.UI;
 import com.vaadin.util.CurrentInstance;
 
 /**
@@ -169,8 +185,56 @@ public class VaadinServiceTest {
                 "Original value", CurrentInstance.get(String.class));
     }
 
+    @Test
+    public void requestTimer_noListeners_notStarted() {
+        VaadinService service = createService();
+
+        Assert.assertNull(RequestTimer.start(service, RequestType.UIDL));
+        Assert.assertNull(RequestTimer.getCurrent());
+    }
+
+    @Test
+    public void requestTimer_accessTasksTimedAndReported() {
+        VaadinService service = createService();
+        List<RequestTimingEvent> events = new ArrayList<>();
+        service.addRequestTimingListener(events::add);
+
+        MockVaadinSession session = new MockVaadinSession(service);
+        session.lock();
+        service.accessSession(session, () -> {
+            // Ensure that some time passes
+            long start = System.nanoTime();
+            while (System.nanoTime() == start) {
+            }
+        });
+
+        RequestTimer timer = RequestTimer.start(service, RequestType.UIDL);
+        Assert.assertSame(timer, RequestTimer.getCurrent());
+        service.runPendingAccessTasks(session);
+        Assert.assertSame(timer, RequestTimer.getCurrent());
+        timer.addDirtyConnectors(3);
+        timer.addResponseSize(100);
+        timer.finish();
+
+        Assert.assertNull(RequestTimer.getCurrent());
+        Assert.assertEquals(1, events.size());
+        RequestTimingEvent event = events.get(0);
+        Assert.assertSame(service, event.getSource());
+        Assert.assertEquals(RequestType.UIDL, event.getRequestType());
+        Assert.assertTrue(event.getPhaseTime(Phase.ACCESS_TASKS) > 0);
+        Assert.assertEquals(0, event.getPhaseTime(Phase.LISTENERS));
+        Assert.assertTrue(event.getTotalTime() >= event
+                .getPhaseTime(Phase.ACCESS_TASKS));
+        Assert.assertEquals(3, event.getDirtyConnectorCount());
+        Assert.assertEquals(100, event.getResponseSize());
+    }
+
     private static VaadinService createService() {
-        ServletConfig servletConfig = new MockServletConfig();
+        return createService(new Properties());
+    }
+
+    private static VaadinService createService(Properties initParameters) {
+        ServletConfig servletConfig = new MockServletConfig(initParameters);
         VaadinServlet servlet = new VaadinServlet();
         try {
             servlet.init(servletConfig);
@@ -181,6 +245,32 @@ public class VaadinServiceTest {
         return service;
     }
 
+    @Test
+    public void connectorUsageProfile_writtenOnDestroy() throws IOException {
+        File file = File.createTempFile("usage", ".profile");
+        file.delete();
+        try {
+            Properties initParameters = new Properties();
+            initParameters.setProperty("connectorUsageProfile",
+                    file.getPath());
+            VaadinService service = createService(initParameters);
+            UI ui = new MockUI();
+            service.getConnectorUsageProfile().record(ui,
+                    Collections.singletonList(ui), true);
+            Assert.assertFalse(file.exists());
+
+            service.destroy();
+
+            try (Reader reader = new InputStreamReader(
+                    new FileInputStream(file), StandardCharsets.UTF_8)) {
+                Assert.assertEquals(1,
+                        ConnectorUsageProfile.read(reader).getUICount());
+            }
+        } finally {
+            file.delete();
+        }
+    }
+
     @Test
     public void fireServiceDestroy() {
         VaadinService service = createService();
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.communication;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.vaadin.server.ClientConnector;
+import com.vaadin.tests.util.MockUI;
+import com.vaadin.ui.ConnectorTracker;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+import com.vaadin.ui.VerticalLayout;
+
+import elemental.json.Json;
+import elemental.json.JsonObject;
+
+public class ConnectorHierarchyWriterTest {
+
+    private UI ui;
+    private VerticalLayout layout;
+    private ConnectorTracker tracker;
+
+    @Before
+    public void setUp() {
+        ui = new MockUI();
+        layout = new VerticalLayout(new Label("First"));
+        ui.setContent(layout);
+        tracker = ui.getConnectorTracker();
+    }
+
+    private JsonObject writeHierarchy() throws IOException {
+        StringWriter writer = new StringWriter();
+        new ConnectorHierarchyWriter().write(ui, writer,
+                Collections.emptySet());
+        for (ClientConnector connector : tracker.getDirtyVisibleConnectors()) {
+            tracker.markClientSideInitialized(connector);
+        }
+        tracker.markAllConnectorsClean();
+        return Json.parse(writer.toString());
+    }
+
+    @Test
+    public void initialWrite_hierarchySent() throws IOException {
+        JsonObject hierarchy = writeHierarchy();
+
+        Assert.assertEquals(1,
+                hierarchy.getArray(ui.getConnectorId()).length());
+        Assert.assertEquals(1,
+                hierarchy.getArray(layout.getConnectorId()).length());
+    }
+
+    @Test
+    public void unchangedChildren_hierarchyNotResent() throws IOException {
+        writeHierarchy();
+        tracker.markAllConnectorsDirty();
+
+        JsonObject hierarchy = writeHierarchy();
+
+        Assert.assertEquals(0, hierarchy.keys().length);
+    }
+
+    @Test
+    public void childAdded_hierarchyResent() throws IOException {
+        writeHierarchy();
+        layout.addComponent(new Label("Second"));
+
+        JsonObject hierarchy = writeHierarchy();
+
+        Assert.assertFalse(hierarchy.hasKey(ui.getConnectorId()));
+        Assert.assertEquals(2,
+                hierarchy.getArray(layout.getConnectorId()).length());
+    }
+
+    @Test
+    public void allChildrenRemoved_emptyHierarchySent() throws IOException {
+        writeHierarchy();
+        layout.removeAllComponents();
+
+        JsonObject hierarchy = writeHierarchy();
+
+        Assert.assertEquals(0,
+                hierarchy.getArray(layout.getConnectorId()).length());
+    }
+
+    @Test
+    public void clientSidesUninitialized_hierarchyResent() throws IOException {
+        writeHierarchy();
+        tracker.markAllClientSidesUninitialized();
+        tracker.markAllConnectorsDirty();
+
+        JsonObject hierarchy = writeHierarchy();
+
+        Assert.assertTrue(hierarchy.hasKey(ui.getConnectorId()));
+        Assert.assertTrue(hierarchy.hasKey(layout.getConnectorId()));
+    }
+}
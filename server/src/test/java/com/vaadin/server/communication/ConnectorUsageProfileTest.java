@@ -0,0 +1,172 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.server.communication;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.server.communication.ConnectorUsageProfile.Usage;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+
+public class ConnectorUsageProfileTest {
+
+    public static class MainUI extends UI {
+        @Override
+        protected void init(VaadinRequest request) {
+        }
+    }
+
+    public static class OtherUI extends UI {
+        @Override
+        protected void init(VaadinRequest request) {
+        }
+    }
+
+    private final ConnectorUsageProfile profile = new ConnectorUsageProfile();
+
+    @Test
+    public void record_typesClassifiedByUsage() {
+        recordMainUIs();
+
+        Assert.assertEquals(10, profile.getUICount());
+        Assert.assertEquals(Usage.STARTUP,
+                profile.getUsage(Button.class.getCanonicalName()));
+        Assert.assertEquals(Usage.STARTUP,
+                profile.getUsage(MainUI.class.getCanonicalName()));
+        Assert.assertEquals(Usage.COMMON,
+                profile.getUsage(Label.class.getCanonicalName()));
+        Assert.assertEquals(Usage.RARE, profile.getUsage("com.example.Foo"));
+    }
+
+    @Test
+    public void record_superclassesRecorded() {
+        recordMainUIs();
+
+        Assert.assertEquals(Usage.STARTUP,
+                profile.getUsage(UI.class.getCanonicalName()));
+        Assert.assertEquals(Usage.STARTUP, profile
+                .getUsage("com.vaadin.ui.AbstractComponent"));
+        Assert.assertEquals(Usage.RARE, profile
+                .getUsage("com.vaadin.server.AbstractClientConnector"));
+    }
+
+    @Test
+    public void record_uiCountedOnce() {
+        MainUI ui = new MainUI();
+        profile.record(ui, Arrays.asList(ui, new Button()), true);
+        // Refreshing a preserved UI sends a new initial response
+        profile.record(ui, Arrays.asList(ui, new Button()), true);
+        profile.record(ui, Collections.singletonList(new Button()), false);
+
+        Assert.assertEquals(1, profile.getUICount());
+        Assert.assertEquals(Usage.STARTUP,
+                profile.getUsage(Button.class.getCanonicalName()));
+    }
+
+    @Test
+    public void record_usageOfEachUIClass() {
+        OtherUI other = new OtherUI();
+        profile.record(other, Arrays.asList(other, new Label()), true);
+        recordMainUIs();
+
+        // Label is used at startup by all OtherUIs
+        Assert.assertEquals(Usage.STARTUP,
+                profile.getUsage(Label.class.getCanonicalName()));
+        List<String> predicted = profile.getPredictedTypes(MainUI.class);
+        Assert.assertTrue(
+                predicted.contains(Button.class.getCanonicalName()));
+        Assert.assertTrue(predicted.contains(Label.class.getCanonicalName()));
+        Assert.assertTrue(profile.getPredictedTypes(OtherUI.class)
+                .contains(Label.class.getCanonicalName()));
+        Assert.assertFalse(profile.getPredictedTypes(OtherUI.class)
+                .contains(Button.class.getCanonicalName()));
+        Assert.assertTrue(profile.getPredictedTypes(UI.class).isEmpty());
+    }
+
+    @Test
+    public void hasData_onlyForRecordedTypes() {
+        recordMainUIs();
+
+        Assert.assertTrue(profile.hasData(Button.class.getCanonicalName()));
+        Assert.assertTrue(profile.hasData(Label.class.getCanonicalName()));
+        Assert.assertFalse(profile.hasData("com.example.Foo"));
+        Assert.assertFalse(new ConnectorUsageProfile()
+                .hasData(Button.class.getCanonicalName()));
+    }
+
+    @Test
+    public void writeAndRead_sameProfile() throws IOException {
+        recordMainUIs();
+        StringWriter written = new StringWriter();
+        profile.write(written);
+
+        ConnectorUsageProfile read = ConnectorUsageProfile
+                .read(new StringReader(written.toString()));
+        StringWriter rewritten = new StringWriter();
+        read.write(rewritten);
+
+        Assert.assertEquals(written.toString(), rewritten.toString());
+        Assert.assertEquals(10, read.getUICount());
+        Assert.assertEquals(Usage.COMMON,
+                read.getUsage(Label.class.getCanonicalName()));
+    }
+
+    @Test
+    public void read_concatenatedProfilesSummed() throws IOException {
+        recordMainUIs();
+        StringWriter written = new StringWriter();
+        profile.write(written);
+        profile.write(written);
+
+        ConnectorUsageProfile read = ConnectorUsageProfile
+                .read(new StringReader(written.toString()));
+
+        Assert.assertEquals(20, read.getUICount());
+        Assert.assertEquals(Usage.COMMON,
+                read.getUsage(Label.class.getCanonicalName()));
+    }
+
+    @Test(expected = IOException.class)
+    public void read_invalidEntry_throws() throws IOException {
+        ConnectorUsageProfile.read(new StringReader(
+                "# comment\nui com.example.MyUI 1\nused com.example.MyUI\n"));
+    }
+
+    /**
+     * Records ten MainUIs that all show a button initially, two of which
+     * later show a label.
+     */
+    private void recordMainUIs() {
+        for (int i = 0; i < 10; i++) {
+            MainUI ui = new MainUI();
+            profile.record(ui, Arrays.asList(ui, new Button()), true);
+            if (i < 2) {
+                profile.record(ui, Collections.singletonList(new Label()),
+                        false);
+            }
+        }
+    }
+}
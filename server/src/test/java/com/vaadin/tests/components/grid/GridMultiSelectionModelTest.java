@@ -456,6 +456,93 @@ public class GridMultiSelectionModelTest {
         assertEquals(3, events.get());
     }
 
+    @Test
+    public void lazySelectAll_itemsFetchedOnlyWhenIterated() {
+        AtomicInteger fetches = new AtomicInteger();
+        Grid<String> grid = new Grid<>();
+        grid.setDataProvider(DataProvider.fromCallbacks(query -> {
+            fetches.incrementAndGet();
+            return IntStream
+                    .range(query.getOffset(),
+                            Math.min(query.getOffset() + query.getLimit(),
+                                    1000))
+                    .mapToObj(i -> "Item " + i);
+        }, query -> 1000));
+        MultiSelectionModelImpl<String> model = (MultiSelectionModelImpl<String>) grid
+                .setSelectionMode(SelectionMode.MULTI);
+        model.setLazySelectAll(true);
+        AtomicInteger events = new AtomicInteger();
+        model.addMultiSelectionListener(event -> events.incrementAndGet());
+
+        model.selectAll();
+
+        assertTrue(model.isAllSelected());
+        assertTrue(model.isSelected("Item 1"));
+        assertTrue(model.isSelected("Item 999"));
+        assertEquals(1, events.get());
+
+        model.deselectItems("Item 1", "Item 2");
+        model.selectItems("Item 2");
+
+        assertFalse(model.isAllSelected());
+        assertFalse(model.isSelected("Item 1"));
+        assertTrue(model.isSelected("Item 2"));
+        assertTrue(model.isSelected("Item 3"));
+        assertEquals(3, events.get());
+        assertEquals(0, fetches.get());
+
+        Set<String> selected = model.getSelectedItems();
+        assertEquals(999, selected.size());
+        assertEquals("Item 0", selected.iterator().next());
+        assertFalse(selected.contains("Item 1"));
+
+        model.deselectAll();
+
+        assertFalse(model.isSelected("Item 3"));
+        assertTrue(model.getSelectedItems().isEmpty());
+        assertEquals(4, events.get());
+    }
+
+    @Test
+    public void lazySelectAll_deselectEventDoesNotFetch() {
+        AtomicInteger fetches = new AtomicInteger();
+        Grid<String> grid = new Grid<>();
+        grid.setDataProvider(DataProvider.fromCallbacks(query -> {
+            fetches.incrementAndGet();
+            return IntStream
+                    .range(query.getOffset(),
+                            Math.min(query.getOffset() + query.getLimit(),
+                                    1000))
+                    .mapToObj(i -> "Item " + i);
+        }, query -> 1000));
+        MultiSelectionModelImpl<String> model = (MultiSelectionModelImpl<String>) grid
+                .setSelectionMode(SelectionMode.MULTI);
+        model.setLazySelectAll(true);
+        model.selectAll();
+        List<Set<String>> added = new ArrayList<>();
+        List<Set<String>> removed = new ArrayList<>();
+        model.addMultiSelectionListener(event -> {
+            added.add(event.getAddedSelection());
+            removed.add(event.getRemovedSelection());
+        });
+
+        model.deselect("Item 1");
+        model.select("Item 1");
+
+        assertEquals(0, fetches.get());
+        assertEquals(Arrays.asList(Collections.emptySet(), asSet("Item 1")),
+                added);
+        assertEquals(Arrays.asList(asSet("Item 1"), Collections.emptySet()),
+                removed);
+
+        model.deselect("Item 2");
+        model.deselectAll();
+
+        assertEquals(Collections.emptySet(), added.get(3));
+        assertEquals(999, removed.get(3).size());
+        assertFalse(removed.get(3).contains("Item 2"));
+    }
+
     @Test
     public void updateSelection() {
         selectionModel.updateSelection(asSet(PERSON_A), Collections.emptySet());
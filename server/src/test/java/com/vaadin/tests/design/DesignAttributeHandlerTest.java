@@ -0,0 +1,127 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.tests.design;
+
+import org.jsoup.nodes.Attributes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.ui.declarative.DesignAttributeHandler;
+import com.vaadin.ui.declarative.DesignContext;
+
+public class DesignAttributeHandlerTest {
+
+    public static class Bean {
+        private int count;
+        private boolean enabled = true;
+        private String text;
+
+        public int getCount() {
+            return count;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public void setText(String text) {
+            this.text = text;
+        }
+    }
+
+    public static class GenericBean<T> {
+        private T value;
+
+        public T getValue() {
+            return value;
+        }
+
+        public void setValue(T value) {
+            this.value = value;
+        }
+    }
+
+    public static class IntegerBean extends GenericBean<Integer> {
+    }
+
+    @Test
+    public void assignValue_convertsToPropertyType() {
+        Bean bean = new Bean();
+
+        Assert.assertTrue(DesignAttributeHandler.assignValue(bean, "count",
+                "42"));
+        Assert.assertTrue(DesignAttributeHandler.assignValue(bean, "enabled",
+                "false"));
+        Assert.assertTrue(
+                DesignAttributeHandler.assignValue(bean, "text", "foo"));
+
+        Assert.assertEquals(42, bean.getCount());
+        Assert.assertFalse(bean.isEnabled());
+        Assert.assertEquals("foo", bean.getText());
+    }
+
+    @Test
+    public void assignValue_usesExactGenericType() {
+        IntegerBean bean = new IntegerBean();
+
+        Assert.assertTrue(
+                DesignAttributeHandler.assignValue(bean, "value", "7"));
+
+        Assert.assertEquals(Integer.valueOf(7), bean.getValue());
+    }
+
+    @Test
+    public void assignValue_invalidValue_returnsFalse() {
+        Bean bean = new Bean();
+
+        Assert.assertFalse(DesignAttributeHandler.assignValue(bean, "count",
+                "not a number"));
+        Assert.assertFalse(
+                DesignAttributeHandler.assignValue(bean, "unknown", "1"));
+        Assert.assertEquals(0, bean.getCount());
+    }
+
+    @Test
+    public void writeAttribute_onlyNonDefaultValues() {
+        Bean bean = new Bean();
+        bean.setCount(3);
+        Bean defaultBean = new Bean();
+        Attributes attributes = new Attributes();
+        DesignContext context = new DesignContext();
+
+        DesignAttributeHandler.writeAttribute(bean, "count", attributes,
+                defaultBean, context);
+        DesignAttributeHandler.writeAttribute(bean, "enabled", attributes,
+                defaultBean, context);
+        DesignAttributeHandler.writeAttribute(bean, "text", attributes,
+                defaultBean, context);
+
+        Assert.assertEquals(1, attributes.size());
+        Assert.assertEquals("3", attributes.get("count"));
+    }
+}
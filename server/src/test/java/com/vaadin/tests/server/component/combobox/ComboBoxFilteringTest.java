@@ -18,6 +18,7 @@ package com.vaadin.tests.server.component.combobox;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -207,6 +208,62 @@ public class ComboBoxFilteringTest {
                 comboBox.getDataProvider().getClass());
     }
 
+    @Test
+    public void supersededFilters_onlyLastFilterQueried() {
+        AtomicInteger sizeQueries = new AtomicInteger();
+        comboBox.setDataProvider((filter, offset, limit) -> Stream.empty(),
+                filter -> {
+                    sizeQueries.incrementAndGet();
+                    return filter.length();
+                });
+        DataCommunicator<Person> dataCommunicator = comboBox
+                .getDataCommunicator();
+        dataCommunicator.beforeClientResponse(true);
+        dataCommunicator.retrievePendingRpcCalls();
+        sizeQueries.set(0);
+
+        ComboBoxServerRpc rpc = ServerRpcManager.getRpcProxy(comboBox,
+                ComboBoxServerRpc.class);
+        rpc.setFilter("a");
+        rpc.setFilter("ab");
+        rpc.setFilter("abc");
+        dataCommunicator.beforeClientResponse(false);
+
+        Assert.assertEquals(1, sizeQueries.get());
+        ClientMethodInvocation resetInvocation = dataCommunicator
+                .retrievePendingRpcCalls().get(0);
+        Assert.assertEquals("reset", resetInvocation.getMethodName());
+        Assert.assertEquals(3, resetInvocation.getParameters()[0]);
+    }
+
+    @Test
+    public void filterCacheEnabled_repeatedFilterNotQueriedAgain() {
+        AtomicInteger sizeQueries = new AtomicInteger();
+        comboBox.setDataProvider((filter, offset, limit) -> Stream.empty(),
+                filter -> {
+                    sizeQueries.incrementAndGet();
+                    return filter.length();
+                });
+        comboBox.setFilterCacheTimeout(60000);
+
+        Assert.assertEquals(1, comboBoxSizeWithFilter("a"));
+        Assert.assertEquals(2, comboBoxSizeWithFilter("ab"));
+        Assert.assertEquals(1, comboBoxSizeWithFilter("a"));
+        Assert.assertEquals(2, sizeQueries.get());
+    }
+
+    @Test
+    public void filterCacheEnabled_listDataProvider_filteringUnchanged() {
+        comboBox.setFilterCacheTimeout(60000);
+        comboBox.setItemCaptionGenerator(Person::getFirstName);
+        comboBox.setItems(getPersonCollection());
+
+        checkFiltering("en", "ennen", 3, 2);
+        // Refined in memory from the cached result of "en"
+        Assert.assertEquals(2, comboBoxSizeWithFilter("enr"));
+        Assert.assertEquals(1, comboBoxSizeWithFilter("enri"));
+    }
+
     private void checkFiltering(String filterText, String nonMatchingFilterText,
             int totalMatches, int matchingResults) {
         Assert.assertEquals(
@@ -21,6 +21,7 @@ import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 import org.easymock.Capture;
@@ -619,6 +620,34 @@ public class GridTest {
         Assert.assertEquals(expectedProperty, sortOrders[0].getSorted());
     }
 
+    @Test
+    public void batchDataGeneration_threadSafeColumn_sameAsSingleRows()
+            throws Exception {
+        Grid<Integer> grid = new Grid<>();
+        Column<Integer, String> column = grid
+                .addColumn(i -> "Value " + i * 2)
+                .setStyleGenerator(i -> i % 2 == 0 ? "even" : null)
+                .setValueProviderThreadSafe(true);
+        Assert.assertTrue(column.isValueProviderThreadSafe());
+
+        List<Integer> items = IntStream.range(0, 100).boxed()
+                .collect(Collectors.toList());
+        List<JsonObject> batch = items.stream().map(i -> Json.createObject())
+                .collect(Collectors.toList());
+
+        new MockUI().setContent(grid);
+        @SuppressWarnings("unchecked")
+        DataGenerator<Integer> dataGenerator = (DataGenerator<Integer>) findDataGeneratorGetterMethod()
+                .invoke(column);
+        dataGenerator.generateData(items, batch);
+
+        for (Integer item : items) {
+            JsonObject single = Json.createObject();
+            dataGenerator.generateData(item, single);
+            Assert.assertEquals(single.toJson(), batch.get(item).toJson());
+        }
+    }
+
     private static <T> JsonObject getRowData(Grid<T> grid, T row) {
         JsonObject json = Json.createObject();
         if (grid.getColumns().isEmpty()) {
@@ -1199,4 +1199,186 @@ public class NavigatorTest {
         Assert.assertEquals(1, leaveCount.get());
         Assert.assertEquals("view1", navigator.getState());
     }
+
+    public static class OtherTestView extends TestView {
+    }
+
+    public static class CountingView extends TestView {
+        private static final AtomicInteger instances = new AtomicInteger();
+
+        public CountingView() {
+            instances.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void viewCache_classBasedViewReused() {
+        Navigator navigator = createNavigatorWithState("foo");
+        navigator.setViewCacheSize(2);
+        navigator.addView("view1", TestView.class);
+        navigator.addView("view2", OtherTestView.class);
+
+        navigator.navigateTo("view1/a");
+        View view1 = navigator.getCurrentView();
+        navigator.navigateTo("view2");
+        navigator.navigateTo("view1/b");
+
+        assertSame(view1, navigator.getCurrentView());
+        assertEquals("b", ((TestView) view1).getParams());
+    }
+
+    @Test
+    public void viewCache_disabledByDefault() {
+        Navigator navigator = createNavigatorWithState("foo");
+        assertEquals(0, navigator.getViewCacheSize());
+        navigator.addView("view1", TestView.class);
+        navigator.addView("view2", OtherTestView.class);
+
+        navigator.navigateTo("view1");
+        View view1 = navigator.getCurrentView();
+        navigator.navigateTo("view2");
+        navigator.navigateTo("view1");
+
+        Assert.assertNotSame(view1, navigator.getCurrentView());
+    }
+
+    @Test
+    public void viewCache_leastRecentlyUsedViewDiscarded() {
+        Navigator navigator = createNavigatorWithState("foo");
+        navigator.setViewCacheSize(1);
+        navigator.addView("view1", TestView.class);
+        navigator.addView("view2", OtherTestView.class);
+
+        navigator.navigateTo("view1");
+        View view1 = navigator.getCurrentView();
+        navigator.navigateTo("view2");
+        View view2 = navigator.getCurrentView();
+        navigator.navigateTo("view1");
+        Assert.assertNotSame(view1, navigator.getCurrentView());
+        navigator.navigateTo("view2");
+        Assert.assertNotSame(view2, navigator.getCurrentView());
+    }
+
+    @Test
+    public void viewCache_reregisteredViewNotReused() {
+        Navigator navigator = createNavigatorWithState("foo");
+        navigator.setViewCacheSize(2);
+        navigator.addView("view1", TestView.class);
+        navigator.addView("view2", OtherTestView.class);
+
+        navigator.navigateTo("view1");
+        View view1 = navigator.getCurrentView();
+        navigator.navigateTo("view2");
+        navigator.addView("view1", TestView.class);
+        navigator.navigateTo("view1");
+
+        Assert.assertNotSame(view1, navigator.getCurrentView());
+    }
+
+    @Test
+    public void viewCache_cachedViewNotifiedOfLeave() {
+        Navigator navigator = createNavigatorWithState("foo");
+        navigator.setViewCacheSize(2);
+        navigator.addView("view1", TestView.class);
+        AtomicInteger leaveCount = new AtomicInteger(0);
+        navigator.addView("view2", new View() {
+            @Override
+            public void enter(ViewChangeEvent event) {
+            }
+
+            @Override
+            public void beforeLeave(ViewBeforeLeaveEvent event) {
+                leaveCount.incrementAndGet();
+                event.navigate();
+            }
+        });
+
+        navigator.navigateTo("view2");
+        navigator.navigateTo("view1");
+        navigator.navigateTo("view2");
+        navigator.navigateTo("view1");
+
+        assertEquals(2, leaveCount.get());
+        Assert.assertTrue(navigator.getCurrentView() instanceof TestView);
+    }
+
+    @Test
+    public void preloadView_viewCreatedBeforeNavigation() {
+        UI ui = EasyMock.createMock(UI.class);
+        ui.setNavigator(EasyMock.anyObject(Navigator.class));
+        EasyMock.expect(ui.access(EasyMock.anyObject(Runnable.class)))
+                .andAnswer(() -> {
+                    ((Runnable) EasyMock.getCurrentArguments()[0]).run();
+                    return null;
+                }).times(2);
+        EasyMock.replay(ui);
+        Navigator navigator = new Navigator(ui,
+                new TestNavigationStateManager(),
+                EasyMock.createMock(ViewDisplay.class));
+        navigator.setViewCacheSize(2);
+        navigator.addView("view1", CountingView.class);
+        CountingView.instances.set(0);
+
+        navigator.preloadView("view1/params");
+        navigator.preloadView("unknown");
+        EasyMock.verify(ui);
+        assertEquals(1, CountingView.instances.get());
+        assertNull(navigator.getCurrentView());
+
+        navigator.navigateTo("view1/params");
+        assertEquals(1, CountingView.instances.get());
+        assertEquals("params",
+                ((TestView) navigator.getCurrentView()).getParams());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void preloadView_cacheDisabled_throws() {
+        Navigator navigator = createNavigatorWithState("foo");
+        navigator.addView("view1", TestView.class);
+        navigator.preloadView("view1");
+    }
+
+    @Test
+    public void getViewProvider_longestRegisteredNameSelected() {
+        Navigator navigator = createNavigatorWithState("foo");
+        View admin = new TestView();
+        View users = new TestView();
+        navigator.addView("admin", admin);
+        navigator.addView("admin/users", users);
+
+        navigator.navigateTo("admin/users/42");
+        assertSame(users, navigator.getCurrentView());
+        assertEquals("admin/users/42", navigator.getState());
+
+        navigator.navigateTo("admin/settings");
+        assertSame(admin, navigator.getCurrentView());
+        assertEquals("admin/settings", navigator.getState());
+    }
+
+    @Test
+    public void getViewProvider_earlierProviderWinsOnEqualLength() {
+        Navigator navigator = createNavigatorWithState("foo");
+        TestView custom = new TestView();
+        View named = new TestView();
+        navigator.addProvider(new ViewProvider() {
+            @Override
+            public String getViewName(String viewAndParameters) {
+                return viewAndParameters.startsWith("view") ? "view" : null;
+            }
+
+            @Override
+            public View getView(String viewName) {
+                return custom;
+            }
+        });
+        navigator.addView("view", named);
+        navigator.addView("other", named);
+
+        navigator.navigateTo("view/1");
+        assertSame(custom, navigator.getCurrentView());
+        navigator.removeView("other");
+        navigator.navigateTo("view/2");
+        assertSame(custom, navigator.getCurrentView());
+        assertEquals("2", custom.getParams());
+    }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.ui;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ComboBoxFilterCacheTest {
+
+    private static final List<String> ITEMS = Arrays.asList("apple",
+            "apricot", "banana", "blueberry");
+
+    private ComboBoxFilterCache<String> cache;
+    private long now = 1000;
+
+    @Before
+    public void setUp() {
+        cache = new ComboBoxFilterCache<>();
+        cache.setClock(() -> now);
+        cache.setTimeout(100);
+    }
+
+    @Test
+    public void disabled_nothingCached() {
+        cache.setTimeout(0);
+        cache.putSize("a", 2);
+        cache.putItems("a", 0, 10, ITEMS);
+
+        Assert.assertEquals(-1, cache.getSize("a"));
+        Assert.assertNull(cache.getItems("a", 0, 10));
+    }
+
+    @Test
+    public void sizeAndRange_cachedUntilTimeout() {
+        cache.putSize("b", 40);
+        cache.putItems("b", 10, 10, ITEMS);
+
+        Assert.assertEquals(40, cache.getSize("b"));
+        Assert.assertEquals(ITEMS, cache.getItems("b", 10, 10));
+        Assert.assertNull(cache.getItems("b", 0, 10));
+
+        now += 100;
+
+        Assert.assertEquals(-1, cache.getSize("b"));
+        Assert.assertNull(cache.getItems("b", 10, 10));
+    }
+
+    @Test
+    public void nullAndEmptyFilter_sameEntry() {
+        cache.putSize(null, 4);
+
+        Assert.assertEquals(4, cache.getSize(""));
+    }
+
+    @Test
+    public void shortFetchFromStart_completeResultCached() {
+        cache.putItems("", 0, 10, ITEMS);
+
+        Assert.assertEquals(4, cache.getSize(""));
+        Assert.assertEquals(ITEMS.subList(1, 3), cache.getItems("", 1, 2));
+        Assert.assertTrue(cache.getItems("", 10, 10).isEmpty());
+    }
+
+    @Test
+    public void extendedFilter_smallResultRefinedInMemory() {
+        cache.setRefinement(String::startsWith);
+        cache.putItems("a", 0, 10, ITEMS.subList(0, 2));
+
+        Assert.assertEquals(1, cache.getSize("apr"));
+        Assert.assertEquals(Arrays.asList("apricot"),
+                cache.getItems("apr", 0, 10));
+        Assert.assertEquals(-1, cache.getSize("b"));
+    }
+
+    @Test
+    public void extendedFilter_noRefinement_notCached() {
+        cache.putItems("a", 0, 10, ITEMS.subList(0, 2));
+
+        Assert.assertEquals(-1, cache.getSize("ap"));
+    }
+
+    @Test
+    public void extendedFilter_resultAboveThreshold_notRefined() {
+        cache.setRefinement(String::startsWith);
+        cache.setRefinementThreshold(1);
+        cache.putItems("a", 0, 10, ITEMS.subList(0, 2));
+
+        Assert.assertEquals(-1, cache.getSize("ap"));
+    }
+
+    @Test
+    public void refinedResult_expiresWithSource() {
+        cache.setRefinement(String::startsWith);
+        cache.putItems("a", 0, 10, ITEMS.subList(0, 2));
+        now += 50;
+        cache.getSize("ap");
+        now += 50;
+
+        Assert.assertEquals(-1, cache.getSize("ap"));
+    }
+
+    @Test
+    public void smallKnownSize_fetchAllRequested() {
+        cache.setRefinement(String::startsWith);
+        cache.putSize("b", 2);
+
+        Assert.assertTrue(cache.shouldFetchAll("b"));
+
+        cache.putItems("b", 0, 2, ITEMS.subList(2, 4));
+
+        Assert.assertFalse(cache.shouldFetchAll("b"));
+        Assert.assertEquals(ITEMS.subList(3, 4), cache.getItems("b", 1, 10));
+    }
+
+    @Test
+    public void leastRecentlyUsedFilterEvicted() {
+        for (int i = 0; i <= ComboBoxFilterCache.MAX_CACHED_FILTERS; i++) {
+            cache.putSize("filter" + i, i);
+        }
+
+        Assert.assertEquals(-1, cache.getSize("filter0"));
+        Assert.assertEquals(1, cache.getSize("filter1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeTimeout_throws() {
+        cache.setTimeout(-1);
+    }
+}
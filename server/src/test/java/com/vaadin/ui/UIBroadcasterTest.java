@@ -0,0 +1,193 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.server.VaadinService;
+import com.vaadin.shared.Registration;
+import com.vaadin.tests.util.AlwaysLockedVaadinSession;
+import com.vaadin.tests.util.MockUI;
+import com.vaadin.util.CurrentInstance;
+
+public class UIBroadcasterTest {
+
+    private static class CountingSession extends AlwaysLockedVaadinSession {
+        private int accessCount;
+
+        public CountingSession() {
+            this(null);
+        }
+
+        public CountingSession(VaadinService service) {
+            super(service);
+        }
+
+        @Override
+        public Future<Void> access(Runnable runnable) {
+            accessCount++;
+            runnable.run();
+            return null;
+        }
+    }
+
+    private static class DeferringSession extends AlwaysLockedVaadinSession {
+        private final List<Runnable> pending = new ArrayList<>();
+
+        public DeferringSession() {
+            super(null);
+        }
+
+        @Override
+        public Future<Void> access(Runnable runnable) {
+            pending.add(runnable);
+            return null;
+        }
+
+        public void runPending() {
+            pending.forEach(Runnable::run);
+            pending.clear();
+        }
+    }
+
+    private final UIBroadcaster<String> broadcaster = new UIBroadcaster<>();
+
+    @Before
+    @After
+    public void clearCurrentInstances() {
+        // The sessions run access tasks without setting the current session,
+        // so another locked current session would prevent the delivery
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void broadcast_allSubscribersReceive_sessionAccessedOnce() {
+        CountingSession session1 = new CountingSession();
+        CountingSession session2 = new CountingSession();
+        List<String> received = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            broadcaster.subscribe(new MockUI(session1), received::add);
+        }
+        broadcaster.subscribe(new MockUI(session2), received::add);
+
+        broadcaster.broadcast("tick");
+
+        Assert.assertEquals(4, received.size());
+        Assert.assertTrue(received.stream().allMatch("tick"::equals));
+        Assert.assertEquals(1, session1.accessCount);
+        Assert.assertEquals(1, session2.accessCount);
+    }
+
+    @Test
+    public void listenerRunsWithCurrentUI() {
+        UI ui = new MockUI(new CountingSession());
+        List<UI> currentUIs = new ArrayList<>();
+        broadcaster.subscribe(ui, message -> currentUIs.add(UI.getCurrent()));
+        UI.setCurrent(null);
+
+        broadcaster.broadcast("tick");
+
+        Assert.assertEquals(1, currentUIs.size());
+        Assert.assertSame(ui, currentUIs.get(0));
+    }
+
+    @Test
+    public void registrationRemoved_noLongerReceives() {
+        CountingSession session = new CountingSession();
+        List<String> received = new ArrayList<>();
+        Registration registration = broadcaster
+                .subscribe(new MockUI(session), received::add);
+        Assert.assertEquals(1, broadcaster.getSubscriberCount());
+
+        registration.remove();
+        broadcaster.broadcast("tick");
+
+        Assert.assertEquals(0, broadcaster.getSubscriberCount());
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(0, session.accessCount);
+    }
+
+    @Test
+    public void detachedUI_unsubscribedOnBroadcast() {
+        CountingSession session = new CountingSession();
+        List<String> received = new ArrayList<>();
+        UI detached = new MockUI(session);
+        broadcaster.subscribe(detached, received::add);
+        broadcaster.subscribe(new MockUI(session), received::add);
+        detached.setSession(null);
+
+        broadcaster.broadcast("tick");
+
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(1, broadcaster.getSubscriberCount());
+    }
+
+    @Test(expected = UIDetachedException.class)
+    public void subscribeDetachedUI_throws() {
+        broadcaster.subscribe(new UI() {
+            @Override
+            protected void init(VaadinRequest request) {
+            }
+        }, message -> {
+        });
+    }
+
+    @Test
+    public void broadcast_subscribersLookedUpWhenDelivering() {
+        DeferringSession session = new DeferringSession();
+        List<String> received = new ArrayList<>();
+        Registration registration = broadcaster
+                .subscribe(new MockUI(session), message -> {
+                    throw new AssertionError("Unsubscribed UI received");
+                });
+
+        broadcaster.broadcast("tick");
+        registration.remove();
+        broadcaster.subscribe(new MockUI(session), received::add);
+        session.runPending();
+
+        Assert.assertEquals(1, received.size());
+    }
+
+    @Test
+    public void close_sessionDestroyListenerRemoved() {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Registration listenerRegistration = Mockito.mock(Registration.class);
+        Mockito.when(service.addSessionDestroyListener(Mockito.any()))
+                .thenReturn(listenerRegistration);
+        CountingSession session = new CountingSession(service);
+        broadcaster.subscribe(new MockUI(session), message -> {
+        });
+        broadcaster.subscribe(new MockUI(session), message -> {
+        });
+
+        broadcaster.close();
+
+        Mockito.verify(service, Mockito.times(1))
+                .addSessionDestroyListener(Mockito.any());
+        Mockito.verify(listenerRegistration).remove();
+        Assert.assertEquals(0, broadcaster.getSubscriberCount());
+    }
+}
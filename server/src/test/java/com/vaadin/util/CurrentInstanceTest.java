@@ -187,4 +187,55 @@ public class CurrentInstanceTest {
         Future<Void> future = service.submit(runnable);
         future.get();
     }
+
+    @Test
+    public void wrappedRunnableRunsWithCapturedInstances()
+            throws InterruptedException, ExecutionException {
+        CurrentInstance.set(CurrentInstanceTest.class, this);
+        Runnable task = CurrentInstance.wrap(() -> Assert.assertSame(this,
+                CurrentInstance.get(CurrentInstanceTest.class)));
+        CurrentInstance.clearAll();
+
+        ExecutorService service = Executors.newSingleThreadExecutor();
+        try {
+            service.submit(task).get();
+            service.submit(() -> Assert.assertNull(
+                    CurrentInstance.get(CurrentInstanceTest.class))).get();
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    public void wrappedCallableRestoresPreviousInstances() throws Exception {
+        UI ui = new UIStoredInCurrentInstance();
+        UI.setCurrent(ui);
+        Callable<UI> task = CurrentInstance.wrap(UI::getCurrent);
+
+        UI otherUI = new UIStoredInCurrentInstance();
+        UI.setCurrent(otherUI);
+        CurrentInstance.set(CurrentInstanceTest.class, this);
+
+        Assert.assertSame(ui, task.call());
+        Assert.assertSame(otherUI, UI.getCurrent());
+        Assert.assertSame(this,
+                CurrentInstance.get(CurrentInstanceTest.class));
+    }
+
+    @Test
+    public void restoreInstances_frameworkAndCustomTypes() {
+        UI ui = new UIStoredInCurrentInstance();
+        UI.setCurrent(ui);
+        CurrentInstance.set(CurrentInstanceTest.class, this);
+        Map<Class<?>, CurrentInstance> instances = CurrentInstance
+                .getInstances();
+        Assert.assertEquals(2, instances.size());
+
+        CurrentInstance.clearAll();
+        CurrentInstance.restoreInstances(instances);
+
+        Assert.assertSame(ui, UI.getCurrent());
+        Assert.assertSame(this,
+                CurrentInstance.get(CurrentInstanceTest.class));
+    }
 }
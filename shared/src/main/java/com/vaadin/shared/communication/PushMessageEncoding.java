@@ -0,0 +1,200 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.shared.communication;
+
+import java.io.Serializable;
+
+/**
+ * Dictionary based compression of push messages. Substrings that are common
+ * in UIDL messages, such as the message keys, frequently used shared state
+ * properties and JSON punctuation, are replaced by two character codes.
+ * <p>
+ * Each code is an escape character followed by the index of the substring in
+ * the dictionary. The escape character is a control character which never
+ * occurs unescaped in JSON, so encoded messages can be decoded unambiguously.
+ * Messages which already contain the escape character are not encoded.
+ *
+ * @author Vaadin Ltd
+ * @since 8.2
+ */
+public class PushMessageEncoding implements Serializable {
+
+    /**
+     * The identifier of this encoding, used as the value of
+     * {@link #ENCODING_PARAMETER} when the client requests encoded messages.
+     */
+    public static final String ENCODING_ID = "dictionary-1";
+
+    /**
+     * The name of the push request parameter with which the client requests
+     * an encoding for the messages it receives.
+     */
+    public static final String ENCODING_PARAMETER = "v-pushEncoding";
+
+    /**
+     * The character at the start of an encoded message.
+     */
+    private static final char ENCODED_MARKER = '\u0002';
+
+    private static final char ESCAPE = '\u0001';
+
+    private static final char FIRST_CODE = '!';
+
+    private static final String[] DICTIONARY = {
+            // Message keys
+            "for(;;);[{", "\"syncId\":", "\"clientId\":", "\"changes\":",
+            "\"state\":", "\"types\":", "\"hierarchy\":", "\"rpc\":",
+            "\"meta\":", "\"resources\":", "\"timings\":",
+            "\"typeMappings\":", "\"typeInheritanceMap\":",
+            "\"Vaadin-Security-Key\":", "\"Vaadin-Push-ID\":",
+            "\"scriptDependencies\":", "\"styleDependencies\":",
+            "\"htmlImportDependencies\":", "\"async\":true",
+            "\"resynchronize\":",
+            // Shared state properties
+            "\"caption\":", "\"description\":", "\"width\":", "\"height\":",
+            "\"styles\":", "\"id\":", "\"primaryStyleName\":",
+            "\"registeredEventListeners\":", "\"enabled\":", "\"readOnly\":",
+            "\"errorMessage\":", "\"captionAsHtml\":", "\"tabIndex\":",
+            "\"childData\":", "\"alignmentBitmask\":", "\"expandRatio\":",
+            "\"marginsBitmask\":", "\"spacing\":", "\"value\":", "\"text\":",
+            "\"contentMode\":", "\"icon\":", "\"uRL\":", "\"immediate\":",
+            "\"required\":", "\"placeholder\":", "\"columns\":",
+            "\"rowCount\":", "\"selected\":", "\"data\":",
+            // Common values and punctuation
+            "\"com.vaadin.shared.", "com.vaadin.shared.ui.", "com.vaadin.ui.",
+            "\"100.0%\"", "true", "false", "null", "\":{\"", "\":\"",
+            "\",\"", "\"},\"", "\":[\"", "\"],\"", "},{", "]}]", "}}" };
+
+    /**
+     * Dictionary indices grouped by the first character of the substring,
+     * longest substrings first.
+     */
+    private static final int[][] CANDIDATES = new int[128][];
+
+    static {
+        for (int i = 0; i < DICTIONARY.length; i++) {
+            char first = DICTIONARY[i].charAt(0);
+            int[] previous = CANDIDATES[first];
+            int[] candidates;
+            if (previous == null) {
+                candidates = new int[] { i };
+            } else {
+                candidates = new int[previous.length + 1];
+                int length = DICTIONARY[i].length();
+                int j = 0;
+                while (j < previous.length
+                        && DICTIONARY[previous[j]].length() >= length) {
+                    candidates[j] = previous[j];
+                    j++;
+                }
+                candidates[j] = i;
+                while (j < previous.length) {
+                    candidates[j + 1] = previous[j];
+                    j++;
+                }
+            }
+            CANDIDATES[first] = candidates;
+        }
+    }
+
+    private PushMessageEncoding() {
+        // Only static helpers
+    }
+
+    /**
+     * Encodes the given message.
+     *
+     * @param message
+     *            the message to encode, not <code>null</code>
+     * @return the encoded message, or the original message if it cannot be
+     *         encoded
+     */
+    public static String encode(String message) {
+        if (message.indexOf(ESCAPE) != -1 || isEncoded(message)) {
+            return message;
+        }
+        StringBuilder encoded = new StringBuilder(message.length());
+        encoded.append(ENCODED_MARKER);
+        int length = message.length();
+        int i = 0;
+        while (i < length) {
+            char c = message.charAt(i);
+            int match = -1;
+            if (c < CANDIDATES.length && CANDIDATES[c] != null) {
+                for (int candidate : CANDIDATES[c]) {
+                    if (message.startsWith(DICTIONARY[candidate], i)) {
+                        match = candidate;
+                        break;
+                    }
+                }
+            }
+            if (match == -1) {
+                encoded.append(c);
+                i++;
+            } else {
+                encoded.append(ESCAPE).append((char) (FIRST_CODE + match));
+                i += DICTIONARY[match].length();
+            }
+        }
+        return encoded.toString();
+    }
+
+    /**
+     * Checks whether the given message has been encoded.
+     *
+     * @param message
+     *            the message to check, not <code>null</code>
+     * @return <code>true</code> if the message is encoded, <code>false</code>
+     *         otherwise
+     */
+    public static boolean isEncoded(String message) {
+        return !message.isEmpty() && message.charAt(0) == ENCODED_MARKER;
+    }
+
+    /**
+     * Decodes the given message. Messages which are not encoded are returned
+     * as such.
+     *
+     * @param message
+     *            the message to decode, not <code>null</code>
+     * @return the decoded message
+     * @throws IllegalArgumentException
+     *             if the message contains an invalid code
+     */
+    public static String decode(String message) {
+        if (!isEncoded(message)) {
+            return message;
+        }
+        StringBuilder decoded = new StringBuilder(message.length() * 2);
+        int length = message.length();
+        for (int i = 1; i < length; i++) {
+            char c = message.charAt(i);
+            if (c != ESCAPE) {
+                decoded.append(c);
+                continue;
+            }
+            int index = i + 1 < length ? message.charAt(i + 1) - FIRST_CODE
+                    : -1;
+            if (index < 0 || index >= DICTIONARY.length) {
+                throw new IllegalArgumentException(
+                        "Invalid code at index " + i);
+            }
+            decoded.append(DICTIONARY[index]);
+            i++;
+        }
+        return decoded.toString();
+    }
+}
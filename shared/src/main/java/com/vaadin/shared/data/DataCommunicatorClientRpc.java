@@ -78,4 +78,15 @@ public interface DataCommunicatorClientRpc extends ClientRpc {
      * @since 8.1
      */
     void removeRows(int firstRowIndex, int count);
+
+    /**
+     * Corrects the size of the client-side DataSource without discarding any
+     * data. Used when the size previously sent was not exact. Rows are added
+     * or removed at the end of the data.
+     *
+     * @param size
+     *            the corrected size of the data source
+     * @since 8.2
+     */
+    void updateSize(int size);
 }
@@ -131,6 +131,12 @@ public class UIState extends AbstractSingleComponentContainerState {
         public boolean alwaysUseXhrForServerRequests = false;
         public PushMode mode = PushMode.DISABLED;
         public String pushUrl = null;
+        /**
+         * Whether the client should request compressed push messages.
+         *
+         * @since 8.2
+         */
+        public boolean messageCompression = false;
         public Map<String, String> parameters = new HashMap<>();
         {
             parameters.put(TRANSPORT_PARAM,
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.shared.communication;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PushMessageEncodingTest {
+
+    private static final String MESSAGE = "for(;;);[{\"syncId\": 3, "
+            + "\"clientId\": 2, \"changes\" : [], \"state\":{\"12\":{"
+            + "\"caption\":\"Price\",\"width\":\"100.0%\",\"enabled\":true,"
+            + "\"styles\":[\"ticker\",\"up\"]},\"13\":{\"text\":\"true null\","
+            + "\"description\":\"com.vaadin.ui.Label\"}},\"types\":{"
+            + "\"12\":\"0\",\"13\":\"1\"},\"hierarchy\":{},\"rpc\" : [],"
+            + "\"meta\" : {\"async\":true}, \"resources\" : {}, "
+            + "\"timings\":[108, 3]}]";
+
+    @Test
+    public void encodeDecode_roundTrip() {
+        String encoded = PushMessageEncoding.encode(MESSAGE);
+
+        Assert.assertTrue(PushMessageEncoding.isEncoded(encoded));
+        Assert.assertTrue(encoded.length() < MESSAGE.length() * 3 / 4);
+        Assert.assertEquals(MESSAGE, PushMessageEncoding.decode(encoded));
+    }
+
+    @Test
+    public void decode_notEncoded_returnedAsSuch() {
+        Assert.assertFalse(PushMessageEncoding.isEncoded(MESSAGE));
+        Assert.assertSame(MESSAGE, PushMessageEncoding.decode(MESSAGE));
+    }
+
+    @Test
+    public void encode_containsEscapeCharacter_notEncoded() {
+        String message = "for(;;);[{\"text\":\"\u0001\"}]";
+
+        Assert.assertSame(message, PushMessageEncoding.encode(message));
+    }
+
+    @Test
+    public void encodeDecode_emptyMessage() {
+        String encoded = PushMessageEncoding.encode("");
+
+        Assert.assertEquals("", PushMessageEncoding.decode(encoded));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void decode_truncatedCode_throws() {
+        String encoded = PushMessageEncoding.encode(MESSAGE);
+
+        PushMessageEncoding.decode(encoded.substring(0, 2));
+    }
+}
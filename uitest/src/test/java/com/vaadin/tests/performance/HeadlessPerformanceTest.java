@@ -0,0 +1,316 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.tests.performance;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.function.ToLongFunction;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import com.vaadin.data.TreeData;
+import com.vaadin.data.provider.DataProvider;
+import com.vaadin.data.provider.ListDataProvider;
+import com.vaadin.data.provider.TreeDataProvider;
+import com.vaadin.server.ServiceException;
+import com.vaadin.shared.MouseEventDetails;
+import com.vaadin.shared.data.DataRequestRpc;
+import com.vaadin.shared.data.selection.SelectionServerRpc;
+import com.vaadin.shared.data.sort.SortDirection;
+import com.vaadin.shared.ui.button.ButtonServerRpc;
+import com.vaadin.shared.ui.grid.GridServerRpc;
+import com.vaadin.testcategory.MeasurementTest;
+import com.vaadin.tests.data.bean.Person;
+import com.vaadin.tests.performance.HeadlessUIRunner.Measurement;
+import com.vaadin.ui.Button;
+import com.vaadin.ui.Grid;
+import com.vaadin.ui.Grid.Column;
+import com.vaadin.ui.Label;
+import com.vaadin.ui.UI;
+
+/**
+ * Memory and throughput regression tests for the performance test UIs, run
+ * without a servlet container or a browser using {@link HeadlessUIRunner}.
+ * <p>
+ * The results are reported as TeamCity build statistics with the same keys as
+ * in {@link MemoryIT}. A result fails the test if it exceeds the threshold
+ * with the same key in <code>headless-thresholds.properties</code>. Results
+ * without a threshold are only reported.
+ */
+@Category(MeasurementTest.class)
+public class HeadlessPerformanceTest {
+
+    private static final int MAX_ITERATIONS = 20;
+
+    private static final int OPERATIONS = 20;
+
+    private static final int PAGE_SIZE = 40;
+
+    private static final Properties THRESHOLDS = loadThresholds();
+
+    private HeadlessUIRunner<?> runner;
+
+    @After
+    public void closeRunner() {
+        if (runner != null) {
+            runner.close();
+            runner = null;
+        }
+    }
+
+    @Test
+    public void gridMemory() throws ServiceException {
+        measureMemory(GridMemory.class, "items=1", "grid-v8-one-item-");
+        measureMemory(GridMemory.class, "items=100000",
+                "grid-v8-100thousand-items-");
+    }
+
+    @Test
+    public void compatibilityGridMemory() throws ServiceException {
+        measureMemory(CompatibilityGridMemory.class, "items=1",
+                "grid-v7-one-item-");
+        measureMemory(CompatibilityGridMemory.class, "items=100000",
+                "grid-v7-100thousand-items-");
+    }
+
+    @Test
+    public void treeGridMemory() throws ServiceException {
+        measureMemory(TreeGridMemory.class, "items=1", "tree-grid-one-item-");
+        measureMemory(TreeGridMemory.class, "items=100&initiallyExpanded",
+                "tree-grid-100-items-initially-expanded-");
+        measureMemory(TreeGridMemory.class, "items=100000",
+                "tree-grid-100thousand-items-");
+    }
+
+    @Test
+    public void gridOperations() throws ServiceException {
+        measureOperations(GridMemory.class, "items=100000",
+                "grid-v8-100thousand-items-");
+    }
+
+    @Test
+    public void treeGridOperations() throws ServiceException {
+        measureOperations(TreeGridMemory.class, "items=100&initiallyExpanded",
+                "tree-grid-100-items-initially-expanded-");
+    }
+
+    @Test
+    public void threadMemoryLeaks() throws ServiceException {
+        HeadlessUIRunner<ThreadMemoryLeaksTest> leakRunner = new HeadlessUIRunner<>(
+                ThreadMemoryLeaksTest.class, "");
+        runner = leakRunner;
+        leakRunner.open();
+
+        Button button = leakRunner.find(Button.class,
+                b -> "Add worker".equals(b.getCaption()));
+        for (int i = 0; i < 5; i++) {
+            leakRunner.call(button, ButtonServerRpc.class,
+                    rpc -> rpc.click(new MouseEventDetails()));
+        }
+        WeakReference<UI> uiReference = new WeakReference<>(
+                leakRunner.getUI());
+        button = null;
+        closeRunner();
+        leakRunner = null;
+
+        for (int i = 0; i < 10 && uiReference.get() != null; i++) {
+            System.gc();
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        Assert.assertNull(
+                "Closed UI is still reachable from the worker threads",
+                uiReference.get());
+    }
+
+    private void measureMemory(
+            Class<? extends AbstractBeansMemoryTest<?>> uiClass, String query,
+            String statPrefix) throws ServiceException {
+        long lastResult = 0;
+        int stableNumber = 0;
+        List<Long> initTimes = new ArrayList<>();
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            runner = new HeadlessUIRunner<>(uiClass, query);
+            initTimes.add(runner.open().getNanos() / 1000);
+            long currentResult = Long.parseLong(runner
+                    .find(Label.class, label -> "memory".equals(label.getId()))
+                    .getValue());
+            closeRunner();
+
+            if (approx(lastResult, currentResult, 0.001)) {
+                stableNumber++;
+            }
+            lastResult = currentResult;
+            if (stableNumber == 5) {
+                report(statPrefix + "size", currentResult);
+                report(statPrefix + "init-time", median(initTimes));
+                return;
+            }
+        }
+        Assert.fail("Memory size of " + uiClass.getSimpleName() + "?" + query
+                + " does not stabilize");
+    }
+
+    @SuppressWarnings("unchecked")
+    private void measureOperations(
+            Class<? extends AbstractBeansMemoryTest<? extends Grid<Person>>> uiClass,
+            String query, String statPrefix) throws ServiceException {
+        HeadlessUIRunner<?> gridRunner = new HeadlessUIRunner<>(uiClass,
+                query);
+        runner = gridRunner;
+        gridRunner.open();
+        Grid<Person> grid = gridRunner.find(Grid.class, g -> true);
+        int size = grid.getDataCommunicator().getDataProviderSize();
+        List<Person> items = getItems(grid.getDataProvider(), OPERATIONS);
+
+        List<Measurement> scrolls = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            int first = Math.max(0,
+                    Math.min(i * PAGE_SIZE, size - PAGE_SIZE));
+            int firstCached = Math.max(0, first - PAGE_SIZE);
+            int cacheSize = first + PAGE_SIZE - firstCached;
+            scrolls.add(gridRunner.call(grid.getDataCommunicator(),
+                    DataRequestRpc.class, rpc -> rpc.requestRows(first,
+                            PAGE_SIZE, firstCached, cacheSize)));
+        }
+        report(statPrefix + "scroll-", scrolls);
+
+        List<Measurement> sorts = new ArrayList<>();
+        List<Column<Person, ?>> columns = grid.getColumns();
+        for (int i = 0; i < OPERATIONS; i++) {
+            String[] columnIds = { getInternalId(grid,
+                    columns.get(i / 2 % columns.size())) };
+            SortDirection[] directions = { i % 2 == 0 ? SortDirection.ASCENDING
+                    : SortDirection.DESCENDING };
+            sorts.add(gridRunner.call(grid, GridServerRpc.class,
+                    rpc -> rpc.sort(columnIds, directions, true)));
+        }
+        report(statPrefix + "sort-", sorts);
+
+        List<Measurement> selects = new ArrayList<>();
+        for (Person item : items) {
+            String key = grid.getDataCommunicator().getKeyMapper().key(item);
+            selects.add(gridRunner.call(grid.getSelectionModel(),
+                    SelectionServerRpc.class, rpc -> rpc.select(key)));
+        }
+        report(statPrefix + "select-", selects);
+    }
+
+    private static List<Person> getItems(DataProvider<Person, ?> dataProvider,
+            int count) {
+        List<Person> items = new ArrayList<>();
+        if (dataProvider instanceof TreeDataProvider) {
+            TreeData<Person> treeData = ((TreeDataProvider<Person>) dataProvider)
+                    .getTreeData();
+            items.addAll(treeData.getRootItems());
+            for (int i = 0; i < items.size() && items.size() < count; i++) {
+                items.addAll(treeData.getChildren(items.get(i)));
+            }
+        } else {
+            for (Person item : ((ListDataProvider<Person>) dataProvider)
+                    .getItems()) {
+                if (items.size() == count) {
+                    break;
+                }
+                items.add(item);
+            }
+        }
+        return items.size() > count ? items.subList(0, count) : items;
+    }
+
+    private static String getInternalId(Grid<Person> grid,
+            Column<Person, ?> column) {
+        try {
+            Method method = Grid.class
+                    .getDeclaredMethod("getInternalIdForColumn", Column.class);
+            method.setAccessible(true);
+            return (String) method.invoke(grid, column);
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void report(String statPrefix, List<Measurement> measurements) {
+        report(statPrefix + "time",
+                median(measurements, m -> m.getNanos() / 1000));
+        report(statPrefix + "allocation",
+                median(measurements, Measurement::getAllocatedBytes));
+        report(statPrefix + "response-length",
+                median(measurements, Measurement::getResponseLength));
+    }
+
+    private void report(String key, long value) {
+        // ##teamcity[buildStatisticValue key=&#39;&lt;valueTypeKey&gt;&#39;
+        // value=&#39;&lt;value&gt;&#39;]
+        System.out.println("##teamcity[buildStatisticValue key='" + key
+                + "' value='" + value + "']");
+
+        String threshold = THRESHOLDS.getProperty(key);
+        if (threshold != null && value >= 0) {
+            Assert.assertTrue(key + " is " + value
+                    + " which exceeds the threshold " + threshold,
+                    value <= Long.parseLong(threshold.trim()));
+        }
+    }
+
+    private static long median(List<Measurement> measurements,
+            ToLongFunction<Measurement> value) {
+        List<Long> values = new ArrayList<>();
+        measurements.forEach(m -> values.add(value.applyAsLong(m)));
+        return median(values);
+    }
+
+    private static long median(List<Long> values) {
+        values.sort(Long::compareTo);
+        int middle = values.size() / 2;
+        if (values.size() % 2 == 1) {
+            return values.get(middle);
+        } else {
+            return (values.get(middle - 1) + values.get(middle)) / 2;
+        }
+    }
+
+    private static boolean approx(double num1, double num2, double epsilon) {
+        double delta = Math.abs(num1 - num2);
+        double deltaLimit = num2 * epsilon;
+        return delta < deltaLimit;
+    }
+
+    private static Properties loadThresholds() {
+        Properties thresholds = new Properties();
+        try (InputStream stream = HeadlessPerformanceTest.class
+                .getResourceAsStream("headless-thresholds.properties")) {
+            if (stream != null) {
+                thresholds.load(stream);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return thresholds;
+    }
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright 2000-2016 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.tests.performance;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import com.vaadin.server.ClientConnector;
+import com.vaadin.server.DefaultDeploymentConfiguration;
+import com.vaadin.server.LegacyCommunicationManager;
+import com.vaadin.server.RequestHandler;
+import com.vaadin.server.ServerRpcManager;
+import com.vaadin.server.ServiceException;
+import com.vaadin.server.VaadinRequest;
+import com.vaadin.server.VaadinServlet;
+import com.vaadin.server.VaadinServletService;
+import com.vaadin.server.VaadinSession;
+import com.vaadin.server.communication.UidlWriter;
+import com.vaadin.shared.communication.ServerRpc;
+import com.vaadin.ui.Component;
+import com.vaadin.ui.HasComponents;
+import com.vaadin.ui.UI;
+import com.vaadin.util.CurrentInstance;
+
+/**
+ * Runs a UI in the test JVM without a servlet container or a browser. The UI
+ * is initialized with a mock request, client to server RPC calls are invoked
+ * directly on the connectors and the responses are written with the same
+ * {@link UidlWriter} that is used for real UIDL requests. Each request is
+ * measured for time, allocated memory and response size.
+ * <p>
+ * The session of the UI stays locked by the creating thread until the runner
+ * is closed.
+ *
+ * @author Vaadin Ltd
+ *
+ * @param <U>
+ *            the UI type
+ */
+public class HeadlessUIRunner<U extends UI> {
+
+    /**
+     * The cost of one simulated request.
+     */
+    public static class Measurement {
+        private final long nanos;
+        private final long allocatedBytes;
+        private final int responseLength;
+
+        private Measurement(long nanos, long allocatedBytes,
+                int responseLength) {
+            this.nanos = nanos;
+            this.allocatedBytes = allocatedBytes;
+            this.responseLength = responseLength;
+        }
+
+        /**
+         * Gets the time spent handling the request and writing the response.
+         *
+         * @return the time in nanoseconds
+         */
+        public long getNanos() {
+            return nanos;
+        }
+
+        /**
+         * Gets the memory allocated by the request thread while handling the
+         * request and writing the response.
+         *
+         * @return the allocated bytes, or <code>-1</code> if the JVM does not
+         *         support measuring thread allocation
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        /**
+         * Gets the length of the UIDL response.
+         *
+         * @return the number of characters in the response
+         */
+        public int getResponseLength() {
+            return responseLength;
+        }
+    }
+
+    private static class HeadlessSession extends VaadinSession {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private HeadlessSession(VaadinServletService service) {
+            super(service);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+    }
+
+    private final Class<U> uiClass;
+    private final Map<String, String> parameters = new LinkedHashMap<>();
+    private final VaadinServletService service;
+    private final VaadinSession session;
+    private U ui;
+
+    /**
+     * Creates a runner for the given UI class. The UI is created by
+     * {@link #open()}.
+     *
+     * @param uiClass
+     *            the UI class, with a public no-argument constructor
+     * @param query
+     *            the query string of the URL that opens the UI, without the
+     *            leading <code>?</code>, e.g. <code>items=100</code>
+     * @throws ServiceException
+     *             if the service cannot be initialized
+     */
+    public HeadlessUIRunner(Class<U> uiClass, String query)
+            throws ServiceException {
+        this.uiClass = uiClass;
+        for (String parameter : query.split("&")) {
+            if (!parameter.isEmpty()) {
+                int index = parameter.indexOf('=');
+                if (index == -1) {
+                    parameters.put(parameter, "");
+                } else {
+                    parameters.put(parameter.substring(0, index),
+                            parameter.substring(index + 1));
+                }
+            }
+        }
+        parameters.put("v-loc", "http://localhost/" + uiClass.getSimpleName()
+                + (query.isEmpty() ? "" : "?" + query));
+
+        Properties initParameters = new Properties();
+        initParameters.setProperty("productionMode", "true");
+        DefaultDeploymentConfiguration configuration = new DefaultDeploymentConfiguration(
+                uiClass, initParameters);
+        service = new VaadinServletService(new VaadinServlet(),
+                configuration) {
+            @Override
+            protected List<RequestHandler> createRequestHandlers()
+                    throws ServiceException {
+                // Requests are simulated, no handlers needed
+                return new ArrayList<>();
+            }
+        };
+        service.init();
+
+        session = new HeadlessSession(service);
+        session.setCommunicationManager(
+                new LegacyCommunicationManager(session));
+        session.setConfiguration(configuration);
+        session.lock();
+    }
+
+    /**
+     * Creates and initializes the UI and writes the initial response.
+     *
+     * @return the measurement of the initialization
+     */
+    public Measurement open() {
+        if (ui != null) {
+            throw new IllegalStateException("The UI is already open");
+        }
+        return measure(() -> {
+            try {
+                ui = uiClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                throw new RuntimeException(e);
+            }
+            ui.setSession(session);
+            CurrentInstance.setCurrent(ui);
+            ui.doInit(createRequest(), session.getNextUIid(), null);
+            session.addUI(ui);
+        });
+    }
+
+    /**
+     * Gets the UI.
+     *
+     * @return the UI, or <code>null</code> if the UI is not open
+     */
+    public U getUI() {
+        return ui;
+    }
+
+    /**
+     * Runs the given action as if it was a request from the client and writes
+     * the response.
+     *
+     * @param action
+     *            the action to run while the session is locked
+     * @return the measurement of the request
+     */
+    public Measurement run(Runnable action) {
+        if (ui == null) {
+            throw new IllegalStateException("The UI is not open");
+        }
+        return measure(action);
+    }
+
+    /**
+     * Invokes a client to server RPC method of the given connector and writes
+     * the response.
+     *
+     * @param connector
+     *            the connector that receives the call
+     * @param rpcInterface
+     *            the RPC interface registered by the connector
+     * @param call
+     *            the call to make on the RPC implementation
+     * @return the measurement of the request
+     */
+    public <T extends ServerRpc> Measurement call(ClientConnector connector,
+            Class<T> rpcInterface, Consumer<T> call) {
+        T rpc = ServerRpcManager.getRpcProxy(connector, rpcInterface);
+        if (rpc == null) {
+            throw new IllegalArgumentException(connector.getClass().getName()
+                    + " has not registered " + rpcInterface.getName());
+        }
+        return run(() -> call.accept(rpc));
+    }
+
+    /**
+     * Finds the first component in the UI that matches the given type and
+     * condition.
+     *
+     * @param type
+     *            the component type
+     * @param condition
+     *            the condition to test
+     * @return the component
+     * @throws AssertionError
+     *             if no component matches
+     */
+    public <C extends Component> C find(Class<C> type,
+            Predicate<? super C> condition) {
+        C component = find(ui, type, condition);
+        if (component == null) {
+            throw new AssertionError("No matching " + type.getSimpleName()
+                    + " in " + uiClass.getSimpleName());
+        }
+        return component;
+    }
+
+    /**
+     * Closes the UI, removes it from the session and releases the session
+     * lock.
+     */
+    public void close() {
+        try {
+            if (ui != null) {
+                ui.close();
+                session.removeUI(ui);
+                ui = null;
+            }
+        } finally {
+            session.unlock();
+            CurrentInstance.clearAll();
+        }
+    }
+
+    private Measurement measure(Runnable action) {
+        com.sun.management.ThreadMXBean threadBean = getThreadBean();
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadBean == null ? -1
+                : threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+
+        action.run();
+        StringWriter response = new StringWriter();
+        try {
+            new UidlWriter().write(ui, response, false);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        long nanos = System.nanoTime() - start;
+        long allocated = threadBean == null ? -1
+                : threadBean.getThreadAllocatedBytes(threadId)
+                        - allocatedBefore;
+        return new Measurement(nanos, allocated,
+                response.getBuffer().length());
+    }
+
+    private VaadinRequest createRequest() {
+        Map<String, String[]> parameterMap = new HashMap<>();
+        parameters.forEach((name, value) -> parameterMap.put(name,
+                new String[] { value }));
+        return (VaadinRequest) Proxy.newProxyInstance(
+                VaadinRequest.class.getClassLoader(),
+                new Class<?>[] { VaadinRequest.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getParameter":
+                        return parameters.get(args[0]);
+                    case "getParameterMap":
+                        return Collections.unmodifiableMap(parameterMap);
+                    case "getService":
+                        return service;
+                    case "getMethod":
+                        return "POST";
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Headless request for "
+                                + uiClass.getSimpleName();
+                    default:
+                        return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        } else if (type == int.class) {
+            return Integer.valueOf(0);
+        } else if (type == long.class) {
+            return Long.valueOf(0);
+        }
+        return null;
+    }
+
+    private static <C extends Component> C find(Component component,
+            Class<C> type, Predicate<? super C> condition) {
+        if (type.isInstance(component)
+                && condition.test(type.cast(component))) {
+            return type.cast(component);
+        }
+        if (component instanceof HasComponents) {
+            for (Component child : (HasComponents) component) {
+                C match = find(child, type, condition);
+                if (match != null) {
+                    return match;
+                }
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings("restriction")
+    private static com.sun.management.ThreadMXBean getThreadBean() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                .getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+            if (threadBean.isThreadAllocatedMemorySupported()
+                    && threadBean.isThreadAllocatedMemoryEnabled()) {
+                return threadBean;
+            }
+        }
+        return null;
+    }
+}